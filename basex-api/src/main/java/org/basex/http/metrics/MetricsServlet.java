@@ -0,0 +1,39 @@
+package org.basex.http.metrics;
+
+import static javax.servlet.http.HttpServletResponse.*;
+import static org.basex.core.Text.*;
+
+import java.io.*;
+
+import org.basex.core.*;
+import org.basex.core.users.*;
+import org.basex.http.*;
+import org.basex.util.*;
+import org.basex.util.http.*;
+
+/**
+ * <p>This servlet returns the metrics of the database context in the text format of
+ * Prometheus (see {@link Metrics}). Admin permissions are required.</p>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class MetricsServlet extends BaseXServlet {
+  /** Content type of the Prometheus text format. */
+  private static final String CONTENT_TYPE = MediaType.TEXT_PLAIN + "; version=0.0.4";
+
+  @Override
+  protected void run(final HTTPConnection conn) throws IOException {
+    final String method = conn.method;
+    if(!method.equals(HttpMethod.GET.name())) throw HTTPCode.NOT_IMPLEMENTED_X.get(method);
+
+    final Context ctx = conn.context;
+    if(!ctx.user().has(Perm.ADMIN))
+      throw HTTPCode.FORBIDDEN_X.get(Util.info(PERM_REQUIRED_X, Perm.ADMIN));
+
+    conn.res.setStatus(SC_OK);
+    conn.res.setContentType(CONTENT_TYPE);
+    conn.res.getOutputStream().write(Token.token(ctx.metrics.prometheus(ctx)));
+    conn.log(SC_OK, "");
+  }
+}
@@ -4,7 +4,9 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.api.client.*;
 import org.basex.core.*;
@@ -31,6 +33,12 @@ public final class BaseXServer extends CLI implements Runnable {
   private volatile boolean stop;
   /** Server socket. */
   private ServerSocket socket;
+  /** Selector for client connections (non-blocking mode, can be {@code null}). */
+  private ClientSelector selector;
+  /** Replica of a primary server (can be {@code null}). */
+  private Replica replica;
+  /** Threads for processing asynchronous requests of all sessions (created on demand). */
+  private ExecutorService executor;
   /** Start as service. */
   private boolean service;
   /** Daemon flag. */
@@ -98,7 +106,13 @@ public final class BaseXServer extends CLI implements Runnable {
     }
 
     try {
-      socket = new ServerSocket();
+      if(sopts.get(StaticOptions.MULTIPLEX)) {
+        // non-blocking mode: sockets are bound to channels
+        socket = ServerSocketChannel.open().socket();
+        selector = new ClientSelector(sopts.get(StaticOptions.PARALLEL));
+      } else {
+        socket = new ServerSocket();
+      }
       socket.setReuseAddress(true);
       socket.bind(new InetSocketAddress(addr, port));
       stopFile = stopFile(getClass(), port);
@@ -114,7 +128,12 @@ public final class BaseXServer extends CLI implements Runnable {
       throw new BaseXException(ex.getLocalizedMessage());
     }
 
+    if(selector != null) selector.start();
     new Thread(this).start();
+    if(!sopts.get(StaticOptions.REPLICATE).isEmpty()) {
+      replica = new Replica(context);
+      replica.start();
+    }
 
     // show info that server has been started
     final String startX = Util.info(SRV_STARTED_PORT_X, port);
@@ -159,7 +178,8 @@ public final class BaseXServer extends CLI implements Runnable {
             }, ka);
             authorizing.add(cl);
           }
-          cl.start();
+          if(selector != null) selector.add(cl);
+          else cl.start();
         }
       } catch(final SocketException ex) {
         Util.debug(ex);
@@ -194,6 +214,9 @@ public final class BaseXServer extends CLI implements Runnable {
       cl.close();
     }
     context.sessions.close();
+    if(selector != null) selector.close();
+    if(replica != null) replica.close();
+    if(executor != null) executor.shutdownNow();
 
     try {
       // close interactive input if server was stopped by another process
@@ -336,6 +359,23 @@ public final class BaseXServer extends CLI implements Runnable {
     do Performance.sleep(10); while(stopFile.exists());
   }
 
+  /**
+   * Returns the threads for processing asynchronous requests. The number of threads is limited
+   * by {@link StaticOptions#PARALLEL}, and the threads are shared by all sessions.
+   * @return executor
+   */
+  public synchronized ExecutorService executor() {
+    if(executor == null) {
+      executor = Executors.newFixedThreadPool(
+          Math.max(1, context.soptions.get(StaticOptions.PARALLEL)), r -> {
+        final Thread thread = new Thread(r);
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return executor;
+  }
+
   /**
    * Removes a client listener that is waiting for authentication.
    * @param client client to be removed
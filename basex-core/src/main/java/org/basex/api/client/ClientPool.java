@@ -0,0 +1,305 @@
+package org.basex.api.client;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.util.*;
+
+/**
+ * This class provides a pool of client sessions that connect to the same server with the same
+ * login data. Sessions are reused by subsequent borrowers, which saves the costs for establishing
+ * a connection and authenticating:
+ * <ul>
+ * <li> {@link #session()} returns an idle session or opens a new one. If the maximum number of
+ * sessions has been reached, the caller waits until a session is returned.</li>
+ * <li> A borrowed session is returned to the pool by closing it. Its state is reset on the server
+ * (see {@link ClientSession#reset()}), and sessions that cannot be reset are discarded.</li>
+ * <li> Sessions that have been idle for a while are checked before they are handed out.</li>
+ * </ul>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientPool implements Closeable {
+  /** Idle time after which sessions are checked before being reused (ms). */
+  private static final long CHECK = 10000;
+
+  /** Server name. */
+  private final String host;
+  /** Server port. */
+  private final int port;
+  /** User name. */
+  private final String username;
+  /** Password. */
+  private final String password;
+  /** Maximum number of idle sessions. */
+  private final int idling;
+  /** Maximum number of sessions. */
+  private final int size;
+  /** Maximum time to wait for a session (ms). */
+  private final long timeout;
+
+  /** Idle sessions (most recently used sessions are returned first). */
+  private final ArrayDeque<PooledSession> idle = new ArrayDeque<>();
+  /** Number of open sessions, including borrowed sessions and sessions that are being opened. */
+  private int open;
+  /** Indicates if the pool has been closed. */
+  private boolean closed;
+
+  /** Number of requested sessions. */
+  private long requests;
+  /** Number of created sessions. */
+  private long created;
+  /** Number of discarded sessions that failed a check. */
+  private long invalid;
+  /** Number of requests that had to wait for a session. */
+  private long waiting;
+  /** Number of requests that failed because no session was available in time. */
+  private long exhausted;
+  /** Total time spent waiting for sessions (ns). */
+  private long waitTime;
+  /** Maximum time spent waiting for a session (ns). */
+  private long maxWait;
+
+  /**
+   * Constructor, specifying the server host:port combination, login data and the maximum
+   * number of sessions. Up to the maximum number of sessions will be kept open.
+   * @param host server name
+   * @param port server port
+   * @param username user name
+   * @param password password (plain text)
+   * @param size maximum number of sessions
+   * @throws IOException I/O exception
+   */
+  public ClientPool(final String host, final int port, final String username,
+      final String password, final int size) throws IOException {
+    this(host, port, username, password, 0, size, size, 30000);
+  }
+
+  /**
+   * Constructor, specifying the server host:port combination, login data and pool limits.
+   * @param host server name
+   * @param port server port
+   * @param username user name
+   * @param password password (plain text)
+   * @param min number of sessions that will be opened in advance
+   * @param max maximum number of idle sessions (idle sessions beyond this limit will be closed)
+   * @param size maximum number of sessions
+   * @param timeout maximum time to wait for a session (ms)
+   * @throws IOException I/O exception
+   */
+  public ClientPool(final String host, final int port, final String username,
+      final String password, final int min, final int max, final int size, final long timeout)
+      throws IOException {
+
+    this.host = host;
+    this.port = port;
+    this.username = username;
+    this.password = password;
+    this.size = Math.max(1, size);
+    idling = Math.min(Math.max(min, max), this.size);
+    this.timeout = timeout;
+
+    final int mn = Math.min(min, this.size);
+    try {
+      while(open < mn) {
+        idle.add(new PooledSession());
+        open++;
+        created++;
+      }
+    } catch(final IOException ex) {
+      close();
+      throw ex;
+    }
+  }
+
+  /**
+   * Returns a session. The session will be returned to the pool when it is closed.
+   * @return session
+   * @throws IOException I/O exception, or no session was available within the timeout
+   */
+  public ClientSession session() throws IOException {
+    final long start = System.nanoTime();
+    boolean waited = false;
+    while(true) {
+      PooledSession ps;
+      synchronized(this) {
+        if(closed) throw new BaseXException("Session pool has been closed.");
+        ps = idle.pollFirst();
+        if(ps == null) {
+          if(open < size) {
+            open++;
+          } else {
+            final long ms = timeout - (System.nanoTime() - start) / 1000000;
+            if(ms <= 0) {
+              exhausted++;
+              throw new BaseXException("No session available after % ms.", timeout);
+            }
+            waited = true;
+            try {
+              wait(ms);
+            } catch(final InterruptedException ex) {
+              throw new InterruptedIOException(ex.getMessage());
+            }
+            continue;
+          }
+        }
+      }
+
+      if(ps == null) {
+        // open new session
+        try {
+          ps = new PooledSession();
+        } catch(final IOException ex) {
+          discard(null);
+          throw ex;
+        }
+        synchronized(this) {
+          created++;
+        }
+      } else if(System.currentTimeMillis() - ps.used >= CHECK && !check(ps)) {
+        continue;
+      }
+
+      final long time = System.nanoTime() - start;
+      synchronized(this) {
+        requests++;
+        if(waited) {
+          waiting++;
+          waitTime += time;
+          maxWait = Math.max(maxWait, time);
+        }
+        ps.borrowed = true;
+      }
+      return ps;
+    }
+  }
+
+  /**
+   * Returns information on the pool and its usage.
+   * @return info string
+   */
+  public synchronized String info() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("Open sessions: ").append(open).append(Prop.NL);
+    sb.append("Idle sessions: ").append(idle.size()).append(Prop.NL);
+    sb.append("Requests: ").append(requests).append(Prop.NL);
+    sb.append("Created sessions: ").append(created).append(Prop.NL);
+    sb.append("Invalid sessions: ").append(invalid).append(Prop.NL);
+    sb.append("Waiting requests: ").append(waiting).append(Prop.NL);
+    sb.append("Exhausted requests: ").append(exhausted).append(Prop.NL);
+    sb.append("Wait time: ").append(waiting == 0 ? "-" :
+      Performance.getTime(waitTime, (int) waiting)).append(Prop.NL);
+    sb.append("Maximum wait time: ").append(Performance.getTime(maxWait, 1));
+    return sb.toString();
+  }
+
+  @Override
+  public void close() {
+    final ArrayList<PooledSession> sessions;
+    synchronized(this) {
+      closed = true;
+      sessions = new ArrayList<>(idle);
+      idle.clear();
+      notifyAll();
+    }
+    for(final PooledSession ps : sessions) discard(ps);
+  }
+
+  @Override
+  public String toString() {
+    return Util.className(this) + '[' + host + ':' + port + ']';
+  }
+
+  // PRIVATE METHODS ==============================================================================
+
+  /**
+   * Returns a borrowed session to the pool.
+   * @param ps session
+   */
+  private void release(final PooledSession ps) {
+    synchronized(this) {
+      if(!ps.borrowed) return;
+      ps.borrowed = false;
+    }
+    ps.setOutputStream(null);
+    if(!check(ps)) return;
+
+    synchronized(this) {
+      if(!closed && idle.size() < idling) {
+        ps.used = System.currentTimeMillis();
+        idle.addFirst(ps);
+        notify();
+        return;
+      }
+    }
+    discard(ps);
+  }
+
+  /**
+   * Checks a session by resetting its state. Discards the session if the check fails.
+   * @param ps session
+   * @return success flag
+   */
+  private boolean check(final PooledSession ps) {
+    try {
+      ps.reset();
+      return true;
+    } catch(final IOException ex) {
+      Util.debug(ex);
+      synchronized(this) {
+        invalid++;
+      }
+      discard(ps);
+      return false;
+    }
+  }
+
+  /**
+   * Closes a session and frees its slot.
+   * @param ps session (can be {@code null})
+   */
+  private void discard(final PooledSession ps) {
+    if(ps != null) {
+      try {
+        ps.disconnect();
+      } catch(final IOException ex) {
+        Util.debug(ex);
+      }
+    }
+    synchronized(this) {
+      open--;
+      notify();
+    }
+  }
+
+  /** Pooled session. */
+  private final class PooledSession extends ClientSession {
+    /** Indicates if the session is currently borrowed. */
+    private boolean borrowed;
+    /** Time when the session was returned to the pool. */
+    private long used = System.currentTimeMillis();
+
+    /**
+     * Constructor.
+     * @throws IOException I/O exception
+     */
+    private PooledSession() throws IOException {
+      super(host, port, username, password);
+    }
+
+    @Override
+    public void close() {
+      release(this);
+    }
+
+    /**
+     * Closes the connection to the server.
+     * @throws IOException I/O exception
+     */
+    private void disconnect() throws IOException {
+      super.close();
+    }
+  }
+}
@@ -27,6 +27,10 @@ public class ClientQuery extends Query {
   final ClientSession cs;
   /** Query id. */
   final String id;
+  /** Number of items to be retrieved per request (all items are retrieved if {@code 0}). */
+  private int fetch;
+  /** Number of items retrieved by the last request. */
+  private int batch;
 
   /**
    * Standard constructor.
@@ -42,6 +46,25 @@ public class ClientQuery extends Query {
     id = session.exec(ServerCmd.QUERY, query, null);
   }
 
+  /**
+   * Sets the number of items that will be retrieved per request when iterating through the
+   * results with {@link #more()} and {@link #next()}. If a positive value is assigned, the
+   * query will be lazily evaluated by a server-side cursor, and the next items will be requested
+   * as soon as all retrieved items have been consumed. By default, all items are retrieved with
+   * the first request.
+   * @param size number of items ({@code 0}: retrieve all items)
+   */
+  public void fetchSize(final int size) {
+    fetch = Math.max(0, size);
+  }
+
+  @Override
+  public boolean more() throws IOException {
+    if(super.more()) return true;
+    // cursor: request next items if all items of a complete batch have been consumed
+    return fetch > 0 && batch == fetch && super.more();
+  }
+
   @Override
   public String info() throws IOException {
     return cs.exec(ServerCmd.INFO, id, null);
@@ -110,13 +133,23 @@ public class ClientQuery extends Query {
 
   @Override
   public void cache(final boolean full) throws IOException {
-    cs.sout.write((full ? ServerCmd.FULL : ServerCmd.RESULTS).code);
-    cs.send(id);
-    cs.sout.flush();
-
-    @SuppressWarnings("resource")
-    final BufferInput bi = BufferInput.get(cs.sin);
-    cache(bi, full);
-    if(!ClientSession.ok(bi)) throw new BaseXException(bi.readString());
+    synchronized(cs) {
+      cs.sync();
+      if(fetch > 0 && !full) {
+        cs.sout.write(ServerCmd.FETCH.code);
+        cs.send(id);
+        cs.send(Integer.toString(fetch));
+      } else {
+        cs.sout.write((full ? ServerCmd.FULL : ServerCmd.RESULTS).code);
+        cs.send(id);
+      }
+      cs.sout.flush();
+
+      @SuppressWarnings("resource")
+      final BufferInput bi = BufferInput.get(cs.sin);
+      cache(bi, full);
+      batch = cache.size();
+      if(!ClientSession.ok(bi)) throw new BaseXException(bi.readString());
+    }
   }
 }
@@ -2,9 +2,13 @@ package org.basex.api.client;
 
 import java.io.*;
 import java.net.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
 
 import org.basex.core.*;
 import org.basex.core.parse.Commands.Cmd;
+import org.basex.io.*;
 import org.basex.io.in.*;
 import org.basex.io.out.*;
 import org.basex.server.*;
@@ -24,6 +28,11 @@ import org.basex.util.*;
  * <li> {@link #close} closes the session by sending the {@link Cmd#EXIT}
  * command to the server.</li>
  * </ul>
+ * Commands can also be run asynchronously via {@link #executeAsync(String)}. Multiple requests
+ * can be sent without waiting for the results of previous requests, and they will be evaluated
+ * in parallel by the server.
+ * If compression is offered by the server (see {@link StaticOptions#COMPRESSION}),
+ * all responses will be sent in compressed form.
  *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
@@ -36,6 +45,17 @@ public class ClientSession extends Session {
 
   /** Socket reference. */
   private final Socket socket;
+  /** Decompressor for the server input (can be {@code null}). */
+  private final Inflater inflater;
+
+  /** Asynchronous requests waiting for a response, indexed by their ids. */
+  private final Map<String, CompletableFuture<String>> requests = new HashMap<>();
+  /** Thread receiving the responses of asynchronous requests (can be {@code null}). */
+  private Thread receiver;
+  /** Input of the receiving thread. */
+  private BufferInput received;
+  /** Id of the last asynchronous request. */
+  private int requestId;
 
   /**
    * Constructor, specifying login data.
@@ -98,10 +118,10 @@ public class ClientSession extends Session {
     } catch(final IllegalArgumentException ex) {
       throw new BaseXException(ex);
     }
-    sin = socket.getInputStream();
+    final InputStream in = socket.getInputStream();
 
     // receive server response
-    final BufferInput bi = BufferInput.get(sin);
+    final BufferInput bi = BufferInput.get(in);
     final String[] response = Strings.split(bi.readString(), ':');
     final String code, nonce;
     if(response.length > 1) {
@@ -122,6 +142,17 @@ public class ClientSession extends Session {
 
     // receive success flag
     if(!ok(bi)) throw new LoginException();
+
+    // accept compressed responses if they are offered by the server
+    if(response.length > 2 && response[2].equals(Text.S_DEFLATE)) {
+      sout.write(ServerCmd.COMPRESS.code);
+      sout.flush();
+      inflater = new Inflater();
+      sin = new InflaterInputStream(in, inflater, IO.BLOCKSIZE);
+    } else {
+      inflater = null;
+      sin = in;
+    }
   }
 
   @Override
@@ -149,13 +180,96 @@ public class ClientSession extends Session {
     return new ClientQuery(query, this, out);
   }
 
+  /**
+   * Runs a command asynchronously. The command will be evaluated in a separate context on the
+   * server, which adopts the user and the options of the session, but not its opened database.
+   * Synchronous requests will be delayed until all pending asynchronous requests have been
+   * answered.
+   * @param command command to be executed
+   * @return result, which will be completed as soon as the response has been received
+   * @throws IOException I/O exception
+   */
+  public CompletableFuture<String> executeAsync(final Command command) throws IOException {
+    return executeAsync(command.toString());
+  }
+
+  /**
+   * Runs a command asynchronously (see {@link #executeAsync(Command)}).
+   * @param command command to be executed
+   * @return result, which will be completed as soon as the response has been received
+   * @throws IOException I/O exception
+   */
+  public synchronized CompletableFuture<String> executeAsync(final String command)
+      throws IOException {
+
+    final String id = Integer.toString(++requestId);
+    final CompletableFuture<String> future = new CompletableFuture<>();
+    requests.put(id, future);
+    try {
+      sout.write(ServerCmd.ASYNC.code);
+      send(id);
+      send(command);
+      sout.flush();
+    } catch(final IOException ex) {
+      requests.remove(id);
+      throw ex;
+    }
+    if(receiver == null) {
+      receiver = new Thread(this::receive);
+      receiver.setDaemon(true);
+      receiver.start();
+    }
+    return future;
+  }
+
+  /**
+   * Resets the state of the session on the server: all queries and the opened database are
+   * closed, and the options are reset to their defaults.
+   * @throws IOException I/O exception
+   */
+  public synchronized void reset() throws IOException {
+    sync();
+    sout.write(ServerCmd.RESET.code);
+    sout.flush();
+    receive(null);
+  }
+
+  /**
+   * Returns the changes of the replication log of the server (see {@link Replication}).
+   * Requires admin permissions.
+   * @param position position of the last request (empty string for initial request)
+   * @return new position and changes
+   * @throws IOException I/O exception
+   */
+  public String replicate(final String position) throws IOException {
+    return exec(ServerCmd.REPLICATE, position, null);
+  }
+
+  /**
+   * Writes a zipped snapshot of a database to the specified output stream. Nothing is written
+   * if the database does not exist. Requires admin permissions.
+   * @param db name of database
+   * @param output output stream
+   * @throws IOException I/O exception
+   */
+  public void snapshot(final String db, final OutputStream output) throws IOException {
+    exec(ServerCmd.SNAPSHOT, db, output);
+  }
+
   @Override
   public synchronized void close() throws IOException {
     socket.close();
+    if(inflater != null) {
+      // release the decompressor after the receiving thread has terminated
+      sync();
+      inflater.end();
+    }
   }
 
   @Override
-  protected void execute(final String command, final OutputStream output) throws IOException {
+  protected synchronized void execute(final String command, final OutputStream output)
+      throws IOException {
+    sync();
     send(command);
     sout.flush();
     receive(output);
@@ -209,9 +323,10 @@ public class ClientSession extends Session {
    * @param args string arguments
    * @throws IOException I/O exception
    */
-  private void send(final ServerCmd command, final InputStream input, final String... args)
-      throws IOException {
+  private synchronized void send(final ServerCmd command, final InputStream input,
+      final String... args) throws IOException {
 
+    sync();
     sout.write(command.code);
     for(final String arg : args) send(arg);
     send(input);
@@ -247,9 +362,10 @@ public class ClientSession extends Session {
    * @throws IOException I/O exception
    */
   @SuppressWarnings("resource")
-  String exec(final ServerCmd command, final String arg, final OutputStream output)
+  synchronized String exec(final ServerCmd command, final String arg, final OutputStream output)
       throws IOException {
 
+    sync();
     final OutputStream o = output == null ? new ArrayOutput() : output;
     sout.write(command.code);
     send(arg);
@@ -260,6 +376,87 @@ public class ClientSession extends Session {
     return o.toString();
   }
 
+  /**
+   * Waits until the responses of all asynchronous requests have been received.
+   * Must be called before a synchronous request is sent.
+   * @throws IOException I/O exception
+   */
+  synchronized void sync() throws IOException {
+    if(Thread.currentThread() == receiver) {
+      // called by a dependent action of a completed request: receive pending responses first
+      try {
+        while(!requests.isEmpty()) response(received);
+      } catch(final IOException ex) {
+        fail(ex);
+        throw ex;
+      }
+      return;
+    }
+    while(receiver != null) {
+      try {
+        wait();
+      } catch(final InterruptedException ex) {
+        throw new InterruptedIOException(ex.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Receives the responses of asynchronous requests until no more requests are pending.
+   */
+  private void receive() {
+    received = new BufferInput(sin);
+    while(true) {
+      try {
+        response(received);
+      } catch(final IOException ex) {
+        fail(ex);
+      }
+      synchronized(this) {
+        if(requests.isEmpty()) {
+          receiver = null;
+          notifyAll();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Receives the response of an asynchronous request and completes its result. Dependent actions
+   * are run by the receiving thread. If they send synchronous requests, the pending responses
+   * will be received before (see {@link #sync()}).
+   * @param bi buffered server input
+   * @throws IOException I/O exception
+   */
+  private void response(final BufferInput bi) throws IOException {
+    // receive {ID}0{RESULT}0{INFO}0 and success flag
+    final String id = bi.readString();
+    final ArrayOutput ao = new ArrayOutput();
+    receive(bi, ao);
+    final String inf = bi.readString();
+    final boolean ok = ok(bi);
+    final CompletableFuture<String> future;
+    synchronized(this) {
+      future = requests.remove(id);
+    }
+    if(future != null) {
+      if(ok) future.complete(ao.toString());
+      else future.completeExceptionally(new BaseXException(inf));
+    }
+  }
+
+  /**
+   * Completes the results of all pending requests with an exception.
+   * @param ex exception
+   */
+  private synchronized void fail(final IOException ex) {
+    for(final CompletableFuture<String> future : requests.values()) {
+      future.completeExceptionally(ex);
+    }
+    requests.clear();
+  }
+
   @Override
   public String toString() {
     return Prop.PROJECT_NAME + ":/" + socket.getLocalAddress() + ':' + socket.getPort();
@@ -0,0 +1,58 @@
+package org.basex.build;
+
+import java.io.*;
+
+import org.basex.util.*;
+
+/**
+ * Receiver of the node events that are sent by the {@link org.basex.build.xml.XMLParser}.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public interface BuildEvents {
+  /**
+   * Opens a new element node.
+   * @param name name of element
+   * @param att attributes
+   * @param nsp namespaces
+   * @throws IOException I/O exception
+   */
+  void openElem(byte[] name, Atts att, Atts nsp) throws IOException;
+
+  /**
+   * Stores an empty element.
+   * @param name name of element
+   * @param att attributes
+   * @param nsp namespaces
+   * @throws IOException I/O exception
+   */
+  void emptyElem(byte[] name, Atts att, Atts nsp) throws IOException;
+
+  /**
+   * Closes an element.
+   * @throws IOException I/O exception
+   */
+  void closeElem() throws IOException;
+
+  /**
+   * Stores a text node.
+   * @param value text value
+   * @throws IOException I/O exception
+   */
+  void text(byte[] value) throws IOException;
+
+  /**
+   * Stores a comment.
+   * @param value comment text
+   * @throws IOException I/O exception
+   */
+  void comment(byte[] value) throws IOException;
+
+  /**
+   * Stores a processing instruction.
+   * @param pi processing instruction name and value
+   * @throws IOException I/O exception
+   */
+  void pi(byte[] pi) throws IOException;
+}
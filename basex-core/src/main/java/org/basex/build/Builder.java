@@ -25,7 +25,7 @@ import org.basex.util.list.*;
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  */
-public abstract class Builder extends Job {
+public abstract class Builder extends Job implements BuildEvents {
   /** Tree structure. */
   final PathIndex path = new PathIndex();
   /** Namespace index. */
@@ -0,0 +1,173 @@
+package org.basex.build;
+
+import java.io.*;
+
+import org.basex.build.xml.*;
+import org.basex.data.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class evaluates a {@link StreamPath} on the events of an XML parser.
+ * Only the subtrees of matching elements are materialized: each subtree is stored in a small
+ * main memory database instance. Nested matches are stored in the instance of the outermost
+ * matching element.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class StreamBuilder implements BuildEvents {
+  /** XML parser. */
+  private final XMLParser xml;
+  /** Streamable path. */
+  private final StreamPath steps;
+  /** States of the opened elements. */
+  private final LongList states = new LongList();
+  /** Namespace declarations of the opened elements (prefixes and URIs). */
+  private final Atts nsps = new Atts();
+  /** Number of namespace declarations of the opened elements. */
+  private final IntList nspSizes = new IntList();
+
+  /** Builder for the subtree of a matching element (can be {@code null}). */
+  private MemBuilder fragment;
+  /** Level of the root of the current subtree. */
+  private int level;
+  /** Pre values of the matching nodes in the current subtree. */
+  private final IntList pres = new IntList();
+
+  /** Database instance with the matching nodes (can be {@code null}). */
+  private Data data;
+  /** Pre values of the matching nodes in the current database instance. */
+  private final IntList results = new IntList();
+  /** Current result position. */
+  private int pos;
+  /** Indicates if the input has been completely parsed. */
+  private boolean done;
+
+  /**
+   * Constructor.
+   * @param xml XML parser
+   * @param steps streamable path
+   */
+  public StreamBuilder(final XMLParser xml, final StreamPath steps) {
+    this.xml = xml;
+    this.steps = steps;
+    xml.events(this);
+    states.push(StreamPath.ROOT);
+  }
+
+  /**
+   * Returns the pre value of the next matching node. The node is stored in the
+   * database instance returned by {@link #data()}.
+   * @return pre value, or {@code -1} if no more nodes are found
+   * @throws IOException I/O exception
+   */
+  public int next() throws IOException {
+    while(pos == results.size()) {
+      if(done) return -1;
+      results.reset();
+      pos = 0;
+      done = !xml.step();
+    }
+    return results.get(pos++);
+  }
+
+  /**
+   * Returns the database instance with the last matching node.
+   * @return data reference
+   */
+  public Data data() {
+    return data;
+  }
+
+  @Override
+  public void openElem(final byte[] name, final Atts att, final Atts nsp) throws IOException {
+    open(name, att, nsp, false);
+  }
+
+  @Override
+  public void emptyElem(final byte[] name, final Atts att, final Atts nsp) throws IOException {
+    open(name, att, nsp, true);
+  }
+
+  @Override
+  public void closeElem() throws IOException {
+    states.pop();
+    nsps.size(nspSizes.pop());
+    if(fragment != null) {
+      fragment.closeElem();
+      if(states.size() == level) finish();
+    }
+  }
+
+  @Override
+  public void text(final byte[] value) throws IOException {
+    if(fragment != null) fragment.text(value);
+  }
+
+  @Override
+  public void comment(final byte[] value) throws IOException {
+    if(fragment != null) fragment.comment(value);
+  }
+
+  @Override
+  public void pi(final byte[] pi) throws IOException {
+    if(fragment != null) fragment.pi(pi);
+  }
+
+  // PRIVATE METHODS ==============================================================================
+
+  /**
+   * Opens an element.
+   * @param name name of element
+   * @param att attributes
+   * @param nsp namespaces
+   * @param empty empty element
+   * @throws IOException I/O exception
+   */
+  private void open(final byte[] name, final Atts att, final Atts nsp, final boolean empty)
+      throws IOException {
+
+    final long state = steps.state(states.peek(), name, att);
+    final boolean matches = steps.matches(state);
+    if(fragment != null) {
+      // add node to current subtree
+      if(matches) pres.add(fragment.meta.size);
+      if(empty) fragment.emptyElem(name, att, nsp);
+      else fragment.openElem(name, att, nsp);
+    } else if(matches) {
+      // create new subtree; assign all namespaces that are in scope
+      final Atts scope = nsp.copy();
+      for(int n = nsps.size() - 1; n >= 0; n--) {
+        if(!scope.contains(nsps.name(n))) scope.add(nsps.name(n), nsps.value(n));
+      }
+      fragment = new MemBuilder(xml.source.dbName(), xml);
+      fragment.init();
+      level = states.size();
+      pres.add(0);
+      if(empty) fragment.emptyElem(name, att, scope);
+      else fragment.openElem(name, att, scope);
+    }
+
+    if(empty) {
+      if(fragment != null && states.size() == level) finish();
+    } else {
+      states.push(state);
+      nspSizes.push(nsps.size());
+      final int ns = nsp.size();
+      for(int n = 0; n < ns; n++) nsps.add(nsp.name(n), nsp.value(n));
+    }
+  }
+
+  /**
+   * Finishes the current subtree.
+   */
+  private void finish() {
+    final MemBuilder mb = fragment;
+    mb.meta.lastid = mb.meta.size - 1;
+    data = mb.data();
+    results.add(pres.toArray());
+    pres.reset();
+    fragment = null;
+  }
+}
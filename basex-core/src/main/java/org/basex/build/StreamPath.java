@@ -0,0 +1,206 @@
+package org.basex.build;
+
+import static org.basex.util.Token.*;
+
+import java.util.*;
+
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * Streamable path, which is matched against the elements of a parsed document.
+ * The supported syntax is a subset of XPath:
+ *
+ * <ul>
+ *   <li> Steps are separated by {@code /} (child axis) or {@code //} (descendant axis).</li>
+ *   <li> Name tests are {@code *} or element names. Names with prefix are compared with the
+ *        lexical names of elements, names without prefix are compared with their local names.
+ *        Attribute names are compared with the lexical names of attributes.</li>
+ *   <li> Predicates test the existence or value of attributes:
+ *        {@code [@id]}, {@code [@id = 'x']}, {@code [@id != 'x']}.</li>
+ * </ul>
+ *
+ * The matching state of an element is represented by a bit mask: bit {@code n} is set if the
+ * first {@code n} steps have been matched.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class StreamPath {
+  /** Maximum number of steps. */
+  private static final int MAX = Long.SIZE - 2;
+  /** Initial state (document node). */
+  public static final long ROOT = 1;
+
+  /** Steps. */
+  private final Step[] steps;
+
+  /**
+   * Constructor.
+   * @param steps steps
+   */
+  private StreamPath(final Step[] steps) {
+    this.steps = steps;
+  }
+
+  /**
+   * Parses the specified path.
+   * @param path path
+   * @return streamable path, or {@code null} if the path cannot be streamed
+   */
+  public static StreamPath get(final String path) {
+    final ArrayList<Step> list = new ArrayList<>();
+    final InputParser ip = new InputParser(path.trim());
+    while(ip.more()) {
+      if(!ip.consume('/')) return null;
+      final Step step = new Step(ip.consume('/'));
+
+      // name test
+      if(!ip.consume('*')) {
+        step.name = name(ip);
+        if(step.name == null) return null;
+      }
+      // predicates
+      while(ip.consume('[')) {
+        ws(ip);
+        if(!ip.consume('@')) return null;
+        final byte[] name = name(ip);
+        if(name == null) return null;
+        ws(ip);
+        byte op = 0;
+        byte[] value = null;
+        if(ip.consume('=')) op = 1;
+        else if(ip.consume("!=")) op = 2;
+        if(op != 0) {
+          ws(ip);
+          final int quote = ip.curr();
+          if(quote != '"' && quote != '\'') return null;
+          ip.consume();
+          final TokenBuilder tb = new TokenBuilder();
+          while(ip.more() && ip.curr() != quote) tb.add(ip.consume());
+          if(!ip.consume(quote)) return null;
+          value = tb.finish();
+          ws(ip);
+        }
+        if(!ip.consume(']')) return null;
+        step.add(name, op, value);
+      }
+      list.add(step);
+    }
+    final int sl = list.size();
+    return sl == 0 || sl > MAX ? null : new StreamPath(list.toArray(new Step[sl]));
+  }
+
+  /**
+   * Computes the state of an element.
+   * @param state state of the parent node
+   * @param name element name
+   * @param atts attributes
+   * @return state
+   */
+  public long state(final long state, final byte[] name, final Atts atts) {
+    long st = 0;
+    final int sl = steps.length;
+    for(int s = 0; s < sl; s++) {
+      if((state & 1L << s) == 0) continue;
+      final Step step = steps[s];
+      // descendant step: state is propagated to descendants
+      if(step.desc) st |= 1L << s;
+      if(step.matches(name, atts)) st |= 1L << s + 1;
+    }
+    return st;
+  }
+
+  /**
+   * Checks if the specified state indicates that all steps have been matched.
+   * @param state state
+   * @return result of check
+   */
+  public boolean matches(final long state) {
+    return (state & 1L << steps.length) != 0;
+  }
+
+  /**
+   * Parses a name.
+   * @param ip input parser
+   * @return name, or {@code null} if no valid name was found
+   */
+  private static byte[] name(final InputParser ip) {
+    final TokenBuilder tb = new TokenBuilder();
+    while(ip.more() && XMLToken.isChar(ip.curr())) tb.add(ip.consume());
+    final byte[] name = tb.finish();
+    return XMLToken.isQName(name) ? name : null;
+  }
+
+  /**
+   * Skips whitespaces.
+   * @param ip input parser
+   */
+  private static void ws(final InputParser ip) {
+    while(ip.more() && Character.isWhitespace(ip.curr())) ip.consume();
+  }
+
+  /**
+   * Compares a name test with an element name.
+   * @param test name test
+   * @param name name
+   * @return result of check
+   */
+  private static boolean eqName(final byte[] test, final byte[] name) {
+    return contains(test, ':') ? eq(test, name) : eq(test, local(name));
+  }
+
+  /** Single step. */
+  private static final class Step {
+    /** Descendant axis. */
+    private final boolean desc;
+    /** Name test ({@code null}: wildcard). */
+    private byte[] name;
+    /** Attribute names. */
+    private final TokenList names = new TokenList(0);
+    /** Attribute values. */
+    private final TokenList values = new TokenList(0);
+    /** Operators (0: existence, 1: equal, 2: not equal). */
+    private final ByteList ops = new ByteList(0);
+
+    /**
+     * Constructor.
+     * @param desc descendant axis
+     */
+    private Step(final boolean desc) {
+      this.desc = desc;
+    }
+
+    /**
+     * Adds an attribute predicate.
+     * @param nm attribute name
+     * @param op operator
+     * @param value value (can be {@code null})
+     */
+    private void add(final byte[] nm, final byte op, final byte[] value) {
+      names.add(nm);
+      ops.add(op);
+      values.add(value != null ? value : EMPTY);
+    }
+
+    /**
+     * Checks if the step matches the specified element.
+     * @param nm element name
+     * @param atts attributes
+     * @return result of check
+     */
+    private boolean matches(final byte[] nm, final Atts atts) {
+      if(name != null && !eqName(name, nm)) return false;
+      final int ns = names.size(), as = atts.size();
+      for(int n = 0; n < ns; n++) {
+        final byte[] test = names.get(n);
+        int a = 0;
+        while(a < as && !eq(test, atts.name(a))) a++;
+        final byte op = ops.get(n);
+        final boolean found = a < as;
+        if(!found || op != 0 && eq(atts.value(a), values.get(n)) != (op == 1)) return false;
+      }
+      return true;
+    }
+  }
+}
@@ -35,6 +35,10 @@ public class XMLParser extends SingleParser {
   private final boolean fragment;
   /** Closed root element. */
   private boolean closed;
+  /** Indicates if parsing was started. */
+  private boolean started;
+  /** Receiver of the parsed nodes (assigned when parsing is started). */
+  private BuildEvents events;
 
   /**
    * Constructor.
@@ -65,30 +69,57 @@ public class XMLParser extends SingleParser {
   @Override
   public final void parse() throws IOException {
     // loop until all tokens have been processed
-    scanner.more();
-    while(true) {
-      if(scanner.type == Type.TEXT) {
-        final byte[] text = scanner.token.toArray();
-        if(!elms.isEmpty() || fragment || !ws(text)) {
-          if(chops.peek()) scanner.token.trim();
-          builder.text(scanner.token.toArray());
-        }
-      } else if(scanner.type == Type.COMMENT) {
-        builder.comment(scanner.token.toArray());
-      } else if(scanner.type == Type.PI) {
-        builder.pi(scanner.token.toArray());
-      } else if(scanner.type == Type.EOF) {
-        break;
-      } else if(scanner.type != Type.DTD) {
-        // L_BR, L_BR_CLOSE
-        if(!fragment && closed) throw new BuildException(MOREROOTS, detailedInfo());
-        if(!parseElement()) break;
-        continue;
+    while(step());
+  }
+
+  /**
+   * Assigns a receiver for the parsed nodes, which replaces the builder.
+   * @param handler receiver of events
+   */
+  public final void events(final BuildEvents handler) {
+    events = handler;
+  }
+
+  /**
+   * Parses the next tokens and sends the resulting events to the builder.
+   * Can be called repeatedly to parse the input in an incremental manner.
+   * @return {@code false} if all tokens have been processed
+   * @throws IOException I/O exception
+   */
+  public final boolean step() throws IOException {
+    if(!started) {
+      started = true;
+      if(events == null) events = builder;
+      scanner.more();
+    }
+    final boolean more;
+    if(scanner.type == Type.TEXT) {
+      final byte[] text = scanner.token.toArray();
+      if(!elms.isEmpty() || fragment || !ws(text)) {
+        if(chops.peek()) scanner.token.trim();
+        events.text(scanner.token.toArray());
       }
-      if(!scanner.more()) break;
+      more = scanner.more();
+    } else if(scanner.type == Type.COMMENT) {
+      events.comment(scanner.token.toArray());
+      more = scanner.more();
+    } else if(scanner.type == Type.PI) {
+      events.pi(scanner.token.toArray());
+      more = scanner.more();
+    } else if(scanner.type == Type.EOF) {
+      more = false;
+    } else if(scanner.type != Type.DTD) {
+      // L_BR, L_BR_CLOSE
+      if(!fragment && closed) throw new BuildException(MOREROOTS, detailedInfo());
+      more = parseElement();
+    } else {
+      more = scanner.more();
     }
-    scanner.close();
-    if(!elms.isEmpty()) throw new BuildException(DOCOPEN, detailedInfo(), elms.pop());
+    if(!more) {
+      scanner.close();
+      if(!elms.isEmpty()) throw new BuildException(DOCOPEN, detailedInfo(), elms.pop());
+    }
+    return more;
   }
 
   @Override
@@ -116,7 +147,7 @@ public class XMLParser extends SingleParser {
       if(!eq(open, name)) throw new BuildException(CLOSINGELEM, detailedInfo(), name, open);
       chops.pop();
 
-      builder.closeElem();
+      events.closeElem();
       if(elms.isEmpty()) closed = true;
       return consume(Type.R_BR);
     }
@@ -162,13 +193,13 @@ public class XMLParser extends SingleParser {
 
     // send empty element to builder
     if(scanner.type == Type.CLOSE_R_BR) {
-      builder.emptyElem(en, atts, nsp);
+      events.emptyElem(en, atts, nsp);
       if(elms.isEmpty()) closed = true;
       return scanner.more();
     }
 
     // send start element
-    builder.openElem(en, atts, nsp);
+    events.openElem(en, atts, nsp);
     elms.push(en);
     boolean c = chops.peek();
     if(chop) {
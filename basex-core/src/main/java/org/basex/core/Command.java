@@ -249,6 +249,8 @@ public abstract class Command extends Job {
     // check permissions
     if(!ctx.perm(perm, data != null && !data.inMemory() ? data.meta.name : null))
       return error(PERM_REQUIRED_X, perm);
+    // replicas: reject updates that are not triggered by the replication process
+    if(!ctx.updatable() && updating(ctx)) return error(REPLICA_UPDATES);
 
     init(ctx, os);
     try {
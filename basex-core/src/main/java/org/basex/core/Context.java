@@ -5,6 +5,7 @@ import org.basex.core.locks.*;
 import org.basex.core.users.*;
 import org.basex.data.*;
 import org.basex.io.random.*;
+import org.basex.query.*;
 import org.basex.query.util.pkg.*;
 import org.basex.query.value.seq.*;
 import org.basex.server.*;
@@ -43,6 +44,12 @@ public final class Context {
   public final Log log;
   /** Locking. */
   public final Locking locking;
+  /** Compiled queries. */
+  public final QueryCache queries;
+  /** Replication log. */
+  public final Replication replication;
+  /** Metrics. */
+  public final Metrics metrics;
 
   /** Client info. Set to {@code null} in standalone/server mode. */
   private final ClientInfo client;
@@ -107,6 +114,9 @@ public final class Context {
     repo = ctx.repo;
     log = ctx.log;
     jobs = ctx.jobs;
+    queries = ctx.queries;
+    replication = ctx.replication;
+    metrics = ctx.metrics;
   }
 
   /**
@@ -126,6 +136,9 @@ public final class Context {
     log = new Log(soptions);
     user = users.get(UserText.ADMIN);
     jobs = new JobPool(soptions);
+    queries = new QueryCache();
+    replication = new Replication();
+    metrics = new Metrics();
     client = null;
   }
 
@@ -155,6 +168,7 @@ public final class Context {
     closed = true;
     jobs.close();
     sessions.close();
+    queries.close();
     datas.close();
     log.close();
     closeDB();
@@ -235,10 +249,12 @@ public final class Context {
 
   /**
    * Checks if the specified database is pinned.
+   * Cached queries that have opened the database are closed before.
    * @param db name of database
    * @return result of check
    */
   public boolean pinned(final String db) {
+    queries.close(db);
     return datas.pinned(db) || TableDiskAccess.locked(db, this);
   }
 
@@ -252,6 +268,15 @@ public final class Context {
     return user.has(perm, db);
   }
 
+  /**
+   * Checks if databases can be updated. Replicas only accept updates that are triggered by the
+   * replication process.
+   * @return result of check
+   */
+  public boolean updatable() {
+    return client instanceof Replica || soptions.get(StaticOptions.REPLICATE).isEmpty();
+  }
+
   /**
    * Returns the host and port of a client.
    * @return address (or {@code null})
@@ -76,6 +76,14 @@ public final class Datas {
     return entry == null ? 0 : entry.getValue();
   }
 
+  /**
+   * Returns all pinned data references.
+   * @return data references
+   */
+  public synchronized ArrayList<Data> datas() {
+    return new ArrayList<>(list.keySet());
+  }
+
   /**
    * Closes all data references.
    */
@@ -145,6 +145,8 @@ public final class MainOptions extends Options {
   public static final BooleanOption ENFORCEINDEX = new BooleanOption("ENFORCEINDEX", false);
   /** Deep node copies. */
   public static final BooleanOption COPYNODE = new BooleanOption("COPYNODE", true);
+  /** Reuse compiled queries for subsequent evaluations. */
+  public static final BooleanOption PREPARED = new BooleanOption("PREPARED", false);
 
   // Serialize
 
@@ -163,6 +165,8 @@ public final class MainOptions extends Options {
   public static final BooleanOption FULLPLAN = new BooleanOption("FULLPLAN", false);
   /** Creates the query plan before or after compilation. */
   public static final BooleanOption COMPPLAN = new BooleanOption("COMPPLAN", true);
+  /** Attaches runtime statistics to the query plan. */
+  public static final BooleanOption ANALYZE = new BooleanOption("ANALYZE", false);
 
   /** Flushes the database after each update. */
   public static final BooleanOption AUTOFLUSH = new BooleanOption("AUTOFLUSH", true);
@@ -0,0 +1,272 @@
+package org.basex.core;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.io.random.*;
+import org.basex.query.*;
+
+/**
+ * Registry for engine metrics. Counters and histograms are updated while jobs are executed.
+ * Gauges and database statistics are computed when the metrics are requested:
+ * <ul>
+ * <li> Execution times of jobs (grouped by job type) and lock wait times are recorded
+ *      in histograms.</li>
+ * <li> The numbers of registered and queued jobs, client sessions and opened databases are
+ *      returned as gauges.</li>
+ * <li> Read and written bytes and buffer hits of opened databases are returned as counters.
+ *      Counters of a database are reset when it is closed.</li>
+ * <li> Hits of the index caches are counted for all databases.</li>
+ * <li> Hits and misses of the query cache are counted, and its size is returned as gauge.</li>
+ * <li> Log entries are counted that have been dropped because the log buffer was full.</li>
+ * </ul>
+ * Metrics can be serialized in the text format of Prometheus.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class Metrics {
+  /** Upper bounds of the histogram buckets (seconds). */
+  private static final double[] BOUNDS = { 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10 };
+  /** Counter type. */
+  private static final String COUNTER = "counter";
+  /** Gauge type. */
+  private static final String GAUGE = "gauge";
+  /** Histogram type. */
+  private static final String HISTOGRAM = "histogram";
+
+  /** Execution times of jobs, indexed by job types. */
+  private final ConcurrentHashMap<String, Histogram> jobs = new ConcurrentHashMap<>();
+  /** Lock wait times. */
+  private final Histogram locks = new Histogram();
+
+  /**
+   * Records the execution time of a job.
+   * @param type job type
+   * @param ns execution time (nanoseconds)
+   */
+  public void job(final String type, final long ns) {
+    jobs.computeIfAbsent(type, k -> new Histogram()).add(ns);
+  }
+
+  /**
+   * Records the time that a job has been waiting for its locks.
+   * @param ns wait time (nanoseconds)
+   */
+  public void lock(final long ns) {
+    locks.add(ns);
+  }
+
+  /**
+   * Returns the current metrics.
+   * @param ctx database context
+   * @return metrics
+   */
+  public ArrayList<Metric> metrics(final Context ctx) {
+    final ArrayList<Metric> list = new ArrayList<>();
+    final Metric job = new Metric("basex_job_duration_seconds", HISTOGRAM,
+        "Execution time of jobs.");
+    for(final Map.Entry<String, Histogram> entry : new TreeMap<>(jobs).entrySet()) {
+      entry.getValue().add(job, "type", entry.getKey());
+    }
+    list.add(job);
+    final Metric lock = new Metric("basex_lock_wait_seconds", HISTOGRAM,
+        "Time spent waiting for locks.");
+    locks.add(lock);
+    list.add(lock);
+
+    list.add(new Metric("basex_jobs", GAUGE, "Number of registered jobs.").
+        add("", ctx.jobs.active.size()));
+    list.add(new Metric("basex_jobs_queued", GAUGE, "Number of jobs waiting to be started.").
+        add("", ctx.locking.queued()));
+    list.add(new Metric("basex_sessions", GAUGE, "Number of client sessions.").
+        add("", ctx.sessions.size()));
+
+    final ArrayList<Data> datas = ctx.datas.datas();
+    list.add(new Metric("basex_databases_open", GAUGE, "Number of opened databases.").
+        add("", datas.size()));
+    final Metric read = new Metric("basex_database_read_bytes_total", COUNTER,
+        "Bytes read from the files of opened databases.");
+    final Metric written = new Metric("basex_database_written_bytes_total", COUNTER,
+        "Bytes written to the files of opened databases.");
+    final Metric hits = new Metric("basex_database_buffer_hits_total", COUNTER,
+        "Block requests of opened databases served by buffers.");
+    final Metric misses = new Metric("basex_database_buffer_misses_total", COUNTER,
+        "Block requests of opened databases that required a new buffer.");
+    final TreeMap<String, AccessStats> stats = new TreeMap<>();
+    for(final Data data : datas) {
+      if(data instanceof DiskData) {
+        stats.computeIfAbsent(data.meta.name, k -> new AccessStats()).
+          add(((DiskData) data).stats());
+      }
+    }
+    stats.forEach((name, st) -> {
+      read.add("", st.read, "database", name);
+      written.add("", st.written, "database", name);
+      hits.add("", st.hits, "database", name);
+      misses.add("", st.misses, "database", name);
+    });
+    Collections.addAll(list, read, written, hits, misses);
+
+    list.add(new Metric("basex_index_cache_hits_total", COUNTER,
+        "Index lookups served by index caches.").add("", IndexCache.hits()));
+    list.add(new Metric("basex_index_cache_misses_total", COUNTER,
+        "Index lookups not served by index caches.").add("", IndexCache.misses()));
+    final QueryCache queries = ctx.queries;
+    list.add(new Metric("basex_query_cache_size", GAUGE, "Number of cached queries.").
+        add("", queries.size()));
+    list.add(new Metric("basex_query_cache_hits_total", COUNTER,
+        "Query evaluations served by cached queries.").add("", queries.hits()));
+    list.add(new Metric("basex_query_cache_misses_total", COUNTER,
+        "Query evaluations not served by cached queries.").add("", queries.misses()));
+    list.add(new Metric("basex_log_dropped_total", COUNTER,
+        "Log entries dropped because the log buffer was full.").add("", ctx.log.dropped()));
+    return list;
+  }
+
+  /**
+   * Returns the current metrics in the text format of Prometheus.
+   * @param ctx database context
+   * @return metrics
+   */
+  public String prometheus(final Context ctx) {
+    final StringBuilder sb = new StringBuilder();
+    for(final Metric metric : metrics(ctx)) {
+      sb.append("# HELP ").append(metric.name).append(' ').append(metric.help).append('\n');
+      sb.append("# TYPE ").append(metric.name).append(' ').append(metric.type).append('\n');
+      for(final Sample sample : metric.samples) {
+        sb.append(sample.name);
+        final String[] labels = sample.labels;
+        final int ll = labels.length;
+        for(int l = 0; l < ll; l += 2) {
+          sb.append(l == 0 ? '{' : ',').append(labels[l]).append("=\"");
+          for(final char ch : labels[l + 1].toCharArray()) {
+            if(ch == '\n') sb.append("\\n");
+            else if(ch == '\\' || ch == '"') sb.append('\\').append(ch);
+            else sb.append(ch);
+          }
+          sb.append('"');
+          if(l + 2 == ll) sb.append('}');
+        }
+        sb.append(' ').append(sample.value()).append('\n');
+      }
+    }
+    return sb.toString();
+  }
+
+  /** Metric, consisting of a name, a type, a description and samples. */
+  public static final class Metric {
+    /** Name. */
+    public final String name;
+    /** Type (counter, gauge, histogram). */
+    public final String type;
+    /** Description. */
+    public final String help;
+    /** Samples. */
+    public final ArrayList<Sample> samples = new ArrayList<>();
+
+    /**
+     * Constructor.
+     * @param name name
+     * @param type type
+     * @param help description
+     */
+    Metric(final String name, final String type, final String help) {
+      this.name = name;
+      this.type = type;
+      this.help = help;
+    }
+
+    /**
+     * Adds a sample.
+     * @param suffix suffix of the sample name
+     * @param value value
+     * @param labels label names and values
+     * @return self reference
+     */
+    Metric add(final String suffix, final double value, final String... labels) {
+      samples.add(new Sample(name + suffix, value, labels));
+      return this;
+    }
+  }
+
+  /** Sample of a metric. */
+  public static final class Sample {
+    /** Name (name of the metric, optionally followed by a suffix). */
+    public final String name;
+    /** Label names and values. */
+    public final String[] labels;
+    /** Value. */
+    private final double value;
+
+    /**
+     * Constructor.
+     * @param name name
+     * @param value value
+     * @param labels label names and values
+     */
+    Sample(final String name, final double value, final String... labels) {
+      this.name = name;
+      this.value = value;
+      this.labels = labels;
+    }
+
+    /**
+     * Returns a string representation of the value.
+     * @return value
+     */
+    public String value() {
+      return value == (long) value ? Long.toString((long) value) : Double.toString(value);
+    }
+  }
+
+  /** Histogram for durations. */
+  private static final class Histogram {
+    /** Number of durations per bucket (the last bucket has no upper bound). */
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+    /** Sum of all durations (nanoseconds). */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * Constructor.
+     */
+    Histogram() {
+      final int bl = buckets.length;
+      for(int b = 0; b < bl; b++) buckets[b] = new LongAdder();
+    }
+
+    /**
+     * Adds a duration.
+     * @param ns duration (nanoseconds)
+     */
+    void add(final long ns) {
+      final double sec = ns / 1e9;
+      int b = 0;
+      while(b < BOUNDS.length && sec > BOUNDS[b]) b++;
+      buckets[b].increment();
+      sum.add(ns);
+    }
+
+    /**
+     * Adds the samples of this histogram to the specified metric.
+     * @param metric metric
+     * @param labels additional label names and values
+     */
+    void add(final Metric metric, final String... labels) {
+      final int ll = labels.length, bl = BOUNDS.length;
+      long count = 0;
+      for(int b = 0; b <= bl; b++) {
+        count += buckets[b].sum();
+        final String[] lbls = Arrays.copyOf(labels, ll + 2);
+        lbls[ll] = "le";
+        lbls[ll + 1] = b < bl ? Double.toString(BOUNDS[b]) : "+Inf";
+        metric.add("_bucket", count, lbls);
+      }
+      metric.add("_sum", sum.sum() / 1e9, labels);
+      metric.add("_count", count, labels);
+    }
+  }
+}
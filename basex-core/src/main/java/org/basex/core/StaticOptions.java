@@ -62,14 +62,44 @@ public final class StaticOptions extends Options {
 
   /** Timeout (seconds) for processing client requests; deactivated if set to 0. */
   public static final NumberOption TIMEOUT = new NumberOption("TIMEOUT", 30);
+  /**
+   * Maximum memory allocations (MB, sum of all threads) of requests; deactivated if set to 0.
+   * Memory that has been released again is included: the option limits the allocated bytes,
+   * not the size of the heap that is retained by a request.
+   */
+  public static final NumberOption MAXALLOC = new NumberOption("MAXALLOC", 0);
+  /** Maximum CPU time (seconds, sum of all threads) of requests; deactivated if set to 0. */
+  public static final NumberOption MAXCPU = new NumberOption("MAXCPU", 0);
   /** Keep alive time (seconds) for clients; deactivated if set to 0. */
   public static final NumberOption KEEPALIVE = new NumberOption("KEEPALIVE", 600);
+  /** Multiplex client connections; requests are processed by {@link #PARALLEL} threads. */
+  public static final BooleanOption MULTIPLEX = new BooleanOption("MULTIPLEX", false);
   /** Defines the number of parallel readers. */
   public static final NumberOption PARALLEL = new NumberOption("PARALLEL", 8);
+  /** Compression level (1-9) of the data sent to clients; deactivated if set to 0. */
+  public static final NumberOption COMPRESSION = new NumberOption("COMPRESSION", 0);
+  /** Maximum size (KB) of buffered query results; deactivated if set to 0. */
+  public static final NumberOption RESULTBUFFER = new NumberOption("RESULTBUFFER", 1024);
+  /** Timeout (seconds) for releasing the open cursors of client queries. */
+  public static final NumberOption CURSORTIMEOUT = new NumberOption("CURSORTIMEOUT", 60);
+  /** Primary server (host:port) whose databases will be replicated; read-only mode if set. */
+  public static final StringOption REPLICATE = new StringOption("REPLICATE", "");
+  /** Number of worker threads for parallel query evaluation; 0: number of processors. */
+  public static final NumberOption WORKERS = new NumberOption("WORKERS", 0);
   /** Logging flag. */
   public static final BooleanOption LOG = new BooleanOption("LOG", true);
   /** Log message cut-off. */
   public static final NumberOption LOGMSGMAXLEN = new NumberOption("LOGMSGMAXLEN", 1000);
+  /** Log format. */
+  public static final EnumOption<LogFormat> LOGFORMAT =
+      new EnumOption<>("LOGFORMAT", LogFormat.TEXT);
+  /** Maximum number of buffered log entries; 0: entries are written synchronously. */
+  public static final NumberOption LOGBUFFER = new NumberOption("LOGBUFFER", 0);
+  /** Handling of new log entries if the buffer is full. */
+  public static final EnumOption<LogOverflow> LOGOVERFLOW =
+      new EnumOption<>("LOGOVERFLOW", LogOverflow.BLOCK);
+  /** Interval for synchronizing buffered log entries with disk (ms); 0: no synchronization. */
+  public static final NumberOption LOGSYNC = new NumberOption("LOGSYNC", 1000);
 
   /** Comment: written to options file. */
   public static final Comment C_HTTP = new Comment("HTTP Services");
@@ -105,6 +135,29 @@ public final class StaticOptions extends Options {
     }
   }
 
+  /** Log formats. */
+  public enum LogFormat {
+    /** Tab-separated columns. */ TEXT,
+    /** JSON object per line.  */ JSON;
+
+    @Override
+    public String toString() {
+      return name().toLowerCase(Locale.ENGLISH);
+    }
+  }
+
+  /** Handling of log entries if the log buffer is full. */
+  public enum LogOverflow {
+    /** Wait until entries have been written. */ BLOCK,
+    /** Drop REQUEST and INFO entries, wait otherwise. */ DROPINFO,
+    /** Drop all entries. */ DROP;
+
+    @Override
+    public String toString() {
+      return name().toLowerCase(Locale.ENGLISH);
+    }
+  }
+
   /**
    * Constructor, adopting system properties starting with "org.basex.".
    * @param file if {@code true}, options will be read from disk
@@ -146,6 +146,8 @@ public interface Text {
 
   /** Localhost. */
   String S_LOCALHOST = "localhost";
+  /** Compression method for client/server communication. */
+  String S_DEFLATE = "deflate";
 
   /** Command keyword. */
   String S_ALL = "ALL";
@@ -205,6 +207,8 @@ public interface Text {
   String OPT_ONEOF_X_X_X = OPT_INVALID_X_X + "one of: %.";
   /** Options error. */
   String OPT_EXPECT_X_X_X = "% expected, % found: %.";
+  /** Resource limit error. */
+  String LIMIT_EXCEEDED_X_X_X = "Resource limit exceeded by %: % allocated, % CPU time.";
 
   /** "log". */
   String PLOTLOG = "log";
@@ -705,6 +709,8 @@ public interface Text {
   String PERM_REQUIRED_X = lang("perm_required_%");
   /** Invalid permissions. */
   String PERM_UNKNOWN_X = lang("perm_unknown_%");
+  /** Updates on replicas. */
+  String REPLICA_UPDATES = lang("replica_updates");
   /** Permission granted. */
   String GRANTED_X_X = lang("granted_%_%");
   /** Permission granted on database. */
@@ -792,6 +798,10 @@ public interface Text {
   String WRITES = lang("writes");
   /** "Time". */
   String TIME = lang("time");
+  /** "Allocated". */
+  String ALLOCATED = lang("allocated");
+  /** "CPU". */
+  String CPU = lang("cpu");
   /** External Variables. */
   String EXTERNAL_VARIABLES = lang("external_variables");
 
@@ -33,6 +33,10 @@ public abstract class AQuery extends Command {
 
   /** Query processor. */
   private QueryProcessor qp;
+  /** Key of the query in the query cache ({@code null} if the query will not be cached). */
+  private String key;
+  /** Indicates if the query processor has been taken from the query cache. */
+  private boolean cached;
   /** Query info. */
   private QueryInfo info;
   /** Query result. */
@@ -64,6 +68,8 @@ public abstract class AQuery extends Command {
         final boolean run = options.get(MainOptions.RUNQUERY);
         final boolean serial = options.get(MainOptions.SERIALIZE);
         final boolean compplan = options.get(MainOptions.COMPPLAN);
+        // runtime statistics can only be attached after evaluation
+        final boolean analyze = run && options.get(MainOptions.ANALYZE);
         final int runs = Math.max(1, options.get(MainOptions.RUNS));
         for(int r = 0; r < runs; ++r) {
           // reuse existing processor instance
@@ -71,28 +77,26 @@ public abstract class AQuery extends Command {
             qp = null;
             popJob();
           }
-          init(query, context);
-          if(!compplan) queryPlan();
+          init(query, context, true);
+          if(!compplan && !analyze) queryPlan();
 
           final Performance perf = new Performance();
-          for(final Entry<String, Object> entry : vars.entrySet()) {
-            final String name = entry.getKey();
-            final Object value = entry.getValue();
-            if(value instanceof Value) {
-              final Value val = (Value) value;
-              if(name == null) qp.context(val);
-              else qp.bind(name, val);
-            } else {
-              // will always be a string array
-              final String[] strings = (String[]) value;
-              if(name == null) qp.context(strings[0], strings[1]);
-              else qp.bind(name, strings[0], strings[1]);
-            }
+          bind();
+          if(cached && !qp.qc.reuse()) {
+            // cached query cannot be reused: parse and compile it again
+            close();
+            popJob();
+            qp = pushJob(new QueryProcessor(query, uri, context));
+            qp.qc.prepared = true;
+            cached = false;
+            info = null;
+            init(query, context, false);
+            bind();
           }
 
           qp.compile();
           info.compiling += perf.ns();
-          if(compplan) queryPlan();
+          if(compplan && !analyze) queryPlan();
           if(!run) continue;
 
           final PrintOutput po = r == 0 && serial ? out : new NullOutput();
@@ -113,10 +117,18 @@ public abstract class AQuery extends Command {
               }
             }
           }
-          qp.close();
+          if(r + 1 < runs) close();
           info.serializing += perf.ns();
+          if(analyze) queryPlan();
         }
-        return info(info.toString(qp, out.size(), hits, jc().locks));
+        final String string = info.toString(qp, out.size(), hits, jc().locks);
+        if(key != null && run && qp.qc.prepared && !qp.updating) {
+          // keep compiled query for subsequent evaluations
+          context.queries.release(key, qp, true);
+          qp = null;
+          popJob();
+        }
+        return info(string);
 
       } catch(final QueryException | IOException ex) {
         exception = ex;
@@ -131,7 +143,7 @@ public abstract class AQuery extends Command {
         throw ex;
       } finally {
         // close processor after exceptions
-        if(qp != null) qp.close();
+        if(qp != null) close();
       }
     }
     queryPlan();
@@ -146,7 +158,7 @@ public abstract class AQuery extends Command {
    */
   final boolean updates(final Context ctx, final String query) {
     try {
-      init(query, ctx);
+      init(query, ctx, true);
       return qp.updating;
     } catch(final QueryException ex) {
       Util.debug(ex);
@@ -160,11 +172,13 @@ public abstract class AQuery extends Command {
    * Initializes the query processor, .
    * @param query query string
    * @param ctx database context
+   * @param cache use query cache
    * @throws QueryException query exception
    */
-  private void init(final String query, final Context ctx) throws QueryException {
+  private void init(final String query, final Context ctx, final boolean cache)
+      throws QueryException {
     final Performance perf = new Performance();
-    if(qp == null) qp = pushJob(new QueryProcessor(query, uri, ctx));
+    if(qp == null) qp = pushJob(processor(query, ctx, cache));
     if(info == null) info = qp.qc.info;
 
     for(final Map.Entry<String, Object> entry : props.entrySet())
@@ -173,6 +187,62 @@ public abstract class AQuery extends Command {
     qp.qc.info.parsing += perf.ns();
   }
 
+  /**
+   * Returns a new query processor, or a compiled query from the query cache.
+   * Queries will only be cached if {@link MainOptions#PREPARED} is enabled, if no database is
+   * opened, and if no context value is bound.
+   * @param query query string
+   * @param ctx database context
+   * @param cache use query cache
+   * @return query processor
+   */
+  private QueryProcessor processor(final String query, final Context ctx, final boolean cache) {
+    final MainOptions mopts = ctx.options;
+    key = cache && mopts.get(MainOptions.PREPARED) && !mopts.get(MainOptions.ANALYZE) &&
+      ctx.data() == null && !vars.containsKey(null) ?
+      QueryCache.key(query, uri, vars.keySet(), ctx) : null;
+    cached = false;
+    if(key != null) {
+      final QueryProcessor proc = ctx.queries.get(key, ctx);
+      if(proc != null) {
+        cached = true;
+        return proc;
+      }
+    }
+    final QueryProcessor proc = new QueryProcessor(query, uri, ctx);
+    proc.qc.prepared = key != null;
+    return proc;
+  }
+
+  /**
+   * Binds the external variables and the context value.
+   * @throws QueryException query exception
+   */
+  private void bind() throws QueryException {
+    for(final Entry<String, Object> entry : vars.entrySet()) {
+      final String name = entry.getKey();
+      final Object value = entry.getValue();
+      if(value instanceof Value) {
+        final Value val = (Value) value;
+        if(name == null) qp.context(val);
+        else qp.bind(name, val);
+      } else {
+        // will always be a string array
+        final String[] strings = (String[]) value;
+        if(name == null) qp.context(strings[0], strings[1]);
+        else qp.bind(name, strings[0], strings[1]);
+      }
+    }
+  }
+
+  /**
+   * Closes the query processor.
+   */
+  private void close() {
+    if(key != null) context.queries.release(key, qp, false);
+    else qp.close();
+  }
+
   /**
    * Returns the serialization parameters.
    * @param ctx context
@@ -180,7 +250,7 @@ public abstract class AQuery extends Command {
    */
   public final String parameters(final Context ctx) {
     try {
-      init(args[0], ctx);
+      init(args[0], ctx, false);
       return qp.qc.serParams().toString();
     } catch(final QueryException ex) {
       error(Util.message(ex));
@@ -46,6 +46,8 @@ public final class JobsList extends Command {
     table.header.add(READS);
     table.header.add(WRITES);
     table.header.add(TIME);
+    table.header.add(ALLOCATED);
+    table.header.add(CPU);
 
     final JobPool jobs = context.jobs;
     for(final byte[] key : ids(context)) {
@@ -93,7 +95,7 @@ public final class JobsList extends Command {
         ? (System.nanoTime() - jc.performance.start()) / 1000000 : jr != null
         ? jr.time / 1000000 : -1;
 
-    final TokenList tl = new TokenList(10);
+    final TokenList tl = new TokenList(13);
     tl.add(id);
     tl.add(jc.type());
     tl.add(job.state.toString().toLowerCase(Locale.ENGLISH));
@@ -104,6 +106,8 @@ public final class JobsList extends Command {
     tl.add(jc.locks.reads.toString());
     tl.add(jc.locks.writes.toString());
     tl.add(dateTime(jc.time));
+    tl.add(jc.allocated());
+    tl.add(DTDur.get(jc.cpu() / 1000000).string(null));
     if(max != 0) tl.add(chop(normalize(token(jc.toString())), max));
     return tl;
   }
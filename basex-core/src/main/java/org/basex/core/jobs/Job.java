@@ -4,6 +4,7 @@ import java.util.*;
 
 import org.basex.core.*;
 import org.basex.core.users.*;
+import org.basex.server.Log.LogType;
 import org.basex.util.*;
 
 /**
@@ -19,6 +20,8 @@ public abstract class Job {
   private JobContext jc = new JobContext(this);
   /** Timer. */
   private Timer timer;
+  /** Start time of the execution (nanoseconds). */
+  private long started;
 
   /** This flag indicates that a job is updating. */
   public boolean updating;
@@ -43,11 +46,15 @@ public abstract class Job {
     jc.context = ctx;
     ctx.jobs.register(this);
     state(JobState.QUEUED);
+    final long queued = System.nanoTime();
     ctx.locking.acquire(this, ctx);
     state(JobState.RUNNING);
     jc.performance = new Performance();
-    // non-admin users: stop process after timeout
-    if(!ctx.user().has(Perm.ADMIN)) startTimeout(ctx.soptions.get(StaticOptions.TIMEOUT));
+    started = jc.performance.start();
+    ctx.metrics.lock(started - queued);
+    jc.start();
+    // non-admin users: stop process after timeout, or if resource limits are exceeded
+    if(!ctx.user().has(Perm.ADMIN)) startTimeout(ctx);
   }
 
   /**
@@ -56,8 +63,12 @@ public abstract class Job {
    */
   public final void unregister(final Context ctx) {
     stopTimeout();
+    jc.finish();
+    // record changed databases before the locks are released
+    ctx.replication.record(jc.locks.writes);
     ctx.locking.release();
     ctx.jobs.unregister(this);
+    ctx.metrics.job(jc.type(), System.nanoTime() - started);
   }
 
   /**
@@ -102,7 +113,7 @@ public abstract class Job {
   }
 
   /**
-   * Stops a job because a memory limit was exceeded.
+   * Stops a job because a memory or allocation limit was exceeded.
    */
   public final void memory() {
     state(JobState.MEMORY);
@@ -183,16 +194,39 @@ public abstract class Job {
   // PRIVATE FUNCTIONS ============================================================================
 
   /**
-   * Starts a timeout thread.
-   * @param sec seconds wait; deactivated if set to 0
+   * Starts a timeout thread, which also checks the resources consumed by the job.
+   * @param ctx database context
    */
-  private void startTimeout(final long sec) {
-    if(sec == 0) return;
+  private void startTimeout(final Context ctx) {
+    final StaticOptions sopts = ctx.soptions;
+    final long sec = sopts.get(StaticOptions.TIMEOUT);
+    final long alloc = (long) sopts.get(StaticOptions.MAXALLOC) << 20;
+    final long cpu = sopts.get(StaticOptions.MAXCPU) * 1000000000L;
+    if(sec == 0 && alloc == 0 && cpu == 0) return;
+
     timer = new Timer(true);
-    timer.schedule(new TimerTask() {
-      @Override
-      public void run() { timeout(); }
-    }, sec * 1000L);
+    if(sec != 0) {
+      timer.schedule(new TimerTask() {
+        @Override
+        public void run() { timeout(); }
+      }, sec * 1000L);
+    }
+    if(alloc != 0 || cpu != 0) {
+      timer.schedule(new TimerTask() {
+        @Override
+        public void run() {
+          final boolean memory = alloc != 0 && jc.allocated() > alloc;
+          if(memory || cpu != 0 && jc.cpu() > cpu) {
+            // stop checking: the limit is logged once, and the job is stopped
+            cancel();
+            ctx.log.write(LogType.INFO, Util.info(Text.LIMIT_EXCEEDED_X_X_X, jc.id(),
+                Performance.format(jc.allocated()), Performance.getTime(jc.cpu(), 1)), null, ctx);
+            if(memory) memory();
+            else timeout();
+          }
+        }
+      }, 100, 100);
+    }
   }
 
   /**
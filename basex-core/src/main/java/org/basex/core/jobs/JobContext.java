@@ -1,5 +1,10 @@
 package org.basex.core.jobs;
 
+import java.lang.management.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
 import org.basex.core.*;
 import org.basex.core.locks.*;
 import org.basex.query.*;
@@ -16,6 +21,8 @@ public final class JobContext {
   public static final String PREFIX = "job";
   /** Query id. */
   private static long jobId = -1;
+  /** Thread management (used for measuring resources). */
+  private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
 
   /** Performance measurements. */
   public Performance performance;
@@ -38,6 +45,19 @@ public final class JobContext {
   /** Job description (optional). */
   private String desc;
 
+  /** Id of the thread that evaluates the job ({@code -1}: job is not running). */
+  private volatile long thread = -1;
+  /** Allocated bytes at start time, or total bytes after the job has been finished. */
+  private volatile long allocated;
+  /** CPU time (nanoseconds) at start time, or total time after the job has been finished. */
+  private volatile long cpu;
+  /** Worker threads that evaluate parts of the job: allocated bytes, CPU time and depth. */
+  private final ConcurrentHashMap<Long, long[]> workers = new ConcurrentHashMap<>();
+  /** Bytes allocated by worker threads that have finished their work. */
+  private final AtomicLong workerAllocated = new AtomicLong();
+  /** CPU time (nanoseconds) consumed by worker threads that have finished their work. */
+  private final AtomicLong workerCpu = new AtomicLong();
+
   /**
    * Constructor.
    * @param job job
@@ -90,6 +110,107 @@ public final class JobContext {
     return tp != null ? tp : Util.className(job);
   }
 
+  /**
+   * Starts measuring the resources that are consumed by the current thread.
+   */
+  void start() {
+    final long id = Thread.currentThread().getId();
+    allocated = allocated(id);
+    cpu = cpu(id);
+    thread = id;
+  }
+
+  /**
+   * Stops measuring resources.
+   */
+  void finish() {
+    final long id = thread;
+    if(id == -1) return;
+    allocated = Math.max(0, allocated(id) - allocated);
+    cpu = Math.max(0, cpu(id) - cpu);
+    thread = -1;
+  }
+
+  /**
+   * Starts measuring the resources that are consumed by a worker thread, which evaluates a part
+   * of the job in parallel. Calls can be nested, and each call must be followed by a call of
+   * {@link #finishWorker()}.
+   */
+  public void startWorker() {
+    final long id = Thread.currentThread().getId();
+    if(id == thread) return;
+    workers.compute(id, (k, v) -> v != null ? new long[] { v[0], v[1], v[2] + 1 } :
+      new long[] { allocated(id), cpu(id), 1 });
+  }
+
+  /**
+   * Stops measuring the resources that are consumed by a worker thread.
+   */
+  public void finishWorker() {
+    final long id = Thread.currentThread().getId();
+    if(id == thread) return;
+    workers.computeIfPresent(id, (k, v) -> {
+      if(v[2] > 1) return new long[] { v[0], v[1], v[2] - 1 };
+      workerAllocated.addAndGet(Math.max(0, allocated(id) - v[0]));
+      workerCpu.addAndGet(Math.max(0, cpu(id) - v[1]));
+      return null;
+    });
+  }
+
+  /**
+   * Returns the number of bytes that have been allocated by the job and its worker threads.
+   * The number includes memory that has been released again.
+   * @return bytes
+   */
+  public long allocated() {
+    final long id = thread;
+    long bytes = id == -1 ? allocated : Math.max(0, allocated(id) - allocated);
+    bytes += workerAllocated.get();
+    for(final Map.Entry<Long, long[]> worker : workers.entrySet()) {
+      bytes += Math.max(0, allocated(worker.getKey()) - worker.getValue()[0]);
+    }
+    return bytes;
+  }
+
+  /**
+   * Returns the CPU time that has been consumed by the job and its worker threads.
+   * @return time in nanoseconds
+   */
+  public long cpu() {
+    final long id = thread;
+    long time = id == -1 ? cpu : Math.max(0, cpu(id) - cpu);
+    time += workerCpu.get();
+    for(final Map.Entry<Long, long[]> worker : workers.entrySet()) {
+      time += Math.max(0, cpu(worker.getKey()) - worker.getValue()[1]);
+    }
+    return time;
+  }
+
+  /**
+   * Returns the number of bytes that have been allocated by the specified thread.
+   * @param id thread id
+   * @return bytes, or {@code 0} if the value cannot be measured
+   */
+  private static long allocated(final long id) {
+    if(THREADS instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean tmb = (com.sun.management.ThreadMXBean) THREADS;
+      if(tmb.isThreadAllocatedMemorySupported() && tmb.isThreadAllocatedMemoryEnabled()) {
+        return Math.max(0, tmb.getThreadAllocatedBytes(id));
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Returns the CPU time that has been consumed by the specified thread.
+   * @param id thread id
+   * @return time in nanoseconds, or {@code 0} if the value cannot be measured
+   */
+  private static long cpu(final long id) {
+    return THREADS.isThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled() ?
+      Math.max(0, THREADS.getThreadCpuTime(id)) : 0;
+  }
+
   @Override
   public String toString() {
     return desc != null ? desc : job.toString();
@@ -26,6 +26,12 @@ public final class JobPool {
   final Timer timer = new Timer(true);
   /** Timeout (ms). */
   private final long timeout;
+  /** Number of worker threads. */
+  private final int parallelism;
+  /** Permits for jobs using the worker pool. */
+  private final Semaphore permits;
+  /** Worker pool for parallel query evaluation (lazily instantiated). */
+  private ForkJoinPool workers;
 
   /**
    * Constructor.
@@ -33,6 +39,47 @@ public final class JobPool {
    */
   public JobPool(final StaticOptions sopts) {
     timeout = sopts.get(StaticOptions.CACHETIMEOUT) * 1000L;
+    final int wrk = sopts.get(StaticOptions.WORKERS);
+    parallelism = wrk > 0 ? wrk : Runtime.getRuntime().availableProcessors();
+    permits = new Semaphore(Math.max(1, sopts.get(StaticOptions.PARALLEL)));
+  }
+
+  /**
+   * Returns the worker pool, which is shared by all parallel operations.
+   * The number of threads is limited by {@link StaticOptions#WORKERS}, and the number of
+   * operations that can use the pool at the same time is limited by
+   * {@link StaticOptions#PARALLEL}. If the limit has been reached, {@code null} is returned,
+   * and the caller is expected to perform its work sequentially. If a pool is returned,
+   * {@link #release()} must be called when it is no longer used.
+   * @return worker pool or {@code null}
+   */
+  public ForkJoinPool acquire() {
+    return permits.tryAcquire() ? workers() : null;
+  }
+
+  /**
+   * Releases the worker pool that has been returned by {@link #acquire()}.
+   */
+  public void release() {
+    permits.release();
+  }
+
+  /**
+   * Returns the worker pool.
+   * @return worker pool
+   */
+  private synchronized ForkJoinPool workers() {
+    if(workers == null) workers = new ForkJoinPool(parallelism);
+    return workers;
+  }
+
+  /**
+   * Schedules a task for execution after the specified delay.
+   * @param task task
+   * @param delay delay (ms)
+   */
+  public void schedule(final TimerTask task, final long delay) {
+    timer.schedule(task, delay);
   }
 
   /**
@@ -60,6 +107,7 @@ public final class JobPool {
     timer.cancel();
     for(final Job job : active.values()) job.stop();
     while(!active.isEmpty()) Performance.sleep(1);
+    if(workers != null) workers.shutdownNow();
   }
 
   /**
@@ -33,4 +33,8 @@ public interface JobsText {
   byte[] WRITES = token("writes");
   /** Time of registering. */
   byte[] TIME = token("time");
+  /** Allocated bytes (including released memory). */
+  byte[] ALLOCATED = token("allocated");
+  /** CPU time. */
+  byte[] CPU = token("cpu");
 }
@@ -39,6 +39,11 @@ public final class FairLockQueue extends LockQueue {
     jobs++;
   }
 
+  @Override
+  public synchronized int queued() {
+    return queue.size();
+  }
+
   @Override
   public synchronized String toString() {
     return "Jobs: " + jobs + ", queue: " + queue;
@@ -29,6 +29,12 @@ public abstract class LockQueue {
    */
   public abstract void acquire(Long id, boolean read, boolean write) throws InterruptedException;
 
+  /**
+   * Returns the number of queued jobs.
+   * @return number of jobs
+   */
+  public abstract int queued();
+
   /**
    * Notifies other jobs that a job has been completed.
    */
@@ -180,6 +180,14 @@ public final class Locking {
     queue.release();
   }
 
+  /**
+   * Returns the number of jobs that are queued until they can be started.
+   * @return number of jobs
+   */
+  public int queued() {
+    return queue.queued();
+  }
+
   /**
    * Pins a lock string. Creates a new lock if necessary.
    * @param string lock string
@@ -43,6 +43,11 @@ public final class NonfairLockQueue extends LockQueue {
     jobs++;
   }
 
+  @Override
+  public synchronized int queued() {
+    return readers.size() + writers.size();
+  }
+
   @Override
   public synchronized String toString() {
     return "Jobs: " + jobs + ", queued readers: " + readers + ", queued writers: " + writers;
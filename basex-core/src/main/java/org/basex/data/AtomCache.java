@@ -0,0 +1,58 @@
+package org.basex.data;
+
+/**
+ * This class caches the string values of large element and document nodes.
+ * Each pre value is assigned to a single slot, which is overwritten by subsequent entries.
+ * As entries are immutable, the cache can be accessed by concurrent readers.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class AtomCache {
+  /** Minimum size of nodes whose string values will be cached. */
+  static final int MIN_SIZE = 1 << 6;
+  /** Maximum length of cached string values. */
+  private static final int MAX_LENGTH = 1 << 16;
+  /** Number of slots (must be a power of two). */
+  private static final int SLOTS = 1 << 6;
+
+  /** Cache entries. */
+  private final Entry[] entries = new Entry[SLOTS];
+
+  /**
+   * Returns a cached string value.
+   * @param pre pre value
+   * @return string value or {@code null}
+   */
+  byte[] get(final int pre) {
+    final Entry entry = entries[pre & SLOTS - 1];
+    return entry != null && entry.pre == pre ? entry.value : null;
+  }
+
+  /**
+   * Caches a string value.
+   * @param pre pre value
+   * @param value string value
+   */
+  void add(final int pre, final byte[] value) {
+    if(value.length <= MAX_LENGTH) entries[pre & SLOTS - 1] = new Entry(pre, value);
+  }
+
+  /** Cache entry. */
+  private static final class Entry {
+    /** Pre value. */
+    private final int pre;
+    /** String value. */
+    private final byte[] value;
+
+    /**
+     * Constructor.
+     * @param pre pre value
+     * @param value string value
+     */
+    private Entry(final int pre, final byte[] value) {
+      this.pre = pre;
+      this.value = value;
+    }
+  }
+}
@@ -113,6 +113,8 @@ public abstract class Data {
   /** ID-PRE mapping. */
   public IdPreMap idmap;
 
+  /** Cached string values (can be {@code null}, will be invalidated by updates). */
+  private AtomCache atoms;
   /** Table access file. */
   protected TableAccess table;
   /** Closed flag. */
@@ -240,11 +242,19 @@ public abstract class Data {
         final int i = indexOf(txt, ' ');
         return i == -1 ? EMPTY : substring(txt, i + 1);
       default:
+        // return cached string value of large node
+        int p = pre;
+        final int s = p + size(p, kind(p));
+        final boolean cache = s - p >= AtomCache.MIN_SIZE;
+        AtomCache ac = atoms;
+        if(cache && ac != null) {
+          final byte[] value = ac.get(pre);
+          if(value != null) return value;
+        }
+
         // create atomized text node
         TokenBuilder tb = null;
         byte[] t = EMPTY;
-        int p = pre;
-        final int s = p + size(p, kind(p));
         while(p < s) {
           final int k = kind(p);
           if(k == TEXT) {
@@ -258,7 +268,15 @@ public abstract class Data {
           }
           p += attSize(p, k);
         }
-        return tb == null ? t : tb.finish();
+        final byte[] value = tb == null ? t : tb.finish();
+        if(cache) {
+          if(ac == null) {
+            ac = new AtomCache();
+            atoms = ac;
+          }
+          ac.add(pre, value);
+        }
+        return value;
     }
   }
 
@@ -563,6 +581,7 @@ public abstract class Data {
     if(eq(val, text(pre, kind != ATTR))) return;
 
     meta.update();
+    atoms = null;
     updateText(pre, val, kind);
     if(kind == DOC) resources.rename(pre, value);
   }
@@ -574,6 +593,7 @@ public abstract class Data {
    */
   public final void replace(final int pre, final DataClip source) {
     meta.update();
+    atoms = null;
 
     final int sCount = source.size();
     final int tKind = kind(pre);
@@ -666,6 +686,7 @@ public abstract class Data {
    */
   public final void delete(final int pre) {
     meta.update();
+    atoms = null;
 
     // delete references in document index
     int kind = kind(pre);
@@ -736,6 +757,7 @@ public abstract class Data {
     if(sCount == 0) return;
 
     meta.update();
+    atoms = null;
     resources.docs();
 
     // resize buffer to cache more entries
@@ -866,6 +888,7 @@ public abstract class Data {
    */
   public final void size(final int pre, final int kind, final int value) {
     if(kind == ELEM || kind == DOC) table.write4(pre, 8, value);
+    atoms = null;
   }
 
   /**
@@ -923,6 +946,7 @@ public abstract class Data {
    */
   public final void insert(final int pre) {
     table.insert(pre, buffer());
+    atoms = null;
   }
 
   /**
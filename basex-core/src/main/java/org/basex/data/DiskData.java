@@ -127,6 +127,15 @@ public final class DiskData extends Data {
     values = new DataAccess(meta.dbFile(DATAATV));
   }
 
+  /**
+   * Returns the access statistics of the table, text and attribute value files.
+   * @return statistics
+   */
+  public AccessStats stats() {
+    final AccessStats stats = new AccessStats().add(((TableDiskAccess) table).stats());
+    return stats.add(texts.stats()).add(values.stats());
+  }
+
   /**
    * Writes all meta data to disk.
    * @throws IOException I/O exception
@@ -3,6 +3,7 @@ package org.basex.index;
 import static org.basex.util.Token.*;
 
 import java.lang.ref.*;
+import java.util.concurrent.atomic.*;
 import java.util.concurrent.locks.*;
 
 import org.basex.util.*;
@@ -14,6 +15,11 @@ import org.basex.util.*;
  * @author Dimitar Popov
  */
 public final class IndexCache {
+  /** Number of cache hits (all instances). */
+  private static final LongAdder HITS = new LongAdder();
+  /** Number of cache misses (all instances). */
+  private static final LongAdder MISSES = new LongAdder();
+
   /** Queue used to collect unused keys. */
   private final ReferenceQueue<IndexEntry> queue = new ReferenceQueue<>();
   /** Read-write lock. */
@@ -37,15 +43,35 @@ public final class IndexCache {
       BucketEntry e = buckets[i];
       while(e != null) {
         final IndexEntry entry = e.get();
-        if(entry != null && e.hash == hash && eq(entry.key, key)) return entry;
+        if(entry != null && e.hash == hash && eq(entry.key, key)) {
+          HITS.increment();
+          return entry;
+        }
         e = e.next;
       }
     } finally {
       rwl.readLock().unlock();
     }
+    MISSES.increment();
     return null;
   }
 
+  /**
+   * Returns the number of cache hits of all instances.
+   * @return number of hits
+   */
+  public static long hits() {
+    return HITS.sum();
+  }
+
+  /**
+   * Returns the number of cache misses of all instances.
+   * @return number of misses
+   */
+  public static long misses() {
+    return MISSES.sum();
+  }
+
   /**
    * Adds a new cache entry. If an entry with the specified key already exists,
    * it will be updated.
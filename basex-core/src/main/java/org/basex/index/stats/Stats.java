@@ -4,10 +4,12 @@ import static org.basex.index.stats.StatsType.*;
 import static org.basex.util.Token.*;
 
 import java.io.*;
+import java.util.concurrent.*;
 
 import org.basex.data.*;
 import org.basex.io.in.DataInput;
 import org.basex.io.out.DataOutput;
+import org.basex.util.*;
 import org.basex.util.hash.*;
 
 /**
@@ -17,6 +19,13 @@ import org.basex.util.hash.*;
  * @author Christian Gruen
  */
 public final class Stats {
+  /** Number of histogram buckets. */
+  private static final int BUCKETS = 8;
+  /** Maximum number of sampled numeric values. */
+  private static final int SAMPLES = 256;
+  /** Number of registers for estimating the number of distinct values (power of two). */
+  private static final int REGISTERS = 128;
+
   /** Distinct values (value, number of occurrence). */
   public TokenIntMap values;
   /** Minimum value. */
@@ -30,6 +39,16 @@ public final class Stats {
 
   /** Leaf node flag. Indicates if all nodes only have a text node as child. */
   private boolean leaf;
+  /** Estimated number of distinct values ({@code 0} if unknown). */
+  private int distinct;
+  /** Value counts of equi-width buckets between min and max ({@code null} if unknown). */
+  private int[] histogram;
+  /** Registers for estimating distinct values ({@code null} if statistics were read from disk). */
+  private byte[] registers;
+  /** Sample of numeric values (can be {@code null}). */
+  private double[] sample;
+  /** Number of numeric values that have been added. */
+  private int numbers;
 
   /**
    * Default constructor.
@@ -40,6 +59,7 @@ public final class Stats {
     min = Double.MAX_VALUE;
     max = -Double.MAX_VALUE;
     leaf = true;
+    registers = new byte[REGISTERS];
   }
 
   /**
@@ -61,7 +81,17 @@ public final class Stats {
     }
     count = in.readNum();
     leaf = in.readBool();
-    in.readDouble();
+    // distinct values and histogram (legacy double value, written before version 9.3)
+    final byte[] ext = in.readToken();
+    final int sep = indexOf(ext, ';');
+    distinct = Math.max(0, toInt(sep == -1 ? ext : substring(ext, 0, sep)));
+    if(sep != -1) {
+      final byte[][] counts = split(substring(ext, sep + 1), ',');
+      if(counts.length == BUCKETS) {
+        histogram = new int[BUCKETS];
+        for(int b = 0; b < BUCKETS; b++) histogram[b] = Math.max(0, toInt(counts[b]));
+      }
+    }
   }
 
   /**
@@ -91,8 +121,17 @@ public final class Stats {
 
     out.writeNum(count);
     out.writeBool(leaf);
-    // legacy (required before version 7.1)
-    out.writeDouble(0);
+    // distinct values and histogram (older versions parse this token as double and ignore it)
+    final TokenBuilder tb = new TokenBuilder().addInt(distinct());
+    final int[] hist = histogram();
+    if(hist != null) {
+      tb.add(';');
+      for(int b = 0; b < BUCKETS; b++) {
+        if(b > 0) tb.add(',');
+        tb.addInt(hist[b]);
+      }
+    }
+    out.writeToken(tb.finish());
   }
 
   /**
@@ -106,6 +145,7 @@ public final class Stats {
   public void add(final byte[] value, final MetaData meta) {
     byte t = type;
     final int vl = value.length;
+    double num = Double.NaN;
     // only analyze non-empty values
     if(vl > 0) {
       // start with integer type
@@ -120,6 +160,7 @@ public final class Stats {
         } else {
           if(min > d) min = d;
           if(max < d) max = d;
+          num = d;
         }
       }
       // try to save new value as double
@@ -130,11 +171,21 @@ public final class Stats {
         } else {
           if(min > d) min = d;
           if(max < d) max = d;
+          num = d;
         }
       }
     }
     type = t;
 
+    if(registers == null) {
+      // statistics were read from disk: estimates are outdated
+      distinct = 0;
+      histogram = null;
+    } else {
+      register(value);
+      sample(num);
+    }
+
     // save distinct values
     if(values != null) {
       if(vl > meta.maxlen || vl > 0 && ws(value)) {
@@ -148,6 +199,110 @@ public final class Stats {
     }
   }
 
+  /**
+   * Returns the estimated number of distinct values.
+   * @return number of distinct values ({@code 0} if unknown)
+   */
+  public int distinct() {
+    if(values != null) return values.size();
+    if(registers != null) {
+      // compute HyperLogLog estimate, apply correction for small cardinalities
+      double sum = 0;
+      int zeros = 0;
+      for(final byte r : registers) {
+        sum += 1.0 / (1L << r);
+        if(r == 0) zeros++;
+      }
+      final double m = REGISTERS, alpha = 0.7213 / (1 + 1.079 / m);
+      double est = alpha * m * m / sum;
+      if(est <= 2.5 * m && zeros != 0) est = m * Math.log(m / zeros);
+      distinct = (int) Math.min(Math.round(est), count == 0 ? Integer.MAX_VALUE : count);
+    }
+    return distinct;
+  }
+
+  /**
+   * Estimates the number of numeric values in the specified range.
+   * @param mn minimum value (inclusive)
+   * @param mx maximum value (inclusive)
+   * @return estimated number of values, or {@code -1} if no histogram is available
+   */
+  public double count(final double mn, final double mx) {
+    final int[] hist = histogram();
+    if(hist == null) return -1;
+    if(mn > mx || mx < min || mn > max) return 0;
+
+    // integers: consider each value as interval of length 1
+    final double d = isInteger(type) ? 1 : 0, lo = Math.max(mn, min), hi = Math.min(mx, max) + d;
+    final double width = (max + d - min) / BUCKETS;
+    if(width == 0) return hist[0];
+
+    double c = 0;
+    for(int b = 0; b < BUCKETS; b++) {
+      final double bmin = min + b * width, overlap = Math.min(hi, bmin + width) -
+          Math.max(lo, bmin);
+      if(overlap > 0) c += hist[b] * overlap / width;
+    }
+    return c;
+  }
+
+  /**
+   * Returns the histogram for numeric values.
+   * @return histogram or {@code null}
+   */
+  private int[] histogram() {
+    if(histogram == null && sample != null && isNumeric(type)) {
+      final int n = Math.min(numbers, SAMPLES);
+      final double width = (max + (isInteger(type) ? 1 : 0) - min) / BUCKETS;
+      final long[] counts = new long[BUCKETS];
+      for(int s = 0; s < n; s++) {
+        counts[width == 0 ? 0 : Math.min(BUCKETS - 1, (int) ((sample[s] - min) / width))]++;
+      }
+      // scale sampled counts to the number of values
+      final int[] hist = new int[BUCKETS];
+      for(int b = 0; b < BUCKETS; b++) hist[b] = (int) (counts[b] * numbers / n);
+      histogram = hist;
+    }
+    return histogram;
+  }
+
+  /**
+   * Updates the registers for estimating the number of distinct values.
+   * @param value value
+   */
+  private void register(final byte[] value) {
+    int h = 0;
+    for(final byte b : value) h = (h << 5) - h + b;
+    // spread bits (MurmurHash3 finalizer)
+    h ^= h >>> 16;
+    h *= 0x85EBCA6B;
+    h ^= h >>> 13;
+    h *= 0xC2B2AE35;
+    h ^= h >>> 16;
+    final int r = h >>> 25, rank = Math.min(Integer.numberOfLeadingZeros(h << 7), 25) + 1;
+    if(registers[r] < rank) registers[r] = (byte) rank;
+  }
+
+  /**
+   * Adds a numeric value to the reservoir sample.
+   * @param num numeric value ({@code NaN} if the value is no number)
+   */
+  private void sample(final double num) {
+    histogram = null;
+    if(!isNumeric(type)) {
+      sample = null;
+    } else if(!Double.isNaN(num)) {
+      if(sample == null) sample = new double[SAMPLES];
+      if(numbers < SAMPLES) {
+        sample[numbers] = num;
+      } else {
+        final int s = ThreadLocalRandom.current().nextInt(numbers + 1);
+        if(s < SAMPLES) sample[s] = num;
+      }
+      numbers++;
+    }
+  }
+
   /**
    * Getter for leaf flag.
    * @return leaf flag
@@ -171,6 +326,7 @@ public final class Stats {
       sb.append(", ");
       final int size = values != null ? values.size() : 0;
       if(size > 1) sb.append(size).append(" distinct ");
+      else if(size == 0 && distinct() > 1) sb.append('~').append(distinct).append(" distinct ");
       sb.append(StatsType.toString(type));
       if(size != 1) sb.append('s');
       if(isNumeric(type)) {
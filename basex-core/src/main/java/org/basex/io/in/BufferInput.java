@@ -157,6 +157,16 @@ public class BufferInput extends InputStream {
     return bl.finish();
   }
 
+  /**
+   * Returns the number of bytes that have already been buffered, and that can be read
+   * without blocking.
+   * @return number of buffered bytes
+   */
+  @Override
+  public int available() {
+    return bsize - bpos;
+  }
+
   @Override
   public final void close() throws IOException {
     if(in != null && !(in instanceof FilterInputStream)) in.close();
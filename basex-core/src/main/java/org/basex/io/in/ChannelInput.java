@@ -0,0 +1,134 @@
+package org.basex.io.in;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.util.*;
+
+import org.basex.io.*;
+import org.basex.util.Array;
+
+/**
+ * This server-side class buffers the input of a non-blocking socket channel.
+ * Available bytes are read by {@link #fill()} without blocking. If more bytes are requested
+ * than have been buffered, the reading thread waits until new input arrives. The selector for
+ * waiting is opened once and kept until {@link #closeSelector()} is called.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ChannelInput extends BufferInput {
+  /** Socket channel. */
+  private final SocketChannel channel;
+  /** Buffered bytes. */
+  private byte[] buffer = new byte[IO.BLOCKSIZE];
+  /** Current read position. */
+  private int pos;
+  /** Number of buffered bytes. */
+  private int size;
+  /** Indicates if the end of the stream has been reached. */
+  private boolean eos;
+  /** Selector for waiting until new input arrives (opened on demand). */
+  private Selector selector;
+  /** Indicates if the selector has been closed. */
+  private boolean closed;
+
+  /**
+   * Constructor.
+   * @param channel non-blocking socket channel
+   */
+  public ChannelInput(final SocketChannel channel) {
+    super(new byte[0]);
+    this.channel = channel;
+    length = -1;
+  }
+
+  /**
+   * Reads bytes that are available without blocking.
+   * @return {@code false} if the end of the stream has been reached
+   * @throws IOException I/O exception
+   */
+  public boolean fill() throws IOException {
+    if(eos) return false;
+    if(pos == size) {
+      pos = 0;
+      size = 0;
+    } else if(size == buffer.length) {
+      // discard bytes that have been read, or enlarge the buffer
+      if(pos > 0) {
+        System.arraycopy(buffer, pos, buffer, 0, size - pos);
+        size -= pos;
+        pos = 0;
+      } else {
+        buffer = Arrays.copyOf(buffer, Array.newSize(size));
+      }
+    }
+    final int r = channel.read(ByteBuffer.wrap(buffer, size, buffer.length - size));
+    if(r == -1) eos = true;
+    else size += r;
+    return !eos;
+  }
+
+  /**
+   * Returns a buffered byte.
+   * @param offset offset to the current position
+   * @return byte, or {@code -1} if the byte has not been buffered yet
+   */
+  public int get(final int offset) {
+    final int p = pos + offset;
+    return p < size ? buffer[p] & 0xFF : -1;
+  }
+
+  /**
+   * Indicates if the end of the stream has been reached.
+   * @return result of check
+   */
+  public boolean eos() {
+    return eos;
+  }
+
+  @Override
+  protected int readByte() throws IOException {
+    while(pos == size) {
+      if(eos) return -1;
+      // wait until new input is available (or the channel has been closed)
+      final Selector sel = selector();
+      try {
+        sel.select(1000);
+        sel.selectedKeys().clear();
+      } catch(final ClosedSelectorException ex) {
+        throw new ClosedChannelException();
+      }
+      fill();
+    }
+    return buffer[pos++] & 0xFF;
+  }
+
+  @Override
+  public int available() {
+    return size - pos;
+  }
+
+  /**
+   * Closes the selector for waiting until new input arrives.
+   * @throws IOException I/O exception
+   */
+  public synchronized void closeSelector() throws IOException {
+    closed = true;
+    if(selector != null) selector.close();
+  }
+
+  /**
+   * Returns the selector, with which the channel has been registered for reading.
+   * @return selector
+   * @throws IOException I/O exception
+   */
+  private synchronized Selector selector() throws IOException {
+    if(closed) throw new ClosedChannelException();
+    if(selector == null) {
+      selector = Selector.open();
+      channel.register(selector, SelectionKey.OP_READ);
+    }
+    return selector;
+  }
+}
@@ -0,0 +1,72 @@
+package org.basex.io.out;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+/**
+ * This server-side class writes bytes to a non-blocking socket channel. If the channel cannot
+ * accept more bytes, the writing thread waits until it is ready again. The selector for waiting
+ * is opened once and kept until the stream is closed. The channel itself is not closed.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ChannelOutput extends OutputStream {
+  /** Socket channel. */
+  private final SocketChannel channel;
+  /** Selector for waiting until the channel is ready for writing (opened on demand). */
+  private Selector selector;
+  /** Indicates if the selector has been closed. */
+  private boolean closed;
+
+  /**
+   * Constructor.
+   * @param channel non-blocking socket channel
+   */
+  public ChannelOutput(final SocketChannel channel) {
+    this.channel = channel;
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[] { (byte) b }, 0, 1);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    final ByteBuffer bb = ByteBuffer.wrap(b, off, len);
+    while(bb.hasRemaining()) {
+      if(channel.write(bb) == 0) {
+        // wait until the channel is ready for writing (or has been closed)
+        final Selector sel = selector();
+        try {
+          sel.select(1000);
+          sel.selectedKeys().clear();
+        } catch(final ClosedSelectorException ex) {
+          throw new ClosedChannelException();
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    closed = true;
+    if(selector != null) selector.close();
+  }
+
+  /**
+   * Returns the selector, with which the channel has been registered for writing.
+   * @return selector
+   * @throws IOException I/O exception
+   */
+  private synchronized Selector selector() throws IOException {
+    if(closed) throw new ClosedChannelException();
+    if(selector == null) {
+      selector = Selector.open();
+      channel.register(selector, SelectionKey.OP_WRITE);
+    }
+    return selector;
+  }
+}
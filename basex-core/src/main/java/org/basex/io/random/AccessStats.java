@@ -0,0 +1,32 @@
+package org.basex.io.random;
+
+/**
+ * Access statistics of database files. The counters are not synchronized and may be
+ * slightly outdated if they are read by other threads.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class AccessStats {
+  /** Number of block requests that were served by a buffer. */
+  public long hits;
+  /** Number of block requests that required a new buffer. */
+  public long misses;
+  /** Number of bytes read from disk. */
+  public long read;
+  /** Number of bytes written to disk. */
+  public long written;
+
+  /**
+   * Adds the counters of the specified statistics.
+   * @param stats statistics
+   * @return self reference
+   */
+  public AccessStats add(final AccessStats stats) {
+    hits += stats.hits;
+    misses += stats.misses;
+    read += stats.read;
+    written += stats.written;
+    return this;
+  }
+}
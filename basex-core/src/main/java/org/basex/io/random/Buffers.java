@@ -11,6 +11,8 @@ final class Buffers {
   private static final int BUFFERS = 1 << 4;
   /** Buffers. */
   private final Buffer[] buf = new Buffer[BUFFERS];
+  /** Access statistics. */
+  final AccessStats stats = new AccessStats();
   /** Current buffer offset. */
   private int off;
 
@@ -45,9 +47,13 @@ final class Buffers {
   boolean cursor(final long p) {
     final int o = off;
     do {
-      if(buf[off].pos == p) return false;
+      if(buf[off].pos == p) {
+        stats.hits++;
+        return false;
+      }
     } while((off = off + 1 & BUFFERS - 1) != o);
     off = o + 1 & BUFFERS - 1;
+    stats.misses++;
     return true;
   }
 }
@@ -68,6 +68,14 @@ public final class DataAccess implements Closeable {
     }
   }
 
+  /**
+   * Returns the access statistics.
+   * @return statistics
+   */
+  public AccessStats stats() {
+    return bm.stats;
+  }
+
   /**
    * Returns the current file position.
    * @return position in the file
@@ -222,8 +230,11 @@ public final class DataAccess implements Closeable {
       if(bf.dirty) writeBlock(bf);
       bf.pos = b;
       raf.seek(bf.pos);
-      if(bf.pos < raf.length())
-        raf.readFully(bf.data, 0, (int) Math.min(length - bf.pos, IO.BLOCKSIZE));
+      if(bf.pos < raf.length()) {
+        final int len = (int) Math.min(length - bf.pos, IO.BLOCKSIZE);
+        raf.readFully(bf.data, 0, len);
+        bm.stats.read += len;
+      }
     } catch(final IOException ex) {
       Util.stack(ex);
     }
@@ -424,6 +435,7 @@ public final class DataAccess implements Closeable {
     final long pos = buffer.pos, len = Math.min(IO.BLOCKSIZE, length - pos);
     raf.seek(pos);
     raf.write(buffer.data, 0, (int) len);
+    bm.stats.written += len;
     buffer.dirty = false;
   }
 
@@ -137,6 +137,14 @@ public final class TableDiskAccess extends TableAccess {
     file.close();
   }
 
+  /**
+   * Returns the access statistics.
+   * @return statistics
+   */
+  public AccessStats stats() {
+    return buffers.stats;
+  }
+
   @Override
   public boolean lock(final boolean write) {
     try {
@@ -523,6 +531,7 @@ public final class TableDiskAccess extends TableAccess {
       } else {
         file.seek(bf.pos * IO.BLOCKSIZE);
         file.readFully(bf.data);
+        buffers.stats.read += IO.BLOCKSIZE;
       }
     } catch(final IOException ex) {
       Util.stack(ex);
@@ -539,6 +548,7 @@ public final class TableDiskAccess extends TableAccess {
 
     file.seek(buffer.pos * IO.BLOCKSIZE);
     file.write(buffer.data);
+    buffers.stats.written += IO.BLOCKSIZE;
     buffer.dirty = false;
   }
 
@@ -0,0 +1,167 @@
+package org.basex.query;
+
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.core.users.*;
+import org.basex.util.*;
+
+/**
+ * Server-wide cache for compiled queries (see {@link MainOptions#PREPARED}).
+ * Queries are identified by the query string, the static base URI, the names of the bound
+ * variables, the database options and the permissions of the user.
+ *
+ * A cached query is lent to a single evaluation and returned afterwards. Before it is evaluated
+ * again, {@link QueryContext#reuse()} checks if opened databases or parsed modules have been
+ * modified in the meantime. Queries that have opened a database are closed before the database
+ * is dropped, replaced or renamed (see {@link Context#pinned(String)}).
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class QueryCache {
+  /** Maximum number of cached queries. */
+  private static final int MAX = 1000;
+
+  /** Cached queries, in access order. */
+  private final LinkedHashMap<String, QueryProcessor> cache = new LinkedHashMap<>(16, 0.75f, true);
+  /** Queries that have been lent to evaluations. */
+  private final Set<QueryProcessor> lent = Collections.newSetFromMap(new IdentityHashMap<>());
+  /** Number of cache hits. */
+  private long hits;
+  /** Number of cache misses. */
+  private long misses;
+
+  /**
+   * Returns the cache key for a query.
+   * @param query query string
+   * @param uri static base URI
+   * @param names names of the bound variables
+   * @param ctx database context
+   * @return key
+   */
+  public static String key(final String query, final String uri, final Collection<String> names,
+      final Context ctx) {
+    final User user = ctx.user();
+    final StringBuilder sb = new StringBuilder();
+    synchronized(user) {
+      sb.append(user.name()).append(' ').append(user.perm((String) null)).append(user.patterns());
+    }
+    sb.append('\n').append(ctx.options).append('\n').append(uri);
+    sb.append('\n').append(new TreeSet<>(names)).append('\n').append(query);
+    return sb.toString();
+  }
+
+  /**
+   * Lends a cached query to an evaluation.
+   * @param key key
+   * @param ctx database context of the evaluation
+   * @return query processor, or {@code null} if no query is cached
+   */
+  public synchronized QueryProcessor get(final String key, final Context ctx) {
+    final QueryProcessor qp = cache.remove(key);
+    if(qp == null) {
+      misses++;
+    } else {
+      hits++;
+      lent.add(qp);
+      qp.qc.context = ctx;
+    }
+    return qp;
+  }
+
+  /**
+   * Returns a query to the cache, or closes it.
+   * @param key key
+   * @param qp query processor
+   * @param reuse cache query for subsequent evaluations
+   */
+  public void release(final String key, final QueryProcessor qp, final boolean reuse) {
+    QueryProcessor old = null;
+    synchronized(this) {
+      lent.remove(qp);
+      if(reuse) {
+        qp.qc.finish();
+        old = cache.put(key, qp);
+        if(cache.size() > MAX) {
+          final Iterator<QueryProcessor> iter = cache.values().iterator();
+          old = iter.next();
+          iter.remove();
+        }
+      }
+    }
+    if(!reuse) qp.close();
+    if(old != null) old.close();
+  }
+
+  /**
+   * Closes all queries that have opened the specified database.
+   * @param db name of database
+   */
+  public void close(final String db) {
+    final ArrayList<QueryProcessor> list = new ArrayList<>();
+    synchronized(this) {
+      for(final Iterator<QueryProcessor> iter = cache.values().iterator(); iter.hasNext();) {
+        final QueryProcessor qp = iter.next();
+        if(qp.qc.resources.opened(db)) {
+          list.add(qp);
+          iter.remove();
+        }
+      }
+      // lent queries: the database is locked by the caller, so they are not being evaluated
+      for(final Iterator<QueryProcessor> iter = lent.iterator(); iter.hasNext();) {
+        final QueryProcessor qp = iter.next();
+        if(qp.qc.resources.opened(db)) {
+          list.add(qp);
+          iter.remove();
+        }
+      }
+    }
+    for(final QueryProcessor qp : list) qp.close();
+  }
+
+  /**
+   * Closes all queries.
+   */
+  public void close() {
+    final ArrayList<QueryProcessor> list;
+    synchronized(this) {
+      list = new ArrayList<>(cache.values());
+      list.addAll(lent);
+      cache.clear();
+      lent.clear();
+    }
+    for(final QueryProcessor qp : list) qp.close();
+  }
+
+  /**
+   * Returns the number of cached queries.
+   * @return size
+   */
+  public synchronized int size() {
+    return cache.size();
+  }
+
+  /**
+   * Returns the number of cache hits.
+   * @return hits
+   */
+  public synchronized long hits() {
+    return hits;
+  }
+
+  /**
+   * Returns the number of cache misses.
+   * @return misses
+   */
+  public synchronized long misses() {
+    return misses;
+  }
+
+  @Override
+  public synchronized String toString() {
+    final long total = hits + misses;
+    return Util.className(this) + '[' + cache.size() + " queries, " + hits + " hits, " +
+      misses + " misses, " + (total == 0 ? 0 : hits * 100 / total) + "% hit rate]";
+  }
+}
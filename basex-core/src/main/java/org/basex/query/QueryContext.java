@@ -5,8 +5,11 @@ import static org.basex.query.QueryError.*;
 import static org.basex.util.Token.*;
 
 import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
 import java.util.*;
 import java.util.Map.*;
+import java.util.concurrent.*;
 
 import org.basex.build.json.*;
 import org.basex.build.json.JsonOptions.*;
@@ -16,6 +19,7 @@ import org.basex.core.jobs.*;
 import org.basex.core.locks.*;
 import org.basex.core.users.*;
 import org.basex.data.*;
+import org.basex.io.*;
 import org.basex.io.parse.json.*;
 import org.basex.io.serial.*;
 import org.basex.query.func.*;
@@ -61,8 +65,8 @@ public final class QueryContext extends Job implements Closeable {
   public final QueryContext parent;
   /** Query info. */
   public final QueryInfo info;
-  /** Database context. */
-  public final Context context;
+  /** Database context (reassigned if a cached query is evaluated by another client). */
+  public Context context;
 
   /** Query resources. */
   public QueryResources resources;
@@ -102,6 +106,10 @@ public final class QueryContext extends Job implements Closeable {
   public int tailCalls;
   /** Maximum number of successive tail calls (will be set before compilation). */
   public int maxCalls;
+  /** Runtime statistics (will be set before compilation; can be {@code null}). */
+  public Profile profile;
+  /** Number of node constructors whose contents are currently evaluated. */
+  public int constructors;
 
   /** Function for the next tail call. */
   private XQFunction tailFunc;
@@ -116,6 +124,8 @@ public final class QueryContext extends Job implements Closeable {
   final TokenMap modDeclared = new TokenMap();
   /** Stack of module files that are currently parsed. */
   final TokenList modStack = new TokenList();
+  /** Parsed modules, containing the file path, modification time and file size. */
+  final HashMap<String, long[]> modStamps = new HashMap<>();
 
   /** Initial context value. */
   public MainModule ctxItem;
@@ -132,6 +142,16 @@ public final class QueryContext extends Job implements Closeable {
   /** Indicates if the query context has been closed. */
   private boolean closed;
 
+  /**
+   * Indicates if the compiled query will be evaluated repeatedly (see {@link #reuse()}).
+   * If enabled, external variables will not be inlined at compile time. The flag is reset if the
+   * query accesses the current date and time or external properties at compile time, or if it
+   * parses documents.
+   */
+  public boolean prepared;
+  /** Database options at compile time (only assigned for prepared queries). */
+  private String compiledOptions;
+
   /**
    * Constructor.
    * @param parent parent context
@@ -260,6 +280,11 @@ public final class QueryContext extends Job implements Closeable {
     try {
       // bind external variables of global option (if not assigned yet by other APIs)
       final MainOptions mopts = context.options;
+      if(prepared) {
+        // prepared queries: values of non-external variables may depend on external ones
+        for(final StaticVar var : vars) prepared &= var.external;
+        compiledOptions = mopts.toString();
+      }
       if(root != null && parent == null) {
         for(final Entry<String, String> entry : mopts.toMap(MainOptions.BINDINGS).entrySet()) {
           final String key = entry.getKey();
@@ -277,6 +302,7 @@ public final class QueryContext extends Job implements Closeable {
       options.compile();
       // set tail call option after assigning database options
       maxCalls = mopts.get(MainOptions.TAILCALLS);
+      profile = mopts.get(MainOptions.ANALYZE) ? new Profile() : null;
 
       // bind external variables
       vars.bindExternal(this, bindings);
@@ -316,12 +342,87 @@ public final class QueryContext extends Job implements Closeable {
         Util.debug(ex);
         throw BASEX_OVERFLOW.get(null, ex);
       }
+      // prepared queries: current date and time may have been pre-evaluated
+      if(dateTime != null) prepared = false;
     } finally {
       info.runtime = true;
       compiled = true;
     }
   }
 
+  /**
+   * Prepares a compiled query for another evaluation: the current bindings are assigned to the
+   * external variables, and the dynamic context is reset.
+   * @return {@code true} if the compiled query can be evaluated again, {@code false} if it must
+   *   be compiled from scratch
+   * @throws QueryException query exception
+   */
+  public boolean reuse() throws QueryException {
+    if(!compiled || closed || !prepared || updating ||
+        !context.options.toString().equals(compiledOptions) || resources.changed() ||
+        modified()) return false;
+
+    for(final Entry<QNm, Value> entry : bindings.entrySet()) {
+      if(!vars.rebind(entry.getKey(), entry.getValue(), this)) return false;
+    }
+    dateTime = null;
+    threads.reset();
+    funcs.reset();
+    info.reset();
+    options.compile();
+    return true;
+  }
+
+  /**
+   * Checks if one of the parsed modules has been modified since the query was parsed.
+   * @return result of check
+   */
+  private boolean modified() {
+    for(final Entry<String, long[]> entry : modStamps.entrySet()) {
+      if(!Arrays.equals(stamp(IO.get(entry.getKey())), entry.getValue())) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Returns the modification time (in full precision of the file system) and the size of a
+   * module. The current time is returned for modules that are no local files.
+   * @param io module reference
+   * @return modification time and size
+   */
+  static long[] stamp(final IO io) {
+    if(io instanceof IOFile) {
+      try {
+        final BasicFileAttributes attrs = Files.readAttributes(((IOFile) io).file().toPath(),
+            BasicFileAttributes.class);
+        return new long[] { attrs.lastModifiedTime().to(TimeUnit.NANOSECONDS), attrs.size() };
+      } catch(final IOException ex) {
+        Util.debug(ex);
+      }
+    }
+    return new long[] { System.nanoTime(), io.length() };
+  }
+
+  /**
+   * Finishes the evaluation of a prepared query, or suspends a lazy evaluation.
+   * Other than {@link #close()}, opened resources are kept for the next evaluation.
+   */
+  public void finish() {
+    resources.stamp();
+    options.close();
+  }
+
+  /**
+   * Resumes an evaluation that has been suspended via {@link #finish()}.
+   * @return {@code true} if the evaluation can be resumed, {@code false} if an accessed
+   *   database has been updated in the meantime
+   */
+  public boolean resume() {
+    if(resources.changed()) return false;
+    options.compile();
+    return true;
+  }
+
   /**
    * Returns a result iterator.
    * @return result iterator
@@ -390,6 +491,8 @@ public final class QueryContext extends Job implements Closeable {
    * @return value (can be {@code null})
    */
   public Object getProperty(final String key) {
+    // prepared queries: properties may have been pre-evaluated
+    if(!compiled) prepared = false;
     return props.get(key);
   }
 
@@ -510,7 +613,7 @@ public final class QueryContext extends Job implements Closeable {
    */
   public FElem plan(final boolean full) {
     // only show root node if functions or variables exist
-    final QueryPlan plan = new QueryPlan(compiled, closed, full);
+    final QueryPlan plan = new QueryPlan(compiled, updating, full, profile);
     if(root != null) {
       for(final StaticScope ss : QueryCompiler.usedDecls(root)) ss.plan(plan);
       root.plan(plan);
@@ -578,6 +681,14 @@ public final class QueryContext extends Job implements Closeable {
     args = arg;
   }
 
+  /**
+   * Indicates if a tail-call function has been registered.
+   * @return result of check
+   */
+  public boolean tailCall() {
+    return tailFunc != null;
+  }
+
   /**
    * Returns and clears the currently registered tail-call function.
    * @return function to call if present, {@code null} otherwise
@@ -677,6 +788,8 @@ public final class QueryContext extends Job implements Closeable {
       // create copies of results that will be modified by an update operation
       final HashSet<Data> datas = updates.prepare(this);
       final StringList dbs = updates.databases();
+      // replicas: reject updates that are not triggered by the replication process
+      if(!dbs.isEmpty() && !context.updatable()) throw BASEX_REPLICA.get(null);
       final QueryFunction<Item, Item> materialize = item -> {
         final Data data = item.data();
         final boolean copy = data != null &&
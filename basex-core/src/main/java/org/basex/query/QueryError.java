@@ -29,6 +29,9 @@ public enum QueryError {
   /** Error code. */
   BASEX_ANNOTATION_X_X_X(BASEX, "annotation", "%: % expected, % found."),
   /** Error code. */
+  BASEX_MEMOIZE_X(BASEX, "memoize",
+      "%: Nondeterministic, updating or node-constructing functions cannot be memoized."),
+  /** Error code. */
   BASEX_DBPATH1_X(BASEX, "doc", "Database path '%' yields no documents."),
   /** Error code. */
   BASEX_DBPATH2_X(BASEX, "doc", "Database path '%' yields more than one document."),
@@ -53,6 +56,8 @@ public enum QueryError {
   /** Error code. */
   BASEX_PERMISSION_X_X(BASEX, "permission", "No % permission: %."),
   /** Error code. */
+  BASEX_REPLICA(BASEX, "replica", "Databases cannot be updated on replicas."),
+  /** Error code. */
   BASEX_RESTXQ_X(BASEX, "restxq", "%"),
   /** Error code. */
   BASEX_WS_X(BASEX, "ws", "%"),
@@ -235,6 +240,8 @@ public enum QueryError {
   /** Error code. */
   DB_RANGE_X_X_X(DB, "range", "Database '%' has no node with % value %."),
   /** Error code. */
+  DB_STREAM_X(DB, "stream", "Path cannot be streamed: %."),
+  /** Error code. */
   DB_TARGET_X(DB, "target", "Invalid target path: %."),
 
   // Fetch Module
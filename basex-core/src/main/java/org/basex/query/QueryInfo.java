@@ -95,6 +95,20 @@ public final class QueryInfo {
     }
   }
 
+  /**
+   * Resets the measured times and the evaluation info before a compiled query is evaluated again.
+   */
+  void reset() {
+    parsing = 0;
+    compiling = 0;
+    evaluating = 0;
+    serializing = 0;
+    synchronized(evaluate) {
+      evaluate.reset();
+      evalSize = 0;
+    }
+  }
+
   /**
    * Returns detailed query information.
    * @param qp query processor
@@ -767,6 +767,7 @@ public class QueryParser extends InputParser {
     // read module
     final String qu;
     try {
+      qc.modStamps.put(io.path(), QueryContext.stamp(io));
       qu = string(io.read());
     } catch(final IOException ex) {
       Util.debug(ex);
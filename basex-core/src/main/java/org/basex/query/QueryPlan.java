@@ -8,6 +8,7 @@ import java.util.*;
 import org.basex.data.*;
 import org.basex.query.expr.*;
 import org.basex.query.scope.*;
+import org.basex.query.util.*;
 import org.basex.query.value.node.*;
 import org.basex.query.value.type.*;
 import org.basex.query.var.*;
@@ -26,6 +27,8 @@ public final class QueryPlan {
   public final Stack<FElem> nodes = new Stack<>();
   /** Include comprehensive information. */
   public final boolean full;
+  /** Runtime statistics (can be {@code null}). */
+  private final Profile profile;
 
   /**
    * Constructor.
@@ -34,11 +37,24 @@ public final class QueryPlan {
    * @param full include comprehensive information
    */
   public QueryPlan(final boolean compiled, final boolean updating, final boolean full) {
+    this(compiled, updating, full, null);
+  }
+
+  /**
+   * Constructor.
+   * @param compiled compiled flag
+   * @param updating updating flag
+   * @param full include comprehensive information
+   * @param profile runtime statistics (can be {@code null})
+   */
+  public QueryPlan(final boolean compiled, final boolean updating, final boolean full,
+      final Profile profile) {
     root = new FElem(QUERY_PLAN);
     root.add(COMPILED, token(compiled));
     root.add(UPDATING, token(updating));
     nodes.add(root);
     this.full = full;
+    this.profile = profile;
   }
 
   /**
@@ -98,6 +114,7 @@ public final class QueryPlan {
     if(expr instanceof ParseExpr) {
       attachInputInfo(elem, ((ParseExpr) expr).info);
     }
+    if(profile != null) profile.plan(expr, elem);
     return elem;
   }
 
@@ -49,6 +49,8 @@ public final class QueryResources {
 
   /** Opened databases (both temporary and persistent ones). */
   private final ArrayList<Data> datas = new ArrayList<>(1);
+  /** States of the opened databases (assigned for prepared queries). */
+  private final LongList stamps = new LongList();
   /** External resources. */
   private final Map<Class<? extends QueryResource>, QueryResource> external = new HashMap<>();
   /** Input references. */
@@ -108,6 +110,37 @@ public final class QueryResources {
     inputs.clear();
   }
 
+  /**
+   * Checks if the database with the specified name has been opened.
+   * @param name name of the database
+   * @return result of check
+   */
+  boolean opened(final String name) {
+    for(final Data data : datas) {
+      final String db = data.meta.name;
+      if(Prop.CASE ? db.equals(name) : db.equalsIgnoreCase(name)) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Remembers the states of the opened databases.
+   */
+  void stamp() {
+    stamps.reset();
+    for(final Data data : datas) stamp(data, stamps);
+  }
+
+  /**
+   * Checks if one of the opened databases has been modified since {@link #stamp()} was called.
+   * @return result of check
+   */
+  boolean changed() {
+    final LongList list = new LongList(stamps.size());
+    for(final Data data : datas) stamp(data, list);
+    return !list.equals(stamps);
+  }
+
   /**
    * Returns the globally opened database.
    * @return database or {@code null} if no database is globally opened
@@ -450,6 +483,8 @@ public final class QueryResources {
     } catch(final IOException ex) {
       throw IOERR_X.get(ii, ex);
     }
+    // prepared queries: input may have changed before the next evaluation
+    qc.prepared = false;
     return addData(data);
   }
 
@@ -472,4 +507,17 @@ public final class QueryResources {
     colls.add(coll);
     collNames.add(name);
   }
+
+  /**
+   * Adds the state of a database to the specified list.
+   * Index structures and statistics may be used by the compiled query; their state is
+   * included as well.
+   * @param data data reference
+   * @param list list
+   */
+  private static void stamp(final Data data, final LongList list) {
+    final MetaData meta = data.meta;
+    list.add(meta.time, meta.size, meta.lastid, (meta.uptodate ? 1 : 0) | (meta.textindex ? 2 : 0)
+        | (meta.attrindex ? 4 : 0) | (meta.tokenindex ? 8 : 0) | (meta.ftindex ? 16 : 0));
+  }
 }
@@ -425,6 +425,7 @@ public interface QueryText {
   /** Optimization info. */ String OPTPATH_X = "remove non-existing path %";
   /** Optimization info. */ String OPTINDEX_X_X = "apply % index for %";
   /** Optimization info. */ String OPTNORESULTS_X = "no index results: %";
+  /** Optimization info. */ String OPTREORDER_X = "reorder predicates: %";
   /** Optimization info. */ String OPTCHILD_X = "convert to child steps: %";
   /** Optimization info. */ String OPTUNROLL_X = "unroll: %";
 
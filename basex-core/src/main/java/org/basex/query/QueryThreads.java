@@ -50,6 +50,15 @@ public final class QueryThreads {
     return ftCache.computeIfAbsent(expr, p -> new ThreadLocal<>());
   }
 
+  /**
+   * Discards the caches of all threads (invoked before a compiled query is evaluated again).
+   */
+  void reset() {
+    pathCache.clear();
+    cmpCache.clear();
+    ftCache.clear();
+  }
+
   /**
    * Closes threads.
    */
@@ -18,6 +18,9 @@ import org.basex.util.hash.*;
  * @author Christian Gruen
  */
 public final class And extends Logical {
+  /** Specialized evaluation of numeric operands. */
+  private final Kernel kernel = new Kernel(this);
+
   /**
    * Constructor.
    * @param info input info
@@ -46,6 +49,8 @@ public final class And extends Logical {
     }
 
     // standard evaluation
+    final Item item = kernel.item(qc);
+    if(item != null) return item;
     for(final Expr expr : exprs) {
       if(!expr.ebv(qc, info).bool(info)) return Bln.FALSE;
     }
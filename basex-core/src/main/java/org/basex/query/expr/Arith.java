@@ -19,6 +19,8 @@ import org.basex.util.hash.*;
 public final class Arith extends Arr {
   /** Calculation operator. */
   public final Calc calc;
+  /** Specialized evaluation of numeric operands. */
+  private final Kernel kernel = new Kernel(this);
 
   /**
    * Constructor.
@@ -58,6 +60,9 @@ public final class Arith extends Arr {
 
   @Override
   public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    final Item item = kernel.item(qc);
+    if(item != null) return item;
+
     final Item item1 = exprs[0].atomItem(qc, info);
     if(item1 == Empty.VALUE) return Empty.VALUE;
     final Item item2 = exprs[1].atomItem(qc, info);
@@ -38,7 +38,8 @@ public enum Calc {
         }
         if(type == DBL) return Dbl.get(item1.dbl(ii) + item2.dbl(ii));
         if(type == FLT) return Flt.get(item1.flt(ii) + item2.flt(ii));
-        return Dec.get(item1.dec(ii).add(item2.dec(ii)));
+        final Dec dec = Dec.add(item1, item2, false);
+        return dec != null ? dec : Dec.get(item1.dec(ii).add(item2.dec(ii)));
       }
 
       // dates or durations
@@ -97,7 +98,8 @@ public enum Calc {
         }
         if(type == DBL) return Dbl.get(item1.dbl(ii) - item2.dbl(ii));
         if(type == FLT) return Flt.get(item1.flt(ii) - item2.flt(ii));
-        return Dec.get(item1.dec(ii).subtract(item2.dec(ii)));
+        final Dec dec = Dec.add(item1, item2, true);
+        return dec != null ? dec : Dec.get(item1.dec(ii).subtract(item2.dec(ii)));
       }
 
       // dates or durations
@@ -172,7 +174,8 @@ public enum Calc {
         }
         if(type == DBL) return Dbl.get(item1.dbl(ii) * item2.dbl(ii));
         if(type == FLT) return Flt.get(item1.flt(ii) * item2.flt(ii));
-        return Dec.get(item1.dec(ii).multiply(item2.dec(ii)));
+        final Dec dec = Dec.multiply(item1, item2);
+        return dec != null ? dec : Dec.get(item1.dec(ii).multiply(item2.dec(ii)));
       }
       throw numberError(item1, ii);
     }
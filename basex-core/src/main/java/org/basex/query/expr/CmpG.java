@@ -323,6 +323,15 @@ public class CmpG extends Cmp {
     return ii.create(exprs[1], ii.type(expr1, tokenize ? IndexType.TOKEN : null), false, info);
   }
 
+  /**
+   * Returns the string of an equality comparison with a string literal (example: {@code = 'x'}).
+   * @return string, or {@code null} if this is no such comparison or if a collation is specified
+   */
+  public final byte[] eqString() {
+    final Expr expr = exprs[1];
+    return op == OpG.EQ && coll == null && expr instanceof Str ? ((Str) expr).string() : null;
+  }
+
   @Override
   public CmpG copy(final CompileContext cc, final IntObjMap<Var> vm) {
     final CmpG cmp = new CmpG(exprs[0].copy(cc, vm), exprs[1].copy(cc, vm), op, coll, sc, info);
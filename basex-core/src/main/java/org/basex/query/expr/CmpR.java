@@ -6,14 +6,12 @@ import static org.basex.util.Token.*;
 
 import org.basex.data.*;
 import org.basex.index.*;
-import org.basex.index.name.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
 import org.basex.query.*;
 import org.basex.query.expr.CmpV.*;
 import org.basex.query.expr.index.*;
 import org.basex.query.expr.path.*;
-import org.basex.query.expr.path.Test.*;
 import org.basex.query.func.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
@@ -196,8 +194,10 @@ public final class CmpR extends Single {
       return true;
     }
 
-    // estimate costs
-    ii.costs = ii.costs(data, nr);
+    // estimate costs: consult histogram, or request costs from index
+    final double count = key.count(nr.min, nr.max);
+    ii.costs = count >= 0 ? IndexCosts.get((int) Math.max(1, Math.ceil(count))) :
+      ii.costs(data, nr);
     if(ii.costs == null) return false;
 
     // skip if numbers are negative, doubles, or of different string length
@@ -222,28 +222,8 @@ public final class CmpR extends Single {
    * @return key, or {@code null} if statistics are not available
    */
   private Stats key(final IndexInfo ii, final IndexType type) {
-    // statistics are not up-to-date
-    final Data data = ii.db.data();
-    if(data == null || !data.meta.uptodate || !data.nspaces.isEmpty() ||
-        !(expr instanceof AxisPath)) return null;
-
-    NameTest test = ii.test;
-    if(test == null) {
-      final Step step;
-      final AxisPath path = (AxisPath) expr;
-      final int st = path.steps.length - 1;
-      if(type == IndexType.TEXT) {
-        step = st == 0 ? ii.step : path.step(st - 1);
-        if(step.test.kind != Kind.NAME) return null;
-      } else {
-        step = path.step(st);
-        if(!step.simple(Axis.ATTRIBUTE, true)) return null;
-      }
-      test = (NameTest) step.test;
-    }
-
-    final Names names = type == IndexType.TEXT ? data.elemNames : data.attrNames;
-    final Stats stats = names.stats(names.id(test.name.local()));
+    if(!(expr instanceof AxisPath)) return null;
+    final Stats stats = ii.stats(type);
     return stats == null || StatsType.isNumeric(stats.type) ? stats : null;
   }
 
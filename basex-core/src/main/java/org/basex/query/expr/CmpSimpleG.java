@@ -15,6 +15,9 @@ import org.basex.util.hash.*;
  * @author Christian Gruen
  */
 public final class CmpSimpleG extends CmpG {
+  /** Specialized evaluation of numeric operands. */
+  private final Kernel kernel = new Kernel(this);
+
   /**
    * Constructor.
    * @param expr1 first expression
@@ -31,6 +34,9 @@ public final class CmpSimpleG extends CmpG {
 
   @Override
   public Bln item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    final Item item = kernel.item(qc);
+    if(item != null) return (Bln) item;
+
     final Item item1 = exprs[0].item(qc, info);
     if(item1 == Empty.VALUE) return Bln.FALSE;
     final Item item2 = exprs[1].item(qc, info);
@@ -148,6 +148,8 @@ public final class CmpV extends Cmp {
 
   /** Operator. */
   OpV opV;
+  /** Specialized evaluation of numeric operands. */
+  private final Kernel kernel = new Kernel(this);
 
   /**
    * Constructor.
@@ -209,6 +211,9 @@ public final class CmpV extends Cmp {
 
   @Override
   public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    final Item item = kernel.item(qc);
+    if(item != null) return item;
+
     final Item item1 = exprs[0].atomItem(qc, info);
     if(item1 == Empty.VALUE) return Empty.VALUE;
     final Item item2 = exprs[1].atomItem(qc, info);
@@ -33,16 +33,26 @@ public final class Intersect extends Set {
   }
 
   @Override
-  protected Value nodes(final QueryContext qc) throws QueryException {
+  protected IntBitmap combine(final IntBitmap bitmap1, final IntBitmap bitmap2) {
+    return bitmap1.and(bitmap2);
+  }
+
+  @Override
+  protected boolean empty() {
+    return true;
+  }
+
+  @Override
+  protected Value nodes(final Value[] values, final QueryContext qc) throws QueryException {
     ANodeBuilder nodes = new ANodeBuilder();
-    Iter iter = exprs[0].iter(qc);
+    Iter iter = iter(0, values, qc);
     for(Item item; (item = qc.next(iter)) != null;) nodes.add(toNode(item));
 
     final int el = exprs.length;
     for(int e = 1; e < el && !nodes.isEmpty(); ++e) {
       nodes.ddo();
       final ANodeBuilder tmp = new ANodeBuilder();
-      iter = exprs[e].iter(qc);
+      iter = iter(e, values, qc);
       for(Item item; (item = qc.next(iter)) != null;) {
         final ANode node = toNode(item);
         if(nodes.contains(node)) tmp.add(node);
@@ -53,8 +63,8 @@ public final class Intersect extends Set {
   }
 
   @Override
-  protected NodeIter iterate(final QueryContext qc) throws QueryException {
-    return new SetIter(qc, iters(qc)) {
+  protected NodeIter iterate(final Iter[] iters, final QueryContext qc) {
+    return new SetIter(qc, iters) {
       @Override
       public ANode next() throws QueryException {
         final int irl = iter.length;
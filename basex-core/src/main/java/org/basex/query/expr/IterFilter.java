@@ -2,6 +2,7 @@ package org.basex.query.expr;
 
 import org.basex.query.*;
 import org.basex.query.iter.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.var.*;
@@ -40,6 +41,25 @@ public final class IterFilter extends Filter {
         }
         return null;
       }
+
+      @Override
+      public int next(final ItemList list, final int max) throws QueryException {
+        if(iter == null) iter = root.iter(qc);
+        // request batches from the input, filter them in place
+        final int start = list.size();
+        int size = start;
+        for(boolean more = true; more && size - start < max;) {
+          qc.checkStop();
+          final int req = max - size + start;
+          more = iter.next(list, req) == req;
+          for(int l = size; l < list.size(); l++) {
+            final Item item = list.get(l);
+            if(preds(item, qc)) list.set(size++, item);
+          }
+          list.size(size);
+        }
+        return size - start;
+      }
     };
   }
 
@@ -2,6 +2,7 @@ package org.basex.query.expr;
 
 import org.basex.query.*;
 import org.basex.query.iter.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.var.*;
@@ -37,26 +38,48 @@ public final class IterMap extends SimpleMap {
         final QueryFocus qf = qc.focus;
         if(iter == null) init(qf);
         qc.focus = focus;
+        try {
+          return advance();
+        } finally {
+          qc.focus = qf;
+        }
+      }
 
+      @Override
+      public int next(final ItemList list, final int max) throws QueryException {
+        final QueryFocus qf = qc.focus;
+        if(iter == null) init(qf);
+        qc.focus = focus;
         try {
-          do {
-            focus.value = values[pos];
-            final Item item = qc.next(iter[pos]);
-            if(item == null) {
-              if(--pos == -1) return null;
-            } else if(pos < sz - 1) {
-              focus.value = item;
-              values[++pos] = item;
-              iter[pos] = exprs[pos].iter(qc);
-            } else {
-              return item;
-            }
-          } while(true);
+          int n = 0;
+          for(Item item; n < max && (item = advance()) != null; n++) list.add(item);
+          return n;
         } finally {
           qc.focus = qf;
         }
       }
 
+      /**
+       * Returns the next item. The focus must have been assigned before.
+       * @return item or {@code null}
+       * @throws QueryException query exception
+       */
+      private Item advance() throws QueryException {
+        do {
+          focus.value = values[pos];
+          final Item item = qc.next(iter[pos]);
+          if(item == null) {
+            if(--pos == -1) return null;
+          } else if(pos < sz - 1) {
+            focus.value = item;
+            values[++pos] = item;
+            iter[pos] = exprs[pos].iter(qc);
+          } else {
+            return item;
+          }
+        } while(true);
+      }
+
       private void init(final QueryFocus qf) throws QueryException {
         sz = exprs.length;
         iter = new Iter[sz];
@@ -0,0 +1,398 @@
+package org.basex.query.expr;
+
+import org.basex.query.*;
+import org.basex.query.expr.CmpV.*;
+import org.basex.query.util.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.type.*;
+import org.basex.util.*;
+
+/**
+ * Specialized evaluation of type-stable arithmetic and comparison expressions.
+ *
+ * After a number of evaluations, subtrees with statically known integer and double types
+ * ({@link Arith}, {@link CmpG}, {@link CmpV}, {@link And}, {@link Or}) are compiled to nested
+ * closures, which compute all intermediate results on primitive values.
+ * If an operand yields an unexpected item at runtime, or if an integer operation overflows,
+ * the kernel is discarded, and the expression falls back to its standard evaluation.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class Kernel {
+  /** Number of evaluations before a kernel will be compiled. */
+  private static final int HOT = 1 << 6;
+  /** Signals a type mismatch or an overflow. */
+  private static final Deopt DEOPT = new Deopt();
+
+  /** Root expression. */
+  private final Expr expr;
+  /** Compiled code ({@code null} if not available yet, or if the kernel is disabled). */
+  private ItemCode code;
+  /** Indicates if the kernel is disabled. */
+  private boolean disabled;
+  /** Number of evaluations (concurrent updates may be lost, which delays compilation). */
+  private int calls;
+
+  /**
+   * Constructor.
+   * @param expr root expression
+   */
+  Kernel(final Expr expr) {
+    this.expr = expr;
+  }
+
+  /**
+   * Evaluates the compiled code. The expression may be evaluated by several threads at the same
+   * time: compiled code is immutable, it is created once, and it is never enabled again after
+   * it has been discarded. The fields are not volatile: a thread that still sees discarded code
+   * evaluates it once more and will fall back to the standard evaluation as well.
+   * The counter is only incremented until the code has been compiled or discarded.
+   * @param qc query context
+   * @return resulting item, or {@code null} if standard evaluation is required
+   * @throws QueryException query exception
+   */
+  Item item(final QueryContext qc) throws QueryException {
+    ItemCode ic = code;
+    if(ic == null) {
+      if(disabled || ++calls < HOT) return null;
+      ic = compile();
+      if(ic == null) return null;
+    }
+    try {
+      return ic.eval(qc);
+    } catch(final Deopt ex) {
+      disabled = true;
+      code = null;
+      return null;
+    }
+  }
+
+  /**
+   * Compiles the root expression if this has not been done yet.
+   * @return compiled code or {@code null}
+   */
+  private synchronized ItemCode compile() {
+    if(disabled) return null;
+    if(code == null) {
+      final ItemCode ic = compile(expr);
+      if(ic == null) disabled = true;
+      else code = ic;
+    }
+    return code;
+  }
+
+  /**
+   * Compiles the specified expression.
+   * @param ex expression
+   * @return compiled code or {@code null}
+   */
+  private static ItemCode compile(final Expr ex) {
+    final SeqType st = ex.seqType();
+    if(!st.one()) return null;
+    final Type type = st.type;
+    if(type == AtomType.BLN) {
+      final BoolCode bc = bools(ex, false);
+      if(bc != null) return qc -> Bln.get(bc.eval(qc));
+    } else if(type == AtomType.ITR) {
+      final LongCode lc = longs(ex, false);
+      if(lc != null) return qc -> Int.get(lc.eval(qc));
+    } else if(type == AtomType.DBL) {
+      final DoubleCode dc = doubles(ex, false);
+      if(dc != null) return qc -> Dbl.get(dc.eval(qc));
+    }
+    return null;
+  }
+
+  /**
+   * Compiles an expression that yields a single boolean.
+   * @param ex expression
+   * @param leaf evaluate expression as leaf if it cannot be specialized
+   * @return compiled code or {@code null}
+   */
+  private static BoolCode bools(final Expr ex, final boolean leaf) {
+    if(ex instanceof CmpSimpleG || ex instanceof CmpV) {
+      final Cmp cmp = (Cmp) ex;
+      final Expr expr1 = cmp.exprs[0], expr2 = cmp.exprs[1];
+      final OpV op = cmp.opV();
+      if(integer(expr1) && integer(expr2)) {
+        final LongCode lc1 = longs(expr1, true), lc2 = longs(expr2, true);
+        if(lc1 != null && lc2 != null) {
+          switch(op) {
+            case EQ: return qc -> lc1.eval(qc) == lc2.eval(qc);
+            case NE: return qc -> lc1.eval(qc) != lc2.eval(qc);
+            case LT: return qc -> lc1.eval(qc) < lc2.eval(qc);
+            case LE: return qc -> lc1.eval(qc) <= lc2.eval(qc);
+            case GT: return qc -> lc1.eval(qc) > lc2.eval(qc);
+            default: return qc -> lc1.eval(qc) >= lc2.eval(qc);
+          }
+        }
+      } else if(number(expr1) && number(expr2)) {
+        final DoubleCode dc1 = doubles(expr1, true), dc2 = doubles(expr2, true);
+        if(dc1 != null && dc2 != null) {
+          switch(op) {
+            case EQ: return qc -> dc1.eval(qc) == dc2.eval(qc);
+            case NE: return qc -> dc1.eval(qc) != dc2.eval(qc);
+            case LT: return qc -> dc1.eval(qc) < dc2.eval(qc);
+            case LE: return qc -> dc1.eval(qc) <= dc2.eval(qc);
+            case GT: return qc -> dc1.eval(qc) > dc2.eval(qc);
+            default: return qc -> dc1.eval(qc) >= dc2.eval(qc);
+          }
+        }
+      }
+    } else if(ex instanceof And || ex instanceof Or) {
+      final Expr[] exprs = ((Logical) ex).exprs;
+      final int el = exprs.length;
+      final BoolCode[] codes = new BoolCode[el];
+      for(int e = 0; e < el; e++) {
+        final SeqType st = exprs[e].seqType();
+        codes[e] = st.one() && st.type == AtomType.BLN ? bools(exprs[e], true) : null;
+        if(codes[e] == null) return leaf ? leaf(ex) : null;
+      }
+      return ex instanceof And ? qc -> {
+        for(final BoolCode bc : codes) {
+          if(!bc.eval(qc)) return false;
+        }
+        return true;
+      } : qc -> {
+        for(final BoolCode bc : codes) {
+          if(bc.eval(qc)) return true;
+        }
+        return false;
+      };
+    }
+    return leaf ? leaf(ex) : null;
+  }
+
+  /**
+   * Compiles an expression that yields a single integer.
+   * @param ex expression
+   * @param leaf evaluate expression as leaf if it cannot be specialized
+   * @return compiled code or {@code null}
+   */
+  private static LongCode longs(final Expr ex, final boolean leaf) {
+    if(ex instanceof Int) {
+      final long value = ((Int) ex).itr();
+      return qc -> value;
+    }
+    if(ex instanceof Arith) {
+      final Arith arith = (Arith) ex;
+      final Expr expr1 = arith.exprs[0], expr2 = arith.exprs[1];
+      final LongCode lc1 = integer(expr1) ? longs(expr1, true) : null;
+      final LongCode lc2 = integer(expr2) ? longs(expr2, true) : null;
+      if(lc1 != null && lc2 != null) {
+        switch(arith.calc) {
+          case PLUS: return qc -> {
+            try {
+              return Math.addExact(lc1.eval(qc), lc2.eval(qc));
+            } catch(final ArithmeticException e) {
+              throw DEOPT;
+            }
+          };
+          case MINUS: return qc -> {
+            try {
+              return Math.subtractExact(lc1.eval(qc), lc2.eval(qc));
+            } catch(final ArithmeticException e) {
+              throw DEOPT;
+            }
+          };
+          case MULT: return qc -> {
+            try {
+              return Math.multiplyExact(lc1.eval(qc), lc2.eval(qc));
+            } catch(final ArithmeticException e) {
+              throw DEOPT;
+            }
+          };
+          case IDIV: return qc -> {
+            final long l1 = lc1.eval(qc), l2 = lc2.eval(qc);
+            if(l2 == 0 || l2 == -1) throw DEOPT;
+            return l1 / l2;
+          };
+          case MOD: return qc -> {
+            final long l1 = lc1.eval(qc), l2 = lc2.eval(qc);
+            if(l2 == 0) throw DEOPT;
+            return l1 % l2;
+          };
+          default:
+        }
+      }
+    }
+    if(!leaf || !deterministic(ex)) return null;
+
+    final InputInfo info = info(ex);
+    return qc -> {
+      final Item item = ex.item(qc, info);
+      if(!(item instanceof Int)) throw DEOPT;
+      return ((Int) item).itr();
+    };
+  }
+
+  /**
+   * Compiles an expression that yields a single double or integer.
+   * Integers will be promoted to doubles.
+   * @param ex expression
+   * @param leaf evaluate expression as leaf if it cannot be specialized
+   * @return compiled code or {@code null}
+   */
+  private static DoubleCode doubles(final Expr ex, final boolean leaf) {
+    if(integer(ex)) {
+      final LongCode lc = longs(ex, leaf);
+      return lc == null ? null : qc -> lc.eval(qc);
+    }
+    if(ex instanceof Dbl) {
+      final double value = ((Dbl) ex).dbl();
+      return qc -> value;
+    }
+    if(ex instanceof Arith) {
+      final Arith arith = (Arith) ex;
+      final Expr expr1 = arith.exprs[0], expr2 = arith.exprs[1];
+      final DoubleCode dc1 = number(expr1) ? doubles(expr1, true) : null;
+      final DoubleCode dc2 = number(expr2) ? doubles(expr2, true) : null;
+      if(dc1 != null && dc2 != null) {
+        switch(arith.calc) {
+          case PLUS:  return qc -> dc1.eval(qc) + dc2.eval(qc);
+          case MINUS: return qc -> dc1.eval(qc) - dc2.eval(qc);
+          case MULT:  return qc -> dc1.eval(qc) * dc2.eval(qc);
+          case DIV:   return qc -> dc1.eval(qc) / dc2.eval(qc);
+          case MOD:   return qc -> dc1.eval(qc) % dc2.eval(qc);
+          default:
+        }
+      }
+    }
+    if(!leaf || !deterministic(ex)) return null;
+
+    final InputInfo info = info(ex);
+    return qc -> {
+      final Item item = ex.item(qc, info);
+      if(!(item instanceof Dbl)) throw DEOPT;
+      return ((Dbl) item).dbl();
+    };
+  }
+
+  /**
+   * Returns a leaf that evaluates a boolean expression.
+   * @param ex expression
+   * @return compiled code or {@code null}
+   */
+  private static BoolCode leaf(final Expr ex) {
+    if(!deterministic(ex)) return null;
+    final InputInfo info = info(ex);
+    return qc -> {
+      final Item item = ex.item(qc, info);
+      if(!(item instanceof Bln)) throw DEOPT;
+      return item.bool(info);
+    };
+  }
+
+  /**
+   * Checks if the specified expression yields a single integer.
+   * @param ex expression
+   * @return result of check
+   */
+  private static boolean integer(final Expr ex) {
+    final SeqType st = ex.seqType();
+    return st.one() && st.type.instanceOf(AtomType.ITR);
+  }
+
+  /**
+   * Checks if the specified expression yields a single double.
+   * @param ex expression
+   * @return result of check
+   */
+  private static boolean dbl(final Expr ex) {
+    final SeqType st = ex.seqType();
+    return st.one() && st.type == AtomType.DBL;
+  }
+
+  /**
+   * Checks if the specified expression yields a single double or integer.
+   * @param ex expression
+   * @return result of check
+   */
+  private static boolean number(final Expr ex) {
+    return integer(ex) || dbl(ex);
+  }
+
+  /**
+   * Checks if the specified expression can be evaluated as leaf of a kernel.
+   * Leaves will be evaluated again if the kernel is discarded.
+   * @param ex expression
+   * @return result of check
+   */
+  private static boolean deterministic(final Expr ex) {
+    return !ex.has(Flag.NDT, Flag.UPD);
+  }
+
+  /**
+   * Returns the input info of the specified expression.
+   * @param ex expression
+   * @return input info (can be {@code null})
+   */
+  private static InputInfo info(final Expr ex) {
+    return ex instanceof ParseExpr ? ((ParseExpr) ex).info : null;
+  }
+
+  /** Compiled code, returning an item. */
+  @FunctionalInterface
+  private interface ItemCode {
+    /**
+     * Evaluates the code.
+     * @param qc query context
+     * @return result
+     * @throws QueryException query exception
+     */
+    Item eval(QueryContext qc) throws QueryException;
+  }
+
+  /** Compiled code, returning a boolean. */
+  @FunctionalInterface
+  private interface BoolCode {
+    /**
+     * Evaluates the code.
+     * @param qc query context
+     * @return result
+     * @throws QueryException query exception
+     */
+    boolean eval(QueryContext qc) throws QueryException;
+  }
+
+  /** Compiled code, returning an integer. */
+  @FunctionalInterface
+  private interface LongCode {
+    /**
+     * Evaluates the code.
+     * @param qc query context
+     * @return result
+     * @throws QueryException query exception
+     */
+    long eval(QueryContext qc) throws QueryException;
+  }
+
+  /** Compiled code, returning a double. */
+  @FunctionalInterface
+  private interface DoubleCode {
+    /**
+     * Evaluates the code.
+     * @param qc query context
+     * @return result
+     * @throws QueryException query exception
+     */
+    double eval(QueryContext qc) throws QueryException;
+  }
+
+  /** Exception for discarding a kernel (no stack trace). */
+  private static final class Deopt extends RuntimeException {
+    /** Serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** Constructor. */
+    private Deopt() {
+      super(null, null, false, false);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return Util.className(this) + '[' + expr + ']';
+  }
+}
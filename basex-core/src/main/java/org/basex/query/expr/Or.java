@@ -18,6 +18,9 @@ import org.basex.util.hash.*;
  * @author Christian Gruen
  */
 public final class Or extends Logical {
+  /** Specialized evaluation of numeric operands. */
+  private final Kernel kernel = new Kernel(this);
+
   /**
    * Constructor.
    * @param info input info
@@ -47,6 +50,8 @@ public final class Or extends Logical {
     }
 
     // standard evaluation
+    final Item item = kernel.item(qc);
+    if(item != null) return item;
     for(final Expr expr : exprs) {
       if(expr.ebv(qc, info).bool(info)) return Bln.TRUE;
     }
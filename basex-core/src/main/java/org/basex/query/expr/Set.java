@@ -4,11 +4,13 @@ import static org.basex.query.QueryText.*;
 
 import java.util.*;
 
+import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.iter.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
+import org.basex.query.value.seq.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
 
@@ -53,42 +55,114 @@ abstract class Set extends Arr {
 
   @Override
   public final Iter iter(final QueryContext qc) throws QueryException {
-    return iterable ? iterate(qc) : nodes(qc).iter();
+    if(!iterable) return value(qc).iter();
+
+    final int el = exprs.length;
+    final Iter[] iters = new Iter[el];
+    for(int e = 0; e < el; e++) iters[e] = exprs[e].iter(qc);
+    return iterate(iters, qc);
   }
 
   @Override
   public final Value value(final QueryContext qc) throws QueryException {
-    return iterable ? iterate(qc).value(qc, this) : nodes(qc);
+    final int el = exprs.length;
+    final Value[] values = new Value[el];
+
+    // nodes of a single database: combine bitmaps with pre values
+    Data data = null;
+    IntBitmap bitmap = null;
+    for(int e = 0; e < el; e++) {
+      final Value value = exprs[e].value(qc);
+      values[e] = value;
+      if(!value.isEmpty()) {
+        final Data dt = data(value);
+        if(dt == null || data != null && data != dt) {
+          bitmap = null;
+          break;
+        }
+        data = dt;
+      }
+      final IntBitmap bm = IntBitmap.get(pres(value));
+      bitmap = bitmap == null ? bm : combine(bitmap, bm);
+      // skip evaluation of remaining operands if the result will be empty
+      if(bitmap.cardinality() == 0 && empty()) return Empty.VALUE;
+    }
+    if(bitmap != null) {
+      return data == null ? Empty.VALUE : DBNodeSeq.get(bitmap.toArray(), data, this);
+    }
+
+    if(!iterable) return nodes(values, qc);
+    final Iter[] iters = new Iter[el];
+    for(int e = 0; e < el; e++) iters[e] = iter(e, values, qc);
+    return iterate(iters, qc).value(qc, this);
   }
 
   /**
-   * Creates iterators for all expressions.
+   * Returns an iterator for the specified operand.
+   * @param e index of the operand
+   * @param values operands that have already been evaluated (other entries are {@code null})
    * @param qc query context
-   * @return iterators
+   * @return iterator
    * @throws QueryException query exception
    */
-  Iter[] iters(final QueryContext qc) throws QueryException {
-    final int el = exprs.length;
-    final Iter[] iters = new Iter[el];
-    for(int e = 0; e < el; e++) iters[e] = exprs[e].iter(qc);
-    return iters;
+  final Iter iter(final int e, final Value[] values, final QueryContext qc)
+      throws QueryException {
+    final Value value = values[e];
+    return value != null ? value.iter() : exprs[e].iter(qc);
   }
 
   /**
-   * Evaluates the specified iterators.
+   * Returns the database of a value that only consists of database nodes in distinct
+   * document order.
+   * @param value value
+   * @return database, or {@code null} if the value cannot be represented via pre values
+   */
+  private static Data data(final Value value) {
+    return value instanceof DBNodeSeq && !(value instanceof DBNodes) ||
+        value.getClass() == DBNode.class ? value.data() : null;
+  }
+
+  /**
+   * Returns the pre values of a value that has been accepted by {@link #data(Value)}.
+   * @param value value
+   * @return pre values
+   */
+  private static int[] pres(final Value value) {
+    return value.isEmpty() ? new int[0] : value instanceof DBNode ?
+      new int[] { ((DBNode) value).pre() } : ((DBNodeSeq) value).pres();
+  }
+
+  /**
+   * Combines two bitmaps with pre values.
+   * @param bitmap1 first bitmap
+   * @param bitmap2 second bitmap
+   * @return resulting bitmap
+   */
+  protected abstract IntBitmap combine(IntBitmap bitmap1, IntBitmap bitmap2);
+
+  /**
+   * Indicates if the result will be empty if the intermediate result is empty.
+   * @return result of check
+   */
+  protected abstract boolean empty();
+
+  /**
+   * Evaluates the operands.
+   * @param values operands that have already been evaluated (other entries are {@code null})
    * @param qc query context
    * @return resulting node list
    * @throws QueryException query exception
    */
-  protected abstract Value nodes(QueryContext qc) throws QueryException;
+  protected abstract Value nodes(Value[] values, QueryContext qc) throws QueryException;
 
   /**
    * Evaluates the specified iterators in an iterative manner.
+   * @param iters iterators
    * @param qc query context
    * @return resulting iterator
    * @throws QueryException query exception
    */
-  protected abstract Iter iterate(QueryContext qc) throws QueryException;
+  protected abstract Iter iterate(Iter[] iters, QueryContext qc) throws QueryException;
 
   @Override
   public final boolean iterable() {
@@ -54,18 +54,29 @@ public final class Union extends Set {
   }
 
   @Override
-  protected Value nodes(final QueryContext qc) throws QueryException {
+  protected IntBitmap combine(final IntBitmap bitmap1, final IntBitmap bitmap2) {
+    return bitmap1.or(bitmap2);
+  }
+
+  @Override
+  protected boolean empty() {
+    return false;
+  }
+
+  @Override
+  protected Value nodes(final Value[] values, final QueryContext qc) throws QueryException {
     final ANodeBuilder nodes = new ANodeBuilder();
-    for(final Expr expr : exprs) {
-      final Iter iter = expr.iter(qc);
+    final int el = exprs.length;
+    for(int e = 0; e < el; e++) {
+      final Iter iter = iter(e, values, qc);
       for(Item item; (item = qc.next(iter)) != null;) nodes.add(toNode(item));
     }
     return nodes.value(this);
   }
 
   @Override
-  protected NodeIter iterate(final QueryContext qc) throws QueryException {
-    return new SetIter(qc, iters(qc)) {
+  protected NodeIter iterate(final Iter[] iters, final QueryContext qc) {
+    return new SetIter(qc, iters) {
       @Override
       public ANode next() throws QueryException {
         if(nodes == null) {
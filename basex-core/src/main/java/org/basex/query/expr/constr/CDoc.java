@@ -29,16 +29,22 @@ public final class CDoc extends CNode {
   }
 
   @Override
-  public FDoc item(final QueryContext qc, final InputInfo ii) throws QueryException {
-    // create document node and add children
+  public ANode item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    // create document node and add children (large contents will be written to a compact instance)
     final Constr c = new Constr(info, sc);
     final FDoc doc = new FDoc(c.children, Token.EMPTY);
-    c.add(qc, exprs);
+    c.compact(builder -> {
+      if(!c.atts.isEmpty()) throw DOCATTS_X.get(info, c.atts.get(0).name());
+      if(!c.nspaces.isEmpty()) throw DOCNS_X.get(info, c.nspaces.name(0));
+      builder.openDoc();
+      return true;
+    }, qc).add(qc, exprs);
     if(c.errAtt != null) throw DOCATTS_X.get(info, c.errAtt);
     if(!c.atts.isEmpty()) throw DOCATTS_X.get(info, c.atts.get(0).name());
     if(c.errNS != null) throw DOCNS_X.get(info, c.errNS);
     if(!c.nspaces.isEmpty()) throw DOCNS_X.get(info, c.nspaces.name(0));
-    return doc.optimize();
+    final DBNode node = c.node();
+    return node != null ? node : doc.optimize();
   }
 
   @Override
@@ -52,7 +52,7 @@ public final class CElem extends CName {
   }
 
   @Override
-  public FElem item(final QueryContext qc, final InputInfo ii) throws QueryException {
+  public ANode item(final QueryContext qc, final InputInfo ii) throws QueryException {
     final int s = addNS();
     try {
       // adds in-scope namespaces
@@ -72,55 +72,28 @@ public final class CElem extends CName {
       final Constr constr = new Constr(info, sc);
       final FElem node = new FElem(nm, inscopeNS, constr.children, constr.atts);
 
-      // add child and attribute nodes
-      constr.add(qc, exprs);
+      // add child and attribute nodes (large contents will be written to a compact instance)
+      constr.compact(builder -> {
+        namespaces(nm, inscopeNS, constr);
+        // declared namespaces would be inherited by the children of a compact instance
+        if(!inscopeNS.isEmpty()) return false;
+        builder.openElem(nm, inscopeNS, constr.atts);
+        return true;
+      }, qc).add(qc, exprs);
       if(constr.errAtt != null) throw NOATTALL_X.get(info, constr.errAtt);
       if(constr.errNS != null) throw NONSALL_X.get(info, constr.errNS);
       if(constr.duplAtt != null) throw CATTDUPL_X.get(info, constr.duplAtt);
       if(constr.duplNS != null) throw DUPLNSCONS_X.get(info, constr.duplNS);
-      if(constr.nspaces.contains(EMPTY) && !nm.hasPrefix()) throw DUPLNSCONS_X.get(info, EMPTY);
 
-      // add namespace for element name (unless its prefix is "xml")
-      if(!eq(cp, XML)) {
-        // get URI for the specified prefix
+      // add namespace of element name to statically known namespaces
+      if(!comp && nm.hasURI() && !eq(cp, XML)) {
         final byte[] uri = sc.ns.uri(cp);
-
-        // check if element has a namespace
-        if(nm.hasURI()) {
-          // add to statically known namespaces
-          if(!comp && (uri == null || !eq(uri, cu))) sc.ns.add(cp, cu);
-          // add to in-scope namespaces
-          if(!inscopeNS.contains(cp)) inscopeNS.add(cp, cu);
-        } else {
-          // element has no namespace: assign default uri
-          nm.uri(uri);
-        }
+        if(uri == null || !eq(uri, cu)) sc.ns.add(cp, cu);
       }
 
-      // add constructed namespaces
-      final Atts cns = constr.nspaces;
-      final int cl = cns.size();
-      for(int c = 0; c < cl; c++) addNS(cns.name(c), cns.value(c), inscopeNS);
-
-      // add namespaces for attributes
-      final int al = constr.atts.size();
-      for(int a = 0; a < al; a++) {
-        final ANode att = constr.atts.get(a);
-        final QNm qnm = att.qname();
-        // skip attributes without prefixes or URIs
-        if(!qnm.hasPrefix() || !qnm.hasURI()) continue;
-
-        // skip XML namespace
-        final byte[] apref = qnm.prefix();
-        if(eq(apref, XML)) continue;
-
-        final byte[] auri = qnm.uri();
-        final byte[] npref = addNS(apref, auri, inscopeNS);
-        if(npref != null) {
-          final QNm aname = new QNm(concat(npref, COLON, qnm.local()), auri);
-          constr.atts.set(a, new FAttr(aname, att.string()));
-        }
-      }
+      final DBNode dbnode = constr.node();
+      if(dbnode != null) return dbnode;
+      namespaces(nm, inscopeNS, constr);
 
       // update and optimize child nodes
       for(final ANode ch : constr.children) ch.optimize();
@@ -132,6 +105,61 @@ public final class CElem extends CName {
     }
   }
 
+  /**
+   * Assigns the namespaces of the element name, the constructed namespaces and the namespaces
+   * of the attributes. Attribute prefixes will be renamed if they conflict with existing ones.
+   * @param nm element name
+   * @param inscopeNS in-scope namespaces
+   * @param constr constructor
+   * @throws QueryException query exception
+   */
+  private void namespaces(final QNm nm, final Atts inscopeNS, final Constr constr)
+      throws QueryException {
+
+    if(constr.nspaces.contains(EMPTY) && !nm.hasPrefix()) throw DUPLNSCONS_X.get(info, EMPTY);
+
+    // add namespace for element name (unless its prefix is "xml")
+    final byte[] cp = nm.prefix(), cu = nm.uri();
+    if(!eq(cp, XML)) {
+      // get URI for the specified prefix
+      final byte[] uri = sc.ns.uri(cp);
+
+      // check if element has a namespace
+      if(nm.hasURI()) {
+        // add to in-scope namespaces
+        if(!inscopeNS.contains(cp)) inscopeNS.add(cp, cu);
+      } else {
+        // element has no namespace: assign default uri
+        nm.uri(uri);
+      }
+    }
+
+    // add constructed namespaces
+    final Atts cns = constr.nspaces;
+    final int cl = cns.size();
+    for(int c = 0; c < cl; c++) addNS(cns.name(c), cns.value(c), inscopeNS);
+
+    // add namespaces for attributes
+    final int al = constr.atts.size();
+    for(int a = 0; a < al; a++) {
+      final ANode att = constr.atts.get(a);
+      final QNm qnm = att.qname();
+      // skip attributes without prefixes or URIs
+      if(!qnm.hasPrefix() || !qnm.hasURI()) continue;
+
+      // skip XML namespace
+      final byte[] apref = qnm.prefix();
+      if(eq(apref, XML)) continue;
+
+      final byte[] auri = qnm.uri();
+      final byte[] npref = addNS(apref, auri, inscopeNS);
+      if(npref != null) {
+        final QNm aname = new QNm(concat(npref, COLON, qnm.local()), auri);
+        constr.atts.set(a, new FAttr(aname, att.string()));
+      }
+    }
+  }
+
   @Override
   public Expr copy(final CompileContext cc, final IntObjMap<Var> vm) {
     return new CElem(sc, info, name.copy(cc, vm), comp ? null : nspaces.copy(),
@@ -3,9 +3,11 @@ package org.basex.query.expr.constr;
 import static org.basex.query.QueryError.*;
 
 import org.basex.core.*;
+import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.iter.*;
+import org.basex.query.util.*;
 import org.basex.query.util.list.*;
 import org.basex.query.value.*;
 import org.basex.query.value.array.XQArray;
@@ -21,6 +23,9 @@ import org.basex.util.*;
  * @author Christian Gruen
  */
 public final class Constr {
+  /** Minimum number of nodes for building a compact database instance. */
+  private static final int COMPACT = 1 << 8;
+
   /** Node array. */
   public final ANodeList children = new ANodeList();
   /** Attribute array. */
@@ -45,6 +50,13 @@ public final class Constr {
   /** Space separator flag. */
   private boolean more;
 
+  /** Root node of a compact database instance ({@code null}: no compaction). */
+  private Root root;
+  /** Builder of the compact database instance (assigned after the root has been opened). */
+  private DataBuilder builder;
+  /** Number of added nodes. */
+  private int nodes;
+
   /**
    * Creates the children of the constructor.
    * @param info input info
@@ -55,6 +67,29 @@ public final class Constr {
     this.sc = sc;
   }
 
+  /**
+   * Enables the construction of a compact database instance. If the number of child nodes
+   * exceeds a threshold, the root node will be opened, and all existing and subsequent child
+   * nodes will be written to a main-memory database instance.
+   * Constructors that are evaluated as content of another constructor are skipped, as their
+   * nodes will be copied by the outermost constructor anyway.
+   * @param rt root node
+   * @param qc query context
+   * @return self reference
+   */
+  Constr compact(final Root rt, final QueryContext qc) {
+    if(qc.constructors == 0 && qc.context.options.get(MainOptions.COPYNODE)) root = rt;
+    return this;
+  }
+
+  /**
+   * Returns the node of the compact database instance.
+   * @return node, or {@code null} if no compact instance has been created
+   */
+  DBNode node() {
+    return builder != null ? builder.close() : null;
+  }
+
   /**
    * Constructs child and attribute nodes.
    * @param qc query context
@@ -64,15 +99,17 @@ public final class Constr {
    */
   public Constr add(final QueryContext qc, final Expr... exprs) throws QueryException {
     final int size = sc.ns.size();
+    qc.constructors++;
     try {
       for(final Expr expr : exprs) {
         more = false;
         final Iter iter = expr.iter(qc);
         for(Item item; (item = qc.next(iter)) != null && add(qc, item););
       }
-      if(!text.isEmpty()) children.add(new FTxt(text.toArray()));
+      if(!text.isEmpty()) text(qc, text.toArray());
       return this;
     } finally {
+      qc.constructors--;
       sc.ns.size(size);
     }
   }
@@ -110,7 +147,7 @@ public final class Constr {
 
         // check if attribute is specified after texts or child nodes
         final QNm name = node.qname();
-        if(!text.isEmpty() || !children.isEmpty()) {
+        if(!text.isEmpty() || nodes != 0) {
           errAtt = name;
           return false;
         }
@@ -130,7 +167,7 @@ public final class Constr {
         // type: namespace node
 
         // no attribute allowed after texts or child nodes
-        if(!text.isEmpty() || !children.isEmpty()) {
+        if(!text.isEmpty() || nodes != 0) {
           errNS = node.qname();
           return false;
         }
@@ -155,8 +192,8 @@ public final class Constr {
         // type: element/comment/processing instruction node
 
         // add text node
-        if(!text.isEmpty()) children.add(new FTxt(text.next()));
-        children.add(node.materialize(qc, qc.context.options.get(MainOptions.COPYNODE)));
+        if(!text.isEmpty()) text(qc, text.next());
+        child(qc, node);
       }
       more = false;
     } else {
@@ -168,4 +205,65 @@ public final class Constr {
     }
     return true;
   }
+
+  /**
+   * Adds a text node.
+   * @param qc query context
+   * @param value text
+   * @throws QueryException query exception
+   */
+  private void text(final QueryContext qc, final byte[] value) throws QueryException {
+    if(compact(qc, 1)) builder.text(value);
+    else children.add(new FTxt(value));
+  }
+
+  /**
+   * Adds a child node.
+   * @param qc query context
+   * @param node node
+   * @throws QueryException query exception
+   */
+  private void child(final QueryContext qc, final ANode node) throws QueryException {
+    if(compact(qc, root != null && builder == null ? DataBuilder.size(node, false) : 1)) {
+      builder.add(node);
+    } else {
+      children.add(node.materialize(qc, qc.context.options.get(MainOptions.COPYNODE)));
+    }
+  }
+
+  /**
+   * Counts added nodes and checks if nodes are to be written to the compact database instance.
+   * If the threshold is exceeded, the root node and the existing children are written to a
+   * new instance.
+   * @param qc query context
+   * @param count number of nodes to be added
+   * @return {@code true} if nodes are to be written to the compact instance
+   * @throws QueryException query exception
+   */
+  private boolean compact(final QueryContext qc, final int count) throws QueryException {
+    nodes += count;
+    if(builder == null) {
+      if(root == null || nodes < COMPACT) return false;
+      final DataBuilder db = new DataBuilder(new MemData(qc.context.options), qc);
+      if(!root.open(db)) {
+        root = null;
+        return false;
+      }
+      builder = db;
+      for(final ANode child : children) builder.add(child);
+      children.reset();
+    }
+    return true;
+  }
+
+  /** Root node of a compact database instance. */
+  interface Root {
+    /**
+     * Opens the root node.
+     * @param builder data builder
+     * @return {@code false} if the root node cannot be stored in a compact instance
+     * @throws QueryException query exception
+     */
+    boolean open(DataBuilder builder) throws QueryException;
+  }
 }
@@ -1,5 +1,6 @@
 package org.basex.query.expr.ft;
 
+import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.index.*;
@@ -8,11 +9,13 @@ import org.basex.query.iter.*;
 import org.basex.query.util.*;
 import org.basex.query.value.*;
 import org.basex.query.value.node.*;
+import org.basex.query.value.seq.*;
 import org.basex.query.value.type.*;
 import org.basex.query.var.*;
 import org.basex.util.*;
 import org.basex.util.ft.*;
 import org.basex.util.hash.*;
+import org.basex.util.list.*;
 
 /**
  * FTContains expression with index access.
@@ -60,7 +63,18 @@ public final class FTIndexAccess extends Simple {
 
   @Override
   public Value value(final QueryContext qc) throws QueryException {
-    return iter(qc).value(qc, this);
+    if(qc.scoring || qc.ftPosData != null) return iter(qc).value(qc, this);
+
+    // no scores and positions required: return compact sequence with pre values
+    final FTIter iter = ftexpr.iter(qc);
+    final IntList pres = new IntList();
+    Data data = null;
+    for(FTNode node; (node = iter.next()) != null;) {
+      qc.checkStop();
+      data = node.data();
+      pres.add(node.pre());
+    }
+    return DBNodeSeq.get(pres.finish(), data, this);
   }
 
   @Override
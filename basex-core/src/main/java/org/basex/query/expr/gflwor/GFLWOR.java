@@ -54,7 +54,9 @@ public final class GFLWOR extends ParseExpr {
 
   @Override
   public Iter iter(final QueryContext qc) {
-    return new Iter() {
+    final Profile profile = qc.profile;
+    final long start = profile != null ? System.nanoTime() : 0;
+    final Iter iter = new Iter() {
       private final Eval ev = newEval();
       private Iter sub = Empty.ITER;
 
@@ -71,14 +73,18 @@ public final class GFLWOR extends ParseExpr {
         }
       }
     };
+    return profile != null ? profile.iter(this, start, iter) : iter;
   }
 
   @Override
   public Value value(final QueryContext qc) throws QueryException {
+    final Profile profile = qc.profile;
+    final long start = profile != null ? System.nanoTime() : 0;
     final Eval eval = newEval();
     final ValueBuilder vb = new ValueBuilder(qc);
     while(eval.next(qc)) vb.add(rtrn.value(qc));
-    return vb.value(this);
+    final Value value = vb.value(this);
+    return profile != null ? profile.value(this, start, value) : value;
   }
 
   @Override
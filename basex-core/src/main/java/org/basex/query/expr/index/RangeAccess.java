@@ -9,6 +9,7 @@ import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.func.*;
 import org.basex.query.iter.*;
+import org.basex.query.util.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
@@ -41,10 +42,12 @@ public final class RangeAccess extends IndexAccess {
 
   @Override
   public Iter iter(final QueryContext qc) throws QueryException {
+    final Profile profile = qc.profile;
+    final long start = profile != null ? System.nanoTime() : 0;
     final IndexType type = index.type();
     final Data data = db.data(qc, type);
 
-    return new DBNodeIter(data) {
+    final Iter iter = new DBNodeIter(data) {
       final byte kind = type == IndexType.TEXT ? Data.TEXT : Data.ATTR;
       final IndexIterator ii = data.iter(index);
 
@@ -53,17 +56,21 @@ public final class RangeAccess extends IndexAccess {
         return ii.more() ? new DBNode(data, ii.pre(), kind) : null;
       }
     };
+    return profile != null ? profile.iter(this, start, iter) : iter;
   }
 
   @Override
   public Value value(final QueryContext qc) throws QueryException {
+    final Profile profile = qc.profile;
+    final long start = profile != null ? System.nanoTime() : 0;
     final IndexType it = index.type();
     final Data data = db.data(qc, it);
 
     final IndexIterator ii = data.iter(index);
     final IntList list = new IntList();
     while(ii.more()) list.add(ii.pre());
-    return DBNodeSeq.get(list.finish(), data, this);
+    final Value value = DBNodeSeq.get(list.finish(), data, this);
+    return profile != null ? profile.value(this, start, value) : value;
   }
 
   @Override
@@ -86,6 +86,19 @@ public final class ValueAccess extends IndexAccess {
 
   @Override
   public Iter iter(final QueryContext qc) throws QueryException {
+    final Profile profile = qc.profile;
+    final long start = profile != null ? System.nanoTime() : 0;
+    final Iter iter = nodes(qc);
+    return profile != null ? profile.iter(this, start, iter) : iter;
+  }
+
+  /**
+   * Returns an iterator for the index results.
+   * @param qc query context
+   * @return iterator
+   * @throws QueryException query exception
+   */
+  private Iter nodes(final QueryContext qc) throws QueryException {
     // cache distinct search terms
     final TokenSet cache;
     if(tokens == null) {
@@ -104,15 +117,19 @@ public final class ValueAccess extends IndexAccess {
     final Data data = db.data(qc, type);
     if(c == 1) return iter(cache.key(1), data);
 
-    // multiple search terms: collect results, return result iterator
-    final ANodeBuilder nodes = new ANodeBuilder();
+    // multiple search terms: merge pre values of the results, return result iterator
+    IntBitmap bitmap = null;
     for(final byte[] token : cache) {
+      final IntList pres = new IntList();
       for(final ANode node : iter(token, data)) {
         qc.checkStop();
-        nodes.add(node);
+        final int pre = ((DBNode) node).pre();
+        if(pres.isEmpty() || pres.peek() != pre) pres.add(pre);
       }
+      final IntBitmap bm = IntBitmap.get(pres.finish());
+      bitmap = bitmap == null ? bm : bitmap.or(bm);
     }
-    return nodes.value(this).iter();
+    return DBNodeSeq.get(bitmap.toArray(), data, this).iter();
   }
 
   @Override
@@ -160,8 +177,8 @@ public final class ValueAccess extends IndexAccess {
       }
       @Override
       public long size() {
-        // index access: number of results is known in advance
-        return index ? ii.size() : -1;
+        // index access: number of results is known in advance (unless results will be filtered)
+        return index && test == null ? ii.size() : -1;
       }
     };
   }
@@ -29,14 +29,20 @@ public abstract class AxisPath extends Path {
 
   @Override
   public final Iter iter(final QueryContext qc) throws QueryException {
+    final Profile profile = qc.profile;
+    final long start = profile != null ? System.nanoTime() : 0;
     final Value result = cache(qc);
-    return result != null ? result.iter() : iterator(qc);
+    final Iter iter = result != null ? result.iter() : iterator(qc);
+    return profile != null ? profile.iter(this, start, iter) : iter;
   }
 
   @Override
   public final Value value(final QueryContext qc) throws QueryException {
+    final Profile profile = qc.profile;
+    final long start = profile != null ? System.nanoTime() : 0;
     final Value result = cache(qc);
-    return result != null ? result : nodes(qc);
+    final Value value = result != null ? result : nodes(qc);
+    return profile != null ? profile.value(this, start, value) : value;
   }
 
   /**
@@ -45,32 +45,54 @@ public final class IterPath extends AxisPath {
         final QueryFocus qf = qc.focus;
         if(iter == null) init(qf);
         qc.focus = focus;
+        try {
+          return advance();
+        } finally {
+          qc.focus = qf;
+        }
+      }
 
+      @Override
+      public int next(final ItemList list, final int max) throws QueryException {
+        final QueryFocus qf = qc.focus;
+        if(iter == null) init(qf);
+        qc.focus = focus;
         try {
-          do {
-            final Item item = qc.next(iter[pos]);
-            if(item == null) {
-              if(--pos == -1) return null;
-            } else if(pos < sz - 1) {
-              // ensure that the root expression yields nodes
-              if(pos++ == 0 && rt && !(item instanceof ANode))
-                throw PATHNODE_X_X_X.get(info, steps[0], item.type, item);
-              focus.value = item;
-              iter[pos] = exprs[pos].iter(qc);
-            } else {
-              // cast is safe (axis steps will always yield nodes); skip identical nodes
-              final ANode n = (ANode) item;
-              if(last == null || !last.is(n)) {
-                last = n;
-                return n;
-              }
-            }
-          } while(true);
+          int n = 0;
+          for(ANode node; n < max && (node = advance()) != null; n++) list.add(node);
+          return n;
         } finally {
           qc.focus = qf;
         }
       }
 
+      /**
+       * Returns the next node. The focus must have been assigned before.
+       * @return node or {@code null}
+       * @throws QueryException query exception
+       */
+      private ANode advance() throws QueryException {
+        do {
+          final Item item = qc.next(iter[pos]);
+          if(item == null) {
+            if(--pos == -1) return null;
+          } else if(pos < sz - 1) {
+            // ensure that the root expression yields nodes
+            if(pos++ == 0 && rt && !(item instanceof ANode))
+              throw PATHNODE_X_X_X.get(info, steps[0], item.type, item);
+            focus.value = item;
+            iter[pos] = exprs[pos].iter(qc);
+          } else {
+            // cast is safe (axis steps will always yield nodes); skip identical nodes
+            final ANode n = (ANode) item;
+            if(last == null || !last.is(n)) {
+              last = n;
+              return n;
+            }
+          }
+        } while(true);
+      }
+
       private void init(final QueryFocus qf) throws QueryException {
         rt = root != null;
         sz = steps.length + (rt ? 1 : 0);
@@ -4,6 +4,7 @@ package org.basex.query.expr.path;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.iter.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.node.*;
 import org.basex.query.var.*;
 import org.basex.util.*;
@@ -41,6 +42,20 @@ public final class IterStep extends Step {
         }
         return null;
       }
+
+      @Override
+      public int next(final ItemList list, final int max) throws QueryException {
+        if(iter == null) iter = axis.iter(checkNode(qc));
+        int n = 0;
+        for(ANode node; n < max && (node = iter.next()) != null;) {
+          qc.checkStop();
+          if(test.eq(node) && preds(node, qc)) {
+            list.add(node.finish());
+            n++;
+          }
+        }
+        return n;
+      }
     };
   }
 
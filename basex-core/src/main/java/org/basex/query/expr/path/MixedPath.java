@@ -5,6 +5,7 @@ import static org.basex.query.QueryError.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.iter.*;
+import org.basex.query.util.*;
 import org.basex.query.util.list.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
@@ -32,6 +33,19 @@ public final class MixedPath extends Path {
 
   @Override
   public Iter iter(final QueryContext qc) throws QueryException {
+    final Profile profile = qc.profile;
+    final long start = profile != null ? System.nanoTime() : 0;
+    final Iter iter = iterator(qc);
+    return profile != null ? profile.iter(this, start, iter) : iter;
+  }
+
+  /**
+   * Returns an iterator for the path results.
+   * @param qc query context
+   * @return iterator
+   * @throws QueryException query exception
+   */
+  private Iter iterator(final QueryContext qc) throws QueryException {
     final Expr rt = root != null ? root : ctxValue(qc);
     Iter iter = rt.iter(qc);
     long size = iter.size();
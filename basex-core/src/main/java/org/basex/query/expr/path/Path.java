@@ -23,6 +23,7 @@ import org.basex.query.value.seq.*;
 import org.basex.query.value.type.*;
 import org.basex.query.var.*;
 import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * Path expression.
@@ -218,7 +219,16 @@ public abstract class Path extends ParseExpr {
      * - //B [. = '...'] -> IA('...', B)
      * - /A/B[. = '...'] -> IA('...', B)/parent::A *[parent::document-node()] */
     if(expr == this) expr = children(cc, rootValue);
-    if(expr != this) return expr.optimize(cc);
+    if(expr != this) {
+      // adopt statically known number of results, which may get lost by the rewritings
+      final long size = size();
+      expr = expr.optimize(cc);
+      if(size >= 0 && expr.size() == -1 && expr instanceof ParseExpr) {
+        final SeqType st = expr.seqType();
+        ((ParseExpr) expr).exprType.assign(st.type, st.occ, size);
+      }
+      return expr;
+    }
 
     // if last expression yields no nodes, rewrite mixed path to simple map
     // example: $a/b/string -> $a/b ! string()
@@ -304,13 +314,23 @@ public abstract class Path extends ParseExpr {
    * @return path nodes or {@code null} if nodes cannot be evaluated
    */
   public final ArrayList<PathNode> pathNodes(final CompileContext cc) {
+    return pathNodes(cc, false);
+  }
+
+  /**
+   * Returns the path nodes that will result from this path.
+   * @param cc compilation context
+   * @param all only return nodes if the root references all documents of the database
+   * @return path nodes or {@code null} if nodes cannot be evaluated
+   */
+  public final ArrayList<PathNode> pathNodes(final CompileContext cc, final boolean all) {
     // skip computation if path does not start with document nodes
     final Value rt = rootValue(cc);
     if(rt == null || rt.type != NodeType.DOC || cc.nestedFocus() && cc.qc.focus.value == null)
       return null;
 
     final Data data = rt.data();
-    if(data == null || !data.meta.uptodate) return null;
+    if(data == null || !data.meta.uptodate || all && data.meta.ndocs != rt.size()) return null;
 
     ArrayList<PathNode> nodes = data.paths.root();
     final int sl = steps.length;
@@ -472,8 +492,10 @@ public abstract class Path extends ParseExpr {
     for(int s = 0; s < sl; s++) {
       final Step curr = axisStep(s);
       if(curr != null) {
-        nodes = curr.nodes(nodes, data);
-        if(nodes == null) return -1;
+        final ArrayList<PathNode> tmp = curr.nodes(nodes, data);
+        // last step with predicate: try to compute number of results from distinct values
+        if(tmp == null) return s + 1 == sl ? curr.count(nodes, data) : -1;
+        nodes = tmp;
       } else if(s + 1 == sl) {
         lastSize = steps[s].size();
       } else {
@@ -709,6 +731,8 @@ public abstract class Path extends ParseExpr {
     IndexInfo index = null;
     // cheapest predicate and step
     int indexPred = 0, indexStep = 0;
+    // costs of all index-accessible predicates of the cheapest step
+    IndexCosts[] predCosts = null;
 
     // check if path can be converted to an index access
     final Data data = rt != null ? rt.data() : null;
@@ -727,6 +751,7 @@ public abstract class Path extends ParseExpr {
           new IndexDynDb(info, false, root == null ? new ContextValue(info) : root);
 
         // choose cheapest index access
+        final IndexCosts[] costs = new IndexCosts[el];
         for(int e = 0; e < el; e++) {
           final IndexInfo ii = new IndexInfo(db, cc.qc, step);
           if(!step.exprs[e].indexAccessible(ii)) continue;
@@ -737,10 +762,12 @@ public abstract class Path extends ParseExpr {
             return Empty.VALUE;
           }
 
+          costs[e] = ii.costs;
           if(index == null || index.costs.compareTo(ii.costs) > 0) {
             index = ii;
             indexPred = e;
             indexStep = s;
+            predCosts = costs;
           }
         }
       }
@@ -776,11 +803,7 @@ public abstract class Path extends ParseExpr {
     if(!invSteps.isEmpty()) newPreds.add(get(info, null, invSteps.finish()));
 
     // add remaining predicates
-    final Expr[] preds = index.step.exprs;
-    final int pl = preds.length;
-    for(int p = 0; p < pl; p++) {
-      if(p != indexPred) newPreds.add(preds[p]);
-    }
+    newPreds.add(remaining(index.step.exprs, indexPred, predCosts, cc));
 
     // create resulting expression
     final ExprList resultSteps = new ExprList();
@@ -818,6 +841,49 @@ public abstract class Path extends ParseExpr {
     return resultSteps.isEmpty() ? resultRoot : get(info, resultRoot, resultSteps.finish());
   }
 
+  /**
+   * Returns the predicates that remain after index rewriting. If the predicates are
+   * deterministic, the ones with the lowest estimated number of results will be evaluated first.
+   * @param preds predicates of the index step
+   * @param indexPred position of the predicate that is rewritten for index access
+   * @param costs estimated costs of index-accessible predicates ({@code null} entries otherwise)
+   * @param cc compilation context
+   * @return remaining predicates
+   */
+  private static Expr[] remaining(final Expr[] preds, final int indexPred,
+      final IndexCosts[] costs, final CompileContext cc) {
+
+    boolean ndt = false;
+    for(final Expr pred : preds) ndt |= pred.has(Flag.NDT);
+
+    // predicates with known costs first, ordered by costs; others in original order
+    final int pl = preds.length;
+    final IntList order = new IntList(pl);
+    for(int p = 0; p < pl; p++) {
+      if(p == indexPred) continue;
+      int o = order.size();
+      if(!ndt && costs[p] != null) {
+        while(o > 0 && (costs[order.get(o - 1)] == null ||
+            costs[order.get(o - 1)].compareTo(costs[p]) > 0)) o--;
+      }
+      order.insert(o, p);
+    }
+
+    final ExprList list = new ExprList(order.size());
+    boolean reordered = false;
+    for(int o = 0; o < order.size(); o++) {
+      list.add(preds[order.get(o)]);
+      reordered |= o > 0 && order.get(o) < order.get(o - 1);
+    }
+    final Expr[] remaining = list.finish();
+    if(reordered) cc.info(QueryText.OPTREORDER_X, (Supplier<?>) () -> {
+      final StringBuilder sb = new StringBuilder();
+      for(final Expr expr : remaining) sb.append('[').append(expr).append(']');
+      return sb;
+    });
+    return remaining;
+  }
+
   /**
    * Checks if steps before index step need to be inverted and traversed.
    * @param data data reference
@@ -153,8 +153,53 @@ public abstract class Step extends Preds {
    * @return resulting path nodes or {@code null} if nodes cannot be evaluated
    */
   final ArrayList<PathNode> nodes(final ArrayList<PathNode> nodes, final Data dt) {
-    // skip steps with predicates or different namespaces
-    if(exprs.length != 0 || dt.nspaces.globalUri() == null) return null;
+    // skip steps with predicates
+    return exprs.length == 0 ? axisNodes(nodes, dt) : null;
+  }
+
+  /**
+   * Returns the number of results of a step with a single predicate that compares an attribute
+   * with a string (example: {@code item[@type = 'x']}). The number is computed from the
+   * distinct attribute values that are stored in the statistics of the path nodes.
+   * @param nodes initial path nodes
+   * @param dt data reference
+   * @return number of results, or {@code -1} if the number cannot be computed
+   */
+  final long count(final ArrayList<PathNode> nodes, final Data dt) {
+    if(exprs.length != 1 || !(exprs[0] instanceof CmpG)) return -1;
+    final CmpG cmp = (CmpG) exprs[0];
+    final byte[] string = cmp.eqString();
+    if(string == null || !(cmp.exprs[0] instanceof Path)) return -1;
+
+    // predicate must consist of a single attribute step
+    final Path path = (Path) cmp.exprs[0];
+    if(path.root != null || path.steps.length != 1 || !(path.steps[0] instanceof Step)) return -1;
+    final Step step = (Step) path.steps[0];
+    if(step.axis != Axis.ATTRIBUTE || step.test.kind != Kind.NAME) return -1;
+
+    final ArrayList<PathNode> elems = axisNodes(nodes, dt);
+    final ArrayList<PathNode> attrs = elems != null ? step.nodes(elems, dt) : null;
+    if(attrs == null) return -1;
+
+    // an element can have only one attribute with a specific name
+    long count = 0;
+    for(final PathNode pn : attrs) {
+      final TokenIntMap values = pn.stats.values;
+      if(values == null) return -1;
+      count += Math.max(0, values.get(string));
+    }
+    return count;
+  }
+
+  /**
+   * Returns the path nodes that are the result of the axis and the node test of this step.
+   * @param nodes initial path nodes
+   * @param dt data reference
+   * @return resulting path nodes or {@code null} if nodes cannot be evaluated
+   */
+  private ArrayList<PathNode> axisNodes(final ArrayList<PathNode> nodes, final Data dt) {
+    // skip steps with different namespaces
+    if(dt.nspaces.globalUri() == null) return null;
 
     // check restrictions on node type
     int kind = -1, name = 0;
@@ -123,6 +123,9 @@ public final class Closure extends Single implements Scope, XQFunctionExpr {
     compiled = true;
 
     checkUpdating();
+    final boolean memoize = anns.contains(Annotation._BASEX_MEMOIZE);
+    if(memoize && (updating || expr.has(Flag.UPD, Flag.NDT, Flag.CNS)))
+      throw BASEX_MEMOIZE_X.get(info, name != null ? name.prefixId() : FUNCTION);
 
     // compile closure
     for(final Entry<Var, Expr> e : global.entrySet()) {
@@ -141,7 +144,7 @@ public final class Closure extends Single implements Scope, XQFunctionExpr {
     }
 
     // convert all function calls in tail position to proper tail calls
-    expr.markTailCalls(cc);
+    if(!memoize) expr.markTailCalls(cc);
 
     return optimize(cc);
   }
@@ -240,7 +243,7 @@ public final class Closure extends Single implements Scope, XQFunctionExpr {
       for(int p = 0; p < pl; p++) prms[p] = innerVars.get(prms[p].id);
 
       final Expr ex = expr.copy(cc, innerVars);
-      ex.markTailCalls(null);
+      if(!anns.contains(Annotation._BASEX_MEMOIZE)) ex.markTailCalls(null);
       return copyType(new Closure(info, name, declType, prms, ex, anns, nl, cc.vs()));
     } finally {
       cc.removeScope();
@@ -2,6 +2,7 @@ package org.basex.query.func;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
+import org.basex.query.util.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.seq.*;
@@ -51,16 +52,40 @@ public abstract class FuncCall extends Arr {
 
   @Override
   public final Value value(final QueryContext qc) throws QueryException {
-    final XQFunction func = evalFunc(qc);
-    final Value[] args = evalArgs(qc);
-    return tco ? invokeTail(func, args, false, qc) : invoke(func, args, false, qc, info);
+    return eval(false, qc);
   }
 
   @Override
   public final Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
-    final XQFunction func = evalFunc(qc);
-    final Value[] args = evalArgs(qc);
-    return (Item) (tco ? invokeTail(func, args, true, qc) : invoke(func, args, true, qc, info));
+    return (Item) eval(true, qc);
+  }
+
+  /**
+   * Evaluates the function call.
+   * @param item flag for requesting a single item
+   * @param qc query context
+   * @return result of the function call
+   * @throws QueryException query exception
+   */
+  private Value eval(final boolean item, final QueryContext qc) throws QueryException {
+    final Profile profile = qc.profile;
+    if(profile == null) {
+      final XQFunction func = evalFunc(qc);
+      final Value[] args = evalArgs(qc);
+      return tco ? invokeTail(func, args, item, qc) : invoke(func, args, item, qc, info);
+    }
+
+    final long start = profile.enter(this);
+    Value value = null;
+    try {
+      final XQFunction func = evalFunc(qc);
+      final Value[] args = evalArgs(qc);
+      value = tco ? invokeTail(func, args, item, qc) : invoke(func, args, item, qc, info);
+      return value;
+    } finally {
+      // skip placeholder of a tail call, which will be evaluated by the calling function
+      profile.exit(this, start, qc.tailCall() ? null : value);
+    }
   }
 
   /**
@@ -552,6 +552,8 @@ public enum Function implements AFunction {
   _ADMIN_LOGS(AdminLogs.class, "logs([date[,merge]])",
       arg(STR_O, BLN_O), ELM_ZM, flag(NDT), ADMIN_URI),
   /** XQuery function. */
+  _ADMIN_METRICS(AdminMetrics.class, "metrics()", arg(), ELM_ZM, flag(NDT), ADMIN_URI),
+  /** XQuery function. */
   _ADMIN_SESSIONS(AdminSessions.class, "sessions()", arg(), ELM_ZM, flag(NDT), ADMIN_URI),
   /** XQuery function. */
   _ADMIN_WRITE_LOG(AdminWriteLog.class, "write-log(message[,type])",
@@ -672,6 +674,9 @@ public enum Function implements AFunction {
   /** XQuery function. */
   _CLIENT_QUERY(ClientQuery.class, "query(id,query[,bindings])",
       arg(URI_O, STR_O, MAP_ZO), ITEM_ZO, flag(NDT), CLIENT_URI),
+  /** XQuery function. */
+  _CLIENT_SCATTER(ClientScatter.class, "scatter(shards,query[,bindings[,options]])",
+      arg(MAP_O, STR_O, MAP_ZO, MAP_ZO), ITEM_ZM, flag(NDT), CLIENT_URI),
 
   // Conversion Module
 
@@ -832,6 +837,9 @@ public enum Function implements AFunction {
   _DB_STORE(DbStore.class, "store(database,path,input)",
       arg(STR_O, STR_O, ITEM_O), EMP, flag(UPD), DB_URI),
   /** XQuery function. */
+  _DB_STREAM(DbStream.class, "stream(input,path[,options])",
+      arg(STR_O, STR_O, MAP_ZO), ELM_ZM, flag(NDT), DB_URI),
+  /** XQuery function. */
   _DB_SYSTEM(DbSystem.class, "system()", arg(), STR_O, DB_URI),
   /** XQuery function. */
   _DB_TEXT(DbText.class, "text(database,strings)", arg(STR_O, ITEM_ZM), TXT_ZM, flag(NDT), DB_URI),
@@ -1149,6 +1157,8 @@ public enum Function implements AFunction {
 
   // Profiling Module
 
+  /** XQuery function. */
+  _PROF_ANALYZE(ProfAnalyze.class, "analyze(value)", arg(ITEM_ZM), ELM_O, flag(NDT), PROF_URI),
   /** XQuery function. */
   _PROF_CURRENT_MS(ProfCurrentMs.class, "current-ms()", arg(), ITR_O, flag(NDT), PROF_URI),
   /** XQuery function. */
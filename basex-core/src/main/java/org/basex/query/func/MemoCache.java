@@ -0,0 +1,163 @@
+package org.basex.query.func;
+
+import java.util.*;
+
+import org.basex.query.*;
+import org.basex.query.ann.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.util.*;
+
+/**
+ * Results of a function that has been declared with the {@link Annotation#_BASEX_MEMOIZE}
+ * annotation. Atomic arguments are compared by their type and value, and nodes and function
+ * items are compared by their identity. If the maximum number of results is exceeded,
+ * the least recently used result is discarded.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class MemoCache {
+  /** Maximum number of cached results. */
+  private static final int MAX = 1 << 16;
+
+  /** Cached results, in access order. */
+  private final LinkedHashMap<Key, Value> results = new LinkedHashMap<Key, Value>(16, 0.75f,
+      true) {
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Key, Value> eldest) {
+      return size() > MAX;
+    }
+  };
+
+  /**
+   * Returns the cached result for the specified arguments, or evaluates and caches it.
+   * @param args arguments
+   * @param info input info
+   * @param eval function body
+   * @return result
+   * @throws QueryException query exception
+   */
+  public Value value(final Value[] args, final InputInfo info,
+      final QueryFunction<Value[], Value> eval) throws QueryException {
+
+    final Key key = key(args, info);
+    Value value;
+    synchronized(results) {
+      value = results.get(key);
+    }
+    if(value == null) {
+      // recursive calls may be evaluated before the result of this call is cached
+      value = eval.apply(args);
+      synchronized(results) {
+        results.put(key, value);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Discards all cached results.
+   */
+  void clear() {
+    synchronized(results) {
+      results.clear();
+    }
+  }
+
+  /**
+   * Creates a key for the specified arguments.
+   * @param args arguments
+   * @param info input info
+   * @return key
+   * @throws QueryException query exception
+   */
+  private static Key key(final Value[] args, final InputInfo info) throws QueryException {
+    // copy arguments: the array may be reused by the caller, and nodes may be modified by iterators
+    final int al = args.length;
+    final Value[] values = new Value[al];
+    int hash = 1;
+    for(int a = 0; a < al; a++) {
+      final Value arg = args[a] instanceof ANode ? ((ANode) args[a]).finish() : args[a];
+      values[a] = arg;
+      hash = 31 * hash + (int) arg.size();
+      for(final Item item : arg) {
+        final int h;
+        if(item instanceof DBNode) {
+          final DBNode node = (DBNode) item;
+          h = System.identityHashCode(node.data()) * 31 + node.pre();
+        } else if(item instanceof ANode || item instanceof FItem) {
+          h = System.identityHashCode(item);
+        } else {
+          h = item.hash(info);
+        }
+        hash = 31 * hash + h;
+      }
+    }
+    return new Key(values, hash, info);
+  }
+
+  /** Function arguments. */
+  private static final class Key {
+    /** Arguments. */
+    private final Value[] args;
+    /** Hash code. */
+    private final int hash;
+    /** Input info. */
+    private final InputInfo info;
+
+    /**
+     * Constructor.
+     * @param args arguments
+     * @param hash hash code
+     * @param info input info
+     */
+    private Key(final Value[] args, final int hash, final InputInfo info) {
+      this.args = args;
+      this.hash = hash;
+      this.info = info;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if(this == obj) return true;
+      if(!(obj instanceof Key)) return false;
+      final Key key = (Key) obj;
+      final int al = args.length;
+      if(hash != key.hash || al != key.args.length) return false;
+      try {
+        for(int a = 0; a < al; a++) {
+          final Value value1 = args[a], value2 = key.args[a];
+          final long vs = value1.size();
+          if(vs != value2.size()) return false;
+          for(int v = 0; v < vs; v++) {
+            if(!equal(value1.itemAt(v), value2.itemAt(v))) return false;
+          }
+        }
+        return true;
+      } catch(final QueryException ex) {
+        Util.debug(ex);
+        return false;
+      }
+    }
+
+    /**
+     * Compares two argument items.
+     * @param item1 first item
+     * @param item2 second item
+     * @return result of check
+     * @throws QueryException query exception
+     */
+    private boolean equal(final Item item1, final Item item2) throws QueryException {
+      if(item1 instanceof ANode) return item2 instanceof ANode && ((ANode) item1).is((ANode) item2);
+      if(item1 instanceof FItem || item2 instanceof FItem) return item1 == item2;
+      return !(item2 instanceof ANode) && item1.type == item2.type && item1.sameKey(item2, info);
+    }
+  }
+}
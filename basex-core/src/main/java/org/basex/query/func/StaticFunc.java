@@ -33,6 +33,8 @@ public final class StaticFunc extends StaticDecl implements XQFunction {
   public final Var[] params;
   /** Updating flag. */
   final boolean updating;
+  /** Cached results of a memoized function ({@code null} if results are not cached). */
+  private final MemoCache memo;
 
   /** Map with requested function properties. */
   private final EnumMap<Flag, Boolean> map = new EnumMap<>(Flag.class);
@@ -56,6 +58,7 @@ public final class StaticFunc extends StaticDecl implements XQFunction {
     this.params = params;
     this.expr = expr;
     updating = anns.contains(Annotation.UPDATING);
+    memo = anns.contains(Annotation._BASEX_MEMOIZE) ? new MemoCache() : null;
   }
 
   @Override
@@ -88,7 +91,8 @@ public final class StaticFunc extends StaticDecl implements XQFunction {
     }
 
     // convert all function calls in tail position to proper tail calls
-    expr.markTailCalls(cc);
+    // (skipped for memoized functions, as each result must be computed before it is cached)
+    if(memo == null) expr.markTailCalls(cc);
 
     compiling = false;
   }
@@ -145,6 +149,11 @@ public final class StaticFunc extends StaticDecl implements XQFunction {
   public Item invItem(final QueryContext qc, final InputInfo ii, final Value... arg)
       throws QueryException {
 
+    if(memo != null) {
+      final Value value = invValue(qc, ii, arg);
+      return value instanceof Item ? (Item) value : value.itemAt(0);
+    }
+
     // reset context and evaluate function
     final QueryFocus qf = qc.focus;
     final Value cv = qf.value;
@@ -161,7 +170,17 @@ public final class StaticFunc extends StaticDecl implements XQFunction {
   @Override
   public Value invValue(final QueryContext qc, final InputInfo ii, final Value... arg)
       throws QueryException {
+    return memo != null ? memo.value(arg, info, args -> value(qc, args)) : value(qc, arg);
+  }
 
+  /**
+   * Evaluates the function body.
+   * @param qc query context
+   * @param arg arguments
+   * @return resulting value
+   * @throws QueryException query exception
+   */
+  private Value value(final QueryContext qc, final Value[] arg) throws QueryException {
     // reset context and evaluate function
     final QueryFocus qf = qc.focus;
     final Value cv = qf.value;
@@ -205,6 +224,22 @@ public final class StaticFunc extends StaticDecl implements XQFunction {
     }
   }
 
+  /**
+   * Discards the cached results of a memoized function.
+   */
+  void reset() {
+    if(memo != null) memo.clear();
+  }
+
+  /**
+   * Checks if the function can be memoized.
+   * @throws QueryException query exception
+   */
+  void checkMemoize() throws QueryException {
+    if(memo != null && expr != null && (updating || expr.has(Flag.UPD, Flag.NDT, Flag.CNS)))
+      throw BASEX_MEMOIZE_X.get(info, name.prefixId());
+  }
+
   @Override
   public boolean isVacuousBody() {
     return declType != null && declType.zero() && !has(Flag.UPD);
@@ -302,6 +337,9 @@ public final class StaticFunc extends StaticDecl implements XQFunction {
    * @return result of check
    */
   public static boolean inline(final CompileContext cc, final AnnList anns, final Expr expr) {
+    // memoized functions must be invoked
+    if(anns.contains(Annotation._BASEX_MEMOIZE)) return false;
+
     final Ann ann = anns.get(Annotation._BASEX_INLINE);
     final long limit;
     if(ann == null) {
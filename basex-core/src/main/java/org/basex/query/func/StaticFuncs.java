@@ -156,6 +156,8 @@ public final class StaticFuncs extends ExprInfo {
         qc.updating |= fc.func.updating;
       }
     }
+    // reject nondeterministic and updating functions that are declared to be memoized
+    for(final FuncCache fc : funcs.values()) fc.func.checkMemoize();
   }
 
   /**
@@ -185,6 +187,15 @@ public final class StaticFuncs extends ExprInfo {
     }
   }
 
+  /**
+   * Discards the cached results of memoized functions.
+   */
+  public void reset() {
+    for(final FuncCache fc : funcs.values()) {
+      if(fc.func != null) fc.func.reset();
+    }
+  }
+
   /**
    * Returns the function with the given name and arity.
    * @param name function name
@@ -27,4 +27,8 @@ abstract class AdminFn extends StandardFunc {
   static final String TYPE = "type";
   /** QName: ms. */
   static final String MS = "ms";
+  /** QName: metric. */
+  static final String METRIC = "metric";
+  /** QName: name. */
+  static final String NAME = "name";
 }
@@ -6,10 +6,15 @@ import static org.basex.query.QueryError.*;
 import java.io.*;
 import java.math.*;
 
+import org.basex.build.json.*;
+import org.basex.build.json.JsonOptions.*;
 import org.basex.io.*;
+import org.basex.io.parse.json.*;
 import org.basex.query.*;
 import org.basex.query.util.list.*;
 import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.map.*;
 import org.basex.query.value.node.*;
 import org.basex.server.*;
 import org.basex.server.Log.*;
@@ -22,6 +27,13 @@ import org.basex.util.*;
  * @author Christian Gruen
  */
 public final class AdminLogs extends AdminFn {
+  /** Parser options for log entries in the JSON format. */
+  private static final JsonParserOptions JSON = new JsonParserOptions();
+
+  static {
+    JSON.set(JsonOptions.FORMAT, JsonFormat.XQUERY);
+  }
+
   @Override
   public Value value(final QueryContext qc) throws QueryException {
     checkAdmin(qc);
@@ -93,7 +105,17 @@ public final class AdminLogs extends AdminFn {
         qc.checkStop();
         final LogEntry entry = new LogEntry();
         final String[] cols = line.split("\t");
-        if(cols.length > 2) {
+        if(Strings.startsWith(line, '{')) {
+          // JSON format
+          final XQMap map = (XQMap) JsonConverter.get(JSON).convert(Token.token(line), null);
+          entry.time = string(map, "time");
+          entry.address = string(map, "address");
+          entry.user = string(map, "user");
+          entry.type = string(map, "type");
+          entry.message = string(map, "message");
+          final String ms = string(map, "ms");
+          entry.ms = ms.isEmpty() ? BigDecimal.ZERO : new BigDecimal(ms);
+        } else if(cols.length > 2) {
           entry.time = cols[0];
           entry.address = cols[1];
           entry.user = cols[2];
@@ -107,8 +129,22 @@ public final class AdminLogs extends AdminFn {
         logs.add(entry);
       }
       return logs;
+    } catch(final QueryIOException ex) {
+      throw ex.getCause(info);
     } catch(final IOException ex) {
       throw IOERR_X.get(info, ex);
     }
   }
+
+  /**
+   * Returns the string value of a map entry.
+   * @param map map
+   * @param key key
+   * @return string (empty if the entry does not exist)
+   * @throws QueryException query exception
+   */
+  private String string(final XQMap map, final String key) throws QueryException {
+    final Value value = map.get(Str.get(key), info);
+    return value.isEmpty() ? "" : Token.string(((Item) value).string(info));
+  }
 }
@@ -0,0 +1,31 @@
+package org.basex.query.func.admin;
+
+import org.basex.core.Metrics.*;
+import org.basex.query.*;
+import org.basex.query.value.*;
+import org.basex.query.value.node.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class AdminMetrics extends AdminFn {
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    checkAdmin(qc);
+
+    final ValueBuilder vb = new ValueBuilder(qc);
+    for(final Metric metric : qc.context.metrics.metrics(qc.context)) {
+      for(final Sample sample : metric.samples) {
+        final FElem elem = new FElem(METRIC).add(NAME, sample.name);
+        final String[] labels = sample.labels;
+        final int ll = labels.length;
+        for(int l = 0; l < ll; l += 2) elem.add(labels[l], labels[l + 1]);
+        vb.add(elem.add(sample.value()));
+      }
+    }
+    return vb.value(this);
+  }
+}
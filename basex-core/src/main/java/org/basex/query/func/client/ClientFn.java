@@ -2,7 +2,11 @@ package org.basex.query.func.client;
 
 import static org.basex.query.QueryError.*;
 
+import java.io.*;
+import java.util.regex.*;
+
 import org.basex.api.client.*;
+import org.basex.core.*;
 import org.basex.query.*;
 import org.basex.query.func.*;
 import org.basex.query.value.item.*;
@@ -15,6 +19,9 @@ import org.basex.query.value.type.*;
  * @author Christian Gruen
  */
 abstract class ClientFn extends StandardFunc {
+  /** Query pattern. */
+  private static final Pattern QUERYPAT = Pattern.compile("\\[(.*?)] (.*)", Pattern.MULTILINE);
+
   /**
    * Returns a connection and removes it from list with opened connections if requested.
    * @param qc query context
@@ -31,6 +38,25 @@ abstract class ClientFn extends StandardFunc {
     return cs;
   }
 
+  /**
+   * Converts an exception raised by a remote query to a query exception.
+   * @param ex exception
+   * @return query exception
+   */
+  final QueryException error(final IOException ex) {
+    if(ex instanceof QueryIOException) return ((QueryIOException) ex).getCause(info);
+    if(ex instanceof BaseXException) {
+      final Matcher m = QUERYPAT.matcher(ex.getMessage());
+      if(m.find()) {
+        final String name = m.group(1), msg = m.group(2);
+        final QueryException exc = get(name, msg, info);
+        return exc == null ? new QueryException(info, new QNm(name), msg) : exc;
+      }
+      return CLIENT_QUERY_X.get(info, ex);
+    }
+    return CLIENT_ERROR_X.get(info, ex);
+  }
+
   /**
    * Returns the sessions handler.
    * @param qc query context
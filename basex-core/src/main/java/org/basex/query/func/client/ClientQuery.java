@@ -4,13 +4,10 @@ import static org.basex.query.QueryError.*;
 
 import java.io.*;
 import java.util.Map.*;
-import java.util.regex.*;
 
 import org.basex.api.client.*;
-import org.basex.core.*;
 import org.basex.query.*;
 import org.basex.query.value.*;
-import org.basex.query.value.item.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
 
@@ -21,9 +18,6 @@ import org.basex.util.*;
  * @author Christian Gruen
  */
 public final class ClientQuery extends ClientFn {
-  /** Query pattern. */
-  private static final Pattern QUERYPAT = Pattern.compile("\\[(.*?)] (.*)", Pattern.MULTILINE);
-
   @Override
   public Value value(final QueryContext qc) throws QueryException {
     checkCreate(qc);
@@ -47,18 +41,8 @@ public final class ClientQuery extends ClientFn {
         vb.add(cq.type().castString(result, qc, sc, info));
       }
       return vb.value();
-    } catch(final QueryIOException ex) {
-      throw ex.getCause(info);
-    } catch(final BaseXException ex) {
-      final Matcher m = QUERYPAT.matcher(ex.getMessage());
-      if(m.find()) {
-        final String name = m.group(1), msg = m.group(2);
-        final QueryException exc = get(name, msg, info);
-        throw exc == null ? new QueryException(info, new QNm(name), msg) : exc;
-      }
-      throw CLIENT_QUERY_X.get(info, ex);
     } catch(final IOException ex) {
-      throw CLIENT_ERROR_X.get(info, ex);
+      throw error(ex);
     }
   }
 }
@@ -0,0 +1,309 @@
+package org.basex.query.func.client;
+
+import static org.basex.query.QueryError.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.Map.*;
+
+import org.basex.api.client.*;
+import org.basex.query.*;
+import org.basex.query.expr.*;
+import org.basex.query.expr.CmpV.*;
+import org.basex.query.iter.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.map.*;
+import org.basex.query.value.type.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * The query is evaluated on all databases (shards) of a distributed collection, which is
+ * specified by a map with session ids and database names. The name of the database is bound to
+ * the context value. All sessions are processed in parallel, and the shards of a session are
+ * processed one after another. Results are retrieved in batches and merged while they arrive:
+ * <ul>
+ * <li> By default, the results are returned in the order of the shards.</li>
+ * <li> If a key function is supplied, the results of the shards, which must be ordered by the
+ *      same key, are merged by their keys.</li>
+ * <li> If a limit is supplied, evaluation is stopped as soon as enough results have been
+ *      returned (top-k).</li>
+ * <li> The results of all shards can be summed up (e.g., to merge counts).</li>
+ * </ul>
+ * Each shard buffers at most twice the number of results of a batch. Retrieval is paused until
+ * buffered results have been consumed. It is stopped when all results have been returned or when
+ * the query has been evaluated. The query only continues after the remote queries have been
+ * closed, so the sessions are no longer accessed in the background.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientScatter extends ClientFn {
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    return iter(qc).value(qc, this);
+  }
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    checkCreate(qc);
+    final XQMap map = toMap(exprs[0], qc);
+    final String query = Token.string(toToken(exprs[1], qc));
+    final HashMap<String, Value> bindings = toBindings(2, qc);
+    final ScatterOptions opts = toOptions(3, new ScatterOptions(), qc);
+
+    // assign shards to sessions
+    final ClientSessions sessions = sessions(qc);
+    final ArrayList<Shard> shards = new ArrayList<>();
+    final ArrayList<Thread> threads = new ArrayList<>();
+    final int fetch = Math.max(1, opts.get(ScatterOptions.FETCH));
+    for(final Item key : map.keys()) {
+      final Uri id = key instanceof Uri ? (Uri) key : Uri.uri(key.string(info));
+      final ClientSession cs = sessions.get(id);
+      if(cs == null) throw CLIENT_ID_X.get(info, id);
+
+      final ArrayList<Shard> list = new ArrayList<>();
+      for(final Item db : map.get(key, info)) {
+        list.add(new Shard(Token.string(db.string(info)), (int) Math.min(Integer.MAX_VALUE,
+            2L * fetch)));
+      }
+      shards.addAll(list);
+      final Thread thread = new Thread(() -> {
+        for(final Shard shard : list) shard.query(cs, query, bindings, fetch);
+      });
+      thread.setDaemon(true);
+      threads.add(thread);
+    }
+    qc.resources.index(ClientShards.class).add(shards, threads);
+    for(final Thread thread : threads) thread.start();
+
+    final FuncItem order = opts.get(ScatterOptions.ORDER);
+    final OpV op = opts.get(ScatterOptions.DESCENDING) ? OpV.GT : OpV.LT;
+    final int limit = opts.get(ScatterOptions.LIMIT);
+    final boolean sum = opts.get(ScatterOptions.SUM);
+
+    return new Iter() {
+      /** Number of returned items. */
+      private long count;
+      /** Index of current shard. */
+      private int s;
+      /** Next items of all shards (ordered results). */
+      private Item[] items;
+      /** Keys of the next items (ordered results). */
+      private Item[] keys;
+
+      @Override
+      public Item next() throws QueryException {
+        try {
+          final Item item = limit > 0 && count == limit ? null : sum ? sum() :
+            order != null ? ordered() : next(qc);
+          if(item == null) {
+            stop(shards, threads);
+          } else {
+            count++;
+          }
+          return item;
+        } catch(final QueryException ex) {
+          stop(shards, threads);
+          throw ex;
+        }
+      }
+
+      /**
+       * Returns the next item in the order of the shards.
+       * @param qc query context
+       * @return item or {@code null}
+       * @throws QueryException query exception
+       */
+      private Item next(final QueryContext qc) throws QueryException {
+        for(final int sl = shards.size(); s < sl; s++) {
+          final Item item = item(shards.get(s), qc);
+          if(item != null) return item;
+        }
+        return null;
+      }
+
+      /**
+       * Returns the next item with the smallest (or largest) key.
+       * @return item or {@code null}
+       * @throws QueryException query exception
+       */
+      private Item ordered() throws QueryException {
+        final int sl = shards.size();
+        if(items == null) {
+          items = new Item[sl];
+          keys = new Item[sl];
+          for(int i = 0; i < sl; i++) advance(i);
+        }
+        int m = -1;
+        for(int i = 0; i < sl; i++) {
+          if(items[i] != null && (m == -1 || op.eval(keys[i], keys[m], sc.collation, sc, info)))
+            m = i;
+        }
+        if(m == -1) return null;
+        final Item item = items[m];
+        advance(m);
+        return item;
+      }
+
+      /**
+       * Retrieves the next item of a shard and computes its key.
+       * @param i index of shard
+       * @throws QueryException query exception
+       */
+      private void advance(final int i) throws QueryException {
+        final Item item = item(shards.get(i), qc);
+        items[i] = item;
+        keys[i] = item == null ? null : checkNoEmpty(order.invokeItem(qc, info, item));
+      }
+
+      /**
+       * Sums up the results of all shards.
+       * @return sum or {@code null}
+       * @throws QueryException query exception
+       */
+      private Item sum() throws QueryException {
+        if(count > 0) return null;
+        Item result = Int.ZERO;
+        for(Item item; (item = next(qc)) != null;) result = Calc.PLUS.eval(result, item, info);
+        return result;
+      }
+    };
+  }
+
+  /**
+   * Stops the evaluation of shards and waits until the threads have closed the remote queries.
+   * @param shards shards
+   * @param threads threads that evaluate the shards
+   */
+  static void stop(final ArrayList<Shard> shards, final ArrayList<Thread> threads) {
+    for(final Shard shard : shards) shard.stop();
+    for(final Thread thread : threads) {
+      try {
+        thread.join();
+      } catch(final InterruptedException ex) {
+        Util.debug(ex);
+      }
+    }
+  }
+
+  /**
+   * Returns the next result of a shard.
+   * @param shard shard
+   * @param qc query context
+   * @return item or {@code null}
+   * @throws QueryException query exception
+   */
+  private Item item(final Shard shard, final QueryContext qc) throws QueryException {
+    final String result;
+    final Type type;
+    synchronized(shard) {
+      while(shard.results.isEmpty()) {
+        if(shard.error != null) throw error(shard.error);
+        if(shard.done) return null;
+        qc.checkStop();
+        try {
+          shard.wait(100);
+        } catch(final InterruptedException ex) {
+          throw new QueryException(ex);
+        }
+      }
+      result = shard.results.poll();
+      type = shard.types.poll();
+      // resume retrieval of results
+      shard.notifyAll();
+    }
+    if(type instanceof FuncType) throw CLIENT_FITEM_X.get(info, result);
+    return type.castString(result, qc, sc, info).item(qc, info);
+  }
+
+  /** Database shard. */
+  static final class Shard {
+    /** Name of database. */
+    private final String db;
+    /** Maximum number of buffered results. */
+    private final int capacity;
+    /** Retrieved results. */
+    private final ArrayDeque<String> results = new ArrayDeque<>();
+    /** Types of the retrieved results. */
+    private final ArrayDeque<Type> types = new ArrayDeque<>();
+    /** Indicates if all results have been retrieved. */
+    private boolean done;
+    /** Error (can be {@code null}). */
+    private IOException error;
+    /** Indicates if evaluation has been stopped. */
+    private volatile boolean stopped;
+
+    /**
+     * Constructor.
+     * @param db name of database
+     * @param capacity maximum number of buffered results
+     */
+    private Shard(final String db, final int capacity) {
+      this.db = db;
+      this.capacity = capacity;
+    }
+
+    /**
+     * Evaluates the query and retrieves the results.
+     * @param cs client session
+     * @param query query
+     * @param bindings variable bindings
+     * @param fetch number of results that will be retrieved per request
+     */
+    private void query(final ClientSession cs, final String query,
+        final HashMap<String, Value> bindings, final int fetch) {
+      IOException ex = null;
+      if(!stopped) {
+        try(org.basex.api.client.ClientQuery cq = cs.query(query)) {
+          cq.context(db);
+          for(final Entry<String, Value> binding : bindings.entrySet()) {
+            final String key = binding.getKey();
+            final Value value = binding.getValue();
+            if(key.isEmpty()) cq.context(value);
+            else cq.bind(key, value);
+          }
+          cq.fetchSize(fetch);
+          while(!stopped && cq.more() && add(cq.next(), cq.type()));
+        } catch(final IOException e) {
+          ex = e;
+        }
+      }
+      synchronized(this) {
+        error = ex;
+        done = true;
+        notifyAll();
+      }
+    }
+
+    /**
+     * Adds a result. Waits until space is available in the buffer.
+     * @param result result
+     * @param type type of the result
+     * @return {@code false} if evaluation has been stopped
+     */
+    private synchronized boolean add(final String result, final Type type) {
+      try {
+        while(!stopped && results.size() >= capacity) wait();
+      } catch(final InterruptedException ex) {
+        Util.debug(ex);
+        stopped = true;
+      }
+      if(stopped) return false;
+      results.add(result);
+      types.add(type);
+      notifyAll();
+      return true;
+    }
+
+    /**
+     * Stops the evaluation.
+     */
+    synchronized void stop() {
+      stopped = true;
+      notifyAll();
+    }
+  }
+}
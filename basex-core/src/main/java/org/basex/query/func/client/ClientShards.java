@@ -0,0 +1,37 @@
+package org.basex.query.func.client;
+
+import java.util.*;
+
+import org.basex.query.*;
+
+/**
+ * Shards that are evaluated by {@link ClientScatter}. Their evaluation is stopped when the
+ * query has been evaluated, even if not all results have been requested, and it is waited
+ * until the threads that evaluate the shards have finished.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientShards implements QueryResource {
+  /** Shards. */
+  private final ArrayList<ClientScatter.Shard> shards = new ArrayList<>();
+  /** Threads that evaluate the shards. */
+  private final ArrayList<Thread> threads = new ArrayList<>();
+
+  /**
+   * Adds shards.
+   * @param sh shards to be added
+   * @param th threads that evaluate the shards
+   */
+  synchronized void add(final List<ClientScatter.Shard> sh, final List<Thread> th) {
+    shards.addAll(sh);
+    threads.addAll(th);
+  }
+
+  @Override
+  public synchronized void close() {
+    ClientScatter.stop(shards, threads);
+    shards.clear();
+    threads.clear();
+  }
+}
@@ -0,0 +1,22 @@
+package org.basex.query.func.client;
+
+import org.basex.util.options.*;
+
+/**
+ * Options for evaluating queries on multiple shards.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ScatterOptions extends Options {
+  /** Key function: the ordered results of all shards will be merged by their keys. */
+  public static final FuncOption ORDER = new FuncOption("order");
+  /** Descending order. */
+  public static final BooleanOption DESCENDING = new BooleanOption("descending", false);
+  /** Maximum number of returned results (0: no limit). */
+  public static final NumberOption LIMIT = new NumberOption("limit", 0);
+  /** Sum up the results of all shards (e.g., counts). */
+  public static final BooleanOption SUM = new BooleanOption("sum", false);
+  /** Number of results that will be retrieved per request. */
+  public static final NumberOption FETCH = new NumberOption("fetch", 1000);
+}
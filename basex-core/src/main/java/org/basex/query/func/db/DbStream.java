@@ -0,0 +1,102 @@
+package org.basex.query.func.db;
+
+import static org.basex.query.QueryError.*;
+import static org.basex.util.Token.*;
+
+import java.io.*;
+
+import org.basex.build.*;
+import org.basex.build.xml.*;
+import org.basex.core.*;
+import org.basex.io.*;
+import org.basex.query.*;
+import org.basex.query.func.*;
+import org.basex.query.iter.*;
+import org.basex.query.up.primitives.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.util.*;
+import org.basex.util.options.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class DbStream extends StandardFunc {
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    final IO io = input(qc);
+    final StreamPath path = path(qc);
+    final MainOptions mo = options(qc);
+
+    return new Iter() {
+      StreamBuilder builder;
+      InputStream is;
+
+      @Override
+      public Item next() throws QueryException {
+        try {
+          if(builder == null) {
+            is = io.inputStream();
+            qc.resources.add(is);
+            builder = new StreamBuilder(new XMLParser(new IOStream(is, io.path()), mo), path);
+          }
+          qc.checkStop();
+          final int pre = builder.next();
+          if(pre != -1) return new DBNode(builder.data(), pre);
+          qc.resources.remove(is);
+          return null;
+        } catch(final IOException ex) {
+          throw IOERR_X.get(info, ex);
+        }
+      }
+    };
+  }
+
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    return iter(qc).value(qc, this);
+  }
+
+  /**
+   * Returns the input reference.
+   * @param qc query context
+   * @return input
+   * @throws QueryException query exception
+   */
+  private IO input(final QueryContext qc) throws QueryException {
+    final byte[] in = toToken(exprs[0], qc);
+    final IO io = IO.get(string(in));
+    if(!io.exists()) throw WHICHRES_X.get(info, in);
+    return io;
+  }
+
+  /**
+   * Returns the streamable path.
+   * @param qc query context
+   * @return path
+   * @throws QueryException query exception
+   */
+  private StreamPath path(final QueryContext qc) throws QueryException {
+    final String string = string(toToken(exprs[1], qc));
+    final StreamPath path = StreamPath.get(string);
+    if(path == null) throw DB_STREAM_X.get(info, string);
+    return path;
+  }
+
+  /**
+   * Returns the parsing options.
+   * @param qc query context
+   * @return main options
+   * @throws QueryException query exception
+   */
+  private MainOptions options(final QueryContext qc) throws QueryException {
+    final Options opts = toOptions(2, new Options(), qc);
+    final MainOptions mo = MainOptions.get();
+    new DBOptions(opts, DBOptions.PARSING, info).assignTo(mo);
+    return mo;
+  }
+}
@@ -4,6 +4,7 @@ import static org.basex.util.Token.*;
 
 import java.util.*;
 
+import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.collation.*;
@@ -12,6 +13,7 @@ import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * Utility class for comparing XQuery values.
@@ -134,6 +136,12 @@ public final class DeepEqual {
 
       ANode node1 = (ANode) item1, node2 = (ANode) item2;
       if(node1.is(node2)) continue;
+
+      // database nodes: compare table entries
+      if(node1 instanceof DBNode && node2 instanceof DBNode && !flags.contains(Mode.NAMESPACES)) {
+        if(equal((DBNode) node1, (DBNode) node2)) continue;
+        return false;
+      }
       BasicNodeIter ch1 = node1.children(), ch2 = node2.children();
 
       final Stack<BasicNodeIter> stack = new Stack<>();
@@ -229,4 +237,143 @@ public final class DeepEqual {
       } while(!stack.isEmpty());
     }
   }
+
+  /**
+   * Checks database nodes of the same type for deep equality.
+   * The descendants of both nodes are compared in document order.
+   * @param node1 first node
+   * @param node2 second node
+   * @return result of check
+   */
+  private boolean equal(final DBNode node1, final DBNode node2) {
+    final Data data1 = node1.data(), data2 = node2.data();
+    int pre1 = node1.pre(), pre2 = node2.pre();
+    final IntList ends1 = new IntList(), ends2 = new IntList();
+    final boolean all = flags.contains(Mode.ALLNODES);
+
+    int kind = data1.kind(pre1);
+    while(true) {
+      // compare nodes
+      if(!equal(data1, pre1, data2, pre2, kind)) return false;
+      if(kind == Data.ELEM || kind == Data.DOC) {
+        ends1.add(pre1 + data1.size(pre1, kind));
+        ends2.add(pre2 + data2.size(pre2, kind));
+        pre1 += data1.attSize(pre1, kind);
+        pre2 += data2.attSize(pre2, kind);
+      } else {
+        pre1++;
+        pre2++;
+      }
+      // proceed with next nodes: skip finished nodes, compare levels
+      pre1 = next(data1, pre1, ends1, all);
+      pre2 = next(data2, pre2, ends2, all);
+      final int level = ends1.size();
+      if(level != ends2.size()) return false;
+      if(level == 0) return true;
+
+      kind = data1.kind(pre1);
+      if(kind != data2.kind(pre2)) return false;
+    }
+  }
+
+  /**
+   * Returns the next node to be compared.
+   * @param data data reference
+   * @param pre pre value of the next node in document order
+   * @param ends end positions of the currently opened nodes
+   * @param all include comments and processing instructions
+   * @return pre value
+   */
+  private static int next(final Data data, final int pre, final IntList ends, final boolean all) {
+    int p = pre;
+    while(!ends.isEmpty()) {
+      if(p == ends.peek()) {
+        ends.pop();
+      } else {
+        final int kind = data.kind(p);
+        if(all || kind != Data.COMM && kind != Data.PI) break;
+        p++;
+      }
+    }
+    return p;
+  }
+
+  /**
+   * Compares the names, values and attributes of two database nodes.
+   * @param data1 first data reference
+   * @param pre1 first pre value
+   * @param data2 second data reference
+   * @param pre2 second pre value
+   * @param kind node kind
+   * @return result of check
+   */
+  private static boolean equal(final Data data1, final int pre1, final Data data2,
+      final int pre2, final int kind) {
+
+    switch(kind) {
+      case Data.TEXT: case Data.COMM: case Data.PI:
+        // the processing instruction target is part of the stored text
+        return text(data1, pre1, data2, pre2, true);
+      case Data.ATTR:
+        return name(data1, pre1, data2, pre2, kind) && text(data1, pre1, data2, pre2, false);
+      case Data.ELEM:
+        if(!name(data1, pre1, data2, pre2, kind)) return false;
+        // compare attributes (regardless of their order)
+        final int as = data1.attSize(pre1, kind) - 1;
+        if(as != data2.attSize(pre2, kind) - 1) return false;
+        LOOP:
+        for(int a1 = 0; a1 < as; a1++) {
+          for(int a = 0; a < as; a++) {
+            final int a2 = (a1 + a) % as;
+            if(!name(data1, pre1 + 1 + a1, data2, pre2 + 1 + a2, Data.ATTR)) continue;
+            if(!text(data1, pre1 + 1 + a1, data2, pre2 + 1 + a2, false)) return false;
+            continue LOOP;
+          }
+          return false;
+        }
+        return true;
+      default:
+        return true;
+    }
+  }
+
+  /**
+   * Compares the names of two database nodes.
+   * @param data1 first data reference
+   * @param pre1 first pre value
+   * @param data2 second data reference
+   * @param pre2 second pre value
+   * @param kind node kind
+   * @return result of check
+   */
+  private static boolean name(final Data data1, final int pre1, final Data data2,
+      final int pre2, final int kind) {
+
+    // identical name and namespace references
+    if(data1 == data2 && data1.nameId(pre1) == data2.nameId(pre2) &&
+        data1.uriId(pre1, kind) == data2.uriId(pre2, kind)) return true;
+    // compare local names and namespace uris
+    final byte[][] qname1 = data1.qname(pre1, kind), qname2 = data2.qname(pre2, kind);
+    return eq(local(qname1[0]), local(qname2[0])) && eq(qname1[1], qname2[1]);
+  }
+
+  /**
+   * Compares the texts of two database nodes.
+   * @param data1 first data reference
+   * @param pre1 first pre value
+   * @param data2 second data reference
+   * @param pre2 second pre value
+   * @param text text/attribute flag
+   * @return result of check
+   */
+  private static boolean text(final Data data1, final int pre1, final Data data2,
+      final int pre2, final boolean text) {
+
+    // identical text references, or identical inlined values
+    final long ref1 = data1.textRef(pre1), ref2 = data2.textRef(pre2);
+    if(ref1 == ref2 && (data1 == data2 || Inline.inlined(ref1))) return true;
+    // main-memory texts are only stored once
+    if(data1 == data2 && data1 instanceof MemData) return false;
+    return eq(data1.text(pre1, text), data2.text(pre2, text));
+  }
 }
@@ -22,6 +22,10 @@ public class FnAvg extends FnSum {
   public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
     final Expr expr = exprs[0];
     if(expr instanceof RangeSeq || expr instanceof Range) return range(expr.value(qc));
+    if(nodes(expr)) {
+      final Item item = sum(expr.iter(qc), true, qc);
+      return item == null ? Empty.VALUE : item;
+    }
 
     if(expr instanceof SingletonSeq) {
       final Item item = singleton((SingletonSeq) expr);
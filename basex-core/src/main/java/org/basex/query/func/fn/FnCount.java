@@ -5,6 +5,7 @@ import org.basex.query.expr.*;
 import org.basex.query.func.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.seq.*;
 import org.basex.util.*;
@@ -26,7 +27,14 @@ public final class FnCount extends StandardFunc {
     final Iter iter = expr.iter(qc);
     long size = iter.size();
     if(size == -1) {
-      do ++size; while(qc.next(iter) != null);
+      // request items in batches
+      final ItemList list = new ItemList(Iter.BATCH);
+      size = 0;
+      for(int n = Iter.BATCH; n == Iter.BATCH; size += n) {
+        qc.checkStop();
+        list.reset();
+        n = iter.next(list, Iter.BATCH);
+      }
     }
     return Int.get(size);
   }
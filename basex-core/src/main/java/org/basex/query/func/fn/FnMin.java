@@ -3,9 +3,15 @@ package org.basex.query.func.fn;
 import static org.basex.query.QueryError.*;
 import static org.basex.query.value.type.AtomType.*;
 
+import java.util.*;
+
+import org.basex.data.*;
+import org.basex.index.path.*;
+import org.basex.index.stats.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.CmpV.*;
+import org.basex.query.expr.path.*;
 import org.basex.query.func.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.collation.*;
@@ -14,6 +20,7 @@ import org.basex.query.value.item.*;
 import org.basex.query.value.seq.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
+import org.basex.util.hash.*;
 
 /**
  * Function implementation.
@@ -128,15 +135,16 @@ public class FnMin extends StandardFunc {
 
   @Override
   protected Expr opt(final CompileContext cc) {
-    return optMinmax(OpV.GT);
+    return optMinmax(OpV.GT, cc);
   }
 
   /**
    * Optimizes a minimum or maximum item.
    * @param cmp comparator
+   * @param cc compilation context
    * @return optimized or original item
    */
-  final Expr optMinmax(final OpV cmp) {
+  final Expr optMinmax(final OpV cmp, final CompileContext cc) {
     final Expr expr = exprs[0];
     final SeqType st = expr.seqType();
     Type type = st.type;
@@ -147,9 +155,61 @@ public class FnMin extends StandardFunc {
         return expr;
       }
       exprType.assign(type);
-      final Item item = value(cmp);
+      Item item = value(cmp);
+      if(item == null) item = stats(cmp, cc);
       if(item != null) return item;
     }
     return optFirst();
   }
+
+  /**
+   * Computes the result from the statistics of the database path index.
+   * @param cmp comparator
+   * @param cc compilation context
+   * @return resulting item or {@code null}
+   */
+  private Item stats(final OpV cmp, final CompileContext cc) {
+    final Expr expr = exprs[0];
+    if(!(expr instanceof AxisPath) || exprs.length > 1) return null;
+    final ArrayList<PathNode> nodes = ((AxisPath) expr).pathNodes(cc, true);
+    if(nodes == null || nodes.isEmpty()) return null;
+
+    double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+    for(final PathNode node : nodes) {
+      final Stats stats = stats(node);
+      if(stats == null || !StatsType.isNumeric(stats.type)) return null;
+      min = Math.min(min, stats.min);
+      max = Math.max(max, stats.max);
+    }
+    // skip zero values: the statistics do not distinguish between 0 and -0
+    final double result = cmp == OpV.GT ? min : max;
+    return result == 0 ? null : Dbl.get(result);
+  }
+
+  /**
+   * Returns the statistics of a path node if all its string values are contained.
+   * @param node path node
+   * @return statistics or {@code null}
+   */
+  private static Stats stats(final PathNode node) {
+    switch(node.kind) {
+      case Data.TEXT:
+        return node.stats;
+      case Data.ATTR:
+        // empty values are not considered in the minimum and maximum
+        final TokenIntMap values = node.stats.values;
+        return values != null && !values.contains(Token.EMPTY) ? node.stats : null;
+      case Data.ELEM:
+        // each element must have a single text node
+        PathNode text = null;
+        for(final PathNode child : node.children) {
+          if(child.kind == Data.ATTR) continue;
+          if(text != null || child.kind != Data.TEXT) return null;
+          text = child;
+        }
+        return text != null && text.stats.count == node.stats.count ? text.stats : null;
+      default:
+        return null;
+    }
+  }
 }
@@ -6,6 +6,7 @@ import static org.basex.util.Token.*;
 import java.util.regex.*;
 
 import org.basex.query.*;
+import org.basex.query.util.regex.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 
@@ -19,7 +20,8 @@ public final class FnReplace extends RegEx {
   @Override
   public Item item(final QueryContext qc, final InputInfo ii) throws QueryException {
     final byte[] value1 = toEmptyToken(exprs[0], qc);
-    final Pattern pattern = pattern(exprs[1], exprs.length == 4 ? exprs[3] : null, qc, true);
+    final RegExPattern regex = regex(exprs[1], exprs.length == 4 ? exprs[3] : null, qc, true);
+    final Pattern pattern = regex.pattern;
     final byte[] value2 = toToken(exprs[2], qc);
     String replace = string(value2);
     if((pattern.flags() & Pattern.LITERAL) == 0) {
@@ -39,6 +41,10 @@ public final class FnReplace extends RegEx {
       replace = replace.replace("\\", "\\\\").replace("$", "\\$");
     }
 
+    // byte pattern, no group references: skip conversion to strings
+    final BytePattern bytes = regex.bytes;
+    if(bytes != null && replace.indexOf('$') == -1) return Str.get(replace(value1, bytes, replace));
+
     try {
       return Str.get(pattern.matcher(string(value1)).replaceAll(replace));
     } catch(final Exception ex) {
@@ -46,4 +52,33 @@ public final class FnReplace extends RegEx {
       throw REGPAT_X.get(info, ex);
     }
   }
+
+  /**
+   * Replaces all matches of a byte pattern.
+   * @param value input
+   * @param bytes byte pattern
+   * @param replace replacement (with escaped backslashes)
+   * @return result
+   */
+  private static byte[] replace(final byte[] value, final BytePattern bytes, final String replace) {
+    final int[] range = new int[2];
+    if(!bytes.find(value, 0, range)) return value;
+
+    final byte[] rep = token(replace.replace("\\\\", "\\"));
+    final int vl = value.length;
+    final TokenBuilder tb = new TokenBuilder(vl);
+    int start = 0;
+    do {
+      tb.add(value, start, range[0]).add(rep);
+      start = range[1];
+      // empty match: advance by one character
+      if(range[0] == range[1]) {
+        if(start == vl) break;
+        final int cl = cl(value, start);
+        tb.add(value, start, start + cl);
+        start += cl;
+      }
+    } while(start <= vl && bytes.find(value, start, range));
+    return tb.add(value, start, vl).finish();
+  }
 }
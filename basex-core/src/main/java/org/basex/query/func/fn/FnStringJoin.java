@@ -5,6 +5,7 @@ import static org.basex.util.Token.*;
 import org.basex.query.*;
 import org.basex.query.func.*;
 import org.basex.query.iter.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 
@@ -28,11 +29,15 @@ public final class FnStringJoin extends StandardFunc {
     final byte[] first = item.string(info);
     if((item = iter.next()) == null) return Str.get(first);
 
-    // join multiple strings
-    final TokenBuilder tb = new TokenBuilder().add(first);
-    do {
-      tb.add(token).add(item.string(info));
-    } while((item = qc.next(iter)) != null);
+    // join multiple strings; request remaining items in batches
+    final TokenBuilder tb = new TokenBuilder().add(first).add(token).add(item.string(info));
+    final ItemList list = new ItemList(Iter.BATCH);
+    for(int n = Iter.BATCH; n == Iter.BATCH;) {
+      qc.checkStop();
+      list.reset();
+      n = iter.next(list, Iter.BATCH);
+      for(int i = 0; i < n; i++) tb.add(token).add(list.get(i).string(info));
+    }
     return Str.get(tb.finish());
   }
 }
@@ -10,6 +10,7 @@ import org.basex.query.expr.*;
 import org.basex.query.func.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.seq.*;
@@ -29,6 +30,9 @@ public class FnSum extends StandardFunc {
     if(expr instanceof RangeSeq || expr instanceof Range) {
       final Item item = range(expr.value(qc));
       if(item != null) return item;
+    } else if(nodes(expr)) {
+      final Item item = sum(expr.iter(qc), false, qc);
+      if(item != null) return item;
     } else {
       if(expr instanceof SingletonSeq) {
         final Item item = singleton((SingletonSeq) expr);
@@ -115,6 +119,36 @@ public class FnSum extends StandardFunc {
     return item.type.isNumber() ? Calc.MULT.eval(item, Int.get(seq.size()), info) : null;
   }
 
+  /**
+   * Checks if the specified expression yields nodes whose string values will be
+   * converted to doubles.
+   * @param expr expression
+   * @return result of check
+   */
+  static boolean nodes(final Expr expr) {
+    final Type type = expr.seqType().type;
+    return type == NodeType.ELM || type == NodeType.ATT || type == NodeType.TXT ||
+        type == NodeType.DOC;
+  }
+
+  /**
+   * Sums up the double values of the specified nodes. Database nodes are directly converted to
+   * doubles, and no atomized items are created.
+   * @param iter node iterator
+   * @param avg calculate average
+   * @param qc query context
+   * @return resulting item, or {@code null} if the iterator yields no nodes
+   * @throws QueryException query exception
+   */
+  final Item sum(final Iter iter, final boolean avg, final QueryContext qc)
+      throws QueryException {
+
+    double sum = 0;
+    long c = 0;
+    for(Item item; (item = qc.next(iter)) != null; c++) sum += item.dbl(info);
+    return c == 0 ? null : Dbl.get(avg ? sum / c : sum);
+  }
+
   /**
    * Sums up the specified item(s).
    * @param iter iterator
@@ -131,19 +165,26 @@ public class FnSum extends StandardFunc {
     final boolean num = res instanceof ANum, dtd = res.type == DTD, ymd = res.type == YMD;
     if(!num && !dtd && !ymd) throw SUM_X_X.get(info, res.type, res);
 
-    int c = 1;
-    for(Item it; (it = qc.next(iter)) != null;) {
-      final Type type = it.type;
-      Type tp = null;
-      if(type.isNumberOrUntyped()) {
-        if(!num) tp = DUR;
-      } else {
-        if(num) tp = NUM;
-        else if(dtd && type != DTD || ymd && type != YMD) tp = DUR;
+    // request remaining items in batches
+    final ItemList list = new ItemList(Iter.BATCH);
+    long c = 1;
+    for(int n = Iter.BATCH; n == Iter.BATCH; c += n) {
+      qc.checkStop();
+      list.reset();
+      n = iter.next(list, Iter.BATCH);
+      for(int i = 0; i < n; i++) {
+        final Item it = list.get(i);
+        final Type type = it.type;
+        Type tp = null;
+        if(type.isNumberOrUntyped()) {
+          if(!num) tp = DUR;
+        } else {
+          if(num) tp = NUM;
+          else if(dtd && type != DTD || ymd && type != YMD) tp = DUR;
+        }
+        if(tp != null) throw CMP_X_X_X.get(info, tp, type, it);
+        res = Calc.PLUS.eval(res, it, info);
       }
-      if(tp != null) throw CMP_X_X_X.get(info, tp, type, it);
-      res = Calc.PLUS.eval(res, it, info);
-      c++;
     }
     return avg ? Calc.DIV.eval(res, Int.get(c), info) : res;
   }
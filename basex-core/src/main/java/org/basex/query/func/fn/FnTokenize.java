@@ -2,10 +2,12 @@ package org.basex.query.func.fn;
 
 import static org.basex.util.Token.*;
 
+import java.util.*;
 import java.util.regex.*;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
+import org.basex.query.util.regex.*;
 import org.basex.query.value.*;
 import org.basex.query.value.seq.*;
 import org.basex.util.list.*;
@@ -22,9 +24,26 @@ public final class FnTokenize extends RegEx {
     final byte[] value = toEmptyToken(exprs[0], qc);
     if(exprs.length < 2) return StrSeq.get(split(normalize(value), ' '));
 
-    final Pattern pattern = pattern(exprs[1], exprs.length == 3 ? exprs[2] : null, qc, true);
+    final RegExPattern regex = regex(exprs[1], exprs.length == 3 ? exprs[2] : null, qc, true);
 
     final TokenList tl = new TokenList();
+    final BytePattern bytes = regex.bytes;
+    if(bytes != null) {
+      // byte pattern: skip conversion to strings
+      final int vl = value.length;
+      if(vl != 0) {
+        final int[] range = new int[2];
+        int start = 0;
+        while(bytes.find(value, start, range)) {
+          tl.add(Arrays.copyOfRange(value, start, range[0]));
+          start = range[1];
+        }
+        tl.add(Arrays.copyOfRange(value, start, vl));
+      }
+      return StrSeq.get(tl);
+    }
+
+    final Pattern pattern = regex.pattern;
     final String string = string(value);
     if(!string.isEmpty()) {
       final Matcher matcher = pattern.matcher(string);
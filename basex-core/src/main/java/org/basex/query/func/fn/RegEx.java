@@ -1,13 +1,15 @@
 package org.basex.query.func.fn;
 
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.*;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.func.*;
+import org.basex.query.util.regex.*;
 import org.basex.query.util.regex.parse.*;
 import org.basex.util.Token;
-import org.basex.util.hash.*;
 
 /**
  * Regular expression functions.
@@ -16,8 +18,11 @@ import org.basex.util.hash.*;
  * @author Christian Gruen
  */
 abstract class RegEx extends StandardFunc {
-  /** Pattern cache. */
-  private final TokenObjMap<Pattern> patterns = new TokenObjMap<>();
+  /** Maximum number of cached patterns. */
+  private static final int MAX = 1 << 12;
+  /** Pattern cache (shared by all queries), indexed by pattern, modifiers and check flag. */
+  private static final ConcurrentHashMap<String, RegExPattern> PATTERNS =
+    new ConcurrentHashMap<>();
 
   /**
    * Returns a regular expression pattern.
@@ -28,21 +33,56 @@ abstract class RegEx extends StandardFunc {
    * @return pattern modifier
    * @throws QueryException query exception
    */
-  protected Pattern pattern(final Expr regex, final Expr modifier, final QueryContext qc,
+  protected final Pattern pattern(final Expr regex, final Expr modifier, final QueryContext qc,
       final boolean check) throws QueryException {
+    return regex(regex, modifier, qc, check).pattern;
+  }
+
+  /**
+   * Returns a compiled regular expression.
+   * @param regex pattern
+   * @param modifier modifier item
+   * @param qc query context
+   * @param check check result for empty strings
+   * @return compiled expression
+   * @throws QueryException query exception
+   */
+  protected final RegExPattern regex(final Expr regex, final Expr modifier,
+      final QueryContext qc, final boolean check) throws QueryException {
 
     final byte[] pat = toToken(regex, qc);
     final byte[] mod = modifier != null ? toToken(modifier, qc) : Token.EMPTY;
-    final byte[] key = Token.concat(pat, '\b', mod);
-
-    Pattern pattern;
-    synchronized(patterns) {
-      pattern = patterns.get(key);
-      if(pattern == null) {
-        pattern = RegExParser.parse(pat, mod, info, check);
-        patterns.put(key, pattern);
+    final String key = Token.string(Token.concat(check ? "1" : "0", pat, '\b', mod));
+
+    RegExPattern rp = PATTERNS.get(key);
+    if(rp == null) {
+      rp = new RegExPattern(RegExParser.parse(pat, mod, info, check), BytePattern.get(pat, mod));
+      // cache is full: discard an arbitrary pattern
+      if(PATTERNS.size() >= MAX) {
+        final Iterator<String> keys = PATTERNS.keySet().iterator();
+        if(keys.hasNext()) PATTERNS.remove(keys.next());
       }
+      final RegExPattern cached = PATTERNS.putIfAbsent(key, rp);
+      if(cached != null) rp = cached;
+    }
+    return rp;
+  }
+
+  /** Compiled regular expression. */
+  static final class RegExPattern {
+    /** Java pattern. */
+    final Pattern pattern;
+    /** Byte pattern (can be {@code null}). */
+    final BytePattern bytes;
+
+    /**
+     * Constructor.
+     * @param pattern Java pattern
+     * @param bytes byte pattern (can be {@code null})
+     */
+    private RegExPattern(final Pattern pattern, final BytePattern bytes) {
+      this.pattern = pattern;
+      this.bytes = bytes;
     }
-    return pattern;
   }
 }
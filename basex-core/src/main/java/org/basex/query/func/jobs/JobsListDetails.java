@@ -30,7 +30,8 @@ public final class JobsListDetails extends StandardFunc {
     final JobPool jobs = ctx.jobs;
     final ValueBuilder vb = new ValueBuilder(qc);
 
-    final byte[][] atts = { ID, TYPE, STATE, USER, DURATION, START, END, READS, WRITES, TIME };
+    final byte[][] atts = { ID, TYPE, STATE, USER, DURATION, START, END, READS, WRITES, TIME,
+      ALLOCATED, CPU };
     for(final byte[] key : ids) {
       final TokenList entry = JobsList.entry(key, jobs, max);
       if(entry == null) continue;
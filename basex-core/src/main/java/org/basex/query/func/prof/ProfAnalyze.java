@@ -0,0 +1,31 @@
+package org.basex.query.func.prof;
+
+import org.basex.query.*;
+import org.basex.query.func.*;
+import org.basex.query.util.*;
+import org.basex.query.value.node.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ProfAnalyze extends StandardFunc {
+  @Override
+  public FElem item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    // evaluate argument with a new profile, restore existing profile
+    final Profile profile = new Profile(), prof = qc.profile;
+    qc.profile = profile;
+    try {
+      exprs[0].value(qc).cache(false, info);
+    } finally {
+      qc.profile = prof;
+    }
+
+    final QueryPlan plan = new QueryPlan(true, false, false, profile);
+    exprs[0].plan(plan);
+    return plan.root;
+  }
+}
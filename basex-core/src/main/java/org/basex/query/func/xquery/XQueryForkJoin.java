@@ -32,7 +32,18 @@ public final class XQueryForkJoin extends StandardFunc {
     // single function: invoke directly
     if(size == 1) return ((FItem) funcs).invokeValue(qc, info);
 
-    final ForkJoinPool pool = new ForkJoinPool();
+    // limit of parallel operations has been reached: invoke functions sequentially
+    final JobPool jobs = qc.context.jobs;
+    final ForkJoinPool pool = jobs.acquire();
+    if(pool == null) {
+      final ValueBuilder vb = new ValueBuilder(qc);
+      for(final Item func : funcs) {
+        qc.checkStop();
+        vb.add(((FItem) func).invokeValue(qc, info));
+      }
+      return vb.value();
+    }
+
     final XQueryTask task = new XQueryTask(funcs, qc, info);
     try {
       return pool.invoke(task);
@@ -43,8 +54,7 @@ public final class XQueryForkJoin extends StandardFunc {
       if(e instanceof JobException) throw (JobException) e;
       throw XQUERY_UNEXPECTED_X.get(info, e);
     } finally {
-      // required?
-      pool.shutdown();
+      jobs.release();
     }
   }
 }
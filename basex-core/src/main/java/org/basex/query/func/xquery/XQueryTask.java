@@ -2,6 +2,7 @@ package org.basex.query.func.xquery;
 
 import java.util.concurrent.*;
 
+import org.basex.core.jobs.*;
 import org.basex.query.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
@@ -56,14 +57,19 @@ final class XQueryTask extends RecursiveTask<Value> {
     final ValueBuilder vb = new ValueBuilder(qc);
     final int s = start, e = end, l = e - s;
     if(l == 1) {
-      // perform the work
+      // perform the work, measure resources consumed by the worker thread
+      final JobContext jc = qc.jc();
+      jc.startWorker();
       try {
+        // skip remaining work if the job has been stopped
+        qc.checkStop();
         vb.add(((FItem) funcs.itemAt(s)).invokeValue(qc, ii));
       } catch(final QueryException ex) {
         completeExceptionally(ex);
         cancel(true);
       } finally {
         qc.close();
+        jc.finishWorker();
       }
     } else if(l > 1) {
       // split the work and join the results in the correct order
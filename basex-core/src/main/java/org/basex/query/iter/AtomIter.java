@@ -1,6 +1,7 @@
 package org.basex.query.iter;
 
 import org.basex.query.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.item.*;
 import org.basex.util.*;
 
@@ -56,6 +57,17 @@ public final class AtomIter extends Iter {
     }
   }
 
+  @Override
+  public int next(final ItemList list, final int max) throws QueryException {
+    // arrays may be encountered: iterate single items
+    if(size == -1) return super.next(list, max);
+
+    qc.checkStop();
+    final int s = list.size(), n = iter.next(list, max);
+    for(int i = s; i < s + n; i++) list.set(i, list.get(i).atomItem(qc, info));
+    return n;
+  }
+
   @Override
   public long size() {
     return size;
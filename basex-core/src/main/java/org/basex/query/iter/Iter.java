@@ -2,6 +2,7 @@ package org.basex.query.iter;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.seq.*;
@@ -13,6 +14,9 @@ import org.basex.query.value.seq.*;
  * @author Christian Gruen
  */
 public abstract class Iter {
+  /** Default number of items to be requested via {@link #next(ItemList, int)}. */
+  public static final int BATCH = 1 << 8;
+
   /**
    * Returns the next item.
    * @return resulting item, or {@code null} if all items have been returned
@@ -20,6 +24,21 @@ public abstract class Iter {
    */
   public abstract Item next() throws QueryException;
 
+  /**
+   * Adds the next items to the specified list. If the returned number is smaller than the
+   * requested number of items, all items have been returned, and the iterator must not be
+   * called again. Iterators with tight evaluation loops can override this method.
+   * @param list list to which the items will be added
+   * @param max maximum number of items to add
+   * @return number of added items
+   * @throws QueryException query exception
+   */
+  public int next(final ItemList list, final int max) throws QueryException {
+    int n = 0;
+    for(Item item; n < max && (item = next()) != null; n++) list.add(item);
+    return n;
+  }
+
   /**
    * Returns the specified item, or an arbitrary item if the index is invalid.
    * If this method returns items, {@link #size()} needs to be implemented as well.
@@ -29,6 +29,8 @@ public final class DataBuilder {
   private final MemData data;
   /** Full-text result builder. */
   private DataFTBuilder ftbuilder;
+  /** Pre value of the opened root node ({@code -1}: no root has been opened). */
+  private int root = -1;
 
   /**
    * Constructor.
@@ -70,6 +72,64 @@ public final class DataBuilder {
     for(final ANode n : nodes) next = addNode(n, next, -1);
   }
 
+  /**
+   * Opens an element node. Child nodes can then be added via {@link #add(ANode)} and
+   * {@link #text(byte[])}, and the element must be finalized via {@link #close()}.
+   * @param name element name
+   * @param ns namespaces
+   * @param atts attributes
+   */
+  public void openElem(final QNm name, final Atts ns, final ANodeList atts) {
+    data.meta.update();
+    root = data.meta.size;
+    data.nspaces.open(root, ns);
+
+    final int nameId = data.elemNames.put(name.string());
+    final int uriId = data.nspaces.uriId(name.uri());
+    final int asize = atts.size() + 1;
+    data.elem(1, nameId, asize, asize, uriId, !ns.isEmpty());
+    data.insert(root);
+    for(final ANode attr : atts) addAttr(attr, data.meta.size, root);
+  }
+
+  /**
+   * Opens a document node. Child nodes can then be added via {@link #add(ANode)} and
+   * {@link #text(byte[])}, and the document must be finalized via {@link #close()}.
+   */
+  public void openDoc() {
+    data.meta.update();
+    root = data.meta.size;
+    data.doc(1, EMPTY);
+    data.insert(root);
+  }
+
+  /**
+   * Adds a child node to the opened root node.
+   * @param node node to be added
+   */
+  public void add(final ANode node) {
+    addNode(node, data.meta.size, root);
+  }
+
+  /**
+   * Adds a text node to the opened root node.
+   * @param text text
+   */
+  public void text(final byte[] text) {
+    addText(text, data.meta.size - root);
+  }
+
+  /**
+   * Finalizes the opened root node.
+   * @return root node
+   */
+  public DBNode close() {
+    final int kind = data.kind(root);
+    if(kind == Data.ELEM) data.nspaces.close(root);
+    data.size(root, kind, data.meta.size - root);
+    return new DBNode(data, root);
+  }
+
   /**
    * Adds a node.
    * @param node node to be added
@@ -207,8 +267,11 @@ public final class DataBuilder {
   private int addElem(final ANode node, final int pre, final int par) {
     final int last = data.meta.size;
 
-    // add new namespaces
-    final Atts ns = par == -1 ? node.nsScope(null) : node.namespaces();
+    // add new namespaces: adopt all in-scope namespaces for the root of the added fragment.
+    // children of an opened root node are copied like the children of fragments, which only
+    // adopt the namespaces of database nodes
+    final Atts ns = par == -1 || par == root && node instanceof DBNode ? node.nsScope(null) :
+      node.namespaces();
     data.nspaces.open(last, ns);
 
     // collect node name properties
@@ -240,7 +303,7 @@ public final class DataBuilder {
    * @param att count attributes instead of elements
    * @return number of descendants + 1 or attribute size + 1
    */
-  private static int size(final ANode node, final boolean att) {
+  public static int size(final ANode node, final boolean att) {
     if(node instanceof DBNode) {
       final DBNode dbnode = (DBNode) node;
       final Data data = dbnode.data();
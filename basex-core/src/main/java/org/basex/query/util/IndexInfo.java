@@ -5,6 +5,7 @@ import static org.basex.query.QueryText.*;
 import org.basex.core.*;
 import org.basex.data.*;
 import org.basex.index.*;
+import org.basex.index.name.*;
 import org.basex.index.query.*;
 import org.basex.index.stats.*;
 import org.basex.query.*;
@@ -160,8 +161,7 @@ public final class IndexInfo {
         return false;
 
       // estimate costs for dynamic query terms
-      costs = enforce() ? IndexCosts.ENFORCE_DYNAMIC :
-        IndexCosts.get(Math.max(1, data.meta.size / 10));
+      costs = enforce() ? IndexCosts.ENFORCE_DYNAMIC : IndexCosts.get(estimate(search, type));
       root = new ValueAccess(ii, search, type, test, db);
     }
 
@@ -194,6 +194,32 @@ public final class IndexInfo {
     return data != null ? data.costs(token) : IndexCosts.ENFORCE_STATIC;
   }
 
+  /**
+   * Returns the statistics of the elements or attributes whose values will be looked up.
+   * @param type index type ({@link IndexType#TEXT} or {@link IndexType#ATTRIBUTE})
+   * @return statistics, or {@code null} if they are not available or not up-to-date
+   */
+  public Stats stats(final IndexType type) {
+    final Data data = db.data();
+    if(data == null || !data.meta.uptodate || !data.nspaces.isEmpty()) return null;
+
+    NameTest nt = test;
+    if(nt == null) {
+      Step st = step;
+      if(pred instanceof AxisPath) {
+        final AxisPath path = (AxisPath) pred;
+        final int sl = path.steps.length - 1;
+        st = type == IndexType.TEXT ? sl == 0 ? step : path.step(sl - 1) : path.step(sl);
+      }
+      if(type == IndexType.TEXT ? st.test.kind != Kind.NAME :
+        !st.simple(Axis.ATTRIBUTE, true)) return null;
+      nt = (NameTest) st.test;
+    }
+
+    final Names names = type == IndexType.TEXT ? data.elemNames : data.attrNames;
+    return names.stats(names.id(nt.name.local()));
+  }
+
   /**
    * Indicates if the index rewriting should be enforced.
    * @return result of check
@@ -204,6 +230,24 @@ public final class IndexInfo {
 
   // PRIVATE METHODS ==============================================================================
 
+  /**
+   * Estimates the number of results for a search expression that is not known at compile time.
+   * If available, the number of distinct values is used to compute the average number of hits
+   * for a single term.
+   * @param search search expression
+   * @param type index type
+   * @return estimated number of results
+   */
+  private int estimate(final Expr search, final IndexType type) {
+    final Data data = db.data();
+    final Stats stats = type == IndexType.TEXT || type == IndexType.ATTRIBUTE ? stats(type) : null;
+    final int distinct = stats != null ? stats.distinct() : 0;
+    if(distinct == 0) return Math.max(1, data.meta.size / 10);
+
+    final long terms = Math.max(1, search.size()), hits = (stats.count + distinct - 1) / distinct;
+    return (int) Math.min(data.meta.size, Math.max(1, hits * terms));
+  }
+
   /**
    * Checks if the specified expression can be rewritten for index access.
    * @param type index type
@@ -0,0 +1,177 @@
+package org.basex.query.util;
+
+import java.util.*;
+
+import org.basex.query.*;
+import org.basex.query.expr.*;
+import org.basex.query.iter.*;
+import org.basex.query.util.list.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.util.*;
+
+/**
+ * Runtime statistics of evaluated expressions. Statistics are only gathered if
+ * {@link QueryContext#profile} is assigned, and they are attached to the query plan.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class Profile {
+  /** Attribute name: number of evaluations. */
+  private static final String CALLS = "calls";
+  /** Attribute name: number of returned items. */
+  private static final String ITEMS = "items";
+  /** Attribute name: evaluation time. */
+  private static final String TIME = "time";
+
+  /** Statistics of evaluated expressions. */
+  private final IdentityHashMap<ExprInfo, Stats> stats = new IdentityHashMap<>();
+
+  /**
+   * Records the evaluation of an expression and returns an iterator that records the number
+   * of returned items and the time spent for retrieving them.
+   * @param expr evaluated expression
+   * @param start start time of the evaluation (see {@link System#nanoTime()})
+   * @param iter iterator
+   * @return iterator
+   */
+  public Iter iter(final ExprInfo expr, final long start, final Iter iter) {
+    final Stats st = stats(expr);
+    st.add(start, 0, 1);
+    return new Iter() {
+      @Override
+      public Item next() throws QueryException {
+        final long time = System.nanoTime();
+        final Item item = iter.next();
+        st.add(time, item != null ? 1 : 0, 0);
+        return item;
+      }
+
+      @Override
+      public int next(final ItemList list, final int max) throws QueryException {
+        final long time = System.nanoTime();
+        final int n = iter.next(list, max);
+        st.add(time, n, 0);
+        return n;
+      }
+
+      @Override
+      public Item get(final long i) throws QueryException {
+        final long time = System.nanoTime();
+        final Item item = iter.get(i);
+        st.add(time, 1, 0);
+        return item;
+      }
+
+      @Override
+      public long size() throws QueryException {
+        return iter.size();
+      }
+
+      @Override
+      public Value value(final QueryContext qc, final Expr ex) throws QueryException {
+        final long time = System.nanoTime();
+        final Value value = iter.value(qc, ex);
+        st.add(time, value.size(), 0);
+        return value;
+      }
+    };
+  }
+
+  /**
+   * Records the evaluation of an expression that yields a value.
+   * @param <V> value type
+   * @param expr evaluated expression
+   * @param start start time of the evaluation (see {@link System#nanoTime()})
+   * @param value resulting value
+   * @return value
+   */
+  public <V extends Value> V value(final ExprInfo expr, final long start, final V value) {
+    stats(expr).add(start, value.size(), 1);
+    return value;
+  }
+
+  /**
+   * Records the start of a function call. Calls of the same expression can be nested (recursion).
+   * @param expr function call
+   * @return start time (see {@link System#nanoTime()})
+   */
+  public long enter(final ExprInfo expr) {
+    final Stats st = stats(expr);
+    synchronized(st) {
+      st.depth++;
+    }
+    return System.nanoTime();
+  }
+
+  /**
+   * Records the end of a function call. The evaluation time is only added by the outermost call
+   * of an expression, as it includes the time of all nested calls.
+   * @param expr function call
+   * @param start start time (see {@link #enter(ExprInfo)})
+   * @param value resulting value, or {@code null} if the result is not available (error, or
+   *   continuation of a tail call)
+   */
+  public void exit(final ExprInfo expr, final long start, final Value value) {
+    final Stats st = stats(expr);
+    synchronized(st) {
+      st.add(--st.depth == 0 ? start : System.nanoTime(), value != null ? value.size() : 0, 1);
+    }
+  }
+
+  /**
+   * Attaches the statistics of an expression to its query plan element.
+   * @param expr expression
+   * @param elem plan element
+   */
+  public void plan(final ExprInfo expr, final FElem elem) {
+    final Stats st;
+    synchronized(stats) {
+      st = stats.get(expr);
+    }
+    if(st != null) {
+      synchronized(st) {
+        elem.add(CALLS, Long.toString(st.calls));
+        elem.add(ITEMS, Long.toString(st.items));
+        elem.add(TIME, Performance.getTime(st.time, 1));
+      }
+    }
+  }
+
+  /**
+   * Returns the statistics of the specified expression.
+   * @param expr expression
+   * @return statistics
+   */
+  private Stats stats(final ExprInfo expr) {
+    synchronized(stats) {
+      return stats.computeIfAbsent(expr, e -> new Stats());
+    }
+  }
+
+  /** Statistics of a single expression. */
+  private static final class Stats {
+    /** Number of evaluations. */
+    private long calls;
+    /** Number of returned items. */
+    private long items;
+    /** Evaluation time (nanoseconds). */
+    private long time;
+    /** Number of nested function calls that are currently evaluated. */
+    private int depth;
+
+    /**
+     * Adds the elapsed time, returned items and evaluations.
+     * @param start start time
+     * @param size number of items
+     * @param count number of evaluations
+     */
+    private synchronized void add(final long start, final long size, final int count) {
+      time += System.nanoTime() - start;
+      items += size;
+      calls += count;
+    }
+  }
+}
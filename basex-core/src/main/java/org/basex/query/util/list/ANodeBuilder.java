@@ -57,18 +57,27 @@ public final class ANodeBuilder extends ObjectList<ANode, ANodeBuilder> {
    * @return the iterator
    */
   public Value value(final Expr expr) {
-    ddo();
-
-    final int sz = size;
-    final ANode[] nodes = finish();
-
     // create standard sequence
-    if(data == null) return ItemSeq.get(nodes, sz, NodeType.NOD.refine(expr));
+    if(data == null) {
+      ddo();
+      final int sz = size;
+      return ItemSeq.get(finish(), sz, NodeType.NOD.refine(expr));
+    }
 
-    // same database: create compact sequence
+    // same database: create compact sequence, sort pre values instead of nodes
+    int sz = size;
+    final ANode[] nodes = finish();
     final int[] pres = new int[sz];
     for(int l = 0; l < sz; l++) pres[l] = ((DBNode) nodes[l]).pre();
-    return DBNodeSeq.get(pres, data, expr);
+    if(!ddo) {
+      Arrays.sort(pres);
+      int i = sz == 0 ? 0 : 1;
+      for(int j = 1; j < sz; j++) {
+        if(pres[j] != pres[i - 1]) pres[i++] = pres[j];
+      }
+      sz = i;
+    }
+    return DBNodeSeq.get(sz == pres.length ? pres : Arrays.copyOf(pres, sz), data, expr);
   }
 
   /**
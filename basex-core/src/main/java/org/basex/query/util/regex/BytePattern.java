@@ -0,0 +1,458 @@
+package org.basex.query.util.regex;
+
+import static org.basex.util.Token.*;
+
+import java.util.*;
+
+import org.basex.util.list.*;
+
+/**
+ * Regular expression that is directly evaluated on UTF-8 tokens.
+ *
+ * Only a deterministic subset of the XQuery syntax is supported: a sequence of literals and
+ * character classes with greedy quantifiers, optionally enclosed by {@code ^} and {@code $}.
+ * Classes may contain ASCII characters and ranges, and {@code \s}; negated classes and
+ * {@code \S} match all non-ASCII characters. Consecutive pieces must be disjoint if the first
+ * one has a variable length. In this case, the longest sequence of characters can always be
+ * consumed, and the results are identical to the ones of a backtracking matcher.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class BytePattern {
+  /** Pieces of the pattern. */
+  private final Piece[] pieces;
+  /** Start anchor. */
+  private final boolean start;
+  /** End anchor. */
+  private final boolean end;
+  /** Literal pattern (can be {@code null}). */
+  private final byte[] literal;
+
+  /**
+   * Constructor.
+   * @param pieces pieces of the pattern
+   * @param start start anchor
+   * @param end end anchor
+   */
+  private BytePattern(final Piece[] pieces, final boolean start, final boolean end) {
+    this.pieces = pieces;
+    this.start = start;
+    this.end = end;
+
+    // pattern consists of fixed characters: use substring search
+    final ByteList bl = new ByteList();
+    for(final Piece piece : pieces) {
+      final byte[] lit = piece.literal();
+      if(lit == null) {
+        bl.reset();
+        break;
+      }
+      bl.add(lit);
+    }
+    literal = start || end || bl.isEmpty() ? null : bl.finish();
+  }
+
+  /**
+   * Returns a byte pattern for the specified regular expression.
+   * @param regex regular expression
+   * @param modifiers modifiers
+   * @return pattern, or {@code null} if the expression is not supported
+   */
+  public static BytePattern get(final byte[] regex, final byte[] modifiers) {
+    boolean lit = false;
+    for(final byte mod : modifiers) {
+      if(mod == 'q') lit = true;
+      else if(mod != 's' && mod != ';') return null;
+    }
+    return lit ? literal(regex) : parse(regex);
+  }
+
+  /**
+   * Checks if the pattern is found in the specified token.
+   * @param token token
+   * @return result of check
+   */
+  public boolean find(final byte[] token) {
+    return find(token, 0, new int[2]);
+  }
+
+  /**
+   * Finds the next match.
+   * @param token token
+   * @param pos start position
+   * @param range array in which the start and end position of the match will be stored
+   * @return {@code true} if a match was found
+   */
+  public boolean find(final byte[] token, final int pos, final int[] range) {
+    final int tl = token.length;
+    if(literal != null) {
+      final int i = indexOf(token, literal, pos);
+      if(i == -1) return false;
+      range[0] = i;
+      range[1] = i + literal.length;
+      return true;
+    }
+
+    for(int p = pos; p <= tl; p += p < tl ? cl(token, p) : 1) {
+      final int e = match(token, p);
+      if(e != -1) {
+        range[0] = p;
+        range[1] = e;
+        return true;
+      }
+      if(start) break;
+    }
+    return false;
+  }
+
+  /**
+   * Matches the pattern at the specified position.
+   * @param token token
+   * @param pos position
+   * @return end position, or {@code -1} if the pattern does not match
+   */
+  private int match(final byte[] token, final int pos) {
+    if(start && pos != 0) return -1;
+    int p = pos;
+    for(final Piece piece : pieces) {
+      p = piece.match(token, p);
+      if(p == -1) return -1;
+    }
+    return end && p != token.length ? -1 : p;
+  }
+
+  /**
+   * Creates a pattern for a literal string.
+   * @param regex regular expression
+   * @return pattern
+   */
+  private static BytePattern literal(final byte[] regex) {
+    final int rl = regex.length;
+    final Piece[] pieces = new Piece[rl == 0 ? 0 : 1];
+    if(rl != 0) pieces[0] = new Piece(regex);
+    return new BytePattern(pieces, false, false);
+  }
+
+  /**
+   * Parses a regular expression.
+   * @param regex regular expression
+   * @return pattern, or {@code null} if the expression is not supported
+   */
+  private static BytePattern parse(final byte[] regex) {
+    final int rl = regex.length;
+    int r = 0;
+    final boolean start = rl > 0 && regex[0] == '^';
+    if(start) r++;
+    boolean end = false;
+
+    final ArrayList<Piece> list = new ArrayList<>();
+    while(r < rl) {
+      final int cp = cp(regex, r);
+      if(cp == '$' && r == rl - 1) {
+        end = true;
+        break;
+      }
+
+      // parse atom
+      final Piece piece;
+      if(cp >= 0x80) {
+        final int l = cl(regex, r);
+        final byte[] seq = new byte[l];
+        System.arraycopy(regex, r, seq, 0, l);
+        piece = new Piece(seq);
+        r += l;
+      } else if(cp == '\\') {
+        if(r + 1 == rl) return null;
+        final int c = regex[r + 1];
+        piece = new Piece();
+        if(c == 's' || c == 'S') {
+          piece.space();
+          if(c == 'S') piece.invert();
+        } else {
+          final int e = escape(c);
+          if(e == -1) return null;
+          piece.add(e);
+        }
+        r += 2;
+      } else if(cp == '[') {
+        piece = new Piece();
+        r = group(regex, r + 1, piece);
+        if(r == -1) return null;
+      } else if(meta(cp)) {
+        return null;
+      } else {
+        piece = new Piece();
+        piece.add(cp);
+        r++;
+      }
+
+      // parse quantifier
+      if(r < rl) {
+        final int q = regex[r];
+        if(q == '?' || q == '*' || q == '+' || q == '{') {
+          if(piece.seq != null) return null;
+          if(q == '{') {
+            r = bounds(regex, r + 1, piece);
+            if(r == -1) return null;
+          } else {
+            piece.min = q == '+' ? 1 : 0;
+            piece.max = q == '?' ? 1 : -1;
+            r++;
+          }
+          // reluctant quantifiers are not supported
+          if(r < rl && regex[r] == '?') return null;
+        }
+      }
+      list.add(piece);
+    }
+
+    // variable-length pieces must be disjoint with subsequent pieces
+    final Piece[] pieces = list.toArray(new Piece[0]);
+    final int pl = pieces.length;
+    for(int p = 0; p < pl; p++) {
+      final Piece piece = pieces[p];
+      if(piece.min == piece.max) continue;
+      for(int n = p + 1; n < pl; n++) {
+        if(piece.overlaps(pieces[n])) return null;
+        if(pieces[n].min > 0) break;
+      }
+    }
+    return new BytePattern(pieces, start, end);
+  }
+
+  /**
+   * Parses a character group.
+   * @param regex regular expression
+   * @param pos position after the opening bracket
+   * @param piece piece to be filled
+   * @return position after the closing bracket, or {@code -1} if the group is not supported
+   */
+  private static int group(final byte[] regex, final int pos, final Piece piece) {
+    final int rl = regex.length;
+    int r = pos;
+    final boolean neg = r < rl && regex[r] == '^';
+    if(neg) r++;
+    final int first = r;
+    while(r < rl && regex[r] != ']') {
+      final int c = regex[r];
+      // reject non-ASCII characters, nested groups and subtractions
+      if(c < 0 || c == '[') return -1;
+      int ch;
+      if(c == '\\') {
+        if(r + 1 == rl) return -1;
+        final int e = regex[r + 1];
+        r += 2;
+        if(e == 's') {
+          piece.space();
+          continue;
+        }
+        ch = escape(e);
+        if(ch == -1) return -1;
+      } else if(c == '-') {
+        // hyphens are only accepted as first or last character
+        if(r != first && r + 1 < rl && regex[r + 1] != ']') return -1;
+        ch = c;
+        r++;
+      } else {
+        ch = c;
+        r++;
+      }
+      // character range
+      if(r + 1 < rl && regex[r] == '-' && regex[r + 1] != ']') {
+        final int to = regex[r + 1];
+        if(ch == '-' || to < 0 || to == '\\' || to == '[' || to == '-' || to < ch) return -1;
+        for(int t = ch; t <= to; t++) piece.add(t);
+        r += 2;
+      } else {
+        piece.add(ch);
+      }
+    }
+    if(r == rl || r == first) return -1;
+    if(neg) piece.invert();
+    return r + 1;
+  }
+
+  /**
+   * Parses quantifier bounds.
+   * @param regex regular expression
+   * @param pos position after the opening brace
+   * @param piece piece to be filled
+   * @return position after the closing brace, or {@code -1} if the bounds are not supported
+   */
+  private static int bounds(final byte[] regex, final int pos, final Piece piece) {
+    final int rl = regex.length;
+    int r = pos;
+    long min = 0, max;
+    final int s = r;
+    while(r < rl && digit(regex[r])) min = min * 10 + regex[r++] - '0';
+    if(r == s || r == rl || min > Integer.MAX_VALUE) return -1;
+    if(regex[r] == ',') {
+      final int m = ++r;
+      max = 0;
+      while(r < rl && digit(regex[r])) max = max * 10 + regex[r++] - '0';
+      if(r == m) max = -1;
+      else if(max < min || max > Integer.MAX_VALUE) return -1;
+    } else {
+      max = min;
+    }
+    if(r == rl || regex[r] != '}') return -1;
+    piece.min = (int) min;
+    piece.max = (int) max;
+    return r + 1;
+  }
+
+  /**
+   * Returns the character of a single-character escape.
+   * @param ch escaped character
+   * @return character, or {@code -1} if the escape is not supported
+   */
+  private static int escape(final int ch) {
+    switch(ch) {
+      case 'n': return '\n';
+      case 'r': return '\r';
+      case 't': return '\t';
+      default: return meta(ch) || ch == '-' || ch == '^' ? ch : -1;
+    }
+  }
+
+  /**
+   * Checks if the specified character is a metacharacter.
+   * @param ch character
+   * @return result of check
+   */
+  private static boolean meta(final int ch) {
+    switch(ch) {
+      case '\\': case '|': case '.': case '?': case '*': case '+': case '(': case ')':
+      case '{': case '}': case '$': case '[': case ']': case '^':
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /** Single character set or fixed character sequence, with minimum and maximum occurrence. */
+  private static final class Piece {
+    /** ASCII characters (bit set). */
+    private final long[] ascii = new long[2];
+    /** Indicates if all non-ASCII characters are matched. */
+    private boolean other;
+    /** Fixed byte sequence (can be {@code null}). */
+    private final byte[] seq;
+    /** Minimum occurrence. */
+    private int min = 1;
+    /** Maximum occurrence ({@code -1}: unbounded). */
+    private int max = 1;
+
+    /**
+     * Constructor for character sets.
+     */
+    private Piece() {
+      seq = null;
+    }
+
+    /**
+     * Constructor for byte sequences.
+     * @param seq byte sequence
+     */
+    private Piece(final byte[] seq) {
+      this.seq = seq;
+    }
+
+    /**
+     * Adds an ASCII character.
+     * @param ch character
+     */
+    private void add(final int ch) {
+      ascii[ch >>> 6] |= 1L << ch;
+    }
+
+    /**
+     * Adds whitespace characters.
+     */
+    private void space() {
+      add(' ');
+      add('\t');
+      add('\n');
+      add('\r');
+    }
+
+    /**
+     * Inverts the character set.
+     */
+    private void invert() {
+      ascii[0] = ~ascii[0];
+      ascii[1] = ~ascii[1];
+      other = true;
+    }
+
+    /**
+     * Checks if the specified ASCII character is contained in the set.
+     * @param ch character
+     * @return result of check
+     */
+    private boolean contains(final int ch) {
+      return (ascii[ch >>> 6] & 1L << ch) != 0;
+    }
+
+    /**
+     * Returns the bytes of a single fixed character.
+     * @return bytes or {@code null}
+     */
+    private byte[] literal() {
+      if(seq != null) return seq;
+      if(min != 1 || max != 1 || other) return null;
+      final int c0 = Long.bitCount(ascii[0]), c1 = Long.bitCount(ascii[1]);
+      if(c0 + c1 != 1) return null;
+      final int ch = c0 == 1 ? Long.numberOfTrailingZeros(ascii[0]) :
+        64 + Long.numberOfTrailingZeros(ascii[1]);
+      return new byte[] { (byte) ch };
+    }
+
+    /**
+     * Checks if the characters of this and the specified piece overlap.
+     * @param piece other piece
+     * @return result of check
+     */
+    private boolean overlaps(final Piece piece) {
+      if(seq != null || piece.seq != null) {
+        if(seq != null && piece.seq != null) return eq(seq, piece.seq);
+        return seq != null ? piece.other : other;
+      }
+      return (ascii[0] & piece.ascii[0]) != 0 || (ascii[1] & piece.ascii[1]) != 0 ||
+          other && piece.other;
+    }
+
+    /**
+     * Greedily matches the piece at the specified position.
+     * @param token token
+     * @param pos position
+     * @return end position, or {@code -1} if the piece does not match
+     */
+    private int match(final byte[] token, final int pos) {
+      final int tl = token.length;
+      if(seq != null) {
+        final int sl = seq.length;
+        if(pos + sl > tl) return -1;
+        for(int s = 0; s < sl; s++) {
+          if(token[pos + s] != seq[s]) return -1;
+        }
+        return pos + sl;
+      }
+
+      int p = pos, c = 0;
+      while((max == -1 || c < max) && p < tl) {
+        final int b = token[p];
+        if(b >= 0) {
+          if(!contains(b)) break;
+          p++;
+        } else {
+          if(!other) break;
+          p += cl(token, p);
+        }
+        c++;
+      }
+      return c < min ? -1 : p;
+    }
+  }
+}
@@ -8,10 +8,15 @@ import org.basex.query.*;
 import org.basex.query.util.collation.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * Decimal item ({@code xs:decimal}).
  *
+ * Decimals with a small scale and precision are represented as unscaled long value and scale.
+ * Arithmetic operations on such values are performed without {@link BigDecimal} instances,
+ * which are only created if required.
+ *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  */
@@ -20,8 +25,28 @@ public final class Dec extends ANum {
   public static final Dec ZERO = new Dec(BigDecimal.ZERO);
   /** Value 1. */
   public static final Dec ONE = new Dec(BigDecimal.ONE);
-  /** Decimal value. */
-  private final BigDecimal value;
+  /** Maximum scale of compact decimals. */
+  private static final int MAX_SCALE = 18;
+  /** Powers of ten. */
+  private static final long[] POW10 = new long[MAX_SCALE + 1];
+  /** Powers of ten (doubles, exact). */
+  private static final double[] DBL10 = new double[23];
+  /** Powers of ten (floats, exact). */
+  private static final float[] FLT10 = new float[11];
+
+  static {
+    POW10[0] = 1;
+    for(int p = 1; p < POW10.length; p++) POW10[p] = POW10[p - 1] * 10;
+    for(int p = 0; p < DBL10.length; p++) DBL10[p] = Double.parseDouble("1e" + p);
+    for(int p = 0; p < FLT10.length; p++) FLT10[p] = Float.parseFloat("1e" + p);
+  }
+
+  /** Unscaled value (only assigned if the scale is not {@code -1}). */
+  private final long unscaled;
+  /** Scale of compact decimals ({@code -1}: decimal is represented by a {@link BigDecimal}). */
+  private final int scale;
+  /** Decimal value (lazily created for compact decimals). */
+  private BigDecimal value;
 
   /**
    * Constructor.
@@ -29,9 +54,25 @@ public final class Dec extends ANum {
    */
   private Dec(final BigDecimal value) {
     super(AtomType.DEC);
+    final int s = value.scale();
+    final BigInteger bi = s >= 0 && s <= MAX_SCALE ? value.unscaledValue() : null;
+    final boolean compact = bi != null && bi.bitLength() < Long.SIZE;
+    unscaled = compact ? bi.longValue() : 0;
+    scale = compact ? s : -1;
     this.value = value;
   }
 
+  /**
+   * Constructor.
+   * @param unscaled unscaled value
+   * @param scale scale
+   */
+  private Dec(final long unscaled, final int scale) {
+    super(AtomType.DEC);
+    this.unscaled = unscaled;
+    this.scale = scale;
+  }
+
   /**
    * Constructor.
    * @param value big decimal value
@@ -50,55 +91,126 @@ public final class Dec extends ANum {
     return get(new BigDecimal(value));
   }
 
+  /**
+   * Constructor.
+   * @param unscaled unscaled value
+   * @param scale scale (must be in the range of compact decimals)
+   * @return value
+   */
+  public static Dec get(final long unscaled, final int scale) {
+    return unscaled == 0 ? ZERO : new Dec(unscaled, scale);
+  }
+
   @Override
   public byte[] string() {
-    return chopNumber(token(value.toPlainString()));
+    if(scale == -1 || unscaled == Long.MIN_VALUE) return chopNumber(token(dec().toPlainString()));
+    if(scale == 0) return token(unscaled);
+
+    // skip trailing zeros of the fractional part
+    final boolean neg = unscaled < 0;
+    final byte[] digits = token(neg ? -unscaled : unscaled);
+    int e = digits.length, s = scale;
+    while(s > 0 && digits[e - 1] == '0') {
+      e--;
+      s--;
+    }
+    final int i = e - s;
+    final ByteList bl = new ByteList(e + 3);
+    if(neg) bl.add('-');
+    if(i > 0) bl.add(digits, 0, i);
+    else bl.add('0');
+    if(s > 0) {
+      bl.add('.');
+      for(int z = i; z < 0; z++) bl.add('0');
+      bl.add(digits, Math.max(0, i), e);
+    }
+    return bl.finish();
+  }
+
+  /**
+   * Returns the scale of a compact decimal.
+   * @return scale, or {@code -1} if the decimal is not compact
+   */
+  public int scale() {
+    return scale;
+  }
+
+  /**
+   * Returns the unscaled value of a compact decimal.
+   * @return unscaled value
+   */
+  public long unscaled() {
+    return unscaled;
   }
 
   @Override
   public boolean bool(final InputInfo ii) {
-    return value.signum() != 0;
+    return scale != -1 ? unscaled != 0 : value.signum() != 0;
   }
 
   @Override
   public long itr() {
-    return value.longValue();
+    return scale != -1 ? unscaled / POW10[scale] : value.longValue();
   }
 
   @Override
   public float flt() {
-    return value.floatValue();
+    // exact operands yield correctly rounded results (see BigDecimal#floatValue)
+    return scale == 0 ? (float) unscaled :
+      scale != -1 && scale < FLT10.length && Math.abs(unscaled) < 1L << 22 ?
+      (float) unscaled / FLT10[scale] : dec().floatValue();
   }
 
   @Override
   public double dbl() {
-    return value.doubleValue();
+    // exact operands yield correctly rounded results (see BigDecimal#doubleValue)
+    return scale == 0 ? (double) unscaled :
+      scale != -1 && scale < DBL10.length && Math.abs(unscaled) < 1L << 52 ?
+      (double) unscaled / DBL10[scale] : dec().doubleValue();
   }
 
   @Override
   public BigDecimal dec(final InputInfo ii) {
-    return value;
+    return dec();
+  }
+
+  /**
+   * Returns the decimal value.
+   * @return decimal value
+   */
+  private BigDecimal dec() {
+    BigDecimal v = value;
+    if(v == null) {
+      v = BigDecimal.valueOf(unscaled, scale);
+      value = v;
+    }
+    return v;
   }
 
   @Override
   public Dec abs() {
-    return value.signum() == -1 ? get(value.negate()) : this;
+    if(scale != -1 && unscaled != Long.MIN_VALUE) {
+      return unscaled < 0 ? get(-unscaled, scale) : this;
+    }
+    final BigDecimal v = dec();
+    return v.signum() == -1 ? get(v.negate()) : this;
   }
 
   @Override
   public Dec ceiling() {
-    return get(value.setScale(0, RoundingMode.CEILING));
+    return scale == 0 ? this : get(dec().setScale(0, RoundingMode.CEILING));
   }
 
   @Override
   public Dec floor() {
-    return get(value.setScale(0, RoundingMode.FLOOR));
+    return scale == 0 ? this : get(dec().setScale(0, RoundingMode.FLOOR));
   }
 
   @Override
-  public Dec round(final int scale, final boolean even) {
-    final int s = value.signum();
-    return s == 0 ? this : get(value.setScale(scale, even ? RoundingMode.HALF_EVEN :
+  public Dec round(final int scl, final boolean even) {
+    final BigDecimal v = dec();
+    final int s = v.signum();
+    return s == 0 ? this : get(v.setScale(scl, even ? RoundingMode.HALF_EVEN :
            s == 1 ? RoundingMode.HALF_UP : RoundingMode.HALF_DOWN));
   }
 
@@ -108,7 +220,7 @@ public final class Dec extends ANum {
     final Type t = item.type;
     return t.isUntyped() ? dbl() == item.dbl(ii) :
       t == AtomType.DBL || t == AtomType.FLT ? item.eq(this, coll, sc, ii) :
-      value.compareTo(item.dec(ii)) == 0;
+      compare(item, ii) == 0;
   }
 
   @Override
@@ -116,21 +228,149 @@ public final class Dec extends ANum {
       throws QueryException {
     final double d = item.dbl(ii);
     return d == Double.NEGATIVE_INFINITY ? -1 : d == Double.POSITIVE_INFINITY ? 1 :
-      Double.isNaN(d) ? UNDEF : value.compareTo(item.dec(ii));
+      Double.isNaN(d) ? UNDEF : compare(item, ii);
+  }
+
+  /**
+   * Compares the decimal with the value of the specified item.
+   * @param item item
+   * @param ii input info
+   * @return result of comparison
+   * @throws QueryException query exception
+   */
+  private int compare(final Item item, final InputInfo ii) throws QueryException {
+    return scale != -1 && compact(item) ?
+      compare(unscaled, scale, unscaled(item), scale(item)) : dec().compareTo(item.dec(ii));
   }
 
   @Override
   public Object toJava() {
-    return value;
+    return dec();
   }
 
   @Override
   public boolean equals(final Object obj) {
-    return this == obj || obj instanceof Dec && value.compareTo(((Dec) obj).value) == 0;
+    if(this == obj) return true;
+    if(!(obj instanceof Dec)) return false;
+    final Dec d = (Dec) obj;
+    return scale != -1 && d.scale != -1 ? compare(unscaled, scale, d.unscaled, d.scale) == 0 :
+      dec().compareTo(d.dec()) == 0;
   }
 
   // STATIC METHODS ===============================================================================
 
+  /**
+   * Adds two numbers without creating big decimals.
+   * @param item1 first item
+   * @param item2 second item
+   * @param subtract subtract second item
+   * @return result, or {@code null} if the items are not compact or if an overflow occurs
+   */
+  public static Dec add(final Item item1, final Item item2, final boolean subtract) {
+    if(!compact(item1) || !compact(item2)) return null;
+    final int s1 = scale(item1), s2 = scale(item2), s = Math.max(s1, s2);
+    try {
+      final long u1 = Math.multiplyExact(unscaled(item1), POW10[s - s1]);
+      final long u2 = Math.multiplyExact(unscaled(item2), POW10[s - s2]);
+      return get(subtract ? Math.subtractExact(u1, u2) : Math.addExact(u1, u2), s);
+    } catch(final ArithmeticException ex) {
+      Util.debug(ex);
+      return null;
+    }
+  }
+
+  /**
+   * Multiplies two numbers without creating big decimals.
+   * @param item1 first item
+   * @param item2 second item
+   * @return result, or {@code null} if the items are not compact or if an overflow occurs
+   */
+  public static Dec multiply(final Item item1, final Item item2) {
+    if(!compact(item1) || !compact(item2)) return null;
+    final int s = scale(item1) + scale(item2);
+    if(s > MAX_SCALE) return null;
+    try {
+      return get(Math.multiplyExact(unscaled(item1), unscaled(item2)), s);
+    } catch(final ArithmeticException ex) {
+      Util.debug(ex);
+      return null;
+    }
+  }
+
+  /**
+   * Checks if the specified item is an integer or a compact decimal.
+   * @param item item
+   * @return result of check
+   */
+  private static boolean compact(final Item item) {
+    return item instanceof Int || item instanceof Dec && ((Dec) item).scale != -1;
+  }
+
+  /**
+   * Returns the unscaled value of an integer or compact decimal.
+   * @param item item
+   * @return unscaled value
+   */
+  private static long unscaled(final Item item) {
+    return item instanceof Dec ? ((Dec) item).unscaled : ((Int) item).itr();
+  }
+
+  /**
+   * Returns the scale of an integer or compact decimal.
+   * @param item item
+   * @return scale
+   */
+  private static int scale(final Item item) {
+    return item instanceof Dec ? ((Dec) item).scale : 0;
+  }
+
+  /**
+   * Compares two compact decimals.
+   * @param u1 first unscaled value
+   * @param s1 first scale
+   * @param u2 second unscaled value
+   * @param s2 second scale
+   * @return result of comparison
+   */
+  private static int compare(final long u1, final int s1, final long u2, final int s2) {
+    if(s1 < s2) return -compare(u2, s2, u1, s1);
+    // align second value; an overflow implies a larger absolute value
+    final long p = POW10[s1 - s2];
+    return u2 > Long.MAX_VALUE / p ? -1 : u2 < Long.MIN_VALUE / p ? 1 : Long.compare(u1, u2 * p);
+  }
+
+  /**
+   * Parses a simple decimal string (optional sign, digits, optional fractional part)
+   * into a compact decimal.
+   * @param token token
+   * @return decimal, or {@code null} if the token cannot be represented as compact decimal
+   */
+  public static Dec parse(final byte[] token) {
+    int t = 0, e = token.length;
+    while(t < e && ws(token[t])) t++;
+    while(e > t && ws(token[e - 1])) e--;
+    final boolean neg = t < e && token[t] == '-';
+    if(t < e && (neg || token[t] == '+')) t++;
+
+    long u = 0;
+    int s = -1, digits = 0, precision = 0;
+    for(; t < e; t++) {
+      final byte b = token[t];
+      if(b == '.' && s == -1) {
+        s = 0;
+      } else if(digit(b)) {
+        digits++;
+        if(s != -1) s++;
+        u = u * 10 + b - '0';
+        // reject values with too many significant digits or fractional digits
+        if(u != 0 && ++precision > MAX_SCALE || s > MAX_SCALE) return null;
+      } else {
+        return null;
+      }
+    }
+    return digits == 0 ? null : get(neg ? -u : u, Math.max(0, s));
+  }
+
   /**
    * Converts the given token into a decimal value.
    * @param item item to be converted
@@ -42,6 +42,8 @@ public final class FuncItem extends FItem implements Scope {
   private final int stackSize;
   /** Input information. */
   public final InputInfo info;
+  /** Cached results of a memoized function ({@code null} if results are not cached). */
+  private final MemoCache memo;
 
   /**
    * Constructor.
@@ -83,6 +85,7 @@ public final class FuncItem extends FItem implements Scope {
     this.sc = sc;
     this.focus = focus;
     this.info = info;
+    memo = anns.contains(Annotation._BASEX_MEMOIZE) ? new MemoCache() : null;
   }
 
   @Override
@@ -113,7 +116,17 @@ public final class FuncItem extends FItem implements Scope {
   @Override
   public Value invValue(final QueryContext qc, final InputInfo ii, final Value... args)
       throws QueryException {
+    return memo != null ? memo.value(args, info, arg -> value(qc, arg)) : value(qc, args);
+  }
 
+  /**
+   * Evaluates the function body.
+   * @param qc query context
+   * @param args arguments
+   * @return resulting value
+   * @throws QueryException query exception
+   */
+  private Value value(final QueryContext qc, final Value[] args) throws QueryException {
     // bind variables and cache context
     final QueryFocus qf = qc.focus;
     qc.focus = focus;
@@ -129,6 +142,12 @@ public final class FuncItem extends FItem implements Scope {
   @Override
   public Item invItem(final QueryContext qc, final InputInfo ii, final Value... args)
       throws QueryException {
+
+    if(memo != null) {
+      final Value value = invValue(qc, ii, args);
+      return value instanceof Item ? (Item) value : value.itemAt(0);
+    }
+
     // bind variables and cache context
     final QueryFocus qf = qc.focus;
     qc.focus = focus;
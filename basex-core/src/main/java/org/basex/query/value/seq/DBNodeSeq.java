@@ -8,6 +8,8 @@ import java.util.*;
 import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
+import org.basex.query.iter.*;
+import org.basex.query.util.list.*;
 import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
@@ -63,6 +65,32 @@ public class DBNodeSeq extends NativeSeq {
     return new DBNode(data, pres[(int) pos]);
   }
 
+  @Override
+  public BasicIter<Item> iter() {
+    return new BasicIter<Item>(size) {
+      @Override
+      public Item get(final long i) {
+        return itemAt(i);
+      }
+      @Override
+      public int next(final ItemList list, final int max) {
+        // create nodes for a range of the pre values
+        final int p = (int) pos, n = (int) Math.max(0, Math.min(max, size - p));
+        for(int i = 0; i < n; i++) list.add(itemAt(p + i));
+        pos = p + n;
+        return n;
+      }
+      @Override
+      public Value iterValue() {
+        return DBNodeSeq.this;
+      }
+      @Override
+      public Value value(final QueryContext qc, final Expr expr) {
+        return DBNodeSeq.this;
+      }
+    };
+  }
+
   @Override
   public Value atomValue(final QueryContext qc, final InputInfo ii) {
     final ValueBuilder vb = new ValueBuilder(qc);
@@ -1,6 +1,7 @@
 package org.basex.query.value.seq;
 
 import java.math.*;
+import java.util.*;
 
 import org.basex.query.*;
 import org.basex.query.value.*;
@@ -10,45 +11,84 @@ import org.basex.util.*;
 
 /**
  * Sequence of items of type {@link Int xs:decimal}, containing at least two of them.
+ * If all decimals are compact, their unscaled values and scales are stored in primitive arrays.
  *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
  */
 public final class DecSeq extends NativeSeq {
-  /** Values. */
+  /** Unscaled values of compact decimals ({@code null} if big decimals are stored). */
+  private final long[] unscaled;
+  /** Scales of compact decimals ({@code null} if big decimals are stored). */
+  private final byte[] scales;
+  /** Values ({@code null} if compact decimals are stored). */
   private final BigDecimal[] values;
 
   /**
    * Constructor.
-   * @param values bytes
+   * @param values values
    */
   private DecSeq(final BigDecimal[] values) {
     super(values.length, AtomType.DEC);
     this.values = values;
+    unscaled = null;
+    scales = null;
+  }
+
+  /**
+   * Constructor.
+   * @param unscaled unscaled values
+   * @param scales scales
+   */
+  private DecSeq(final long[] unscaled, final byte[] scales) {
+    super(unscaled.length, AtomType.DEC);
+    this.unscaled = unscaled;
+    this.scales = scales;
+    values = null;
   }
 
   @Override
   public Dec itemAt(final long pos) {
-    return Dec.get(values[(int) pos]);
+    final int p = (int) pos;
+    return values != null ? Dec.get(values[p]) : Dec.get(unscaled[p], scales[p]);
   }
 
   @Override
   public Value reverse(final QueryContext qc) {
     final int sz = (int) size;
-    final BigDecimal[] tmp = new BigDecimal[sz];
-    for(int i = 0; i < sz; i++) tmp[sz - i - 1] = values[i];
-    return get(tmp);
+    if(values != null) {
+      final BigDecimal[] tmp = new BigDecimal[sz];
+      for(int i = 0; i < sz; i++) tmp[sz - i - 1] = values[i];
+      return get(tmp);
+    }
+    final long[] tmp = new long[sz];
+    final byte[] scl = new byte[sz];
+    for(int i = 0; i < sz; i++) {
+      tmp[sz - i - 1] = unscaled[i];
+      scl[sz - i - 1] = scales[i];
+    }
+    return new DecSeq(tmp, scl);
   }
 
   @Override
   public BigDecimal[] toJava() {
-    return values;
+    if(values != null) return values;
+    final int sz = (int) size;
+    final BigDecimal[] tmp = new BigDecimal[sz];
+    for(int i = 0; i < sz; i++) tmp[i] = BigDecimal.valueOf(unscaled[i], scales[i]);
+    return tmp;
   }
 
   @Override
   public boolean equals(final Object obj) {
-    return this == obj || (obj instanceof DecSeq ? Array.equals(values, ((DecSeq) obj).values) :
-      super.equals(obj));
+    if(this == obj) return true;
+    if(obj instanceof DecSeq) {
+      final DecSeq ds = (DecSeq) obj;
+      if(values != null && ds.values != null) return Array.equals(values, ds.values);
+      if(values == null && ds.values == null)
+        return Arrays.equals(unscaled, ds.unscaled) && Arrays.equals(scales, ds.scales);
+    }
+    return super.equals(obj);
   }
 
   // STATIC METHODS ===============================================================================
@@ -71,18 +111,43 @@ public final class DecSeq extends NativeSeq {
    * @throws QueryException query exception
    */
   public static Value get(final int size, final Value... values) throws QueryException {
-    final BigDecimal[] tmp = new BigDecimal[size];
+    // try to store compact decimals
+    final long[] tmp = new long[size];
+    final byte[] scl = new byte[size];
     int t = 0;
+    VALUES:
+    for(final Value value : values) {
+      if(value instanceof DecSeq && ((DecSeq) value).values == null) {
+        final DecSeq ds = (DecSeq) value;
+        final int vs = (int) value.size();
+        Array.copyFromStart(ds.unscaled, vs, tmp, t);
+        Array.copyFromStart(ds.scales, vs, scl, t);
+        t += vs;
+      } else {
+        for(final Item item : value) {
+          final Dec dec = item instanceof Dec ? (Dec) item : null;
+          final int s = dec != null ? dec.scale() : -1;
+          if(s == -1) break VALUES;
+          tmp[t] = dec.unscaled();
+          scl[t++] = (byte) s;
+        }
+      }
+    }
+    if(t == size) return size == 0 ? Empty.VALUE : size == 1 ? Dec.get(tmp[0], scl[0]) :
+      new DecSeq(tmp, scl);
+
+    final BigDecimal[] bd = new BigDecimal[size];
+    t = 0;
     for(final Value value : values) {
       // speed up construction, depending on input
-      if(value instanceof DecSeq) {
+      if(value instanceof DecSeq && ((DecSeq) value).values != null) {
         final int vs = (int) value.size();
-        Array.copyFromStart(((DecSeq) value).values, vs, tmp, t);
+        Array.copyFromStart(((DecSeq) value).values, vs, bd, t);
         t += vs;
       } else {
-        for(final Item item : value) tmp[t++] = item.dec(null);
+        for(final Item item : value) bd[t++] = item.dec(null);
       }
     }
-    return get(tmp);
+    return get(bd);
   }
 }
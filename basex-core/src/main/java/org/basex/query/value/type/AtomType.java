@@ -267,7 +267,14 @@ public enum AtomType implements Type {
     @Override
     public Dec cast(final Item item, final QueryContext qc, final StaticContext sc,
         final InputInfo ii) throws QueryException {
-      return Dec.get(checkNum(item, ii).dec(ii));
+      final Item num = checkNum(item, ii);
+      if(num instanceof Dec) return (Dec) num;
+      if(num instanceof Int) return Dec.get(num.itr(ii), 0);
+      if(num.type.isStringOrUntyped()) {
+        final Dec dec = Dec.parse(num.string(ii));
+        if(dec != null) return dec;
+      }
+      return Dec.get(num.dec(ii));
     }
     @Override
     public Dec cast(final Object value, final QueryContext qc, final StaticContext sc,
@@ -123,6 +123,22 @@ public final class StaticVar extends StaticDecl {
       declType.cast(val, qc, sc, info), qc);
   }
 
+  /**
+   * Binds a new external value to the variable of a compiled query.
+   * @param val value to bind
+   * @param qc query context
+   * @return {@code false} if the value does not match the type the query was compiled with
+   * @throws QueryException query exception
+   */
+  boolean rebind(final Value val, final QueryContext qc) throws QueryException {
+    if(!external) return true;
+    final Value cast = declType == null || declType.instance(val) ? val :
+      declType.cast(val, qc, sc, info);
+    if(!cast.seqType().instanceOf(seqType())) return false;
+    bindValue(cast, qc);
+    return true;
+  }
+
   /**
    * Binds the specified value to the variable.
    * @param val value to be set
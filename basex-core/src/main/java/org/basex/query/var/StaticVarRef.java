@@ -50,7 +50,8 @@ final class StaticVarRef extends ParseExpr {
 
   @Override
   public Expr optimize(final CompileContext cc) {
-    if(var.value != null) return var.value;
+    // prepared queries: external values may be rebound after compilation
+    if(var.value != null && !(var.external && cc.qc.prepared)) return var.value;
     exprType.assign(var.seqType());
     return this;
   }
@@ -91,6 +91,20 @@ public final class Variables extends ExprInfo implements Iterable<StaticVar> {
     }
   }
 
+  /**
+   * Binds a new value to an external variable of a compiled query.
+   * @param name variable name
+   * @param value value to be bound
+   * @param qc query context
+   * @return {@code false} if the value does not match the type the query was compiled with
+   * @throws QueryException query exception
+   */
+  public boolean rebind(final QNm name, final Value value, final QueryContext qc)
+      throws QueryException {
+    final VarEntry ve = vars.get(name);
+    return ve == null || ve.var.rebind(value, qc);
+  }
+
   @Override
   public Iterator<StaticVar> iterator() {
     final Iterator<Entry<QNm, VarEntry>> iter = vars.entrySet().iterator();
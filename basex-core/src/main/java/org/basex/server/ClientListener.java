@@ -4,19 +4,24 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
 
 import org.basex.*;
 import org.basex.core.*;
 import org.basex.core.cmd.*;
 import org.basex.core.parse.*;
 import org.basex.core.users.*;
+import org.basex.io.*;
 import org.basex.io.in.*;
 import org.basex.io.out.*;
 import org.basex.query.*;
 import org.basex.server.Log.LogType;
 import org.basex.util.*;
 import org.basex.util.list.*;
+import org.basex.util.options.*;
 
 /**
  * Server-side client session in the client-server architecture.
@@ -37,6 +42,8 @@ public final class ClientListener extends Thread implements ClientInfo {
   private final Performance perf = new Performance();
   /** Database context. */
   private final Context context;
+  /** Default options of the session. */
+  private final MainOptions options;
   /** Server reference. */
   private final BaseXServer server;
   /** Socket reference. */
@@ -46,6 +53,10 @@ public final class ClientListener extends Thread implements ClientInfo {
   private BufferInput in;
   /** Output stream. */
   private PrintOutput out;
+  /** Unbuffered output stream. */
+  private OutputStream output;
+  /** Nonce for authentication. */
+  private String nonce;
   /** Current command. */
   private Command command;
   /** Query id counter. */
@@ -55,6 +66,13 @@ public final class ClientListener extends Thread implements ClientInfo {
   /** Indicates if the server has been closed. */
   private boolean closed;
 
+  /** Monitor for sending the responses of asynchronous requests. */
+  private final Object responses = new Object();
+  /** Compressor for the output stream (can be {@code null}). */
+  private Deflater deflater;
+  /** Number of asynchronous requests that are currently processed. */
+  private int async;
+
   /**
    * Constructor.
    * @param socket socket
@@ -63,6 +81,7 @@ public final class ClientListener extends Thread implements ClientInfo {
    */
   public ClientListener(final Socket socket, final Context context, final BaseXServer server) {
     this.context = new Context(context, this);
+    options = context.options;
     this.socket = socket;
     this.server = server;
     last = System.currentTimeMillis();
@@ -71,97 +90,202 @@ public final class ClientListener extends Thread implements ClientInfo {
 
   @Override
   public void run() {
-    if(!authenticate()) return;
+    if(!greet() || !authenticate()) return;
+    while(request());
+    closeQueries();
+  }
+
+  /**
+   * Reads available input without blocking (non-blocking server mode).
+   * This method is called by the {@link ClientSelector} if new input has arrived.
+   * @return {@code true} if a complete request can be processed
+   * @throws IOException I/O exception
+   */
+  boolean read() throws IOException {
+    ((ChannelInput) in).fill();
+    return complete();
+  }
+
+  /**
+   * Indicates if the session has been authenticated.
+   * @return result of check
+   */
+  boolean authenticated() {
+    return authenticated;
+  }
+
+  /**
+   * Processes the login data or the buffered requests of a session (non-blocking server mode).
+   * This method is called by the {@link ClientSelector} if a complete request has been buffered.
+   * @return {@code true} if the session is active and waits for new requests
+   */
+  boolean process() {
+    boolean active;
+    if(authenticated) {
+      // process all requests that have already been buffered. Responses of asynchronous requests
+      // are sent while the session waits for new requests
+      do active = request(); while(active && complete());
+    } else {
+      active = authenticate();
+    }
+    if(!active) {
+      close();
+      closeQueries();
+    }
+    return active;
+  }
 
+  /**
+   * Returns the socket channel (non-blocking server mode).
+   * @return socket channel
+   */
+  SocketChannel channel() {
+    return socket.getChannel();
+  }
+
+  /**
+   * Processes a single request.
+   * @return {@code true} if the session is still active
+   */
+  private boolean request() {
+    command = null;
     try {
-      while(authenticated) {
-        command = null;
-        String cmd;
-        final ServerCmd sc;
-        try {
-          final int b = in.read();
-          if(b == -1) {
-            // end of stream: exit session
-            close();
-            break;
-          }
-
-          last = System.currentTimeMillis();
-          perf.ns();
-          sc = ServerCmd.get(b);
-          cmd = null;
-          if(sc == ServerCmd.CREATE) {
-            create();
-          } else if(sc == ServerCmd.ADD) {
-            add();
-          } else if(sc == ServerCmd.REPLACE) {
-            replace();
-          } else if(sc == ServerCmd.STORE) {
-            store();
-          } else if(sc != ServerCmd.COMMAND) {
-            query(sc);
-          } else {
-            // database command
-            cmd = new ByteList().add(b).add(in.readBytes()).toString();
-          }
-        } catch(final IOException ex) {
-          // this exception may be thrown if a session is stopped
-          Util.debug(ex);
+      String cmd;
+      final ServerCmd sc;
+      try {
+        final int b = in.read();
+        if(b == -1) {
+          // end of stream: exit session
           close();
-          break;
+          return false;
         }
-        if(sc != ServerCmd.COMMAND) continue;
 
-        // parse input and create command instance
-        try {
-          command = CommandParser.get(cmd, context).parseSingle();
-          command.jc().tracer = QueryTracer.EVALINFO;
-          log(LogType.REQUEST, command.toString(true));
-        } catch(final QueryException ex) {
-          // log invalid command
-          final String msg = ex.getMessage();
-          log(LogType.REQUEST, cmd);
-          log(LogType.ERROR, msg);
-          // send 0 to mark end of potential result
-          out.write(0);
-          // send {INFO}0
-          out.print(msg);
-          out.write(0);
-          // send 1 to mark error
-          send(false);
-          continue;
+        last = System.currentTimeMillis();
+        sc = ServerCmd.get(b);
+        if(sc == ServerCmd.ASYNC) {
+          async();
+          return true;
         }
-
-        // execute command and send {RESULT}
-        boolean ok = true;
-        String info;
-        try {
-          // run command
-          command.execute(context, new ServerOutput(out));
-          info = command.info();
-        } catch(final BaseXException ex) {
-          Util.debug(ex);
-          ok = false;
-          info = ex.getMessage();
+        // synchronous requests: wait until the responses of asynchronous requests have been sent
+        awaitAsync();
+        perf.ns();
+        cmd = null;
+        if(sc == ServerCmd.CREATE) {
+          create();
+        } else if(sc == ServerCmd.ADD) {
+          add();
+        } else if(sc == ServerCmd.REPLACE) {
+          replace();
+        } else if(sc == ServerCmd.STORE) {
+          store();
+        } else if(sc == ServerCmd.RESET) {
+          reset();
+        } else if(sc == ServerCmd.COMPRESS) {
+          compress();
+        } else if(sc == ServerCmd.REPLICATE || sc == ServerCmd.SNAPSHOT) {
+          replicate(sc);
+        } else if(sc != ServerCmd.COMMAND) {
+          query(sc);
+        } else {
+          // database command
+          cmd = new ByteList().add(b).add(in.readBytes()).toString();
         }
-
-        // send 0 to mark end of result
+      } catch(final IOException ex) {
+        // this exception may be thrown if a session is stopped
+        Util.debug(ex);
+        close();
+        return false;
+      }
+      if(sc != ServerCmd.COMMAND) return true;
+
+      // parse input and create command instance
+      try {
+        command = CommandParser.get(cmd, context).parseSingle();
+        command.jc().tracer = QueryTracer.EVALINFO;
+        log(LogType.REQUEST, command.toString(true));
+      } catch(final QueryException ex) {
+        // log invalid command
+        final String msg = ex.getMessage();
+        log(LogType.REQUEST, cmd);
+        log(LogType.ERROR, msg);
+        // send 0 to mark end of potential result
         out.write(0);
-        // send info
-        info(info, ok);
+        // send {INFO}0
+        out.print(msg);
+        out.write(0);
+        // send 1 to mark error
+        send(false);
+        return true;
+      }
 
-        // stop console
-        if(command instanceof Exit) {
-          command = null;
-          close();
-        }
+      // execute command and send {RESULT}
+      boolean ok = true;
+      String info;
+      try {
+        // run command; results are buffered, so that locks can be released before they are sent
+        final ResultBuffer rb = new ResultBuffer(out,
+            context.soptions.get(StaticOptions.RESULTBUFFER) * 1024L);
+        command.execute(context, new ServerOutput(rb));
+        rb.drain();
+        info = command.info();
+      } catch(final BaseXException ex) {
+        Util.debug(ex);
+        ok = false;
+        info = ex.getMessage();
       }
+
+      // send 0 to mark end of result
+      out.write(0);
+      // send info
+      info(info, ok);
+
+      // stop console
+      if(command instanceof Exit) {
+        command = null;
+        close();
+        return false;
+      }
+      command = null;
+      return true;
     } catch(final IOException ex) {
       log(LogType.ERROR, Util.message(ex));
       command = null;
       close();
+      return false;
+    }
+  }
+
+  /**
+   * Initializes the streams of a session and sends the data required for authentication.
+   * @return success flag
+   */
+  boolean greet() {
+    try {
+      final SocketChannel channel = channel();
+      if(channel != null) {
+        // non-blocking mode: input is buffered until a request is complete
+        channel.configureBlocking(false);
+        in = new ChannelInput(channel);
+        output = new ChannelOutput(channel);
+      } else {
+        in = BufferInput.get(socket.getInputStream());
+        output = socket.getOutputStream();
+      }
+      out = PrintOutput.get(output);
+
+      // send {REALM:TIMESTAMP}0
+      nonce = Long.toString(System.nanoTime());
+      // offer compressed responses: send {REALM:TIMESTAMP:deflate}0
+      final boolean compress = context.soptions.get(StaticOptions.COMPRESSION) > 0;
+      out.print(Prop.NAME + ':' + nonce + (compress ? ":" + S_DEFLATE : ""));
+      send(true);
+      return true;
+    } catch(final IOException ex) {
+      Util.debug(ex);
+      server.remove(this);
+      close();
+      return false;
     }
-    command = null;
   }
 
   /**
@@ -171,16 +295,8 @@ public final class ClientListener extends Thread implements ClientInfo {
   private boolean authenticate() {
     boolean auth = false;
     try {
-      final String nonce = Long.toString(System.nanoTime());
       final byte[] address = socket.getInetAddress().getAddress();
 
-      // send {REALM:TIMESTAMP}0
-      out = PrintOutput.get(socket.getOutputStream());
-      out.print(Prop.NAME + ':' + nonce);
-      send(true);
-
-      // evaluate login data
-      in = BufferInput.get(socket.getInputStream());
       // receive {USER}0{DIGEST-HASH}0
       final String name = in.readString(), hash = in.readString();
       final User user = context.users.get(name);
@@ -231,10 +347,17 @@ public final class ClientListener extends Thread implements ClientInfo {
     try {
       if(context.user() != null) Close.close(context);
       socket.close();
+      // release the selectors of non-blocking channels
+      if(in instanceof ChannelInput) ((ChannelInput) in).closeSelector();
+      if(output instanceof ChannelOutput) output.close();
     } catch(final Throwable ex) {
       log(LogType.ERROR, Util.message(ex));
       Util.stack(ex);
     }
+    // release the compressor; responses of asynchronous requests are sent while holding the monitor
+    synchronized(responses) {
+      if(deflater != null) deflater.end();
+    }
   }
 
   /**
@@ -265,6 +388,117 @@ public final class ClientListener extends Thread implements ClientInfo {
 
   // PRIVATE METHODS ==============================================================================
 
+  /**
+   * Runs a database command asynchronously. The command is evaluated in a separate thread and
+   * context, which adopts the user and the options of the session. As soon as the command has
+   * been evaluated, {ID}0{RESULT}0{INFO}0 and a success flag are sent to the client. Responses
+   * may be returned in a different order than the requests.
+   * @throws IOException I/O exception
+   */
+  private void async() throws IOException {
+    final String rid = in.readString(), cmd = in.readString();
+    final Context ctx = new Context(context, this);
+    ctx.user(context.user());
+    synchronized(responses) {
+      async++;
+    }
+    try {
+      server.executor().execute(() -> async(rid, cmd, ctx));
+    } catch(final RejectedExecutionException ex) {
+      Util.debug(ex);
+      synchronized(responses) {
+        async--;
+      }
+      throw new IOException(ex);
+    }
+  }
+
+  /**
+   * Evaluates an asynchronous request and sends the response.
+   * @param rid request id
+   * @param cmd command string
+   * @param ctx database context
+   */
+  private void async(final String rid, final String cmd, final Context ctx) {
+    final Performance pf = new Performance();
+    final ArrayOutput ao = new ArrayOutput();
+    boolean ok = true;
+    String info;
+    try {
+      final Command c = CommandParser.get(cmd, ctx).parseSingle();
+      c.jc().tracer = QueryTracer.EVALINFO;
+      ctx.log.write(LogType.REQUEST, c.toString(true), pf, ctx);
+      c.execute(ctx, new ServerOutput(ao));
+      info = c.info();
+    } catch(final QueryException | IOException ex) {
+      Util.debug(ex);
+      ok = false;
+      info = Util.message(ex);
+    }
+    ctx.log.write(ok ? LogType.OK : LogType.ERROR, info, pf, ctx);
+    Close.close(ctx);
+
+    synchronized(responses) {
+      try {
+        // send {ID}0{RESULT}0{INFO}0 and (0|1) as (success|error) flag
+        out.print(rid);
+        out.write(0);
+        out.write(ao.finish());
+        out.write(0);
+        out.print(info);
+        out.write(0);
+        send(ok);
+      } catch(final IOException ex) {
+        // session may have been closed in the meantime
+        Util.debug(ex);
+      } finally {
+        if(--async == 0) responses.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Waits until the responses of all asynchronous requests have been sent.
+   */
+  private void awaitAsync() {
+    synchronized(responses) {
+      while(async > 0) {
+        try {
+          responses.wait();
+        } catch(final InterruptedException ex) {
+          Util.debug(ex);
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks if a complete request has been buffered (non-blocking server mode). Requests with
+   * input streams can be processed as soon as their arguments have been buffered.
+   * @return result of check
+   */
+  private boolean complete() {
+    final ChannelInput ci = (ChannelInput) in;
+    if(ci.available() == 0) return ci.eos();
+
+    // number of strings, and offset to first string
+    int strings = 2, o = 0;
+    if(authenticated) {
+      final ServerCmd sc = ServerCmd.get(ci.get(0));
+      strings = sc == ServerCmd.RESET || sc == ServerCmd.COMPRESS ? 0 :
+        sc == ServerCmd.ASYNC || sc == ServerCmd.FETCH ? 2 :
+        sc == ServerCmd.CONTEXT ? 3 : sc == ServerCmd.BIND ? 4 : 1;
+      o = 1;
+    }
+    for(; strings > 0; o++) {
+      final int b = ci.get(o);
+      if(b == -1) return ci.eos();
+      if(b == 0) strings--;
+    }
+    return true;
+  }
+
   /**
    * Returns error feedback.
    * @param info error string
@@ -330,6 +564,71 @@ public final class ClientListener extends Thread implements ClientInfo {
     execute(new Store(in.readString()));
   }
 
+  /**
+   * Resets the session state: closes all queries and the opened database,
+   * and restores the default options.
+   * @throws IOException I/O exception
+   */
+  private void reset() throws IOException {
+    log(LogType.REQUEST, ServerCmd.RESET.name());
+    closeQueries();
+    Close.close(context);
+    for(final Option<?> option : options) context.options.put(option, options.get(option));
+    success("");
+  }
+
+  /**
+   * Compresses all subsequent data that is sent to the client.
+   * @throws IOException I/O exception
+   */
+  private void compress() throws IOException {
+    final int level = context.soptions.get(StaticOptions.COMPRESSION);
+    if(level > 0 && deflater == null) {
+      out.flush();
+      deflater = new Deflater(Math.min(level, Deflater.BEST_COMPRESSION));
+      // flushing the output stream finishes the current block of compressed data
+      out = PrintOutput.get(new BufferedOutputStream(
+          new DeflaterOutputStream(output, deflater, IO.BLOCKSIZE, true),
+          IO.BLOCKSIZE));
+    }
+  }
+
+  /**
+   * Returns the changes of the replication log or a database snapshot to a replica.
+   * @param sc server command
+   * @throws IOException I/O exception
+   */
+  private void replicate(final ServerCmd sc) throws IOException {
+    final String arg = in.readString();
+    log(LogType.REQUEST, sc + "[" + arg + ']');
+
+    String error = null;
+    try {
+      if(!context.user().has(Perm.ADMIN)) throw new BaseXException(PERM_REQUIRED_X, Perm.ADMIN);
+      if(sc == ServerCmd.REPLICATE) {
+        final ServerOutput so = new ServerOutput(out);
+        so.write(Token.token(context.replication.changes(arg, context)));
+      } else {
+        Replication.snapshot(arg, new ServerOutput(out), context);
+      }
+      // send 0 as end marker and success flag
+      out.write(0);
+      out.write(0);
+      log(LogType.OK, "");
+    } catch(final BaseXException ex) {
+      error = ex.getMessage();
+      log(LogType.ERROR, error);
+    }
+    if(error != null) {
+      // send 0 as end marker, 1 as error flag, and {MSG}0
+      out.write(0);
+      out.write(1);
+      out.print(error);
+      out.write(0);
+    }
+    out.flush();
+  }
+
   /**
    * Executes the specified command.
    * @param cmd command to be executed
@@ -391,6 +690,10 @@ public final class ClientListener extends Thread implements ClientInfo {
           qp.context(val, typ);
           info.append(val);
           if(!typ.isEmpty()) info.append(" as ").append(typ);
+        } else if(sc == ServerCmd.FETCH) {
+          final String size = in.readString();
+          qp.fetch(out, Math.max(1, Strings.toInt(size)));
+          info.append(size);
         } else if(sc == ServerCmd.RESULTS) {
           qp.execute(out, true, true, false);
         } else if(sc == ServerCmd.EXEC) {
@@ -404,7 +707,7 @@ public final class ClientListener extends Thread implements ClientInfo {
         } else if(sc == ServerCmd.UPDATING) {
           out.print(Boolean.toString(qp.updating()));
         } else if(sc == ServerCmd.CLOSE) {
-          queries.remove(arg);
+          close(arg);
         } else if(sc == ServerCmd.NEXT) {
           throw new Exception("Protocol for query iteration is out-of-date.");
         }
@@ -421,7 +724,7 @@ public final class ClientListener extends Thread implements ClientInfo {
       error = ex instanceof RuntimeException ? Util.bug(ex) : Util.message(ex);
       log(LogType.REQUEST, sc + "[" + arg + ']');
       log(LogType.ERROR, error);
-      queries.remove(arg);
+      close(arg);
     }
     if(error != null) {
       // send 0 as end marker, 1 as error flag, and {MSG}0
@@ -433,6 +736,23 @@ public final class ClientListener extends Thread implements ClientInfo {
     out.flush();
   }
 
+  /**
+   * Closes a query.
+   * @param id query id
+   */
+  private void close(final String id) {
+    final ServerQuery qp = queries.remove(id);
+    if(qp != null) qp.close();
+  }
+
+  /**
+   * Closes all queries of the session.
+   */
+  private void closeQueries() {
+    for(final ServerQuery qp : queries.values()) qp.close();
+    queries.clear();
+  }
+
   /**
    * Sends a success flag to the client (0: true, 1: false).
    * @param ok success flag
@@ -0,0 +1,165 @@
+package org.basex.server;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.util.*;
+
+/**
+ * Multiplexes the connections of clients in the non-blocking server mode.
+ * Sessions that wait for new requests are registered with a selector. Incoming bytes are read
+ * without blocking and buffered by the sessions. As soon as a request is complete, it is
+ * processed by a bounded number of threads. Login data is processed by a separate bounded
+ * number of threads, as failed logins are delayed.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientSelector extends Thread {
+  /** Selector. */
+  private final Selector selector;
+  /** Threads for processing requests. */
+  private final ExecutorService executor;
+  /** Threads for processing login data. */
+  private final ExecutorService login;
+  /** Sessions to be registered with the selector. */
+  private final Queue<ClientListener> waiting = new ConcurrentLinkedQueue<>();
+  /** Indicates if the selector is running. */
+  private volatile boolean running = true;
+
+  /**
+   * Constructor.
+   * @param threads maximum number of threads for processing requests
+   * @throws IOException I/O exception
+   */
+  public ClientSelector(final int threads) throws IOException {
+    selector = Selector.open();
+    final int max = Math.max(1, threads);
+    executor = Executors.newFixedThreadPool(max, ClientSelector::thread);
+    // threads for logins are only kept as long as they are needed
+    final ThreadPoolExecutor tpe = new ThreadPoolExecutor(max, max, 60, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), ClientSelector::thread);
+    tpe.allowCoreThreadTimeOut(true);
+    login = tpe;
+    setDaemon(true);
+  }
+
+  /**
+   * Adds a new session, which will be authenticated first.
+   * @param client client
+   */
+  public void add(final ClientListener client) {
+    if(client.greet()) {
+      waiting.add(client);
+      selector.wakeup();
+    }
+  }
+
+  @Override
+  public void run() {
+    while(running) {
+      try {
+        // register sessions that wait for new requests
+        for(ClientListener client; (client = waiting.poll()) != null;) {
+          final SocketChannel channel = client.channel();
+          SelectionKey key = channel.keyFor(selector);
+          if(key == null) {
+            try {
+              key = channel.register(selector, 0, client);
+            } catch(final IOException ex) {
+              // channel may have been closed in the meantime
+              Util.debug(ex);
+              client.close();
+              continue;
+            }
+          }
+          read(key);
+        }
+        selector.select();
+
+        // read new input, process sessions with complete requests
+        final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while(keys.hasNext()) {
+          final SelectionKey key = keys.next();
+          keys.remove();
+          read(key);
+        }
+      } catch(final ClosedSelectorException ex) {
+        Util.debug(ex);
+        break;
+      } catch(final IOException ex) {
+        Util.errln(ex);
+        break;
+      }
+    }
+  }
+
+  /**
+   * Stops the selector and the processing threads.
+   */
+  public void close() {
+    running = false;
+    executor.shutdownNow();
+    login.shutdownNow();
+    try {
+      selector.close();
+    } catch(final IOException ex) {
+      Util.debug(ex);
+    }
+  }
+
+  // PRIVATE METHODS ==============================================================================
+
+  /**
+   * Creates a daemon thread.
+   * @param runnable runnable
+   * @return thread
+   */
+  private static Thread thread(final Runnable runnable) {
+    final Thread thread = new Thread(runnable);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * Reads new input of a session. If a complete request is available, the session is
+   * deselected, and the request is processed in a separate thread.
+   * @param key selection key
+   */
+  private void read(final SelectionKey key) {
+    final ClientListener client = (ClientListener) key.attachment();
+    try {
+      if(client.read()) {
+        key.interestOps(0);
+        process(client);
+      } else {
+        key.interestOps(SelectionKey.OP_READ);
+      }
+    } catch(final IOException | CancelledKeyException ex) {
+      // channel may have been closed in the meantime
+      Util.debug(ex);
+      client.close();
+    }
+  }
+
+  /**
+   * Processes the requests of a session in a separate thread.
+   * @param client client
+   */
+  private void process(final ClientListener client) {
+    try {
+      (client.authenticated() ? executor : login).execute(() -> {
+        if(client.process()) {
+          waiting.add(client);
+          selector.wakeup();
+        }
+      });
+    } catch(final RejectedExecutionException ex) {
+      // selector has been closed
+      Util.debug(ex);
+      client.close();
+    }
+  }
+}
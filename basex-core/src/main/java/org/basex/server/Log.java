@@ -6,9 +6,11 @@ import java.io.*;
 import java.util.*;
 
 import org.basex.core.*;
+import org.basex.core.StaticOptions.*;
 import org.basex.core.users.*;
 import org.basex.io.*;
 import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * This class writes daily log files to disk.
@@ -21,6 +23,10 @@ import org.basex.util.*;
  *   <li><b>Info</b>: Log message</li>
  *   <li><b>Performance</b>: Measured time in milliseconds</li>
  * </ul>
+ * If {@link StaticOptions#LOGFORMAT} is {@code json}, each entry is written as JSON object with
+ * the fields {@code time}, {@code address}, {@code user}, {@code type}, {@code message} and
+ * {@code ms}. If {@link StaticOptions#LOGBUFFER} is set, entries are written asynchronously
+ * (see {@link LogWriter}).
  *
  * @author BaseX Team 2005-19, BSD License
  * @author Christian Gruen
@@ -41,6 +47,10 @@ public final class Log {
 
   /** Current log file. */
   private LogFile file;
+  /** Writer for buffered entries (can be {@code null}). */
+  private volatile LogWriter writer;
+  /** Indicates if the log has been closed (subsequent entries will be written synchronously). */
+  private volatile boolean closed;
 
   /**
    * Constructor.
@@ -56,6 +66,7 @@ public final class Log {
    * @return log file, or {@code null} if it does not exist
    */
   public LogFile file(final String name) {
+    flush();
     LogFile lf = file;
     if(lf == null || !lf.valid(name)) lf = new LogFile(name, dir());
     return lf.exists() ? lf : null;
@@ -108,26 +119,46 @@ public final class Log {
     // check if logging is disabled
     if(!sopts.get(StaticOptions.LOG)) return;
 
-    // construct log text
-    final Date date = new Date();
+    final LogRecord record = new LogRecord(type, info, perf != null ? perf.toString() : null,
+        address, user);
+    final LogWriter lw = sopts.get(StaticOptions.LOGBUFFER) > 0 ? writer() : null;
+    if(lw == null || !lw.add(record)) write(Collections.singletonList(record));
+  }
+
+  /**
+   * Writes entries to the log files.
+   * @param records entries
+   */
+  void write(final List<LogRecord> records) {
+    final boolean json = sopts.get(StaticOptions.LOGFORMAT) == LogFormat.JSON;
     final int ml = sopts.get(StaticOptions.LOGMSGMAXLEN);
+    // format entries; entries are written in chunks (one per log file)
+    final StringList names = new StringList();
+    final ArrayList<byte[]> chunks = new ArrayList<>();
     final TokenBuilder tb = new TokenBuilder();
-    tb.add(DateTime.format(date, DateTime.TIME));
-    tb.add('\t').add(address != null ? address.replaceFirst("^/", "") : SERVER);
-    tb.add('\t').add(user != null ? user : UserText.ADMIN);
-    tb.add('\t').add(type);
-    tb.add('\t').add(info != null ? chop(normalize(token(info)), ml) : EMPTY);
-    if(perf != null) tb.add('\t').add(perf);
-    tb.add(Prop.NL);
+    String last = null;
+    for(final LogRecord record : records) {
+      final String name = DateTime.format(record.date, DateTime.DATE);
+      if(!name.equals(last)) {
+        if(last != null) chunks.add(tb.next());
+        names.add(name);
+        last = name;
+      }
+      if(json) json(record, ml, tb);
+      else text(record, ml, tb);
+    }
+    chunks.add(tb.finish());
 
     try {
       synchronized(sopts) {
-        // create new log file and write log entry
-        final String name = DateTime.format(date, DateTime.DATE);
-        if(file != null && !file.valid(name)) close();
-        if(file == null) file = LogFile.create(name, dir());
-        // write log entry
-        file.write(tb.finish());
+        final int cs = chunks.size();
+        for(int c = 0; c < cs; c++) {
+          // create new log file and write log entries
+          final String name = names.get(c);
+          if(file != null && !file.valid(name)) close(file);
+          if(file == null) file = LogFile.create(name, dir());
+          file.write(chunks.get(c));
+        }
       }
     } catch(final IOException ex) {
       Util.stack(ex);
@@ -135,19 +166,163 @@ public final class Log {
   }
 
   /**
-   * Closes the log file.
+   * Writes buffered entries to disk.
    */
-  public void close() {
+  public void flush() {
+    final LogWriter lw = writer;
+    if(lw != null) lw.drain();
+  }
+
+  /**
+   * Returns the number of entries that have been dropped because the log buffer was full.
+   * @return number of entries
+   */
+  public long dropped() {
+    final LogWriter lw = writer;
+    return lw != null ? lw.dropped() : 0;
+  }
+
+  /**
+   * Synchronizes the current log file with disk.
+   */
+  void sync() {
     try {
       synchronized(sopts) {
-        if(file != null) {
-          file.close();
-          file = null;
+        if(file != null) file.sync();
+      }
+    } catch(final IOException ex) {
+      Util.stack(ex);
+    }
+  }
+
+  /**
+   * Closes the log file.
+   */
+  public void close() {
+    synchronized(this) {
+      closed = true;
+      if(writer != null) {
+        writer.close();
+        writer = null;
+      }
+    }
+    synchronized(sopts) {
+      if(file != null) close(file);
+    }
+  }
+
+  /**
+   * Returns the writer for buffered entries. Creates and starts a new instance if required.
+   * @return writer, or {@code null} if the log has been closed
+   */
+  private LogWriter writer() {
+    LogWriter lw = writer;
+    if(lw == null) {
+      synchronized(this) {
+        lw = writer;
+        if(lw == null && !closed) {
+          lw = new LogWriter(this, sopts);
+          lw.start();
+          writer = lw;
         }
       }
+    }
+    return lw;
+  }
+
+  /**
+   * Closes the specified log file.
+   * @param lf log file
+   */
+  private void close(final LogFile lf) {
+    try {
+      lf.close();
     } catch(final IOException ex) {
       Util.stack(ex);
     }
+    file = null;
+  }
+
+  /**
+   * Adds a text representation of an entry (tab-separated columns).
+   * @param record entry
+   * @param ml maximum length of info string
+   * @param tb token builder
+   */
+  private static void text(final LogRecord record, final int ml, final TokenBuilder tb) {
+    tb.add(DateTime.format(record.date, DateTime.TIME));
+    tb.add('\t').add(address(record));
+    tb.add('\t').add(user(record));
+    tb.add('\t').add(record.type);
+    tb.add('\t').add(info(record, ml));
+    if(record.perf != null) tb.add('\t').add(record.perf);
+    tb.add(Prop.NL);
+  }
+
+  /**
+   * Adds a JSON representation of an entry (one object per line).
+   * @param record entry
+   * @param ml maximum length of info string
+   * @param tb token builder
+   */
+  private static void json(final LogRecord record, final int ml, final TokenBuilder tb) {
+    tb.add("{\"time\":");
+    json(token(DateTime.format(record.date, DateTime.TIME)), tb);
+    tb.add(",\"address\":");
+    json(token(address(record)), tb);
+    tb.add(",\"user\":");
+    json(token(user(record)), tb);
+    tb.add(",\"type\":");
+    json(token(record.type), tb);
+    tb.add(",\"message\":");
+    json(info(record, ml), tb);
+    if(record.perf != null) tb.add(",\"ms\":").add(record.perf.replace(" ms", ""));
+    tb.add('}').add(Prop.NL);
+  }
+
+  /**
+   * Adds a JSON string.
+   * @param string string
+   * @param tb token builder
+   */
+  private static void json(final byte[] string, final TokenBuilder tb) {
+    tb.add('"');
+    final int sl = string.length;
+    for(int s = 0; s < sl; s += cl(string, s)) {
+      final int cp = cp(string, s);
+      if(cp == '"' || cp == '\\') tb.add('\\').add(cp);
+      else if(cp < ' ') tb.add("\\u").add(String.format("%04x", cp));
+      else tb.add(cp);
+    }
+    tb.add('"');
+  }
+
+  /**
+   * Returns the address of an entry.
+   * @param record entry
+   * @return address
+   */
+  private static String address(final LogRecord record) {
+    return record.address != null ? record.address.replaceFirst("^/", "") : SERVER;
+  }
+
+  /**
+   * Returns the user of an entry.
+   * @param record entry
+   * @return user
+   */
+  private static String user(final LogRecord record) {
+    return record.user != null ? record.user : UserText.ADMIN;
+  }
+
+  /**
+   * Returns the normalized and chopped info string of an entry.
+   * @param record entry
+   * @param ml maximum length
+   * @return info string
+   */
+  private static byte[] info(final LogRecord record, final int ml) {
+    return record.info != null ? chop(normalize(token(record.info)), ml) : EMPTY;
   }
 
   /**
@@ -155,6 +330,7 @@ public final class Log {
    * @return log directory
    */
   public IOFile[] files() {
+    flush();
     return dir().children(".*\\" + IO.LOGSUFFIX);
   }
 
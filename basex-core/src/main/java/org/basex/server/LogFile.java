@@ -96,6 +96,16 @@ public final class LogFile {
     }
   }
 
+  /**
+   * Synchronizes the log file with disk.
+   * @throws IOException I/O exception
+   */
+  void sync() throws IOException {
+    synchronized(file) {
+      if(fos != null) fos.getFD().sync();
+    }
+  }
+
   /**
    * Closes the current log file.
    * @throws IOException I/O exception
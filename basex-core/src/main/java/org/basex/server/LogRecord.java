@@ -0,0 +1,41 @@
+package org.basex.server;
+
+import java.util.*;
+
+/**
+ * Log entry that has not been written yet.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class LogRecord {
+  /** Date. */
+  final Date date = new Date();
+  /** Type. */
+  final String type;
+  /** Info string (can be {@code null}). */
+  final String info;
+  /** Performance string (can be {@code null}). */
+  final String perf;
+  /** Address ({@code null}: server). */
+  final String address;
+  /** User ({@code null}: admin). */
+  final String user;
+
+  /**
+   * Constructor.
+   * @param type type
+   * @param info info string (can be {@code null})
+   * @param perf performance string (can be {@code null})
+   * @param address address ({@code null}: server)
+   * @param user user ({@code null}: admin)
+   */
+  LogRecord(final String type, final String info, final String perf, final String address,
+      final String user) {
+    this.type = type;
+    this.info = info;
+    this.perf = perf;
+    this.address = address;
+    this.user = user;
+  }
+}
@@ -0,0 +1,207 @@
+package org.basex.server;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.concurrent.locks.*;
+
+import org.basex.core.*;
+import org.basex.core.StaticOptions.*;
+import org.basex.server.Log.*;
+import org.basex.util.*;
+
+/**
+ * Asynchronous writer for log entries (see {@link StaticOptions#LOGBUFFER}).
+ * New entries are added to a bounded ring buffer without locking. A background thread
+ * writes the buffered entries to disk in batches and synchronizes the log file with disk
+ * in regular intervals. If the buffer is full, new entries will be dropped or added as soon as
+ * space is available (see {@link StaticOptions#LOGOVERFLOW}). Blocked threads are parked and
+ * woken up by the background thread after the buffered entries have been written.
+ * The number of dropped entries is counted and written to the log.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class LogWriter extends Thread {
+  /** Interval for writing buffered entries (ms). */
+  private static final long INTERVAL = 50;
+
+  /** Log. */
+  private final Log log;
+  /** Ring buffer with entries (the size is a power of two). */
+  private final AtomicReferenceArray<LogRecord> ring;
+  /** Maximum number of buffered entries. */
+  private final int limit;
+  /** Handling of entries if the buffer is full. */
+  private final LogOverflow overflow;
+  /** Interval for synchronizing the log file with disk (ms). */
+  private final long sync;
+
+  /** Position of the next entry to be added. */
+  private final AtomicLong tail = new AtomicLong();
+  /** Number of dropped entries. */
+  private final AtomicLong dropped = new AtomicLong();
+  /** Threads waiting for free space in the buffer. */
+  private final Queue<Thread> waiting = new ConcurrentLinkedQueue<>();
+  /** Number of threads that are currently adding entries. */
+  private final AtomicInteger adding = new AtomicInteger();
+  /** Position of the next entry to be written (only modified by the draining thread). */
+  private volatile long head;
+  /** Indicates if the writer is running. */
+  private volatile boolean running = true;
+
+  /** Number of dropped entries that have been reported in the log. */
+  private long reported;
+  /** Time of last synchronization. */
+  private long synced = System.currentTimeMillis();
+  /** Indicates if entries have been written since the last synchronization. */
+  private boolean dirty;
+
+  /**
+   * Constructor.
+   * @param log log
+   * @param sopts static options
+   */
+  LogWriter(final Log log, final StaticOptions sopts) {
+    this.log = log;
+    limit = Math.max(1, sopts.get(StaticOptions.LOGBUFFER));
+    overflow = sopts.get(StaticOptions.LOGOVERFLOW);
+    sync = sopts.get(StaticOptions.LOGSYNC);
+    int size = 1;
+    while(size < limit) size <<= 1;
+    ring = new AtomicReferenceArray<>(size);
+    setDaemon(true);
+  }
+
+  /**
+   * Adds an entry.
+   * @param record entry
+   * @return {@code false} if the writer has been stopped and the entry was not added
+   */
+  boolean add(final LogRecord record) {
+    // the counter is checked by close() before the remaining entries are written
+    adding.incrementAndGet();
+    try {
+      while(!offer(record)) {
+        if(!running) return false;
+        if(overflow == LogOverflow.DROP || overflow == LogOverflow.DROPINFO &&
+            Strings.eq(record.type, LogType.REQUEST.name(), LogType.INFO.name())) {
+          dropped.incrementAndGet();
+          return true;
+        }
+        // wait until entries have been written. the timeout guards against lost wake-ups
+        final Thread thread = Thread.currentThread();
+        waiting.add(thread);
+        LockSupport.unpark(this);
+        if(running && tail.get() - head >= limit) {
+          LockSupport.parkNanos(this, INTERVAL * 1000000);
+        }
+        waiting.remove(thread);
+      }
+    } finally {
+      adding.decrementAndGet();
+    }
+    // wake up writer if the buffer is half full
+    if(tail.get() - head > limit >>> 1) LockSupport.unpark(this);
+    return true;
+  }
+
+  /**
+   * Returns the number of dropped entries.
+   * @return number of entries
+   */
+  long dropped() {
+    return dropped.get();
+  }
+
+  /**
+   * Writes all buffered entries to disk.
+   */
+  synchronized void drain() {
+    final ArrayList<LogRecord> records = new ArrayList<>();
+    for(LogRecord record; (record = poll()) != null;) records.add(record);
+    // wake up threads that are waiting for free space
+    for(final Thread thread : waiting) LockSupport.unpark(thread);
+    final long drop = dropped.get();
+    if(drop > reported) {
+      records.add(new LogRecord(LogType.INFO.name(),
+          "Log buffer full: " + (drop - reported) + " entries dropped.", null, null, null));
+      reported = drop;
+    }
+    if(!records.isEmpty()) {
+      log.write(records);
+      dirty = true;
+    }
+    final long time = System.currentTimeMillis();
+    if(dirty && sync > 0 && time - synced >= sync) {
+      log.sync();
+      synced = time;
+      dirty = false;
+    }
+  }
+
+  /**
+   * Stops the writer and writes all remaining entries.
+   */
+  void close() {
+    running = false;
+    LockSupport.unpark(this);
+    for(final Thread thread : waiting) LockSupport.unpark(thread);
+    try {
+      join();
+    } catch(final InterruptedException ex) {
+      Util.debug(ex);
+    }
+    // wait for threads that may still add entries. threads that start adding entries now
+    // will see that the writer has been stopped and write their entries synchronously
+    while(adding.get() > 0) LockSupport.parkNanos(1000000);
+    // write entries that have been added while the writer was stopped
+    drain();
+  }
+
+  @Override
+  public void run() {
+    while(running) {
+      drain();
+      LockSupport.parkNanos(INTERVAL * 1000000);
+    }
+    drain();
+    synchronized(this) {
+      if(dirty && sync > 0) log.sync();
+    }
+  }
+
+  /**
+   * Adds an entry to the ring buffer if space is available.
+   * @param record entry
+   * @return success flag
+   */
+  private boolean offer(final LogRecord record) {
+    final int mask = ring.length() - 1;
+    while(running) {
+      final long t = tail.get();
+      if(t - head >= limit) return false;
+      if(tail.compareAndSet(t, t + 1)) {
+        ring.set((int) t & mask, record);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes the next entry from the ring buffer. Must only be called by one thread at a time.
+   * @return entry, or {@code null} if the buffer is empty
+   */
+  private LogRecord poll() {
+    final long h = head;
+    if(h == tail.get()) return null;
+    final int i = (int) h & ring.length() - 1;
+    // wait until the entry of a claimed position has been assigned
+    LogRecord record;
+    while((record = ring.get(i)) == null) Thread.yield();
+    ring.set(i, null);
+    head = h + 1;
+    return record;
+  }
+}
@@ -0,0 +1,218 @@
+package org.basex.server;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.users.*;
+import org.basex.io.*;
+import org.basex.io.out.*;
+import org.basex.server.Log.LogType;
+import org.basex.util.*;
+
+/**
+ * Replica of a primary server (see {@link StaticOptions#REPLICATE}). The replication log of
+ * the primary server is polled in regular intervals (see {@link Replication}). Snapshots of
+ * changed databases are retrieved and restored, and databases that have been dropped on the
+ * primary server are dropped as well. All other updates on the replica are rejected.
+ * If the changes of a database cannot be applied, e.g. because it is pinned by another
+ * process on the replica, they will be applied in the next round. The changes of all other
+ * databases are applied independently.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class Replica extends Thread implements ClientInfo {
+  /** Polling interval (ms). */
+  private static final long INTERVAL = 500;
+
+  /** Database context. */
+  private final Context context;
+  /** Host of primary server. */
+  private final String host;
+  /** Port of primary server. */
+  private final int port;
+  /** Modification times of replicated databases, as reported by the primary server. */
+  private final HashMap<String, String> times = new HashMap<>();
+  /** Databases whose changes could not be applied yet. */
+  private final HashSet<String> failed = new HashSet<>();
+
+  /** Session with primary server ({@code null} if no connection exists). */
+  private ClientSession session;
+  /** Position in the replication log of the primary server. */
+  private String position = "";
+  /** Indicates if the replica is running. */
+  private volatile boolean running = true;
+
+  /**
+   * Constructor.
+   * @param ctx database context
+   */
+  public Replica(final Context ctx) {
+    context = new Context(ctx, this);
+    context.user(ctx.users.get(UserText.ADMIN));
+    final StaticOptions sopts = ctx.soptions;
+    final String primary = sopts.get(StaticOptions.REPLICATE);
+    final int i = primary.lastIndexOf(':');
+    host = i == -1 ? primary : primary.substring(0, i);
+    port = i == -1 ? sopts.get(StaticOptions.PORT) : Strings.toInt(primary.substring(i + 1));
+    setDaemon(true);
+  }
+
+  @Override
+  public void run() {
+    while(running) {
+      try {
+        replicate();
+      } catch(final IOException ex) {
+        if(running) context.log.writeServer(LogType.ERROR, Util.message(ex));
+        disconnect();
+      }
+      Performance.sleep(INTERVAL);
+    }
+    disconnect();
+  }
+
+  /**
+   * Stops the replica and waits until the current changes have been applied.
+   */
+  public void close() {
+    running = false;
+    try {
+      join(INTERVAL * 10);
+    } catch(final InterruptedException ex) {
+      Util.debug(ex);
+    }
+  }
+
+  @Override
+  public String clientAddress() {
+    return host + ':' + port;
+  }
+
+  @Override
+  public String clientName() {
+    return UserText.ADMIN;
+  }
+
+  // PRIVATE METHODS ==============================================================================
+
+  /**
+   * Applies the changes since the last request.
+   * @throws IOException I/O exception
+   */
+  private void replicate() throws IOException {
+    if(session == null) {
+      final StaticOptions sopts = context.soptions;
+      final String user = sopts.get(StaticOptions.USER);
+      session = new ClientSession(host, port, user.isEmpty() ? UserText.ADMIN : user,
+          sopts.get(StaticOptions.PASSWORD));
+    }
+
+    final String[] lines = Strings.split(session.replicate(position), '\n');
+    if(lines.length > 1 && lines[1].equals(Replication.ALL)) {
+      // compare all databases: restore changed databases, drop databases that do not exist anymore
+      final HashSet<String> dbs = new HashSet<>();
+      for(int l = 2; l < lines.length; l++) {
+        final String[] entry = Strings.split(lines[l], ' ');
+        final String db = entry[0], time = entry[1];
+        dbs.add(db);
+        if((!time.equals(times.get(db)) || failed.contains(db)) && restore(db)) {
+          times.put(db, time);
+        }
+      }
+      for(final String db : context.databases.listDBs(null)) {
+        if(!dbs.contains(db)) drop(db);
+      }
+    } else {
+      final HashSet<String> dbs = new HashSet<>();
+      for(int l = 1; l < lines.length; l++) {
+        if(dbs.add(lines[l])) restore(lines[l]);
+      }
+      // retry databases whose changes could not be applied before
+      for(final String db : failed.toArray(new String[0])) {
+        if(!dbs.contains(db)) restore(db);
+      }
+    }
+    // failed databases are remembered, so the position can be advanced
+    position = lines[0];
+  }
+
+  /**
+   * Retrieves and restores a snapshot of a database.
+   * @param db name of database
+   * @return success flag
+   * @throws IOException I/O exception
+   */
+  private boolean restore(final String db) throws IOException {
+    // modification time will be assigned when all databases are compared
+    times.remove(db);
+    final IOFile zip = context.soptions.dbPath(db + IO.ZIPSUFFIX);
+    zip.parent().md();
+    try {
+      try(BufferOutput bo = new BufferOutput(zip)) {
+        session.snapshot(db, bo);
+      } catch(final BaseXException ex) {
+        // snapshot was rejected by the primary server
+        return failed(db, ex);
+      }
+      // no snapshot: database has been dropped
+      return zip.length() == 0 ? drop(db) : apply(new Restore(db), db);
+    } finally {
+      zip.delete();
+    }
+  }
+
+  /**
+   * Drops a database.
+   * @param db name of database
+   * @return success flag
+   */
+  private boolean drop(final String db) {
+    times.remove(db);
+    return apply(new DropDB(db), db);
+  }
+
+  /**
+   * Applies the changes of a database. If the command fails, the database will be remembered,
+   * and its changes will be retrieved and applied again in the next round.
+   * @param cmd command
+   * @param db name of database
+   * @return success flag
+   */
+  private boolean apply(final Command cmd, final String db) {
+    try {
+      cmd.execute(context);
+      failed.remove(db);
+      return true;
+    } catch(final BaseXException ex) {
+      return failed(db, ex);
+    }
+  }
+
+  /**
+   * Remembers a database whose changes could not be applied. Only the first failure is logged.
+   * @param db name of database
+   * @param ex exception
+   * @return {@code false}
+   */
+  private boolean failed(final String db, final BaseXException ex) {
+    if(failed.add(db)) context.log.writeServer(LogType.ERROR, Util.message(ex));
+    return false;
+  }
+
+  /**
+   * Closes the session with the primary server.
+   */
+  private void disconnect() {
+    if(session == null) return;
+    try {
+      session.close();
+    } catch(final IOException ex) {
+      Util.debug(ex);
+    }
+    session = null;
+  }
+}
@@ -0,0 +1,161 @@
+package org.basex.server;
+
+import static org.basex.core.Text.*;
+import static org.basex.data.DataText.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.*;
+
+import org.basex.core.*;
+import org.basex.core.jobs.*;
+import org.basex.core.locks.*;
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * Replication log. The names of all databases that are changed by committed updates are
+ * appended to the log with an increasing sequence number. Replicas (see {@link Replica})
+ * request the changes since their last position and retrieve snapshots of the changed
+ * databases. Positions consist of the identifier of the log and a sequence number:
+ * <ul>
+ * <li> The identifier changes whenever the log is created, i.e., when the server is started.</li>
+ * <li> If a position is unknown or outdated, or if an update may have changed all databases,
+ *      the names and modification times of all databases are returned instead.</li>
+ * </ul>
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class Replication {
+  /** Marker for the list of all databases. */
+  public static final String ALL = "*";
+  /** Maximum number of entries kept in the log. */
+  private static final int MAX = 1 << 16;
+
+  /** Identifier of the log. */
+  private final String id = Long.toString(System.currentTimeMillis(), 36);
+  /** Names of changed databases (empty strings: all databases may have been changed). */
+  private final ArrayDeque<String> names = new ArrayDeque<>();
+  /** Sequence number of the last entry. */
+  private long seq;
+
+  /**
+   * Records the databases that have been locked for writing by a job.
+   * @param writes write locks
+   */
+  public void record(final LockList writes) {
+    if(!writes.locking()) return;
+    synchronized(this) {
+      if(writes.global()) {
+        add("");
+      } else {
+        for(final String lock : writes) {
+          // skip special lock strings
+          if(Databases.validName(lock)) add(lock);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns the changes since the specified position. The first line contains the new position.
+   * The following lines contain the names of changed databases or, if all databases need to be
+   * checked, the {@link #ALL} marker, followed by the names and modification times of all
+   * databases.
+   * @param position position (empty string for initial request)
+   * @param ctx database context
+   * @return changes
+   */
+  public String changes(final String position, final Context ctx) {
+    final StringBuilder sb = new StringBuilder();
+    final StringList changed = new StringList();
+    boolean all;
+    synchronized(this) {
+      sb.append(id).append('/').append(seq);
+      final String prefix = id + '/';
+      final long first = seq - names.size();
+      final long since = position.startsWith(prefix) ?
+        Strings.toLong(position.substring(prefix.length())) : -1;
+      all = since < first || since > seq;
+      long s = first;
+      for(final Iterator<String> iter = names.iterator(); !all && iter.hasNext();) {
+        final String name = iter.next();
+        if(++s > since) {
+          if(name.isEmpty()) all = true;
+          else changed.add(name);
+        }
+      }
+    }
+
+    if(all) {
+      sb.append('\n').append(ALL);
+      for(final String db : ctx.databases.listDBs(null)) {
+        long time = 0;
+        final IOFile dir = ctx.soptions.dbPath(db);
+        for(final String file : dir.descendants()) {
+          time = Math.max(time, new IOFile(dir, file).timeStamp());
+        }
+        sb.append('\n').append(db).append(' ').append(time);
+      }
+    } else {
+      for(final String db : changed.sort().unique()) sb.append('\n').append(db);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Writes a snapshot of a database to the specified output stream. The database files are
+   * zipped in the same way as backups (see {@link org.basex.core.cmd.CreateBackup}).
+   * Nothing will be written if the database does not exist.
+   * @param db name of database
+   * @param out output stream
+   * @param ctx database context
+   * @throws IOException I/O exception
+   */
+  public static void snapshot(final String db, final OutputStream out, final Context ctx)
+      throws IOException {
+
+    if(!Databases.validName(db)) throw new BaseXException(NAME_INVALID_X, db);
+
+    final Job job = new Job() {
+      @Override
+      public void addLocks() {
+        jc().locks.reads.add(db);
+      }
+    };
+    job.register(ctx);
+    try {
+      final IOFile dbpath = ctx.soptions.dbPath(db);
+      if(!dbpath.exists()) return;
+      // reject snapshots of databases that are currently being updated (or corrupt)
+      if(MetaData.file(dbpath, DATAUPD).exists()) throw new BaseXException(DB_UPDATED_X, db);
+
+      final ZipOutputStream zos = new ZipOutputStream(out);
+      zos.setLevel(1);
+      final byte[] data = new byte[IO.BLOCKSIZE];
+      for(final String file : dbpath.descendants()) {
+        try(FileInputStream in = new FileInputStream(new File(dbpath.file(), file))) {
+          zos.putNextEntry(new ZipEntry(db + '/' + (Prop.WIN ? file.replace('\\', '/') : file)));
+          for(int c; (c = in.read(data)) != -1;) zos.write(data, 0, c);
+          zos.closeEntry();
+        }
+      }
+      zos.finish();
+    } finally {
+      job.unregister(ctx);
+    }
+  }
+
+  /**
+   * Adds an entry.
+   * @param name name of database
+   */
+  private void add(final String name) {
+    names.add(name);
+    if(names.size() > MAX) names.poll();
+    seq++;
+  }
+}
@@ -0,0 +1,77 @@
+package org.basex.server;
+
+import java.io.*;
+
+import org.basex.io.out.*;
+
+/**
+ * Buffers the results of a query before they are sent to the client. As long as the results fit
+ * into the buffer, the query can be finished and its locks can be released before the results
+ * are sent. If the buffer limit is exceeded, the buffered bytes and all subsequent bytes will
+ * directly be written to the client.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+final class ResultBuffer extends OutputStream {
+  /** Output stream. */
+  private final OutputStream out;
+  /** Maximum number of bytes to be buffered. */
+  private final long limit;
+  /** Buffer ({@code null} if the results are directly written). */
+  private ArrayOutput buffer;
+
+  /**
+   * Constructor.
+   * @param out output stream
+   * @param limit maximum number of bytes to be buffered
+   */
+  ResultBuffer(final OutputStream out, final long limit) {
+    this.out = out;
+    this.limit = limit;
+    if(limit > 0) buffer = new ArrayOutput();
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    final ArrayOutput ao = buffer;
+    if(ao != null) {
+      if(ao.size() < limit) {
+        ao.write(b);
+        return;
+      }
+      drain();
+    }
+    out.write(b);
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    final ArrayOutput ao = buffer;
+    if(ao != null) {
+      if(ao.size() + len <= limit) {
+        ao.write(b, off, len);
+        return;
+      }
+      drain();
+    }
+    out.write(b, off, len);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    if(buffer == null) out.flush();
+  }
+
+  /**
+   * Writes the buffered bytes to the output stream. All subsequent bytes will directly be written.
+   * @throws IOException I/O exception
+   */
+  void drain() throws IOException {
+    final ArrayOutput ao = buffer;
+    if(ao != null) {
+      buffer = null;
+      out.write(ao.buffer(), 0, (int) ao.size());
+    }
+  }
+}
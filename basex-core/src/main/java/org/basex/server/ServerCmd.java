@@ -33,6 +33,18 @@ public enum ServerCmd {
   STORE(13),
   /** Code for binding a context value: {id}0{val}0{type}0. */
   CONTEXT(14),
+  /** Code for running a database command asynchronously: {id}0{command}0. */
+  ASYNC(15),
+  /** Code for resetting the session state. */
+  RESET(16),
+  /** Code for compressing all subsequent responses of the server. */
+  COMPRESS(17),
+  /** Code for returning the next items of a query cursor: {id}0{size}0. */
+  FETCH(18),
+  /** Code for returning the changes of the replication log: {position}0. */
+  REPLICATE(19),
+  /** Code for returning a snapshot of a database: {name}0. */
+  SNAPSHOT(20),
   /** Code for returning the update flag: {id}0. */
   UPDATING(30),
   /** Code for executing a query and returning all information relevant for XQJ: {id}0. */
@@ -4,6 +4,8 @@ import static org.basex.core.Text.*;
 import static org.basex.query.QueryError.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.Map.*;
 
 import org.basex.api.client.*;
 import org.basex.core.*;
@@ -26,14 +28,33 @@ public final class ServerQuery extends Job {
   private final String query;
   /** Database context. */
   private final Context ctx;
+  /** Indicates if the compiled query will be reused (see {@link MainOptions#PREPARED}). */
+  private final boolean prepared;
+  /** Bindings of a prepared query (name, value, type). */
+  private final Map<String, Object[]> bindings = new LinkedHashMap<>();
+  /** Context value of a prepared query (value, type; can be {@code null}). */
+  private Object[] context;
 
   /** Query processor. */
   private QueryProcessor qp;
   /** Parsing flag. */
   private boolean parsed;
+  /** Indicates if the query processor contains a compiled query that can be reused. */
+  private boolean compiled;
   /** Query info. */
   private final StringBuilder info = new StringBuilder();
 
+  /** Result iterator of an open cursor (can be {@code null}). */
+  private Iter cursor;
+  /** Lease of the open cursor (can be {@code null}). */
+  private TimerTask lease;
+  /** Indicates if the lease of the last cursor has expired. */
+  private boolean expired;
+  /** Number of items returned by the current cursor. */
+  private int hits;
+  /** Number of bytes returned by the current cursor. */
+  private long bytes;
+
   /**
    * Constructor.
    * @param query query string
@@ -42,6 +63,7 @@ public final class ServerQuery extends Job {
   public ServerQuery(final String query, final Context ctx) {
     this.query = query;
     this.ctx = ctx;
+    prepared = ctx.options.get(MainOptions.PREPARED);
   }
 
   /**
@@ -52,8 +74,10 @@ public final class ServerQuery extends Job {
    * @throws IOException query exception
    */
   public void bind(final String name, final Object value, final String type) throws IOException {
+    closeCursor();
     try {
       qp().bind(name, value, type);
+      if(prepared) bindings.put(name, new Object[] { value, type });
     } catch(final QueryException ex) {
       Util.stack(ex);
       throw new BaseXException(ex);
@@ -67,8 +91,11 @@ public final class ServerQuery extends Job {
    * @throws IOException query exception
    */
   public void context(final Object value, final String type) throws IOException {
+    // prepared query: the context value is assigned at compile time
+    close();
     try {
       qp().context(value, type);
+      if(prepared) context = new Object[] { value, type };
     } catch(final QueryException ex) {
       throw new BaseXException(ex);
     }
@@ -113,49 +140,37 @@ public final class ServerQuery extends Job {
   public void execute(final OutputStream out, final boolean iterative, final boolean encode,
       final boolean full) throws IOException {
 
-    final boolean compplan = ctx.options.get(MainOptions.COMPPLAN);
+    closeCursor();
+    info.setLength(0);
 
+    // results are buffered, so that locks can be released before they are sent
+    final ResultBuffer rb = new ResultBuffer(out,
+        ctx.soptions.get(StaticOptions.RESULTBUFFER) * 1024L);
+    boolean reuse = false;
     try {
-      // parses the query and registers the process
-      parse();
-      qp.register(ctx);
-
-      final Performance perf = jc().performance;
-
-      if(!compplan) queryPlan();
-      qp.compile();
-      if(compplan) queryPlan();
-
+      final Iter iter = iter();
       final QueryContext qc = qp.qc;
       final QueryInfo qi = qc.info;
 
-      qi.compiling = perf.ns();
-      final Iter iter = qp.iter();
-      qi.evaluating = perf.ns();
-
       // iterate through results
       int hits = 0;
-      final PrintOutput po = PrintOutput.get(encode ? new ServerOutput(out) : out);
+      final PrintOutput po = PrintOutput.get(encode ? new ServerOutput(rb) : rb);
       final SerializerOptions sopts = full ? SerializerMode.API.get() : qc.serParams();
       try(Serializer ser = Serializer.get(po, sopts)) {
         for(Item item; (item = qc.next(iter)) != null;) {
           if(iterative) {
-            if(full) po.write(item.xdmInfo());
-            else po.write(item.typeId().asByte());
-            ser.reset();
-            ser.serialize(item);
-            po.flush();
-            out.write(0);
+            write(item, full, ser, po, rb);
           } else {
             ser.serialize(item);
           }
           hits++;
         }
       }
-      qi.serializing = perf.ns();
+      qi.serializing = jc().performance.ns();
 
       // generate query info
       info.append(qi.toString(qp, po.size(), hits, jc().locks));
+      reuse = prepared && !qp.updating && qc.prepared;
 
     } catch(final QueryException | JobException ex) {
       throw new BaseXException(ex);
@@ -164,12 +179,200 @@ public final class ServerQuery extends Job {
       throw new BaseXException(BASEX_OVERFLOW.desc);
     } finally {
       // close processor and unregisters the process
-      if(qp != null) {
-        if(parsed) {
-          qp.close();
-          qp.unregister(ctx);
-          parsed = false;
+      release(reuse);
+    }
+    rb.drain();
+  }
+
+  /**
+   * Returns the next items of a cursor. If no cursor is open, the query will be evaluated and a
+   * new cursor will be opened. Items are lazily evaluated: only the requested items are computed.
+   * Between two requests, locks are released, and the cursor becomes invalid if an accessed
+   * database is updated. The cursor will be closed if all items have been returned, or if it has
+   * not been accessed within the lease time (see {@link StaticOptions#CURSORTIMEOUT}).
+   * @param out output stream
+   * @param size maximum number of items to be returned
+   * @throws IOException I/O Exception
+   */
+  public synchronized void fetch(final OutputStream out, final int size) throws IOException {
+    if(lease != null) {
+      lease.cancel();
+      lease = null;
+    }
+    if(expired) {
+      expired = false;
+      throw new BaseXException("Cursor has expired.");
+    }
+
+    final ResultBuffer rb = new ResultBuffer(out,
+        ctx.soptions.get(StaticOptions.RESULTBUFFER) * 1024L);
+    boolean done = true, reuse = false;
+    try {
+      if(cursor == null) {
+        info.setLength(0);
+        cursor = iter();
+        hits = 0;
+        bytes = 0;
+      } else {
+        qp.register(ctx);
+        if(!qp.qc.resume()) throw new BaseXException("Cursor is invalid: database was updated.");
+      }
+
+      // iterate through the requested number of results
+      final QueryContext qc = qp.qc;
+      final PrintOutput po = PrintOutput.get(new ServerOutput(rb));
+      Item item = null;
+      try(Serializer ser = Serializer.get(po, qc.serParams())) {
+        for(int c = 0; c < size && (item = qc.next(cursor)) != null; c++) {
+          write(item, false, ser, po, rb);
+          hits++;
+        }
+      }
+      bytes += po.size();
+
+      done = item == null;
+      if(done) {
+        // generate query info
+        final QueryInfo qi = qc.info;
+        qi.serializing = jc().performance.ns();
+        info.append(qi.toString(qp, bytes, hits, jc().locks));
+        reuse = prepared && !qp.updating && qc.prepared;
+      }
+    } catch(final QueryException | JobException ex) {
+      throw new BaseXException(ex);
+    } catch(final StackOverflowError ex) {
+      Util.debug(ex);
+      throw new BaseXException(BASEX_OVERFLOW.desc);
+    } finally {
+      if(done) {
+        cursor = null;
+        release(reuse);
+      } else {
+        // suspend evaluation until the next items are requested
+        qp.qc.finish();
+        qp.unregister(ctx);
+        final long timeout = ctx.soptions.get(StaticOptions.CURSORTIMEOUT) * 1000L;
+        if(timeout > 0) {
+          lease = new TimerTask() {
+            @Override
+            public void run() {
+              expire();
+            }
+          };
+          ctx.jobs.schedule(lease, timeout);
         }
+      }
+    }
+    rb.drain();
+  }
+
+  /**
+   * Closes the query. Resources that have been kept open by a prepared query are released.
+   */
+  public void close() {
+    closeCursor();
+    if(compiled) {
+      qp.close();
+      compiled = false;
+      parsed = false;
+      qp = null;
+      popJob();
+    }
+  }
+
+  /**
+   * Closes an open cursor.
+   */
+  private synchronized void closeCursor() {
+    expired = false;
+    if(lease != null) {
+      lease.cancel();
+      lease = null;
+    }
+    if(cursor != null) {
+      cursor = null;
+      qp.close();
+      qp = null;
+      parsed = false;
+      compiled = false;
+      popJob();
+    }
+  }
+
+  /**
+   * Closes a cursor whose lease has expired.
+   */
+  private synchronized void expire() {
+    if(cursor != null) {
+      closeCursor();
+      expired = true;
+    }
+  }
+
+  /**
+   * Parses and compiles the query, registers the process and returns a result iterator.
+   * @return result iterator
+   * @throws IOException I/O Exception
+   * @throws QueryException query exception
+   */
+  private Iter iter() throws IOException, QueryException {
+    // parses the query and registers the process
+    parse();
+    qp.register(ctx);
+    if(compiled && !qp.qc.reuse()) {
+      // prepared query: compile query again
+      release(false);
+      parse();
+      qp.register(ctx);
+    }
+
+    final Performance perf = jc().performance;
+    final boolean compplan = ctx.options.get(MainOptions.COMPPLAN);
+    if(!compplan) queryPlan();
+    qp.compile();
+    if(compplan) queryPlan();
+
+    final QueryInfo qi = qp.qc.info;
+    qi.compiling = perf.ns();
+    final Iter iter = qp.iter();
+    qi.evaluating = perf.ns();
+    return iter;
+  }
+
+  /**
+   * Writes an item in the iterative format: type information, the serialized item and a
+   * terminating zero byte.
+   * @param item item
+   * @param full write full type information
+   * @param ser serializer
+   * @param po encoding output stream
+   * @param out output stream
+   * @throws IOException I/O Exception
+   */
+  private static void write(final Item item, final boolean full, final Serializer ser,
+      final PrintOutput po, final OutputStream out) throws IOException {
+    if(full) po.write(item.xdmInfo());
+    else po.write(item.typeId().asByte());
+    ser.reset();
+    ser.serialize(item);
+    po.flush();
+    out.write(0);
+  }
+
+  /**
+   * Unregisters the process and closes the query processor.
+   * @param reuse keep compiled query for subsequent evaluations
+   */
+  private void release(final boolean reuse) {
+    if(qp != null) {
+      if(parsed) {
+        if(reuse) qp.qc.finish();
+        else qp.close();
+        qp.unregister(ctx);
+        parsed = reuse;
+      }
+      compiled = reuse;
+      if(!reuse) {
         qp = null;
         popJob();
       }
@@ -207,11 +410,22 @@ public final class ServerQuery extends Job {
   /**
    * Initializes and returns an instance of the query processor.
    * @return query processor
+   * @throws QueryException query exception
    */
-  private QueryProcessor qp() {
+  private QueryProcessor qp() throws QueryException {
+    if(compiled) return qp;
     if(parsed || qp == null) {
       qp = pushJob(new QueryProcessor(query, ctx));
       parsed = false;
+      if(prepared) {
+        // assign bindings of previous evaluations
+        qp.qc.prepared = true;
+        for(final Entry<String, Object[]> binding : bindings.entrySet()) {
+          final Object[] value = binding.getValue();
+          qp.bind(binding.getKey(), value[0], (String) value[1]);
+        }
+        if(context != null) qp.context(context[0], (String) context[1]);
+      }
     }
     return qp;
   }
@@ -0,0 +1,413 @@
+package org.basex.util;
+
+import java.util.*;
+
+/**
+ * Compressed bitmap for non-negative integers. The integers are partitioned into chunks of
+ * 2<sup>16</sup> values. Each chunk is represented by a sorted array of its lower 16 bits
+ * (if it contains up to 4096 values) or by a bitmap with 1024 words.
+ * The design is inspired by Roaring bitmaps. Instances of this class are immutable.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class IntBitmap {
+  /** Maximum number of values in an array container. */
+  private static final int MAX_ARRAY = 4096;
+  /** Number of words in a bitmap container. */
+  private static final int WORDS = 1 << 10;
+
+  /** Keys of the containers (upper 16 bits), sorted. */
+  private final int[] keys;
+  /** Containers ({@code char[]} arrays or {@code long[]} bitmaps). */
+  private final Object[] containers;
+  /** Number of values in the containers. */
+  private final int[] cards;
+  /** Number of containers. */
+  private final int size;
+
+  /**
+   * Constructor.
+   * @param keys keys
+   * @param containers containers
+   * @param cards cardinalities
+   * @param size number of containers
+   */
+  private IntBitmap(final int[] keys, final Object[] containers, final int[] cards,
+      final int size) {
+    this.keys = keys;
+    this.containers = containers;
+    this.cards = cards;
+    this.size = size;
+  }
+
+  /**
+   * Creates a bitmap from the specified values.
+   * @param values distinct non-negative values in ascending order
+   * @return bitmap
+   */
+  public static IntBitmap get(final int... values) {
+    final int vl = values.length;
+    final Builder builder = new Builder(8);
+    for(int v = 0; v < vl;) {
+      // find end of current chunk
+      final int key = values[v] >>> 16;
+      int e = v + 1;
+      while(e < vl && values[e] >>> 16 == key) e++;
+
+      final int n = e - v;
+      if(n > MAX_ARRAY) {
+        final long[] words = new long[WORDS];
+        for(int i = v; i < e; i++) words[(values[i] & 0xFFFF) >>> 6] |= 1L << values[i];
+        builder.add(key, words, n);
+      } else {
+        final char[] array = new char[n];
+        for(int i = v; i < e; i++) array[i - v] = (char) values[i];
+        builder.add(key, array, n);
+      }
+      v = e;
+    }
+    return builder.finish();
+  }
+
+  /**
+   * Returns the number of values.
+   * @return number of values
+   */
+  public int cardinality() {
+    int c = 0;
+    for(int s = 0; s < size; s++) c += cards[s];
+    return c;
+  }
+
+  /**
+   * Checks if the specified value is contained in the bitmap.
+   * @param value value
+   * @return result of check
+   */
+  public boolean contains(final int value) {
+    final int i = Arrays.binarySearch(keys, 0, size, value >>> 16);
+    if(i < 0) return false;
+    final Object cont = containers[i];
+    final char low = (char) value;
+    return cont instanceof long[] ? (((long[]) cont)[low >>> 6] & 1L << low) != 0 :
+      Arrays.binarySearch((char[]) cont, 0, cards[i], low) >= 0;
+  }
+
+  /**
+   * Returns all values in ascending order.
+   * @return values
+   */
+  public int[] toArray() {
+    final int[] values = new int[cardinality()];
+    int v = 0;
+    for(int s = 0; s < size; s++) {
+      final int high = keys[s] << 16;
+      final Object cont = containers[s];
+      if(cont instanceof long[]) {
+        final long[] words = (long[]) cont;
+        for(int w = 0; w < WORDS; w++) {
+          for(long word = words[w]; word != 0; word &= word - 1) {
+            values[v++] = high | w << 6 | Long.numberOfTrailingZeros(word);
+          }
+        }
+      } else {
+        final char[] array = (char[]) cont;
+        final int c = cards[s];
+        for(int i = 0; i < c; i++) values[v++] = high | array[i];
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Returns the union of this and the specified bitmap.
+   * @param bitmap bitmap
+   * @return new bitmap
+   */
+  public IntBitmap or(final IntBitmap bitmap) {
+    final Builder builder = new Builder(size + bitmap.size);
+    int a = 0, b = 0;
+    while(a < size && b < bitmap.size) {
+      final int ka = keys[a], kb = bitmap.keys[b];
+      if(ka < kb) {
+        builder.add(ka, containers[a], cards[a++]);
+      } else if(ka > kb) {
+        builder.add(kb, bitmap.containers[b], bitmap.cards[b++]);
+      } else {
+        builder.or(ka, containers[a], cards[a++], bitmap.containers[b], bitmap.cards[b++]);
+      }
+    }
+    while(a < size) builder.add(keys[a], containers[a], cards[a++]);
+    while(b < bitmap.size) builder.add(bitmap.keys[b], bitmap.containers[b], bitmap.cards[b++]);
+    return builder.finish();
+  }
+
+  /**
+   * Returns the intersection of this and the specified bitmap.
+   * @param bitmap bitmap
+   * @return new bitmap
+   */
+  public IntBitmap and(final IntBitmap bitmap) {
+    final Builder builder = new Builder(Math.min(size, bitmap.size));
+    int a = 0, b = 0;
+    while(a < size && b < bitmap.size) {
+      final int ka = keys[a], kb = bitmap.keys[b];
+      if(ka < kb) {
+        a++;
+      } else if(ka > kb) {
+        b++;
+      } else {
+        builder.and(ka, containers[a], cards[a++], bitmap.containers[b], bitmap.cards[b++]);
+      }
+    }
+    return builder.finish();
+  }
+
+  /**
+   * Returns the values of this bitmap that are not contained in the specified bitmap.
+   * @param bitmap bitmap
+   * @return new bitmap
+   */
+  public IntBitmap andNot(final IntBitmap bitmap) {
+    final Builder builder = new Builder(size);
+    int a = 0, b = 0;
+    while(a < size) {
+      final int ka = keys[a];
+      while(b < bitmap.size && bitmap.keys[b] < ka) b++;
+      if(b < bitmap.size && bitmap.keys[b] == ka) {
+        builder.andNot(ka, containers[a], cards[a++], bitmap.containers[b], bitmap.cards[b++]);
+      } else {
+        builder.add(ka, containers[a], cards[a++]);
+      }
+    }
+    return builder.finish();
+  }
+
+  /** Bitmap builder. */
+  private static final class Builder {
+    /** Keys. */
+    private int[] keys;
+    /** Containers. */
+    private Object[] containers;
+    /** Cardinalities. */
+    private int[] cards;
+    /** Number of containers. */
+    private int size;
+
+    /**
+     * Constructor.
+     * @param capacity initial capacity
+     */
+    private Builder(final int capacity) {
+      final int c = Math.max(1, capacity);
+      keys = new int[c];
+      containers = new Object[c];
+      cards = new int[c];
+    }
+
+    /**
+     * Adds a container. Empty containers are skipped, and sparse bitmaps are converted to arrays.
+     * @param key key
+     * @param cont container
+     * @param card cardinality
+     */
+    private void add(final int key, final Object cont, final int card) {
+      if(card == 0) return;
+      if(size == keys.length) {
+        final int s = Array.newSize(size);
+        keys = Arrays.copyOf(keys, s);
+        containers = Arrays.copyOf(containers, s);
+        cards = Arrays.copyOf(cards, s);
+      }
+      keys[size] = key;
+      containers[size] = cont instanceof long[] && card <= MAX_ARRAY ?
+        array((long[]) cont, card) : cont;
+      cards[size++] = card;
+    }
+
+    /**
+     * Adds the union of two containers.
+     * @param key key
+     * @param cont1 first container
+     * @param card1 cardinality of first container
+     * @param cont2 second container
+     * @param card2 cardinality of second container
+     */
+    private void or(final int key, final Object cont1, final int card1, final Object cont2,
+        final int card2) {
+      if(cont1 instanceof long[] || cont2 instanceof long[] || card1 + card2 > MAX_ARRAY) {
+        final long[] words = bitmap(cont1, card1);
+        set(words, cont2, card2);
+        add(key, words, count(words));
+      } else {
+        final char[] array1 = (char[]) cont1, array2 = (char[]) cont2;
+        final char[] array = new char[card1 + card2];
+        int a = 0, b = 0, c = 0;
+        while(a < card1 && b < card2) {
+          final char ca = array1[a], cb = array2[b];
+          array[c++] = ca <= cb ? ca : cb;
+          if(ca <= cb) a++;
+          if(cb <= ca) b++;
+        }
+        while(a < card1) array[c++] = array1[a++];
+        while(b < card2) array[c++] = array2[b++];
+        add(key, array, c);
+      }
+    }
+
+    /**
+     * Adds the intersection of two containers.
+     * @param key key
+     * @param cont1 first container
+     * @param card1 cardinality of first container
+     * @param cont2 second container
+     * @param card2 cardinality of second container
+     */
+    private void and(final int key, final Object cont1, final int card1, final Object cont2,
+        final int card2) {
+      if(cont1 instanceof long[] && cont2 instanceof long[]) {
+        final long[] words1 = (long[]) cont1, words2 = (long[]) cont2, words = new long[WORDS];
+        for(int w = 0; w < WORDS; w++) words[w] = words1[w] & words2[w];
+        add(key, words, count(words));
+      } else if(cont1 instanceof long[] || cont2 instanceof long[]) {
+        // filter array values
+        final boolean bm = cont1 instanceof long[];
+        final long[] words = (long[]) (bm ? cont1 : cont2);
+        final char[] array = (char[]) (bm ? cont2 : cont1);
+        add(key, array, bm ? card2 : card1, words, true);
+      } else {
+        final char[] array1 = (char[]) cont1, array2 = (char[]) cont2;
+        final char[] array = new char[Math.min(card1, card2)];
+        int a = 0, b = 0, c = 0;
+        while(a < card1 && b < card2) {
+          final char ca = array1[a], cb = array2[b];
+          if(ca == cb) array[c++] = ca;
+          if(ca <= cb) a++;
+          if(cb <= ca) b++;
+        }
+        add(key, array, c);
+      }
+    }
+
+    /**
+     * Adds the values of the first container that are not found in the second container.
+     * @param key key
+     * @param cont1 first container
+     * @param card1 cardinality of first container
+     * @param cont2 second container
+     * @param card2 cardinality of second container
+     */
+    private void andNot(final int key, final Object cont1, final int card1, final Object cont2,
+        final int card2) {
+      if(cont1 instanceof long[]) {
+        final long[] words = ((long[]) cont1).clone();
+        if(cont2 instanceof long[]) {
+          final long[] words2 = (long[]) cont2;
+          for(int w = 0; w < WORDS; w++) words[w] &= ~words2[w];
+        } else {
+          final char[] array2 = (char[]) cont2;
+          for(int i = 0; i < card2; i++) words[array2[i] >>> 6] &= ~(1L << array2[i]);
+        }
+        add(key, words, count(words));
+      } else if(cont2 instanceof long[]) {
+        add(key, (char[]) cont1, card1, (long[]) cont2, false);
+      } else {
+        final char[] array1 = (char[]) cont1, array2 = (char[]) cont2;
+        final char[] array = new char[card1];
+        int a = 0, b = 0, c = 0;
+        while(a < card1) {
+          final char ca = array1[a];
+          while(b < card2 && array2[b] < ca) b++;
+          if(b == card2 || array2[b] != ca) array[c++] = ca;
+          a++;
+        }
+        add(key, array, c);
+      }
+    }
+
+    /**
+     * Adds the array values that are (or are not) contained in the specified bitmap.
+     * @param key key
+     * @param array array
+     * @param card number of array values
+     * @param words bitmap
+     * @param contained contained flag
+     */
+    private void add(final int key, final char[] array, final int card, final long[] words,
+        final boolean contained) {
+      final char[] tmp = new char[card];
+      int c = 0;
+      for(int i = 0; i < card; i++) {
+        final char ch = array[i];
+        if((words[ch >>> 6] & 1L << ch) != 0 == contained) tmp[c++] = ch;
+      }
+      add(key, tmp, c);
+    }
+
+    /**
+     * Returns the resulting bitmap.
+     * @return bitmap
+     */
+    private IntBitmap finish() {
+      return new IntBitmap(keys, containers, cards, size);
+    }
+  }
+
+  /**
+   * Returns a new bitmap with the values of the specified container.
+   * @param cont container
+   * @param card cardinality
+   * @return bitmap
+   */
+  private static long[] bitmap(final Object cont, final int card) {
+    if(cont instanceof long[]) return ((long[]) cont).clone();
+    final long[] words = new long[WORDS];
+    set(words, cont, card);
+    return words;
+  }
+
+  /**
+   * Sets the bits of the specified container.
+   * @param words bitmap
+   * @param cont container
+   * @param card cardinality
+   */
+  private static void set(final long[] words, final Object cont, final int card) {
+    if(cont instanceof long[]) {
+      final long[] words2 = (long[]) cont;
+      for(int w = 0; w < WORDS; w++) words[w] |= words2[w];
+    } else {
+      final char[] array = (char[]) cont;
+      for(int i = 0; i < card; i++) words[array[i] >>> 6] |= 1L << array[i];
+    }
+  }
+
+  /**
+   * Converts a bitmap to an array.
+   * @param words bitmap
+   * @param card cardinality
+   * @return array
+   */
+  private static char[] array(final long[] words, final int card) {
+    final char[] array = new char[card];
+    int c = 0;
+    for(int w = 0; w < WORDS; w++) {
+      for(long word = words[w]; word != 0; word &= word - 1) {
+        array[c++] = (char) (w << 6 | Long.numberOfTrailingZeros(word));
+      }
+    }
+    return array;
+  }
+
+  /**
+   * Counts the number of set bits.
+   * @param words bitmap
+   * @return number of bits
+   */
+  private static int count(final long[] words) {
+    int c = 0;
+    for(final long word : words) c += Long.bitCount(word);
+    return c;
+  }
+}
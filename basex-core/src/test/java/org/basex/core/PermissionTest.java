@@ -303,6 +303,22 @@ public final class PermissionTest extends SandboxTest {
     ok(new DropUser(NAME), adminSession);
   }
 
+  /** Stops requests of non-admin users that exceed resource limits. */
+  @Test public void resourceLimits() {
+    final StaticOptions sopts = server.context.soptions;
+    final XQuery query = new XQuery("sum((1 to 100000000) ! string-length(string()))");
+    try {
+      sopts.set(StaticOptions.MAXALLOC, 10);
+      interrupted(query, testSession);
+      sopts.set(StaticOptions.MAXALLOC, 0);
+      sopts.set(StaticOptions.MAXCPU, 1);
+      interrupted(query, testSession);
+    } finally {
+      sopts.set(StaticOptions.MAXALLOC, 0);
+      sopts.set(StaticOptions.MAXCPU, 0);
+    }
+  }
+
   /**
    * Assumes that this command is successful.
    * @param cmd command reference
@@ -328,4 +344,18 @@ public final class PermissionTest extends SandboxTest {
     } catch(final IOException ignored) {
     }
   }
+
+  /**
+   * Assumes that this command is interrupted.
+   * @param cmd command reference
+   * @param s session
+   */
+  private static void interrupted(final Command cmd, final Session s) {
+    try {
+      s.execute(cmd);
+      fail("\"" + cmd + "\" was supposed to be interrupted.");
+    } catch(final IOException ex) {
+      assertEquals(Text.INTERRUPTED, Util.message(ex));
+    }
+  }
 }
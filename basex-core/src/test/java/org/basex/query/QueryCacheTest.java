@@ -0,0 +1,88 @@
+package org.basex.query;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.io.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for the query cache.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class QueryCacheTest extends SandboxTest {
+  /** Enables the query cache. */
+  @Before public void enable() {
+    set(MainOptions.PREPARED, true);
+  }
+
+  /** Disables the query cache. */
+  @After public void disable() {
+    set(MainOptions.PREPARED, false);
+    context.queries.close();
+  }
+
+  /** Reuses compiled queries. */
+  @Test public void reuse() {
+    final QueryCache cache = context.queries;
+    final String query = "declare variable $a external; $a * 2";
+    final long hits = cache.hits(), misses = cache.misses();
+    for(int i = 0; i < 5; i++) {
+      final XQuery xquery = new XQuery(query).bind("a", Integer.toString(i), "xs:integer");
+      assertEquals(Integer.toString(i * 2), execute(xquery));
+    }
+    assertEquals(hits + 4, cache.hits());
+    assertEquals(misses + 1, cache.misses());
+    assertEquals(1, cache.size());
+
+    // different type: query is compiled again
+    assertEquals("2", execute(new XQuery(query).bind("a", "1", "xs:double")));
+    assertEquals(hits + 5, cache.hits());
+    // different options or bound variables: query is cached separately
+    execute(new XQuery(query).bind("a", "1", "xs:integer").bind("b", "2"));
+    set(MainOptions.QUERYINFO, true);
+    execute(new XQuery(query).bind("a", "1", "xs:integer"));
+    set(MainOptions.QUERYINFO, false);
+    assertEquals(3, cache.size());
+    // updating queries are not cached
+    execute(new XQuery("delete node <a/>"));
+    assertEquals(3, cache.size());
+  }
+
+  /**
+   * Compiles queries again if a database has been modified, and closes queries before a database
+   * is dropped.
+   */
+  @Test public void database() {
+    execute(new CreateDB(NAME, "<x><a/></x>"));
+    execute(new Close());
+    final String query = COUNT.args(_DB_OPEN.args(NAME) + "//a");
+    assertEquals("1", execute(new XQuery(query)));
+    assertEquals("1", execute(new XQuery(query)));
+    execute(new XQuery(_DB_ADD.args(NAME, " <a/>", "a.xml")));
+    assertEquals("2", execute(new XQuery(query)));
+
+    // cached query is closed before the database is dropped
+    assertEquals(1, context.queries.size());
+    execute(new DropDB(NAME));
+    assertEquals(0, context.queries.size());
+  }
+
+  /** Compiles queries again if an imported module has been modified. */
+  @Test public void module() {
+    final IOFile file = new IOFile(sandbox(), "cached.xqm");
+    write(file, "module namespace c='c'; declare function c:f() { 1 };");
+    final String query = "import module namespace c='c' at '" + file.path() + "'; c:f()";
+    assertEquals("1", execute(new XQuery(query)));
+    assertEquals("1", execute(new XQuery(query)));
+
+    write(file, "module namespace c='c'; declare function c:f() { 234 };");
+    assertEquals("234", execute(new XQuery(query)));
+  }
+}
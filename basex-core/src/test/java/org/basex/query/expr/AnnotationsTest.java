@@ -56,4 +56,34 @@ public final class AnnotationsTest extends SandboxTest {
     error("declare %output:method function local:x() { 1 }; 1", BASEX_ANNOTATION2_X_X);
     error("declare %output:method(1) function local:x() { 1 }; 1", BASEX_ANNOTATION_X_X_X);
   }
+
+  /** Memoized functions. */
+  @Test public void memoize() {
+    // exponential recursion is only feasible with cached results
+    query("declare %basex:memoize function local:fib($n) { "
+        + "if($n < 2) then $n else local:fib($n - 1) + local:fib($n - 2) }; local:fib(80)",
+        23416728348467685L);
+    query("let $fib := %basex:memoize function($n, $f) { "
+        + "if($n < 2) then $n else $f($n - 1, $f) + $f($n - 2, $f) } return $fib(80, $fib)",
+        23416728348467685L);
+    // arguments of different types are cached separately
+    query("declare %basex:memoize function local:f($a) { $a instance of xs:integer }; "
+        + "local:f(1), local:f(1.0), local:f(1)", "true\nfalse\ntrue");
+    // nodes are compared by identity
+    query("declare %basex:memoize function local:f($a) { name($a/..) }; "
+        + "let $x := <x><a/></x>, $y := <y><a/></y> return (local:f($x/a), local:f($y/a))",
+        "x\ny");
+    // functions that return single items
+    query("declare %basex:memoize function local:f($a) as xs:integer { $a * 2 }; "
+        + "sum((1 to 1000) ! local:f(. mod 10))", 9000);
+
+    error("declare %basex:memoize function local:f() { random:double() }; local:f()",
+        BASEX_MEMOIZE_X);
+    error("%basex:memoize function() { random:double() }()", BASEX_MEMOIZE_X);
+    error("declare %basex:memoize %updating function local:f() { () }; local:f()",
+        BASEX_MEMOIZE_X);
+    error("declare %basex:memoize function local:f() { <a/> }; local:f() is local:f()",
+        BASEX_MEMOIZE_X);
+    error("%basex:memoize function() { <a/> }()", BASEX_MEMOIZE_X);
+  }
 }
@@ -0,0 +1,57 @@
+package org.basex.query.expr;
+
+import static org.basex.query.QueryError.*;
+
+import org.basex.*;
+import org.junit.*;
+
+/**
+ * Tests for node constructors with large contents, which are written to compact
+ * database instances.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ConstrTest extends SandboxTest {
+  /** Element constructor. */
+  @Test public void element() {
+    final String elem = "<r a='A'>{ (1 to 1000) ! <x n='{ . }'>{ . }</x> }t<!--c--><?p i?></r>";
+    query("count(" + elem + "/x)", 1000);
+    query(elem + "/@a/string()", "A");
+    query(elem + "/x[1000]/@n/string()", 1000);
+    query(elem + "/x[1] ! (.. instance of element(r))", true);
+    query(elem + "/(text(), comment(), processing-instruction()) ! string()", "t\nc\ni");
+    query("let $r := " + elem + " return $r << $r/x[1] and $r/x[1] << $r/x[2]", true);
+    query("deep-equal(" + elem + ", " + elem + ')', true);
+    query("string-length(string(<r>{ (1 to 1000) ! string() }</r>))", 3892);
+    query("<r>{ (1 to 1000) ! <x/> }</r>/x[1000]", "<x/>");
+
+    // namespaces
+    query("<r xmlns='u'>{ (1 to 1000) ! <x/> }</r>/*[1] ! namespace-uri()", "u");
+    query("<p:r xmlns:p='p'>{ (1 to 1000) ! <p:x/> }</p:r>/*[1] ! namespace-uri()", "p");
+    query("<r>{ (1 to 1000) ! <x xmlns='u'/> }</r>/*[1000] ! namespace-uri()", "u");
+    query("<r>{ attribute { QName('a', 'p:a') } { 'A' }, (1 to 1000) ! <x/> }</r>/@*/"
+        + "(namespace-uri() || name())", "ap:a");
+    query("<r xmlns='u'>{ (1 to 1000) ! <x/> }</r>/*[1] ! in-scope-prefixes(.)", "\nxml");
+    query("<r xmlns:p='p'>{ (1 to 1000) ! <x/> }</r>/x[1]", "<x/>");
+    query("<r>{ <p:x xmlns:p='p'><y/></p:x>/y, (1 to 1000) ! <x/> }</r>/y", "<y/>");
+
+    // nested constructors
+    query("count(<r>{ <s>{ (1 to 1000) ! <x>{ <y/> }</x> }</s> }</r>//y)", 1000);
+    query("<r>{ <s>{ (1 to 1000) ! <x>{ <y/> }</x> }</s> }</r>/s/x[1]/*", "<y/>");
+
+    // errors
+    error("<r>{ (1 to 1000) ! <x/>, attribute a { } }</r>", NOATTALL_X);
+    error("<r>{ (1 to 1000) ! <x/>, namespace p { 'u' } }</r>", NONSALL_X);
+  }
+
+  /** Document constructor. */
+  @Test public void document() {
+    final String doc = "document { (1 to 1000) ! <x>{ . }</x> }";
+    query("count(" + doc + "/x)", 1000);
+    query(doc + "/x[1000]/string()", 1000);
+    query(doc + " instance of document-node()", true);
+    query(doc + "/x[1]/.. instance of document-node()", true);
+    error("document { (1 to 1000) ! <x/>, attribute a { } }", DOCATTS_X);
+  }
+}
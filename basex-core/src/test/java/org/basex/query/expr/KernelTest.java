@@ -0,0 +1,47 @@
+package org.basex.query.expr;
+
+import static org.basex.query.QueryError.*;
+
+import org.basex.*;
+import org.junit.*;
+
+/**
+ * Tests for the specialized evaluation of arithmetic and comparison expressions.
+ * All queries are evaluated often enough to compile the kernels.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class KernelTest extends SandboxTest {
+  /** Integer arithmetic and comparisons. */
+  @Test public void integers() {
+    query("sum(for $i in 1 to 1000 where $i * 2 + 1 > 10 and $i mod 3 = 0 return $i)", 166830);
+    query("count((1 to 1000)[. idiv 7 * 7 = .])", 142);
+    query("sum(for $i in 1 to 1000 return $i - 500 * 2)", -499500);
+    query("count(for $i in 1 to 1000 where $i lt 10 or $i ge 990 return $i)", 20);
+    query("sum(for $i in 1 to 1000 return if($i mod 2 = 0) then $i else -$i)", 500);
+  }
+
+  /** Double arithmetic and comparisons. */
+  @Test public void doubles() {
+    query("sum(for $i in 1 to 1000 return xs:double($i) * 0.5e0)", 250250);
+    query("count(for $i in 1 to 1000 where xs:double($i) div 3 > 300 return $i)", 100);
+    query("count(for $i in 1 to 1000 let $d := xs:double($i) where $d != $d + 1 return $i)", 1000);
+    query("count(for $i in 1 to 1000 let $d := xs:double('NaN') where $d = $d return $i)", 0);
+    query("count(for $i in 1 to 1000 let $d := xs:double('NaN') where $d != $d return $i)", 1000);
+  }
+
+  /** Fallback to standard evaluation. */
+  @Test public void fallback() {
+    // integer overflow
+    error("for $i in 1 to 1000 return 9223372036854775000 + $i", RANGE_X);
+    error("for $i in 1 to 1000 return $i * 9223372036854776", RANGE_X);
+    // division by zero
+    error("for $i in reverse(0 to 1000) return 1000 idiv $i", DIVZERO_X);
+    error("for $i in reverse(0 to 1000) return 1000 mod $i", DIVZERO_X);
+    // integer division by -1
+    query("(for $i in reverse((-1, 1 to 1000)) return -1000 idiv $i)[last()]", 1000);
+    // operands of unexpected types
+    query("sum(for $i in 1 to 1000 return (if($i < 900) then $i else xs:byte(1)) + 1)", 405651);
+  }
+}
@@ -0,0 +1,65 @@
+package org.basex.query.expr;
+
+import static org.basex.query.func.Function.*;
+
+import org.basex.*;
+import org.basex.core.cmd.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for set expressions ({@code union}, {@code intersect}, {@code except}).
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class SetTest extends SandboxTest {
+  /** Operand that yields no nodes at runtime. */
+  private static final String NONE = "//a[. = string(random:integer(1) + 7)]";
+  /** Operand that raises an error when it is evaluated. */
+  private static final String ERROR = "(if(random:double() < 1) then error() else //a)";
+
+  /**
+   * Creates a database.
+   */
+  @BeforeClass public static void setUp() {
+    query(_DB_CREATE.args(NAME, " <x>{ (1 to 100000) ! <a>{ . mod 7 }</a> }</x>", "x.xml"));
+    execute(new Open(NAME));
+  }
+
+  /**
+   * Drops the database.
+   */
+  @AfterClass public static void tearDown() {
+    execute(new DropDB(NAME));
+  }
+
+  /** Union. */
+  @Test public void union() {
+    query("count(//a[text() = '1'] | //a[text() = '2'])", 28572);
+    query("count(//a[. = '1'] | //a[. = '1'])", 14286);
+    query("count(" + _UTIL_DDO.args(" //a ! (., ..)") + ')', 100001);
+    query("(//a[text() = '1'] | //a[text() = '2'])[position() = 3 to 4] ! string()", "1\n2");
+    query("count((//a[. = '1'] | <a/>))", 14287);
+    query("count((//a[. = '1'] | ()))", 14286);
+  }
+
+  /** Intersection. */
+  @Test public void intersect() {
+    query("count(//a[. = ('1', '2')] intersect //a[. = ('2', '3')])", 14286);
+    query("count(//a intersect //a[position() <= 10])", 10);
+    query("count(//a intersect <a/>)", 0);
+    query("count(//a intersect /x)", 0);
+    // skip evaluation of remaining operands if the result will be empty
+    query("let $n := " + NONE + " intersect " + ERROR + " return count(($n, $n))", 0);
+  }
+
+  /** Difference. */
+  @Test public void except() {
+    query("count(//a except //a[. = '1'])", 85714);
+    query("count(//a[. = '1'] except //a)", 0);
+    query("count((//a, /x) except //a)", 1);
+    query("count(//a[position() <= 3] except <a/>)", 3);
+    query("let $n := " + NONE + " except " + ERROR + " return count(($n, $n))", 0);
+  }
+}
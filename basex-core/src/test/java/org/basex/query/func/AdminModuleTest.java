@@ -40,6 +40,16 @@ public final class AdminModuleTest extends SandboxTest {
     error(func.args("2001-01-01"), WHICHRES_X);
   }
 
+  /** Test method. */
+  @Test public void metrics() {
+    final Function func = _ADMIN_METRICS;
+    query("exists(" + func.args() + "[@name = 'basex_databases_open'])", true);
+    query(func.args() + "[@name = 'basex_lock_wait_seconds_bucket'][@le = '+Inf'] > 0", true);
+    // database is opened in the test context
+    query("exists(" + func.args() + "[@name = 'basex_database_buffer_hits_total']"
+        + "[@database = '" + NAME + "'])", true);
+  }
+
   /** Test method. */
   @Test public void sessions() {
     final Function func = _ADMIN_SESSIONS;
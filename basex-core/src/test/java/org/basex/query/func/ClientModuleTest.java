@@ -103,6 +103,56 @@ public final class ClientModuleTest extends SandboxTest {
     error(func.args(connection(), "x"), NOCTX_X);
   }
 
+  /** Test method. */
+  @Test public void scatter() throws IOException {
+    final Function func = _CLIENT_SCATTER;
+    try(ClientSession cs = createClient()) {
+      cs.execute(new CreateDB(NAME + '1', "<x><n>1</n><n>4</n><n>7</n></x>"));
+      cs.execute(new CreateDB(NAME + '2', "<x><n>2</n><n>5</n><n>8</n></x>"));
+      cs.execute(new CreateDB(NAME + '3', "<x><n>3</n><n>6</n><n>9</n></x>"));
+    }
+    // two sessions with shards
+    final String shards = "let $a := " + connection() + ", $b := " + connection() +
+        " let $shards := map { $a: ('" + NAME + "1', '" + NAME + "2'), $b: '" + NAME + "3' }" +
+        " return ";
+    final String query = "db:open(.)//n ! xs:integer(.)";
+
+    // concatenated results
+    query(shards + "sort(" + func.args(" $shards", query) + ")", "1\n2\n3\n4\n5\n6\n7\n8\n9");
+    query(shards + "count(" + func.args(" $shards", query, " map { 'x': 1 }",
+        " map { 'fetch': 1 }") + ")", 9);
+    query(shards + func.args(" $shards", "declare variable $x external; $x",
+        " map { 'x': 1 }"), "1\n1\n1");
+    // merged results
+    query(shards + func.args(" $shards", query, " ()", " map { 'order': function($n) { $n } }"),
+        "1\n2\n3\n4\n5\n6\n7\n8\n9");
+    query(shards + func.args(" $shards", query, " ()",
+        " map { 'order': function($n) { $n }, 'limit': 4, 'fetch': 1 }"), "1\n2\n3\n4");
+    query(shards + func.args(" $shards", "reverse(" + query + ")", " ()",
+        " map { 'order': function($n) { $n }, 'descending': true(), 'limit': 3 }"), "9\n8\n7");
+    query(shards + func.args(" $shards", "count(" + query + ")", " ()",
+        " map { 'sum': true() }"), 9);
+    query(func.args(" map { }", "1", " ()", " map { 'sum': true() }"), 0);
+    // partially consumed results
+    query(shards + "head(" + func.args(" $shards", "1 to 1000000", " ()",
+        " map { 'fetch': 10 }") + ")", 1);
+    query(shards + "exists(" + func.args(" $shards", "1 to 1000000") + ")", true);
+    // sessions can be used after the evaluation of the shards has been stopped
+    query(shards + "(head(" + func.args(" $shards", "1 to 1000000", " ()",
+        " map { 'fetch': 10 }") + "), " + _CLIENT_QUERY.args(" $a", "2") + ", " +
+        _CLIENT_CLOSE.args(" $a") + ')', "1\n2");
+
+    // BXCL0002: session not available
+    error(func.args(" map { xs:anyURI('unknown'): 'x' }", "1"), CLIENT_ID_X);
+    // query errors: server-side errors, returning function items
+    error(shards + func.args(" $shards", "$x"), VARUNDEF_X);
+    error(shards + func.args(" $shards", "true#0"), CLIENT_FITEM_X);
+
+    try(ClientSession cs = createClient()) {
+      cs.execute(new DropDB(NAME + '*'));
+    }
+  }
+
   /** Test method for the correct return of all XDM data types. */
   @Test public void queryTypes() {
     final Object[][] types = XdmInfoTest.TYPES;
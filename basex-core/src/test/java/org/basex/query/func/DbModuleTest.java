@@ -703,6 +703,43 @@ public final class DbModuleTest extends SandboxTest {
     query(_DB_RETRIEVE.args(NAME, "raw3"), 123);
   }
 
+  /** Test method. */
+  @Test public void stream() {
+    final Function func = _DB_STREAM;
+    final IOFile file = new IOFile(sandbox(), "stream.xml");
+    write(file, "<r xmlns:p='p'><a id='1'><b>X</b></a><c><a id='2'><a/></a></c>"
+        + "<p:a p:id='3'/><!--c--></r>");
+    final String path = file.path();
+
+    query("count(" + func.args(path, "/r") + ")", 1);
+    query("count(" + func.args(path, "/r/a") + ")", 2);
+    query("count(" + func.args(path, "//a") + ")", 4);
+    query("count(" + func.args(path, "/*/*") + ")", 3);
+    query("count(" + func.args(path, "//a//a") + ")", 1);
+    query("count(" + func.args(path, "/r//a/b") + ")", 1);
+    query("count(" + func.args(path, "/x") + ")", 0);
+
+    query(func.args(path, "/r/a/b"), "<b xmlns:p=\"p\">X</b>");
+    query(func.args(path, "/r/a") + "/b/string()", "X");
+    query(func.args(path, "//a[@id]") + "/@*/string()", "1\n2");
+    query(func.args(path, "//a[@p:id]") + "/@*/string()", 3);
+    query(func.args(path, "//a[@id = '2']") + "/@id/string()", 2);
+    query(func.args(path, "//a[@id != '2']") + "/@*/string()", 1);
+    query(func.args(path, "//p:a") + "/@*/string()", 3);
+    query(func.args(path, "//p:a") + "/namespace-uri()", "p");
+    query(func.args(path, "//a") + "[1]/ancestor::*", "");
+    query("head(" + func.args(path, "//a") + ")/@id/string()", 1);
+    query(func.args(path, "//a") + "[3]/parent::a/@id/string()", 2);
+    query(func.args(path, "/r/c/a/a") + "/parent::node()", "");
+
+    query(func.args(path, "/r/a", " map { 'chop': false() }") + "/b/string()", "X");
+
+    error(func.args(path, "a"), DB_STREAM_X);
+    error(func.args(path, "/a[1]"), DB_STREAM_X);
+    error(func.args(path, "//a/.."), DB_STREAM_X);
+    error(func.args(path + "x", "/r"), WHICHRES_X);
+  }
+
   /** Test method. */
   @Test public void flush() {
     final Function func = _DB_FLUSH;
@@ -4,10 +4,12 @@ import static org.basex.query.QueryError.*;
 import static org.basex.query.func.Function.*;
 import static org.junit.Assert.*;
 
+import org.basex.core.cmd.*;
 import org.basex.query.ast.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.seq.*;
 import org.junit.*;
+import org.junit.Test;
 
 /**
  * XQuery functions: AST tests.
@@ -145,6 +147,13 @@ public final class FnModuleTest extends QueryPlanTest {
 
     query(func.args(" (1 to 100000000) ! string()"), 100000000);
     query(func.args(" for $i in 1 to 100000000 return string('x')"), 100000000);
+
+    // batched iteration (paths, filters, simple maps)
+    for(final int i : new int[] { 255, 256, 257, 512, 1000 }) {
+      query(func.args(" <a>{ (1 to " + i + ") ! <b/> }</a>/b"), i);
+      query(func.args(" <a>{ (1 to " + i + ") ! <b>{ . }</b> }</a>/b[. mod 2 = 0]"), i / 2);
+      query(func.args(" <a>{ (1 to " + i + ") ! <b/> }</a>/b ! name()"), i);
+    }
   }
 
   /** Test method. */
@@ -152,6 +161,27 @@ public final class FnModuleTest extends QueryPlanTest {
     final Function func = DEEP_EQUAL;
 
     query("let $a := reverse((<a/>, <b/>)) return " + func.args(" $a/.", " $a/."), true);
+
+    // database nodes
+    execute(new CreateDB(NAME, "<x><a p='1' q='2'>A<!--c-->B</a><a q='2' p='1'>A<?p i?>B</a>"
+        + "<a p='1'>A B</a><b xmlns='u'>A</b><b>A</b></x>"));
+    query(func.args(" //a[1]", " //a[2]"), true);
+    query(func.args(" //a[1]", " //a[3]"), false);
+    query(func.args(" //a[1]/@p", " //a[2]/@p"), true);
+    query(func.args(" //*:b[1]", " //*:b[2]"), false);
+    query(_UTIL_DEEP_EQUAL.args(" //a[1]", " //a[2]", "ALLNODES"), false);
+    query(_UTIL_DEEP_EQUAL.args(" //a[2]", " //a[2] update ()", "ALLNODES"), true);
+
+    // nodes in different database instances
+    final String copy = "copy $c := /x modify (%) return $c";
+    query(func.args(" /x", " " + copy.replace("%", "")), true);
+    query(func.args(" /x", " " + copy.replace("%", "insert node <!--d--> into $c/b")), true);
+    query(func.args(" /x", " " + copy.replace("%", "replace value of node $c/a[2]/@q with 3")),
+        false);
+    query(func.args(" /x", " " + copy.replace("%", "rename node $c/b as 'c'")), false);
+    query(func.args(" /x", " " + copy.replace("%", "insert node <c/> into $c/b")), false);
+    query(func.args(" /x", " " + copy.replace("%", "insert node <c/> after $c/b")), false);
+    execute(new DropDB(NAME));
   }
 
   /** Test method. */
@@ -653,6 +683,11 @@ public final class FnModuleTest extends QueryPlanTest {
 
     query(func.args("a", "", "x", "j"), "xax");
     error(func.args("a", "", "x"), REGROUP);
+
+    query(func.args("a1b22c", "[0-9]+", "-"), "a-b-c");
+    query(func.args("a.b.c", "\\.", "\\\\"), "a\\b\\c");
+    query(func.args("äxö", "x", "$0$0"), "äxxö");
+    query(func.args("a$b", "$", "\\$", "q"), "a\\$b");
   }
 
   /** Test method. */
@@ -760,6 +795,25 @@ public final class FnModuleTest extends QueryPlanTest {
 
     error(func.args(), NOCTX_X);
     error(func.args(" true#0"), FISTRING_X);
+
+    // cached string values of large database nodes
+    final StringBuilder sb = new StringBuilder("<x>");
+    for(int i = 0; i < 100; i++) sb.append("<a>A</a>");
+    execute(new CreateDB(NAME, sb.append("</x>").toString()));
+    query("string-length(" + func.args(" /x") + ')', 100);
+    query("replace value of node /x/a[1] with 'BB'");
+    query("string-length(" + func.args(" /x") + ')', 101);
+    execute(new DropDB(NAME));
+  }
+
+  /** Test method. */
+  @Test public void stringJoin() {
+    final Function func = STRING_JOIN;
+
+    query(func.args(" ()"), "");
+    query(func.args(" (1 to 3)", "-"), "1-2-3");
+    query("string-length(" + func.args(" <a>{ (1 to 1000) ! <b>x</b> }</a>/b") + ')', 1000);
+    query("string-length(" + func.args(" <a>{ (1 to 1000) ! <b>x</b> }</a>/b", ",") + ')', 1999);
   }
 
   /** Test method. */
@@ -904,6 +958,8 @@ public final class FnModuleTest extends QueryPlanTest {
 
     query(func.args(" (1 to 10) ! 1"), 10);
     query(func.args(" (1 to 10) ! 10"), 100);
+    query(func.args(" <a>{ (1 to 1000) ! <b>{ . }</b> }</a>/b"), 500500);
+    query(func.args(" <a>{ (1 to 1000) ! <b>{ . }</b> }</a>/b[. > 500] ! xs:integer(.)"), 375250);
     query(func.args(" (1 to 1000000) ! 1000000"), 1000000000000L);
     query(func.args(" (1 to 10) ! xs:untypedAtomic('10')"), 100);
     error(func.args(" (1 to 10) ! 'a'"), SUM_X_X);
@@ -982,6 +1038,11 @@ public final class FnModuleTest extends QueryPlanTest {
     final Function func = TOKENIZE;
     query(func.args("a", "", "j"), "\na\n");
     error(func.args("a", ""), REGROUP);
+
+    query(func.args("a, b,c", ",\\s*"), "a\nb\nc");
+    query(func.args("a  b ", "\\s+"), "a\nb\n");
+    query(func.args("äxöxü", "x"), "ä\nö\nü");
+    query(func.args("a.b", ".", "q"), "a\nb");
   }
 
   /** Test method. */
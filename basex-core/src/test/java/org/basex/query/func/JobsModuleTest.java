@@ -187,6 +187,8 @@ public final class JobsModuleTest extends SandboxTest {
       query(list + "/@user/string()", UserText.ADMIN);
       query(list + "/@state/string() = ('running', 'queued')", true);
       query(list + "/@duration/string() castable as xs:dayTimeDuration", true);
+      query(list + "/@allocated/string() castable as xs:integer", true);
+      query(list + "/@cpu/string() castable as xs:dayTimeDuration", true);
     } finally {
       query(_JOBS_STOP.args(id));
     }
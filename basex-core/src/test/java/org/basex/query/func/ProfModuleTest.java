@@ -12,6 +12,22 @@ import org.junit.*;
  * @author Christian Gruen
  */
 public final class ProfModuleTest extends SandboxTest {
+  /** Test method. */
+  @Test public void analyze() {
+    final Function func = _PROF_ANALYZE;
+    query(func.args(" ()") + "/name()", "QueryPlan");
+    query(func.args(" for $i in 1 to 10 return <a>{ $i }</a>") + "/GFLWOR/@calls/string()", 1);
+    query(func.args(" for $i in 1 to 10 return <a>{ $i }</a>") + "/GFLWOR/@items/string()", 10);
+    query("declare %basex:inline(0) function local:f($i) { $i * 2 };"
+        + func.args(" for $i in 1 to 5 return local:f($i)")
+        + "//StaticFuncCall/@calls/string()", 5);
+    query("exists(" + func.args(" for $i in 1 to 5 return <a/>") + "//@time)", true);
+    // recursive function with tail calls
+    query("declare function local:f($n) { if($n = 0) then 'x' else local:f($n - 1) };"
+        + func.args(" string-length(local:f(100000))")
+        + "//StaticFuncCall/@items/string()", 1);
+  }
+
   /** Test method. */
   @Test public void memory() {
     final Function func = _PROF_MEMORY;
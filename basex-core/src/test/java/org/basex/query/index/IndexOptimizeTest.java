@@ -4,9 +4,13 @@ import static org.basex.query.func.Function.*;
 
 import org.basex.core.*;
 import org.basex.core.cmd.*;
+import org.basex.query.*;
 import org.basex.query.ast.*;
+import org.basex.query.expr.*;
 import org.basex.query.expr.ft.*;
 import org.basex.query.expr.index.*;
+import org.basex.query.value.item.*;
+import org.basex.query.var.*;
 import org.basex.util.*;
 import org.junit.*;
 import org.junit.Test;
@@ -245,6 +249,66 @@ public final class IndexOptimizeTest extends QueryPlanTest {
     check("let $s := 1 return *[if($s) then () else .//text() = 'A']", "", empty());
   }
 
+  /** Chooses the most selective index access, based on the database statistics. */
+  @Test public void selectivity() {
+    final StringBuilder sb = new StringBuilder("<x>");
+    for(int i = 1; i <= 1000; i++) {
+      sb.append("<item cat='c").append(i % 3).append("' id='v").append(i).append("' price='").
+        append(i).append("'/>");
+    }
+    execute(new CreateDB(NAME, sb.append("</x>").toString()));
+
+    // range index: histogram is more selective than equality comparison
+    check("count(//item[@cat = 'c1'][@price >= 991 and @price <= 999])", 3,
+        exists(RangeAccess.class), empty(ValueAccess.class));
+    // dynamic term: distinct values are more selective than frequent static term
+    check("for $id in ('v1', 'v4') return data(//item[@cat = 'c1'][@id = $id]/@price)", "1\n4",
+        exists(Util.className(ValueAccess.class) + "[" + Util.className(VarRef.class) + "]"));
+    // remaining predicates are ordered by their costs
+    check("count(//item[@price >= 100 and @price <= 999][@cat = 'c0'][@id = 'v999'])", 1,
+        exists(Util.className(ValueAccess.class) + "[Str = 'v999']"),
+        exists(Util.className(CmpR.class) + "/preceding-sibling::*[@op = '=']"));
+  }
+
+  /** Computes aggregates from the database statistics. */
+  @Test public void aggregates() {
+    final StringBuilder sb = new StringBuilder("<x>");
+    for(int i = 1; i <= 1000; i++) {
+      sb.append("<item cat='c").append(i % 3).append("' qty='").append(i % 5 + 1).
+        append("' price='").append(i).append("'><v>").
+        append(i % 10).append("</v></item>");
+    }
+    execute(new CreateDB(NAME, sb.append("<v/></x>").toString()));
+
+    // count: distinct values of attributes
+    check("count(//item[@cat = 'c1'])", 334, root(Int.class));
+    check("count(//item[@cat = 'c3'])", 0, root(Int.class));
+    check("count(//item[@cat = 'c1']/v)", 334, empty(Int.class));
+    check("count(//a[. = '5'])", 0, root(Int.class));
+
+    // min/max: statistics of attributes and texts
+    check("min(//item/@qty)", 1, root(Dbl.class));
+    check("max(//item/@qty)", 5, root(Dbl.class));
+    // too many distinct values: empty attributes cannot be excluded
+    check("max(//item/@price)", 1000, empty(Dbl.class));
+    check("max(//item/v/text())", 9, root(Dbl.class));
+    check("max(//item/v)", 9, root(Dbl.class));
+    // empty element: no statistics
+    error("max(//v)", QueryError.FUNCCAST_X_X);
+    // zero: 0 and -0 are not distinguished by the statistics
+    check("min(//item/v)", 0, empty(Dbl.class));
+
+    // sum/avg: no atomized items
+    query("sum(//item/@price)", 500500);
+    error("avg(//v)", QueryError.FUNCCAST_X_X);
+    query("avg(//item/v)", 4.5);
+    query("sum(//item[0]/@price)", 0);
+    query("sum(//item[0]/@price, ())", "");
+
+    execute(new CreateDB(NAME, "<x><v>-0</v><v>1</v></x>"));
+    check("min(//v)", "-0", empty(Dbl.class));
+  }
+
   /**
    * Creates a test database.
    */
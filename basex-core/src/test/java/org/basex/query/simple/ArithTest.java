@@ -93,4 +93,23 @@ public final class ArithTest extends QueryPlanTest {
     error("for $i in (1, xs:double('NaN')) return $i idiv $i", DIVFLOW_X);
     check("for $i in (2,4) return $i idiv $i", "1\n1", empty(Arith.class), empty(GFLWOR.class));
   }
+
+  /** Test method. */
+  @Test public void decimal() {
+    query("0.1 + 0.2", 0.3);
+    query("1.50 - 0.5", 1);
+    query("-0.25 * 4", -1);
+    query("0.1 * 0.1", 0.01);
+    query("9223372036854775807 + 0.5", "9223372036854775807.5");
+    query("9223372036854775807.0 * 10", "92233720368547758070");
+    query("0.000000000000000001 * 0.1", "0.0000000000000000001");
+    query("sum((1.1, 2.2, 3.3))", 6.6);
+    query("sum(for $i in 1 to 100 return $i * 0.01)", 50.5);
+    query("xs:decimal(' 12.50 ') + 1", 13.5);
+    query("xs:decimal('-1.') = -1", true);
+    query("1.5 = 1.50", true);
+    query("1.5 < 1.55", true);
+    query("count(distinct-values((1.5, 1.50, 3 div 2)))", 1);
+    query("reverse((1.5, 2.5, 3.5)) ! string()", "3.5\n2.5\n1.5");
+  }
 }
@@ -0,0 +1,106 @@
+package org.basex.query.util.regex;
+
+import static org.basex.util.Token.*;
+import static org.junit.Assert.*;
+
+import java.util.regex.*;
+
+import org.basex.query.*;
+import org.basex.query.util.regex.parse.*;
+import org.junit.*;
+
+/**
+ * Tests for regular expressions that are evaluated on UTF-8 tokens.
+ * The results are compared with the ones of the Java regex engine.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class BytePatternTest {
+  /** Supported patterns. */
+  private static final String[] SUPPORTED = {
+    "", "a", "abc", ",", "\\s+", "\\s*,\\s*", "[,;]", "[^,]+", "[a-z]+", "^a", "a$", "^$",
+    "\\n", "x{2,3}", "x{2}y", "a+b", "[ab]+c", "[^a-c]{1,2}", "\\S+", "-", "[-a]",
+    "ä", "äb", "[^\u0000-\u007f]?", "\\.\\*\\$", "[\\s\\n]+\\."
+  };
+  /** Unsupported patterns. */
+  private static final String[] UNSUPPORTED = {
+    ".", "a|b", "(a)", "a+?", "a*a", "\\d", "\\w+", "[a-z-[aeiou]]", "\\p{L}", "a^", "$a",
+    "ä+", "[ä]", "[ab]+b", "a?[ab]", "\\S+\\u00e4"
+  };
+  /** Input strings. */
+  private static final String[] INPUTS = {
+    "", "a", "abc", "a,b;c", " a , b ,c ", "xxxyxxy", "ääbö", "aab abc",
+    "\n.\n.", ".*$", "xä€😀y", "-a-", "ac ab bc", "AAA abc xyz"
+  };
+
+  /**
+   * Checks which patterns are supported.
+   */
+  @Test public void supported() {
+    for(final String regex : SUPPORTED) {
+      assertNotNull(regex, BytePattern.get(token(regex), EMPTY));
+    }
+    for(final String regex : UNSUPPORTED) {
+      assertNull(regex, BytePattern.get(token(regex), EMPTY));
+    }
+    assertNull(BytePattern.get(token("a"), token("i")));
+    assertNull(BytePattern.get(token("a"), token("m")));
+    assertNotNull(BytePattern.get(token(".|("), token("q")));
+  }
+
+  /**
+   * Compares the results of all matches.
+   * @throws QueryException query exception
+   */
+  @Test public void matches() throws QueryException {
+    for(final String regex : SUPPORTED) {
+      compare(regex, "");
+      compare(regex, "s");
+    }
+    for(final String regex : new String[] { ".|(", "a", "äb", "" }) {
+      compare(regex, "q");
+    }
+  }
+
+  /**
+   * Compares the matches of a regular expression with those of the Java regex engine.
+   * @param regex regular expression
+   * @param modifiers modifiers
+   * @throws QueryException query exception
+   */
+  private static void compare(final String regex, final String modifiers)
+      throws QueryException {
+
+    final BytePattern bp = BytePattern.get(token(regex), token(modifiers));
+    final Pattern pattern = RegExParser.parse(token(regex), token(modifiers), null, false);
+    for(final String input : INPUTS) {
+      final Matcher matcher = pattern.matcher(input);
+      final byte[] token = token(input);
+      final int[] range = new int[2];
+      int pos = 0;
+      boolean done = false;
+      final String info = '"' + regex + "\" in \"" + input + '"';
+      while(matcher.find()) {
+        // Java: skip empty matches between surrogates
+        final int start = matcher.start(), end = matcher.end();
+        if(start == end && start < input.length() &&
+            Character.isLowSurrogate(input.charAt(start))) continue;
+
+        assertTrue(info, bp.find(token, pos, range));
+        assertEquals(info, start, string(token, 0, range[0]).length());
+        assertEquals(info, end, string(token, 0, range[1]).length());
+        pos = range[1];
+        // empty match: advance by one character
+        if(range[0] == pos) {
+          if(pos == token.length) {
+            done = true;
+            break;
+          }
+          pos += cl(token, pos);
+        }
+      }
+      if(!done) assertFalse(info, bp.find(token, pos, range));
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package org.basex.query.value.item;
+
+import static org.basex.util.Token.*;
+import static org.junit.Assert.*;
+
+import java.math.*;
+
+import org.basex.query.*;
+import org.junit.*;
+
+/**
+ * Tests for compact decimals. The results are compared with the ones of {@link BigDecimal}.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class DecTest {
+  /** Decimal strings. */
+  private static final String[] DECIMALS = {
+    "0", "1", "-1", "0.5", "-0.5", "1.50", "100", "0.001", "-0.010", "123456789.123456789",
+    "9223372036854775807", "-9223372036854775808", "0.999999999999999999", "1e-18",
+    "99999999999999999.9", "12345678901234567890.5", "0.0000000000000000001", "7.3", "-2.25"
+  };
+
+  /**
+   * Compares the conversions of compact and big decimals.
+   */
+  @Test public void convert() {
+    for(final String string : DECIMALS) {
+      final BigDecimal bd = new BigDecimal(string);
+      final Dec dec = Dec.get(bd);
+      final String info = '"' + string + '"';
+      assertEquals(info, bd.signum() != 0, dec.bool(null));
+      assertEquals(info, bd.longValue(), dec.itr());
+      assertEquals(info, bd.doubleValue(), dec.dbl(), 0);
+      assertEquals(info, bd.floatValue(), dec.flt(), 0);
+      assertEquals(info, 0, bd.compareTo(dec.dec(null)));
+      assertEquals(info, string(chopNumber(token(bd.toPlainString()))), string(dec.string()));
+      assertEquals(info, 0, bd.abs().compareTo(dec.abs().dec(null)));
+    }
+  }
+
+  /**
+   * Compares the arithmetic operations and comparisons of compact and big decimals.
+   * @throws QueryException query exception
+   */
+  @Test public void calc() throws QueryException {
+    for(final String string1 : DECIMALS) {
+      for(final String string2 : DECIMALS) {
+        final BigDecimal bd1 = new BigDecimal(string1), bd2 = new BigDecimal(string2);
+        final Dec dec1 = Dec.get(bd1), dec2 = Dec.get(bd2);
+        final String info = string1 + ", " + string2;
+        check(info, bd1.add(bd2), Dec.add(dec1, dec2, false));
+        check(info, bd1.subtract(bd2), Dec.add(dec1, dec2, true));
+        check(info, bd1.multiply(bd2), Dec.multiply(dec1, dec2));
+        assertEquals(info, bd1.compareTo(bd2), dec1.diff(dec2, null, null));
+        assertEquals(info, bd1.compareTo(bd2) == 0, dec1.equals(dec2));
+      }
+    }
+    check("", new BigDecimal("3.5"), Dec.add(Int.get(3), Dec.get(new BigDecimal("0.5")), false));
+    assertNull(Dec.add(Int.get(Long.MAX_VALUE), Int.get(1), false));
+    assertNull(Dec.multiply(Int.get(Long.MAX_VALUE), Dec.get(new BigDecimal("1.5"))));
+  }
+
+  /**
+   * Parses decimal strings.
+   */
+  @Test public void parse() {
+    for(final String string : new String[] { "1", " -1.5 ", "+.5", "1.", "0012.3400",
+        "999999999999999999", "0.000000000000000001" }) {
+      final Dec dec = Dec.parse(token(string));
+      assertNotNull(string, dec);
+      assertEquals(string, 0, new BigDecimal(string.trim()).compareTo(dec.dec(null)));
+    }
+    for(final String string : new String[] { "", ".", "-", "1e1", "1.2.3", "a", "1 2",
+        "9999999999999999999", "0.0000000000000000001" }) {
+      assertNull(string, Dec.parse(token(string)));
+    }
+  }
+
+  /**
+   * Checks the result of a fast-path operation.
+   * @param info info string
+   * @param expected expected value
+   * @param dec result (can be {@code null})
+   */
+  private static void check(final String info, final BigDecimal expected, final Dec dec) {
+    if(dec != null) {
+      assertEquals(info, 0, expected.compareTo(dec.dec(null)));
+      assertEquals(info, expected.signum() == 0 ? 0 : expected.scale(), dec.dec(null).scale());
+    }
+  }
+}
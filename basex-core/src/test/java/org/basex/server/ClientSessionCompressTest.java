@@ -0,0 +1,31 @@
+package org.basex.server;
+
+import java.io.*;
+
+import org.basex.core.*;
+import org.basex.util.*;
+import org.junit.*;
+
+/**
+ * This class tests the client/server session API with compressed responses and a small
+ * result buffer.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientSessionCompressTest extends ClientSessionTest {
+  /**
+   * Starts the server.
+   * @throws IOException I/O exception
+   */
+  @BeforeClass public static void startServer() throws IOException {
+    Prop.put(StaticOptions.COMPRESSION, Integer.toString(6));
+    Prop.put(StaticOptions.RESULTBUFFER, Integer.toString(1));
+    try {
+      server = createServer();
+    } finally {
+      Prop.put(StaticOptions.COMPRESSION, Integer.toString(0));
+      Prop.put(StaticOptions.RESULTBUFFER, Integer.toString(1024));
+    }
+  }
+}
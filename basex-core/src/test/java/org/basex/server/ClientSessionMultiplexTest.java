@@ -0,0 +1,73 @@
+package org.basex.server;
+
+import static org.basex.core.Text.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.net.*;
+import java.util.*;
+
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.users.*;
+import org.basex.io.in.*;
+import org.basex.io.out.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the client/server session API with multiplexed client connections.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientSessionMultiplexTest extends ClientSessionTest {
+  /**
+   * Starts the server.
+   * @throws IOException I/O exception
+   */
+  @BeforeClass public static void startServer() throws IOException {
+    Prop.put(StaticOptions.MULTIPLEX, Boolean.toString(true));
+    try {
+      server = createServer();
+    } finally {
+      Prop.put(StaticOptions.MULTIPLEX, Boolean.toString(false));
+    }
+  }
+
+  /**
+   * Processes requests while more clients than processing threads send incomplete requests.
+   * @throws IOException I/O exception
+   */
+  @Test(timeout = 60000) public void stalledClients() throws IOException {
+    final int parallel = server.context.soptions.get(StaticOptions.PARALLEL);
+    final ArrayList<Socket> sockets = new ArrayList<>();
+    try {
+      for(int s = 0; s <= parallel; s++) {
+        final Socket socket = new Socket(S_LOCALHOST, DB_PORT);
+        sockets.add(socket);
+        final BufferInput bi = BufferInput.get(socket.getInputStream());
+        final PrintOutput po = PrintOutput.get(socket.getOutputStream());
+        // log in, send incomplete query
+        final String[] realm = Strings.split(bi.readString(), ':');
+        final String code = UserText.ADMIN + ':' + realm[0] + ':' + UserText.ADMIN;
+        po.print(UserText.ADMIN);
+        po.write(0);
+        po.print(Strings.md5(Strings.md5(code) + realm[1]));
+        po.write(0);
+        po.flush();
+        assertEquals(0, bi.read());
+        po.write(ServerCmd.QUERY.code);
+        po.print("1");
+        po.flush();
+      }
+      try(ClientSession cs = createClient()) {
+        assertEquals("1", cs.execute(new XQuery("1")));
+      }
+    } finally {
+      for(final Socket socket : sockets) socket.close();
+    }
+  }
+}
@@ -1,12 +1,21 @@
 package org.basex.server;
 
+import static org.basex.core.Text.*;
 import static org.junit.Assert.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.users.*;
 import org.basex.util.*;
+import org.basex.util.list.*;
 import org.junit.*;
+import org.junit.Test;
 
 /**
  * This class tests the client/server session API.
@@ -16,7 +25,7 @@ import org.junit.*;
  */
 public class ClientSessionTest extends SessionTest {
   /** Server reference. */
-  private static BaseXServer server;
+  static BaseXServer server;
 
   /**
    * Starts the server.
@@ -42,4 +51,182 @@ public class ClientSessionTest extends SessionTest {
       fail(Util.message(ex));
     }
   }
+
+  /**
+   * Runs commands asynchronously.
+   * @throws Exception exception
+   */
+  @Test public void executeAsync() throws Exception {
+    final ClientSession cs = (ClientSession) session;
+    // later requests will be answered first
+    final ArrayList<CompletableFuture<String>> results = new ArrayList<>();
+    final StringList order = new StringList();
+    for(int i = 0; i < 5; i++) {
+      final CompletableFuture<String> result = cs.executeAsync(
+          new XQuery("prof:sleep(" + (5 - i) * 50 + "), " + i));
+      results.add(result.whenComplete((r, ex) -> {
+        synchronized(order) {
+          order.add(r);
+        }
+      }));
+    }
+    for(int i = 0; i < 5; i++) assertEquals(Integer.toString(i), results.get(i).get());
+    assertEquals("4", order.get(0));
+
+    // error
+    try {
+      cs.executeAsync("xquery error()").get();
+      fail("Error expected.");
+    } catch(final ExecutionException ex) {
+      assertTrue(ex.getCause() instanceof BaseXException);
+    }
+
+    // synchronous request waits for pending asynchronous requests
+    final CompletableFuture<String> result = cs.executeAsync("xquery prof:sleep(100), 1");
+    assertEqual("2", session.execute("xquery 2"));
+    assertTrue(result.isDone());
+
+    // dependent action sends synchronous request while another request is pending
+    final CompletableFuture<String> dependent = cs.executeAsync("xquery prof:sleep(100), 1").
+      thenApply(r -> {
+        try {
+          return cs.execute("xquery " + r + " + 1");
+        } catch(final IOException ex) {
+          throw new CompletionException(ex);
+        }
+      });
+    final CompletableFuture<String> pending = cs.executeAsync("xquery prof:sleep(200), 3");
+    assertEqual("2", dependent.get());
+    assertEquals("3", pending.get());
+  }
+
+  /**
+   * Pools sessions.
+   * @throws Exception exception
+   */
+  @Test public void pool() throws Exception {
+    try(ClientPool pool = new ClientPool(S_LOCALHOST, DB_PORT, UserText.ADMIN, UserText.ADMIN,
+        1, 1, 2, 200)) {
+      // session state is reset when a session is returned
+      try(ClientSession cs = pool.session()) {
+        cs.execute(new CreateDB(NAME, "<a/>"));
+        cs.execute("set chop false");
+      }
+      try(ClientSession cs = pool.session()) {
+        assertTrue(cs.execute(new Get(MainOptions.CHOP)).contains("true"));
+        try {
+          cs.execute(new InfoDB());
+          fail("No database expected to be opened.");
+        } catch(final BaseXException ex) {
+          Util.debug(ex);
+        }
+        cs.execute(new DropDB(NAME));
+      }
+      assertTrue(pool.info().contains("Created sessions: 1"));
+
+      // pool is exhausted
+      final ClientSession cs1 = pool.session(), cs2 = pool.session();
+      try {
+        pool.session();
+        fail("Pool is expected to be exhausted.");
+      } catch(final BaseXException ex) {
+        Util.debug(ex);
+      }
+      assertTrue(pool.info().contains("Exhausted requests: 1"));
+
+      // wait for returned session
+      new Thread(() -> {
+        Performance.sleep(50);
+        try {
+          cs1.close();
+        } catch(final IOException ex) {
+          Util.stack(ex);
+        }
+      }).start();
+      try(ClientSession cs = pool.session()) {
+        assertEquals("1", cs.execute(new XQuery("1")));
+      }
+      cs2.close();
+      final String info = pool.info();
+      assertTrue(info.contains("Waiting requests: 1"));
+      // only one idle session is kept open
+      assertTrue(info.contains("Open sessions: 1"));
+    }
+  }
+
+  /**
+   * Returns large results.
+   * @throws IOException I/O exception
+   */
+  @Test public void largeResult() throws IOException {
+    try(ClientSession cs = createClient()) {
+      final String query = "(1 to 100000) ! <a>{ . }</a>";
+      final String result = cs.execute(new XQuery(query));
+      assertTrue(result.endsWith("<a>100000</a>"));
+      assertEquals(result, cs.query(query).execute());
+
+      int c = 0;
+      try(ClientQuery cq = cs.query(query)) {
+        while(cq.more()) {
+          assertEquals("<a>" + ++c + "</a>", cq.next());
+        }
+      }
+      assertEquals(100000, c);
+    }
+  }
+
+  /**
+   * Iterates through results with a server-side cursor.
+   * @throws IOException I/O exception
+   */
+  @Test public void cursor() throws IOException {
+    try(ClientSession cs = createClient()) {
+      // lazy evaluation, batches of the fetch size
+      try(ClientQuery cq = cs.query("(1 to 1000000000) ! string()")) {
+        cq.fetchSize(10);
+        for(int i = 1; i <= 25; i++) {
+          assertTrue(cq.more());
+          assertEquals(Integer.toString(i), cq.next());
+        }
+      }
+      for(final int count : new int[] { 0, 1, 19, 20, 21 }) {
+        try(ClientQuery cq = cs.query("1 to " + count)) {
+          cq.fetchSize(10);
+          int c = 0;
+          while(cq.more()) assertEquals(Integer.toString(++c), cq.next());
+          assertEquals(count, c);
+          // query is evaluated again
+          if(count > 0) assertEquals("1", cq.next());
+        }
+      }
+
+      // cursor becomes invalid after an update
+      cs.execute(new CreateDB(NAME, "<a><b/><b/><b/></a>"));
+      try(ClientQuery cq = cs.query("db:open('" + NAME + "')//b")) {
+        cq.fetchSize(1);
+        assertEquals("<b/>", cq.next());
+        assertEquals("<b/>", cq.next());
+        cs.execute(new XQuery("insert node <b/> into db:open('" + NAME + "')/a"));
+        cq.next();
+        fail("Cursor is expected to be invalid.");
+      } catch(final BaseXException ex) {
+        Util.debug(ex);
+      }
+      cs.execute(new DropDB(NAME));
+
+      // cursor expires
+      server.context.soptions.set(StaticOptions.CURSORTIMEOUT, 1);
+      try(ClientQuery cq = cs.query("1 to 3")) {
+        cq.fetchSize(1);
+        assertEquals("1", cq.next());
+        Performance.sleep(1500);
+        cq.next();
+        fail("Cursor is expected to be expired.");
+      } catch(final BaseXException ex) {
+        Util.debug(ex);
+      } finally {
+        server.context.soptions.set(StaticOptions.CURSORTIMEOUT, 60);
+      }
+    }
+  }
 }
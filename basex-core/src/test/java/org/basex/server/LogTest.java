@@ -0,0 +1,150 @@
+package org.basex.server;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.core.StaticOptions.*;
+import org.basex.core.cmd.*;
+import org.basex.io.*;
+import org.basex.server.Log.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the asynchronous log writer.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class LogTest extends SandboxTest {
+  /** Number of written entries. */
+  private static final int ENTRIES = 10000;
+  /** Database path. */
+  private static final IOFile PATH = new IOFile(sandbox(), "log");
+
+  /** Deletes the log files. */
+  @After public void delete() {
+    PATH.delete();
+  }
+
+  /**
+   * Writes entries in the JSON format.
+   * @throws Exception exception
+   */
+  @Test public void json() throws Exception {
+    final Context ctx = context(LogOverflow.BLOCK, 100);
+    try {
+      for(int e = 0; e < ENTRIES; e++) ctx.log.writeServer(LogType.INFO, "Entry \"" + e + '"');
+      final StringList lines = read(ctx);
+      assertEquals(ENTRIES, lines.size());
+      for(final String line : lines) assertTrue(line, line.startsWith("{\"time\":"));
+      assertEquals(0, ctx.log.dropped());
+
+      final String query = "count(admin:logs('" + today() + "')"
+          + "[. = 'Entry \"1\"'][@type = 'INFO'])";
+      assertEquals("1", new XQuery(query).execute(ctx));
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Drops entries if the buffer is full.
+   * @throws Exception exception
+   */
+  @Test public void drop() throws Exception {
+    final Context ctx = context(LogOverflow.DROP, 1);
+    try {
+      for(int e = 0; e < ENTRIES; e++) ctx.log.writeServer(LogType.ERROR, "Entry");
+      int entries = 0;
+      for(final String line : read(ctx)) {
+        if(!line.contains("entries dropped")) entries++;
+      }
+      assertEquals(ENTRIES, entries + ctx.log.dropped());
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Writes entries synchronously after the log has been closed.
+   * @throws Exception exception
+   */
+  @Test public void close() throws Exception {
+    final Context ctx = context(LogOverflow.BLOCK, 1);
+    try {
+      ctx.log.writeServer(LogType.INFO, "Entry");
+      ctx.log.close();
+      ctx.log.writeServer(LogType.INFO, "Entry");
+      assertEquals(2, read(ctx).size());
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Writes all entries that are added while the log is closed.
+   * @throws Exception exception
+   */
+  @Test public void closeConcurrent() throws Exception {
+    final Context ctx = context(LogOverflow.BLOCK, 16);
+    try {
+      final int threads = 4;
+      final ArrayList<Thread> list = new ArrayList<>();
+      for(int t = 0; t < threads; t++) {
+        final Thread thread = new Thread(() -> {
+          for(int e = 0; e < ENTRIES; e++) ctx.log.writeServer(LogType.INFO, "Entry");
+        });
+        thread.start();
+        list.add(thread);
+      }
+      Performance.sleep(10);
+      ctx.log.close();
+      for(final Thread thread : list) thread.join();
+      assertEquals(threads * ENTRIES, read(ctx).size());
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Creates a database context with a log buffer.
+   * @param overflow handling of full buffers
+   * @param buffer buffer size
+   * @return context
+   */
+  private static Context context(final LogOverflow overflow, final int buffer) {
+    final StaticOptions sopts = new StaticOptions(false);
+    PATH.md();
+    sopts.set(StaticOptions.DBPATH, PATH.path());
+    sopts.set(StaticOptions.LOGBUFFER, buffer);
+    sopts.set(StaticOptions.LOGOVERFLOW, overflow);
+    sopts.set(StaticOptions.LOGFORMAT, LogFormat.JSON);
+    return new Context(sopts);
+  }
+
+  /**
+   * Returns the entries of the current log file.
+   * @param ctx database context
+   * @return entries
+   * @throws Exception exception
+   */
+  private static StringList read(final Context ctx) throws Exception {
+    final LogFile file = ctx.log.file(today());
+    assertNotNull(file);
+    return file.read();
+  }
+
+  /**
+   * Returns the name of the current log file.
+   * @return name
+   */
+  private static String today() {
+    return DateTime.format(new Date(), DateTime.DATE);
+  }
+}
@@ -0,0 +1,174 @@
+package org.basex.server;
+
+import static org.basex.core.Text.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.basex.*;
+import org.basex.api.client.*;
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.users.*;
+import org.basex.io.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests the replication of databases between two server instances.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class ReplicaTest extends SandboxTest {
+  /** Port of replica server. */
+  private static final int REPLICA_PORT = DB_PORT - 1;
+  /** Database path of replica server. */
+  private static final IOFile REPLICA_PATH = new IOFile(Prop.TEMPDIR, NAME + "-replica/");
+  /** Maximum time to wait for replicated changes (ms). */
+  private static final long WAIT = 10000;
+
+  /** Primary server. */
+  private static BaseXServer primary;
+  /** Replica server. */
+  private static BaseXServer replica;
+
+  /**
+   * Starts the servers.
+   * @throws IOException I/O exception
+   */
+  @BeforeClass public static void start() throws IOException {
+    primary = createServer();
+    final StaticOptions sopts = new StaticOptions(false);
+    sopts.set(StaticOptions.DBPATH, REPLICA_PATH.path());
+    sopts.set(StaticOptions.REPLICATE, S_LOCALHOST + ':' + DB_PORT);
+    sopts.set(StaticOptions.USER, UserText.ADMIN);
+    sopts.set(StaticOptions.PASSWORD, UserText.ADMIN);
+    replica = new BaseXServer(new Context(sopts), "-z", "-p" + REPLICA_PORT, "-q");
+  }
+
+  /**
+   * Stops the servers.
+   */
+  @AfterClass public static void stop() {
+    stopServer(replica);
+    stopServer(primary);
+    REPLICA_PATH.delete();
+  }
+
+  /**
+   * Replicates created, updated and dropped databases.
+   * @throws IOException I/O exception
+   */
+  @Test public void replicate() throws IOException {
+    try(ClientSession cs = createClient();
+        ClientSession rs = new ClientSession(S_LOCALHOST, REPLICA_PORT, UserText.ADMIN,
+            UserText.ADMIN)) {
+      cs.execute(new CreateDB(NAME, "<a/>"));
+      await(rs, "count(db:open('" + NAME + "')/a)", "1");
+
+      cs.execute(new XQuery("insert node <b/> into db:open('" + NAME + "')/a"));
+      await(rs, "count(db:open('" + NAME + "')//b)", "1");
+
+      cs.execute(new Open(NAME));
+      cs.execute(new Add("doc.xml", "<c/>"));
+      cs.execute(new Close());
+      await(rs, "count(db:open('" + NAME + "'))", "2");
+
+      cs.execute(new DropDB(NAME));
+      await(rs, "db:exists('" + NAME + "')", "false");
+    }
+  }
+
+  /**
+   * Applies the changes of other databases while a database is pinned on the replica.
+   * @throws IOException I/O exception
+   */
+  @Test public void pinned() throws IOException {
+    try(ClientSession cs = createClient();
+        ClientSession rs = new ClientSession(S_LOCALHOST, REPLICA_PORT, UserText.ADMIN,
+            UserText.ADMIN)) {
+      cs.execute(new CreateDB(NAME, "<a/>"));
+      cs.execute(new CreateDB(NAME + '2', "<a/>"));
+      await(rs, "count(db:open('" + NAME + "2')/a)", "1");
+
+      // pin database on the replica
+      rs.execute(new Open(NAME));
+      cs.execute(new XQuery("insert node <b/> into db:open('" + NAME + "')/a"));
+      cs.execute(new XQuery("insert node <b/> into db:open('" + NAME + "2')/a"));
+      await(rs, "count(db:open('" + NAME + "2')//b)", "1");
+      assertEquals("0", rs.query("count(db:open('" + NAME + "')//b)").execute());
+
+      // apply changes after the database has been released
+      rs.execute(new Close());
+      await(rs, "count(db:open('" + NAME + "')//b)", "1");
+
+      cs.execute(new DropDB(NAME));
+      cs.execute(new DropDB(NAME + '2'));
+      await(rs, "db:exists('" + NAME + "2')", "false");
+      await(rs, "db:exists('" + NAME + "')", "false");
+    }
+  }
+
+  /**
+   * Rejects updates on the replica.
+   * @throws IOException I/O exception
+   */
+  @Test public void readOnly() throws IOException {
+    try(ClientSession cs = createClient();
+        ClientSession rs = new ClientSession(S_LOCALHOST, REPLICA_PORT, UserText.ADMIN,
+            UserText.ADMIN)) {
+      cs.execute(new CreateDB(NAME, "<a/>"));
+      await(rs, "count(db:open('" + NAME + "')/a)", "1");
+
+      try {
+        rs.execute(new CreateDB(NAME + '2'));
+        fail("Database was created on the replica.");
+      } catch(final BaseXException ex) {
+        Util.debug(ex);
+      }
+      try {
+        rs.execute(new XQuery("delete node db:open('" + NAME + "')/a"));
+        fail("Database was updated on the replica.");
+      } catch(final BaseXException ex) {
+        Util.debug(ex);
+      }
+      try {
+        rs.query("delete node db:open('" + NAME + "')/a").execute();
+        fail("Database was updated on the replica.");
+      } catch(final BaseXException ex) {
+        Util.debug(ex);
+      }
+      // features that are not updating remain available
+      assertEquals("true", rs.query("exists(file:list('.'))").execute());
+      assertEquals("1", rs.query("count(db:open('" + NAME + "')/a)").execute());
+      cs.execute(new DropDB(NAME));
+      await(rs, "db:exists('" + NAME + "')", "false");
+    }
+  }
+
+  /**
+   * Waits until a query on the replica returns the expected result.
+   * Errors are ignored, as databases may not have been replicated yet.
+   * @param session replica session
+   * @param query query
+   * @param expected expected result
+   * @throws IOException I/O exception
+   */
+  private static void await(final ClientSession session, final String query,
+      final String expected) throws IOException {
+    final long end = System.currentTimeMillis() + WAIT;
+    String result;
+    while(true) {
+      try {
+        result = session.query(query).execute();
+      } catch(final BaseXException ex) {
+        result = ex.getMessage();
+      }
+      if(result.equals(expected)) return;
+      if(System.currentTimeMillis() > end) fail("Replica returned '" + result + "' for " + query);
+      Performance.sleep(50);
+    }
+  }
+}
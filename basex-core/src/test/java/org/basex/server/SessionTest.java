@@ -11,6 +11,7 @@ import org.basex.api.client.*;
 import org.basex.api.dom.*;
 import org.basex.core.*;
 import org.basex.core.cmd.*;
+import org.basex.io.*;
 import org.basex.io.in.*;
 import org.basex.io.out.*;
 import org.basex.io.serial.*;
@@ -354,6 +355,65 @@ public abstract class SessionTest extends SandboxTest {
     }
   }
 
+  /** Evaluates a prepared query repeatedly.
+   * @throws IOException I/O exception */
+  @Test public void queryPrepared() throws IOException {
+    session.execute(new Set(MainOptions.PREPARED, true));
+    session.execute(new CreateDB(NAME, "<x><a>1</a><a>2</a></x>"));
+    try(Query query = session.query("declare variable $a external; " +
+        _DB_OPEN.args(NAME) + "//a[. = $a]")) {
+      for(int i = 0; i < 6; i++) {
+        final int n = i % 2 + 1;
+        query.bind("a", Integer.toString(n));
+        assertEqual("<a>" + n + "</a>", query.execute());
+      }
+      // bindings are kept
+      assertEqual("<a>2</a>", query.execute());
+      // different type: query is compiled again
+      query.bind("a", "1", "xs:integer");
+      assertEqual("<a>1</a>", query.execute());
+      query.bind("a", "1\u00012", "xs:integer");
+      assertEqual("<a>1</a>\n<a>2</a>", query.execute());
+      // modified database: query is compiled again
+      session.execute(new XQuery(_DB_ADD.args(NAME, " <a>3</a>", "a.xml")));
+      query.bind("a", "3");
+      assertEqual("<a>3</a>", query.execute());
+      // different context
+      query.context("<a>3</a>", "element()");
+      assertEqual("<a>3</a>", query.execute());
+    }
+    try(Query query = session.query("declare variable $a external; "
+        + "declare variable $b := $a; $b")) {
+      query.bind("a", "1");
+      assertEqual("1", query.execute());
+      query.bind("a", "2");
+      assertEqual("2", query.execute());
+    }
+    // current date and time are evaluated again
+    try(Query query = session.query(CURRENT_DATETIME.args())) {
+      final String dtm = result(query.execute());
+      Performance.sleep(10);
+      assertNotEquals(dtm, result(query.execute()));
+    }
+    // documents are parsed again
+    final IOFile file = new IOFile(sandbox(), NAME + ".xml");
+    file.write("<a>1</a>");
+    try(Query query = session.query(DOC.args(file.path()) + "/a/text()")) {
+      assertEqual("1", query.execute());
+      file.write("<a>2</a>");
+      assertEqual("2", query.execute());
+    }
+    try(Query query = session.query("declare variable $a external; "
+        + "declare %basex:memoize function local:f($x) { $x + $a }; local:f(1)")) {
+      for(int i = 0; i < 3; i++) {
+        query.bind("a", Integer.toString(i), "xs:integer");
+        assertEqual(Integer.toString(i + 1), query.execute());
+      }
+    } finally {
+      session.execute(new Set(MainOptions.PREPARED, false));
+    }
+  }
+
   /** Runs a query with an external variable declaration.
    * @throws IOException exception
    */
@@ -623,14 +683,23 @@ public abstract class SessionTest extends SandboxTest {
     assertEqual("map{\"a\":\"&amp;\"}", query.next());
   }
 
+  /**
+   * Returns the most recent output.
+   * @param rtrn string returned from the client API
+   * @return output
+   */
+  private String result(final String rtrn) {
+    final String result = (out != null ? out : rtrn).toString();
+    if(out != null) out.reset();
+    return normNL(result);
+  }
+
   /**
    * Checks if the most recent output equals the specified string.
    * @param exp expected string
    * @param rtrn string returned from the client API
    */
   protected void assertEqual(final String exp, final String rtrn) {
-    final String result = (out != null ? out : rtrn).toString();
-    if(out != null) out.reset();
-    assertEquals(exp, normNL(result));
+    assertEquals(exp, result(rtrn));
   }
 }
@@ -0,0 +1,75 @@
+package org.basex.util;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+/**
+ * Tests for {@link IntBitmap}. The results are compared with the ones of {@link TreeSet}.
+ *
+ * @author BaseX Team 2005-19, BSD License
+ * @author Christian Gruen
+ */
+public final class IntBitmapTest {
+  /** Random number generator. */
+  private static final Random RANDOM = new Random(42);
+
+  /** Test method. */
+  @Test public void get() {
+    assertEquals(0, IntBitmap.get().cardinality());
+    final IntBitmap bm = IntBitmap.get(0, 1, 65535, 65536, 1 << 20, Integer.MAX_VALUE);
+    assertEquals(6, bm.cardinality());
+    assertTrue(bm.contains(65535));
+    assertTrue(bm.contains(Integer.MAX_VALUE));
+    assertFalse(bm.contains(2));
+    assertArrayEquals(new int[] { 0, 1, 65535, 65536, 1 << 20, Integer.MAX_VALUE }, bm.toArray());
+  }
+
+  /** Compares set operations on sparse and dense values. */
+  @Test public void operations() {
+    for(final int range : new int[] { 100, 10000, 200000 }) {
+      for(final int count : new int[] { 0, 10, 3000, 5000, 60000 }) {
+        final TreeSet<Integer> set1 = values(count, range), set2 = values(count / 2, range);
+        final IntBitmap bm1 = IntBitmap.get(array(set1)), bm2 = IntBitmap.get(array(set2));
+        assertArrayEquals(array(set1), bm1.toArray());
+
+        final TreeSet<Integer> or = new TreeSet<>(set1), and = new TreeSet<>(set1);
+        final TreeSet<Integer> andNot = new TreeSet<>(set1), notAnd = new TreeSet<>(set2);
+        or.addAll(set2);
+        and.retainAll(set2);
+        andNot.removeAll(set2);
+        notAnd.removeAll(set1);
+        assertArrayEquals(array(or), bm1.or(bm2).toArray());
+        assertArrayEquals(array(or), bm2.or(bm1).toArray());
+        assertArrayEquals(array(and), bm1.and(bm2).toArray());
+        assertArrayEquals(array(and), bm2.and(bm1).toArray());
+        assertArrayEquals(array(andNot), bm1.andNot(bm2).toArray());
+        assertArrayEquals(array(notAnd), bm2.andNot(bm1).toArray());
+        assertEquals(and.size(), bm1.and(bm2).cardinality());
+      }
+    }
+  }
+
+  /**
+   * Returns random values.
+   * @param count maximum number of values
+   * @param range range of values
+   * @return values
+   */
+  private static TreeSet<Integer> values(final int count, final int range) {
+    final TreeSet<Integer> set = new TreeSet<>();
+    for(int c = 0; c < count; c++) set.add(RANDOM.nextInt(range));
+    return set;
+  }
+
+  /**
+   * Converts a set to an array.
+   * @param set set
+   * @return array
+   */
+  private static int[] array(final TreeSet<Integer> set) {
+    return set.stream().mapToInt(Integer::intValue).toArray();
+  }
+}